@@ -0,0 +1,235 @@
+package com.covolt.backend.core.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiPredicate;
+
+/**
+ * Boyutu sınırlı, girdi bazında son kullanma zamanı olan, kilit şeritli (lock-striped) bellek içi önbellek.
+ * <p>
+ * Anahtarlar hash'lerine göre segmentlere dağıtılır; her segment kendi kilidi altında erişim sırasına göre
+ * tutulan bir LinkedHashMap'tir. Böylece aynı anda gelen istekler tek bir global kilit için yarışmaz.
+ * Segment doluysa en uzun süredir erişilmeyen girdi (LRU) atılır. Süresi dolan girdiler okuma sırasında
+ * veya {@link #cleanUp()} çağrıldığında temizlenir.
+ *
+ * @param <K> Anahtar tipi
+ * @param <V> Değer tipi
+ */
+public class BoundedExpiringCache<K, V> {
+
+    private final Segment<K, V>[] segments;
+    private final int segmentMask;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder expirationCount = new LongAdder();
+
+    /**
+     * @param maximumSize      Önbellekte tutulacak en fazla girdi sayısı (yaklaşık, segmentlere bölünür)
+     * @param concurrencyLevel Segment sayısı; 2'nin kuvvetine yuvarlanır
+     */
+    @SuppressWarnings("unchecked")
+    public BoundedExpiringCache(int maximumSize, int concurrencyLevel) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize pozitif olmalıdır: " + maximumSize);
+        }
+        int segmentCount = 1;
+        while (segmentCount < Math.max(1, concurrencyLevel) && segmentCount < maximumSize) {
+            segmentCount <<= 1;
+        }
+        int perSegmentCapacity = Math.max(1, (maximumSize + segmentCount - 1) / segmentCount);
+
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(perSegmentCapacity, evictionCount);
+        }
+        this.segmentMask = segmentCount - 1;
+    }
+
+    /**
+     * Anahtara karşılık gelen, süresi dolmamış değeri döner; yoksa null.
+     */
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        long now = System.currentTimeMillis();
+        segment.lock.lock();
+        try {
+            Entry<V> entry = segment.map.get(key);
+            if (entry == null) {
+                missCount.increment();
+                return null;
+            }
+            if (entry.expiresAtMillis <= now) {
+                segment.map.remove(key);
+                expirationCount.increment();
+                missCount.increment();
+                return null;
+            }
+            hitCount.increment();
+            return entry.value;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Değeri verilen mutlak son kullanma zamanına (epoch millis) kadar geçerli olacak şekilde ekler.
+     */
+    public void put(K key, V value, long expiresAtMillis) {
+        if (key == null || value == null) {
+            return;
+        }
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            segment.map.put(key, new Entry<>(value, expiresAtMillis));
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        if (key == null) {
+            return;
+        }
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            segment.map.remove(key);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Koşulu sağlayan tüm girdileri siler.
+     *
+     * @return Silinen girdi sayısı
+     */
+    public int invalidateIf(BiPredicate<? super K, ? super V> predicate) {
+        int removed = 0;
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                Iterator<Map.Entry<K, Entry<V>>> it = segment.map.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<K, Entry<V>> e = it.next();
+                    if (predicate.test(e.getKey(), e.getValue().value)) {
+                        it.remove();
+                        removed++;
+                    }
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return removed;
+    }
+
+    public void invalidateAll() {
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.map.clear();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Süresi dolmuş girdileri temizler. Zamanlanmış görevlerden çağrılabilir.
+     *
+     * @return Temizlenen girdi sayısı
+     */
+    public int cleanUp() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                Iterator<Entry<V>> it = segment.map.values().iterator();
+                while (it.hasNext()) {
+                    if (it.next().expiresAtMillis <= now) {
+                        it.remove();
+                        removed++;
+                    }
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        expirationCount.add(removed);
+        return removed;
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.map.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    /** Kapasite aşıldığı için atılan girdi sayısı. */
+    public long evictionCount() {
+        return evictionCount.sum();
+    }
+
+    /** Süresi dolduğu için temizlenen girdi sayısı. */
+    public long expirationCount() {
+        return expirationCount.sum();
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16); // Yüksek bitleri de dağılıma kat
+        return segments[h & segmentMask];
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAtMillis;
+
+        private Entry(V value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private static final class Segment<K, V> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<K, Entry<V>> map;
+
+        private Segment(int capacity, LongAdder evictionCount) {
+            // accessOrder = true: get() çağrıları girdiyi sona taşır, böylece en eski girdi LRU olur.
+            this.map = new LinkedHashMap<>(Math.min(capacity, 1024), 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    if (size() > capacity) {
+                        evictionCount.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.covolt.backend.core.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring Boot'un open-in-view davranışını login hariç tüm endpoint'ler için korur
+ * ({@code spring.jpa.open-in-view=false} ile varsayılan interceptor kapatılır).
+ * <p>
+ * Open-in-view açıkken istek içinde alınan JDBC bağlantısı istek bitene kadar tutulur. Login'de kullanıcı
+ * okunduktan sonra şifre doğrulaması {@code PasswordHashExecutor} kuyruğunda saniyelerce bekleyebildiği için,
+ * yoğun login trafiği bağlantı havuzunu tüketip diğer tüm endpoint'leri bekletirdi. Login yalnızca kısa
+ * transaction'lar kullanır ve lazy ilişkiye ihtiyaç duymaz.
+ */
+@Configuration
+public class OpenEntityManagerInViewConfig implements WebMvcConfigurer {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public OpenEntityManagerInViewConfig(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+        interceptor.setEntityManagerFactory(entityManagerFactory);
+        registry.addWebRequestInterceptor(interceptor).excludePathPatterns("/api/auth/login");
+    }
+}
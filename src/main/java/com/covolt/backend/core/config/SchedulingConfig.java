@@ -0,0 +1,12 @@
+package com.covolt.backend.core.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * @Scheduled ile işaretlenmiş periyodik görevleri (önbellek temizliği vb.) etkinleştirir.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
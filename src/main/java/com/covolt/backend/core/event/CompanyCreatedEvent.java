@@ -0,0 +1,18 @@
+package com.covolt.backend.core.event;
+
+import com.covolt.backend.core.model.enums.CompanyStatus;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Yeni bir firma oluşturulduğunda yayınlanır (kayıt veya platform admin tarafından).
+ */
+@Getter
+@RequiredArgsConstructor
+public class CompanyCreatedEvent {
+
+    private final UUID companyId;
+    private final CompanyStatus status;
+}
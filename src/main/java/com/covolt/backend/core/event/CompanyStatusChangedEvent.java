@@ -0,0 +1,19 @@
+package com.covolt.backend.core.event;
+
+import com.covolt.backend.core.model.enums.CompanyStatus;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Firmanın statüsü değiştiğinde yayınlanır.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CompanyStatusChangedEvent {
+
+    private final UUID companyId;
+    private final CompanyStatus previousStatus;
+    private final CompanyStatus newStatus;
+}
@@ -0,0 +1,21 @@
+package com.covolt.backend.core.event;
+
+import com.covolt.backend.core.model.enums.UserSubscriptionStatus;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Bir abonelik kaydı oluşturulduğunda veya statüsü değiştiğinde yayınlanır.
+ * Yeni oluşturulan kayıtlar için previousStatus null'dır.
+ */
+@Getter
+@RequiredArgsConstructor
+public class SubscriptionStatusChangedEvent {
+
+    private final UUID companyId;
+    private final UUID subscriptionId;
+    private final UserSubscriptionStatus previousStatus;
+    private final UserSubscriptionStatus newStatus;
+}
@@ -0,0 +1,17 @@
+package com.covolt.backend.core.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Yeni bir kullanıcı kaydı oluşturulduğunda yayınlanır.
+ */
+@Getter
+@RequiredArgsConstructor
+public class UserCreatedEvent {
+
+    private final UUID userId;
+    private final UUID companyId;
+}
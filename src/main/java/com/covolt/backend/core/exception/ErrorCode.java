@@ -11,6 +11,8 @@ public enum ErrorCode {
     SYS_002("İstek formatı geçersiz veya beklenmeyen bir yapıya sahip."),
     SYS_003("Yapılandırma hatası: Gerekli bir sistem parametresi eksik veya yanlış."),
     SYS_004("Dış servislerle iletişimde bir sorun oluştu: %s."),
+    SYS_005("Sistem şu anda yoğun: %s kuyruğu dolu. Lütfen daha sonra tekrar deneyin."),
+    SYS_006("%s gönderim sınırı aşıldı. Lütfen %d saniye sonra tekrar deneyin."),
 
     // --- Kaynak Yönetimi Hataları (RES_xxx) ---
     RES_001("Aranan kaynak bulunamadı: %s (ID: %s)."),
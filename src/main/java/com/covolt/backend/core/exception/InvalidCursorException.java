@@ -0,0 +1,13 @@
+package com.covolt.backend.core.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Sayfalama cursor'ı (continuation token) çözümlenemediğinde fırlatılır.
+ */
+public class InvalidCursorException extends BaseApplicationException {
+
+    public InvalidCursorException(Throwable cause) {
+        super(cause, ErrorCode.VAL_003, HttpStatus.BAD_REQUEST, "cursor");
+    }
+}
@@ -0,0 +1,13 @@
+package com.covolt.backend.core.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Akış halinde gönderilen toplu e-posta alıcı listesi okunamadığında (başlık eksik, kayıt çok uzun vb.) fırlatılır.
+ */
+public class InvalidRecipientStreamException extends BaseApplicationException {
+
+    public InvalidRecipientStreamException(String detail) {
+        super(ErrorCode.VAL_003.formatMessage("recipients") + " " + detail, ErrorCode.VAL_003, HttpStatus.BAD_REQUEST, "recipients");
+    }
+}
@@ -0,0 +1,19 @@
+package com.covolt.backend.core.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Bir e-posta adresi veya IP adresi için izin verilen başarısız login denemesi sayısı aşıldığında,
+ * kimlik doğrulama denenmeden fırlatılır.
+ */
+@Getter
+public class LoginThrottledException extends BaseApplicationException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(long retryAfterSeconds) {
+        super(ErrorCode.AUTH_008, HttpStatus.TOO_MANY_REQUESTS);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
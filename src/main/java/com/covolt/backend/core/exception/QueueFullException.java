@@ -0,0 +1,13 @@
+package com.covolt.backend.core.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Bir iş kuyruğu kapasitesine ulaştığında ve bekleme süresi içinde yer açılmadığında fırlatılır.
+ */
+public class QueueFullException extends BaseApplicationException {
+
+    public QueueFullException(String queueName) {
+        super(ErrorCode.SYS_005, HttpStatus.SERVICE_UNAVAILABLE, queueName);
+    }
+}
@@ -0,0 +1,19 @@
+package com.covolt.backend.core.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Bir gönderim sınırı (ör. e-posta hız sınırı) aşıldığında ve isteği bekletmek yerine hemen reddetmek
+ * gerektiğinde fırlatılır. Yanıt HTTP 429 ve Retry-After başlığıyla döner.
+ */
+@Getter
+public class RateLimitExceededException extends BaseApplicationException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String limitName, long retryAfterSeconds) {
+        super(ErrorCode.SYS_006, HttpStatus.TOO_MANY_REQUESTS, limitName, retryAfterSeconds);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -24,10 +24,10 @@ public abstract class BaseEntity {
     @Column(nullable = false, updatable = false)
     private UUID id;
 
-    @Column(nullable = false, updatable = false)
+    @Column(name = "created_at", nullable = false, updatable = false) // Keyset sayfalama index'lerinde bu adla referans veriliyor
     private LocalDateTime createdAt;
 
-    @Column(nullable = false)
+    @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
     // Varsayılan Constructor
@@ -0,0 +1,82 @@
+package com.covolt.backend.core.model;
+
+import com.covolt.backend.features.email.enums.EmailPriority;
+import com.covolt.backend.features.email.enums.EmailType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Toplu e-posta gönderiminin özet kaydı. Tekil e-postalar {@link EmailLog#getBulkEmailId()} ile bu kayda bağlanır.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "bulk_email_logs", indexes = {
+        @Index(name = "idx_bulk_email_logs_bulk_email_id", columnList = "bulk_email_id", unique = true),
+        @Index(name = "idx_bulk_email_logs_campaign_created", columnList = "campaign_id, created_at")
+})
+public class BulkEmailLog extends BaseEntity {
+
+    @Column(name = "bulk_email_id", nullable = false, length = 36)
+    private String bulkEmailId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 50)
+    private EmailType emailType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private EmailPriority priority;
+
+    @Column(name = "campaign_id")
+    private String campaignId;
+
+    private String campaignName;
+
+    private LocalDateTime scheduledAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+
+    private int totalRecipients;
+    private int processedCount;
+    private int successCount;
+    private int failedCount;
+    private int pendingCount;
+
+    // Sadece izleme yazıcısının toplu UPDATE sorgusuyla artırılır
+    @Column(updatable = false)
+    private int openCount;
+
+    @Column(updatable = false)
+    private int clickCount;
+
+    private int batchSize;
+    private int totalBatches;
+    private int completedBatches;
+    private long batchDelayMs;
+
+    @Column(length = 36)
+    private String userId;
+
+    @Column(length = 36)
+    private String companyId;
+
+    private long totalProcessingTimeMs;
+
+    @Column(columnDefinition = "TEXT")
+    private String notes;
+
+    @Override
+    protected void onCreate() {
+        LocalDateTime originalCreatedAt = getCreatedAt();
+        super.onCreate();
+        if (originalCreatedAt != null) {
+            setCreatedAt(originalCreatedAt);
+        }
+    }
+}
@@ -18,7 +18,8 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Table(name = "companies", indexes = { // Arama performansı için indexler
-        @Index(name = "idx_companies_name", columnList = "name") // Firma adı genellikle benzersiz olmalı
+        @Index(name = "idx_companies_name", columnList = "name"), // Firma adı genellikle benzersiz olmalı
+        @Index(name = "idx_companies_created_at_id", columnList = "created_at, id") // Keyset (cursor) sayfalama sırası
 })
 public class Company extends BaseEntity { // BaseEntity'den miras alıyor (id, createdAt, updatedAt, version)
 
@@ -53,6 +53,15 @@ public class CompanySubscription extends BaseEntity { // BaseEntity id, createdA
         return UserSubscriptionStatus.ACTIVE.equals(status) && (endDate == null || endDate.isAfter(Instant.now()));
     }
 
+    // hasActiveAccess() ile aynı kural; entity yüklenmeden okunan alanlar (projection) için
+    public static boolean hasActiveAccess(UserSubscriptionStatus status, Instant trialEndDate, Instant endDate) {
+        Instant now = Instant.now();
+        if (UserSubscriptionStatus.TRIAL.equals(status)) {
+            return trialEndDate != null && trialEndDate.isAfter(now);
+        }
+        return UserSubscriptionStatus.ACTIVE.equals(status) && (endDate == null || endDate.isAfter(now));
+    }
+
     public boolean hasActiveAccess() { // Sistemin sunduğu özelliklere erişebilir mi?
         return isTrialActive() || isActiveSubscription();
         // Belki CANCELED durumunda da dönem sonuna kadar aktif kalması gerekenler için
@@ -0,0 +1,118 @@
+package com.covolt.backend.core.model;
+
+import com.covolt.backend.features.email.enums.EmailPriority;
+import com.covolt.backend.features.email.enums.EmailStatus;
+import com.covolt.backend.features.email.enums.EmailType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Gönderilen (veya gönderilmeye çalışılan) her e-postanın kalıcı kaydı.
+ * Sorgu ekranları kullanıcı, firma, tür, tarih ve toplu gönderim bazında sayfalı okuma yaptığı için
+ * bu kolonlar created_at ile birlikte index'lenir.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "email_logs", indexes = {
+        @Index(name = "idx_email_logs_email_id", columnList = "email_id", unique = true),
+        @Index(name = "idx_email_logs_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_email_logs_company_created", columnList = "company_id, created_at"),
+        @Index(name = "idx_email_logs_type_created", columnList = "email_type, created_at"),
+        @Index(name = "idx_email_logs_created_at", columnList = "created_at"),
+        @Index(name = "idx_email_logs_bulk_email_id", columnList = "bulk_email_id"),
+        @Index(name = "idx_email_logs_status_created", columnList = "status, created_at")
+})
+public class EmailLog extends BaseEntity {
+
+    @Column(name = "email_id", nullable = false, length = 36)
+    private String emailId; // Dışarıya verilen e-posta ID'si
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "email_type", nullable = false, length = 50)
+    private EmailType emailType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EmailStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private EmailPriority priority;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(columnDefinition = "TEXT")
+    private String cc; // Virgülle ayrılmış adresler
+
+    @Column(columnDefinition = "TEXT")
+    private String bcc;
+
+    private String subject;
+
+    private String templatePath;
+
+    private LocalDateTime scheduledAt;
+    private LocalDateTime sentAt;
+    private LocalDateTime deliveredAt;
+
+    private boolean trackOpens;
+    private boolean trackClicks;
+    // Sadece izleme yazıcısının toplu UPDATE sorgusuyla artırılır; kayıt güncellemeleri bu değerleri ezmez
+    @Column(updatable = false)
+    private int openCount;
+
+    @Column(updatable = false)
+    private int clickCount;
+
+    private int retryCount;
+    private int maxRetries;
+    private LocalDateTime nextRetryAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(length = 50)
+    private String errorCode;
+
+    @Column(name = "user_id", length = 36)
+    private String userId;
+
+    @Column(name = "company_id", length = 36)
+    private String companyId;
+
+    private String referenceId;
+    private String referenceType;
+
+    private String fromName;
+    private String fromEmail;
+
+    @Column(columnDefinition = "TEXT")
+    private String notes;
+
+    @Column(name = "bulk_email_id", length = 36)
+    private String bulkEmailId; // Toplu gönderimin parçasıysa
+
+    private long processingTimeMs;
+
+    @Column(columnDefinition = "TEXT")
+    private String payload; // Kuyruktaki e-postanın JSON isteği; gönderim tamamlanınca temizlenir
+
+    /**
+     * Kayıt, e-posta oluşturulduktan bir süre sonra toplu olarak yazılır; gerçek oluşturulma zamanı korunur.
+     */
+    @Override
+    protected void onCreate() {
+        LocalDateTime originalCreatedAt = getCreatedAt();
+        super.onCreate();
+        if (originalCreatedAt != null) {
+            setCreatedAt(originalCreatedAt);
+        }
+    }
+}
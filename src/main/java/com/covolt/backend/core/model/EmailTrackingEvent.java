@@ -0,0 +1,47 @@
+package com.covolt.backend.core.model;
+
+import com.covolt.backend.features.email.enums.TrackingEventType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * E-posta açılma / bağlantı tıklama kaydı. Saklama süresi dolan kayıtlar event_date üzerinden
+ * gün gün (bölüm mantığıyla) silinir.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "email_tracking_events", indexes = {
+        @Index(name = "idx_email_tracking_events_email_id", columnList = "email_id"),
+        @Index(name = "idx_email_tracking_events_bulk_email_id", columnList = "bulk_email_id"),
+        @Index(name = "idx_email_tracking_events_event_date", columnList = "event_date")
+})
+public class EmailTrackingEvent extends BaseEntity {
+
+    @Column(name = "email_id", nullable = false, length = 36)
+    private String emailId;
+
+    @Column(name = "bulk_email_id", length = 36)
+    private String bulkEmailId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private TrackingEventType eventType;
+
+    @Column(length = 2048)
+    private String url; // Sadece tıklamalarda
+
+    private String userAgent;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(name = "event_date", nullable = false)
+    private LocalDate eventDate;
+}
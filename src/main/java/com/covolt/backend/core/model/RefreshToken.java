@@ -9,7 +9,12 @@ import lombok.NoArgsConstructor;
 import jakarta.persistence.*;
 import lombok.experimental.SuperBuilder;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
 @SuperBuilder(toBuilder = true) // toBuilder = true EKLENDİ
 
 @Data
@@ -18,10 +23,20 @@ import java.time.Instant;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "refresh_tokens")
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_username", columnList = "username"),
+        @Index(name = "idx_refresh_tokens_family_id", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_expiry_date", columnList = "expiry_date") // Süresi dolanların toplu silinmesi
+})
 public class RefreshToken extends BaseEntity { // Senin BaseEntity sınıfından miras al
 
-    @Column(nullable = false, unique = true)
+    // Ham token veritabanında tutulmaz; yalnızca SHA-256 özeti saklanır ve arama bu özetle yapılır.
+    // Eski sürümle aynı sütun kullanılıyor, şema değişmiyor (eski düz kayıtlar eşleşmez ve süreleri dolunca silinir).
+    @Column(name = "token", nullable = false, unique = true)
+    private String tokenHash;
+
+    // Ham token: yalnızca üretildiği veya istemci tarafından sunulduğu anda bilinir
+    @Transient
     private String token;
 
     @Column(nullable = false)
@@ -30,5 +45,32 @@ public class RefreshToken extends BaseEntity { // Senin BaseEntity sınıfından
     @Column(nullable = false)
     private Instant expiryDate;
 
+    // Bir cihaz/oturumun token ailesi: login'de yeni aile başlar, her yenilemede aynı ailede yeni token üretilir
+    @Column(name = "family_id")
+    private UUID familyId;
+
+    // Token yenilemede kullanıldığı an. Kullanılmış token'lar süreleri dolana kadar tutulur; tekrar sunulurlarsa
+    // (token çalınmış olabilir) tüm aile iptal edilir.
+    private Instant usedAt;
+
     // BaseEntity'den gelen createdAt/updatedAt ve PK alanı (Long/UUID vs.) buraya dahil oluyor.
-}
\ No newline at end of file
+
+    /**
+     * Ham token'ın saklanan özeti (SHA-256, URL-safe base64).
+     */
+    public static String hashOf(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algoritması bulunamadı", e);
+        }
+    }
+
+    @PrePersist
+    protected void hashToken() {
+        if (tokenHash == null && token != null) {
+            tokenHash = hashOf(token);
+        }
+    }
+}
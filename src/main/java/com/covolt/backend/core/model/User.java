@@ -6,6 +6,7 @@ import lombok.experimental.SuperBuilder;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 @SuperBuilder(toBuilder = true) // toBuilder = true EKLENDİ
 
@@ -17,10 +18,13 @@ import java.util.Set;
 @AllArgsConstructor
 @Table(name = "users", indexes = {
         @Index(name = "idx_users_email", columnList = "email"),
-        @Index(name = "idx_users_username", columnList = "username")
+        @Index(name = "idx_users_username", columnList = "username"),
+        @Index(name = "idx_users_company_created_at_id", columnList = "company_id, created_at, id"), // Firma kullanıcıları keyset sayfalama
+        @Index(name = "idx_users_token_version_changed_at", columnList = "token_version_changed_at") // Token versiyonu artımlı yenileme
 })
 public class User extends BaseEntity {
 
+    // Her zaman normalize edilmiş (trim + küçük harf) saklanır; sorgular düz u.email = ... ile idx_users_email'i kullanır
     @Column(nullable = false, unique = true, length = 100)
     private String email;
 
@@ -49,6 +53,15 @@ public class User extends BaseEntity {
 
     private LocalDateTime passwordChangedAt;
 
+    // Self-contained access token'ları geçersiz kılmak için kullanıcı bazlı sayaç.
+    // Token'daki "ver" claim'i bu değerden küçükse token reddedilir. (Mevcut kayıtlar için null = 0)
+    @Column(name = "token_version")
+    private Long tokenVersion;
+
+    // token_version'ın son artırıldığı an (DB saati); diğer node'lar yalnızca bu andan sonra değişenleri okur
+    @Column(name = "token_version_changed_at")
+    private LocalDateTime tokenVersionChangedAt;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false) // Her kullanıcı bir şirkete AİT OLMALI
     @JoinColumn(name = "company_id", nullable = false, foreignKey = @ForeignKey(name = "fk_users_company_id")) // DB seviyesinde FK oluşturur
     private Company company; // Kullanıcının ait olduğu şirket
@@ -63,4 +76,17 @@ public class User extends BaseEntity {
 
     @Builder.Default
     private Set<Role> roles = new HashSet<>();
+
+    /**
+     * E-posta adreslerinin saklandığı ve sorgulandığı tek biçim: baş/son boşluklar atılır, küçük harfe çevrilir.
+     */
+    public static String normalizeEmail(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void normalizeEmailBeforeSave() {
+        this.email = normalizeEmail(this.email);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.covolt.backend.core.pagination;
+
+import com.covolt.backend.core.exception.InvalidCursorException;
+import com.covolt.backend.core.model.BaseEntity;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * (createdAt, id) çifti üzerinden keyset (cursor) sayfalama konumu.
+ * <p>
+ * Liste createdAt DESC, id DESC sıralanır; bir sonraki sayfa son kaydın (createdAt, id) değerinden
+ * "küçük" olan kayıtlarla başlar. OFFSET kullanılmadığı için sayfa derinliği sorgu maliyetini etkilemez.
+ * İstemciye base64url kodlanmış, içeriği anlamlandırılmaması gereken (opaque) bir token olarak verilir.
+ */
+@Getter
+public final class KeysetCursor {
+
+    public static final Sort SORT = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
+
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime createdAt;
+    private final UUID id;
+
+    private KeysetCursor(LocalDateTime createdAt, UUID id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static KeysetCursor of(BaseEntity lastEntity) {
+        return new KeysetCursor(lastEntity.getCreatedAt(), lastEntity.getId());
+    }
+
+    /**
+     * @param token İstemciden gelen token; null veya boşsa ilk sayfa istenmiştir ve null döner
+     * @throws InvalidCursorException Token çözümlenemezse
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException("Cursor ayırıcısı bulunamadı");
+            }
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                    UUID.fromString(raw.substring(separatorIndex + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(e);
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Bu konumdan sonra gelen kayıtlar: createdAt &lt; c OR (createdAt = c AND id &lt; i)
+     */
+    public <T extends BaseEntity> Specification<T> after() {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.<LocalDateTime>get("createdAt"), createdAt),
+                cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.<UUID>get("id"), id)));
+    }
+}
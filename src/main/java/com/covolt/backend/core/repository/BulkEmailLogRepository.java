@@ -0,0 +1,30 @@
+package com.covolt.backend.core.repository;
+
+import com.covolt.backend.core.model.BulkEmailLog;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BulkEmailLogRepository extends JpaRepository<BulkEmailLog, UUID> {
+
+    Optional<BulkEmailLog> findByBulkEmailId(String bulkEmailId);
+
+    List<BulkEmailLog> findByBulkEmailIdIn(Collection<String> bulkEmailIds);
+
+    Page<BulkEmailLog> findByCampaignId(String campaignId, Pageable pageable);
+
+    // Kampanya bazında açılma / tıklanma sayıları toplu gönderim kaydında biriktirilir
+    @Modifying
+    @Query("UPDATE BulkEmailLog b SET b.openCount = b.openCount + :opens, b.clickCount = b.clickCount + :clicks WHERE b.bulkEmailId = :bulkEmailId")
+    int incrementTrackingCounts(@Param("bulkEmailId") String bulkEmailId, @Param("opens") int opens, @Param("clicks") int clicks);
+}
@@ -3,12 +3,14 @@ package com.covolt.backend.core.repository;
 import com.covolt.backend.core.model.Company;
 import com.covolt.backend.core.model.enums.CompanyStatus;
 import com.covolt.backend.core.model.enums.UserSubscriptionStatus;
+import com.covolt.backend.core.repository.projection.CompanyStatusCountView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -28,4 +30,8 @@ public interface CompanyRepository extends JpaRepository<Company, UUID>, JpaSpec
 
     @Query("SELECT COUNT(DISTINCT c) FROM Company c JOIN c.companySubscriptions cs WHERE cs.status = :status")
     long countCompaniesWithSubscriptionStatus(@Param("status") UserSubscriptionStatus status);
+
+    // İstatistik mutabakatı için: tüm statülerin sayıları tek sorguda
+    @Query("SELECT c.status AS status, COUNT(c) AS companyCount FROM Company c GROUP BY c.status")
+    List<CompanyStatusCountView> countGroupedByStatus();
 }
\ No newline at end of file
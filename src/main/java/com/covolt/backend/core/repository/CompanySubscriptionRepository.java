@@ -1,15 +1,18 @@
 package com.covolt.backend.core.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-// Spring Query Importları varsa eklenebilir
-// import org.springframework.data.jpa.repository.Query;
 
 import com.covolt.backend.core.model.CompanySubscription;
 import com.covolt.backend.core.model.Company; // İlişkili Entity
 import com.covolt.backend.core.model.enums.UserSubscriptionStatus; // Enum
+import com.covolt.backend.core.repository.projection.CompanySubscriptionStatusCountView;
+import com.covolt.backend.core.repository.projection.CompanySubscriptionSummaryView;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID; // PK tipi UUID ise
@@ -23,6 +26,22 @@ public interface CompanySubscriptionRepository extends JpaRepository<CompanySubs
     // Genellikle firmanın tek bir aktif/deneme kaydı olur, ancak DB seviyesinde unique constraint yoksa veya tarih yönetimi hassas değilse birden fazla gelebilir.
     Optional<CompanySubscription> findTopByCompanyAndStatusInOrderByCreatedAtDesc(Company company, List<UserSubscriptionStatus> statuses);
 
+    // Liste ekranları için: verilen firmaların her biri için en yeni TRIAL/ACTIVE/PAST_DUE kaydı tek sorguda.
+    // İlişkili alt sorgu (firma başına en büyük createdAt), her firma için "en son kayıt" seçimini DB tarafında yapar.
+    @Query("SELECT cs.company.id AS companyId, p.name AS planName, cs.status AS status, " +
+            "cs.endDate AS endDate, cs.trialEndDate AS trialEndDate " +
+            "FROM CompanySubscription cs LEFT JOIN cs.plan p " +
+            "WHERE cs.company.id IN :companyIds AND cs.status IN :statuses " +
+            "AND cs.createdAt = (SELECT MAX(latest.createdAt) FROM CompanySubscription latest " +
+            "WHERE latest.company = cs.company AND latest.status IN :statuses)")
+    List<CompanySubscriptionSummaryView> findLatestSummariesByCompanyIds(@Param("companyIds") Collection<UUID> companyIds,
+                                                                         @Param("statuses") List<UserSubscriptionStatus> statuses);
+
+    // İstatistik mutabakatı için: firma ve statü bazında abonelik kaydı sayıları
+    @Query("SELECT cs.company.id AS companyId, cs.status AS status, COUNT(cs) AS subscriptionCount " +
+            "FROM CompanySubscription cs GROUP BY cs.company.id, cs.status")
+    List<CompanySubscriptionStatusCountView> countGroupedByCompanyAndStatus();
+
     // Süresi dolmuş deneme aboneliklerini bul (Zamanlanmış görev için)
     List<CompanySubscription> findByStatusAndTrialEndDateBefore(UserSubscriptionStatus status, Instant trialEndDate);
 
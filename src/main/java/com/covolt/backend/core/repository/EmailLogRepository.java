@@ -0,0 +1,49 @@
+package com.covolt.backend.core.repository;
+
+import com.covolt.backend.core.model.EmailLog;
+import com.covolt.backend.features.email.enums.EmailStatus;
+import com.covolt.backend.features.email.enums.EmailType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface EmailLogRepository extends JpaRepository<EmailLog, UUID> {
+
+    Optional<EmailLog> findByEmailId(String emailId);
+
+    // Toplu yazma sırasında hangi kayıtların zaten var olduğunu tek sorguda bulmak için
+    List<EmailLog> findByEmailIdIn(Collection<String> emailIds);
+
+    // Yeniden başlatmada kuyruğa geri alınacak, henüz gönderilmemiş e-postalar
+    List<EmailLog> findByStatusAndScheduledAtIsNullAndNextRetryAtIsNullAndPayloadIsNotNull(EmailStatus status, Pageable pageable);
+
+    // Yeniden başlatmada zamanlayıcıya geri alınacak, ileri tarihli e-postalar
+    List<EmailLog> findByStatusAndScheduledAtIsNotNullAndNextRetryAtIsNullAndPayloadIsNotNull(EmailStatus status, Pageable pageable);
+
+    // Yeniden başlatmada tekrar deneme kuyruğuna geri alınacak, geçici hatayla gönderilemeyen e-postalar
+    List<EmailLog> findByStatusAndNextRetryAtIsNotNullAndPayloadIsNotNull(EmailStatus status, Pageable pageable);
+
+    // İzleme olaylarının toplu yazımında e-posta başına tek sorguyla sayaç artırımı
+    @Modifying
+    @Query("UPDATE EmailLog e SET e.openCount = e.openCount + :opens, e.clickCount = e.clickCount + :clicks WHERE e.emailId = :emailId")
+    int incrementTrackingCounts(@Param("emailId") String emailId, @Param("opens") int opens, @Param("clicks") int clicks);
+
+    Page<EmailLog> findByUserId(String userId, Pageable pageable);
+
+    Page<EmailLog> findByCompanyId(String companyId, Pageable pageable);
+
+    Page<EmailLog> findByEmailType(EmailType emailType, Pageable pageable);
+
+    Page<EmailLog> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end, Pageable pageable);
+}
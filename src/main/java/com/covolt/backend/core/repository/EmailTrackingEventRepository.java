@@ -0,0 +1,24 @@
+package com.covolt.backend.core.repository;
+
+import com.covolt.backend.core.model.EmailTrackingEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Repository
+public interface EmailTrackingEventRepository extends JpaRepository<EmailTrackingEvent, UUID> {
+
+    // Saklama süresi temizliği en eski günden başlar
+    @Query("SELECT MIN(e.eventDate) FROM EmailTrackingEvent e")
+    LocalDate findOldestEventDate();
+
+    // Bir günün tüm kayıtlarını event_date index'i üzerinden tek seferde siler
+    @Modifying
+    @Query("DELETE FROM EmailTrackingEvent e WHERE e.eventDate = :eventDate")
+    int deleteByEventDate(@Param("eventDate") LocalDate eventDate);
+}
@@ -3,22 +3,67 @@ package com.covolt.backend.core.repository;
 import com.covolt.backend.core.model.RefreshToken;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> { // BaseEntity PK tipinize göre Long'u düzeltin
 
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
 
+    /**
+     * Belirli token'ı siler. Dönen sayı 0 ise token zaten kullanılmış/silinmiştir (eş zamanlı yenilemede yalnızca biri kazanır).
+     */
     @Transactional
     @Modifying
-    void deleteByToken(String token); // Belirli token'ı sil
+    @Query("delete from RefreshToken r where r.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
 
+    /**
+     * Token'ı kullanıldı olarak işaretler. Dönen sayı 0 ise token zaten kullanılmış veya silinmiştir; eş zamanlı
+     * yenilemede yalnızca bir istek 1 alır.
+     */
     @Transactional
     @Modifying
-    void deleteByUsername(String username); // Kullanıcının tüm refresh tokenlarını sil (Single-use için)
-}
\ No newline at end of file
+    @Query("update RefreshToken r set r.usedAt = :now where r.tokenHash = :tokenHash and r.usedAt is null")
+    int markUsed(@Param("tokenHash") String tokenHash, @Param("now") Instant now);
+
+    /**
+     * Bir oturumun (token ailesinin) tüm token'larını siler.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshToken r where r.familyId = :familyId")
+    int deleteByFamilyId(@Param("familyId") UUID familyId);
+
+    /**
+     * Kullanıcının en son kullanılan {@code maxSessions} oturumu dışındaki tüm oturumlarını siler (LRU).
+     * Bir oturumun son kullanım zamanı, ailesindeki henüz kullanılmamış token'ın oluşturulma zamanıdır.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM refresh_tokens WHERE username = :username AND family_id IN ("
+            + "SELECT family_id FROM refresh_tokens WHERE username = :username AND used_at IS NULL AND expiry_date > :now "
+            + "ORDER BY created_at DESC OFFSET :maxSessions)",
+            nativeQuery = true)
+    int deleteLeastRecentlyUsedSessions(@Param("username") String username, @Param("maxSessions") int maxSessions,
+                                        @Param("now") Instant now);
+
+    /**
+     * Süresi dolmuş token'lardan en fazla {@code limit} tanesini tek ifadede siler; tabloyu uzun süre kilitlememek için
+     * parça parça çağrılır.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM refresh_tokens WHERE id IN (SELECT id FROM refresh_tokens WHERE expiry_date < :now LIMIT :limit)",
+            nativeQuery = true)
+    int deleteExpiredChunk(@Param("now") Instant now, @Param("limit") int limit);
+
+    long countByExpiryDateAfterAndUsedAtIsNull(Instant now);
+}
@@ -3,21 +3,56 @@ package com.covolt.backend.core.repository;
 import com.covolt.backend.core.model.Company;
 import com.covolt.backend.core.model.Role;
 import com.covolt.backend.core.model.User;
+import com.covolt.backend.core.model.enums.UserSubscriptionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import com.covolt.backend.core.repository.projection.CompanyUserCountView;
+import com.covolt.backend.core.repository.projection.UserAuthorityRow;
+import com.covolt.backend.core.repository.projection.UserIdEmailView;
+import com.covolt.backend.core.repository.projection.UserTokenVersionView;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificationExecutor<User> {
 
     Optional<User> findByEmail(String email);
 
     Optional<User> findByUsername(String username);
 
+    // Kullanıcıyı firma, roller ve rol izinleriyle birlikte tek SQL sorgusunda yükler (N+1 yerine tek join)
+    @EntityGraph(attributePaths = {"company", "roles", "roles.permissions"})
+    Optional<User> findWithAuthoritiesByEmail(String email);
+
+    // Yetkilendirme için gereken alanları entity oluşturmadan, tek sorguda düz satırlar olarak döner.
+    // LEFT JOIN: rolü/izni olmayan kullanıcı da en az bir satırla döner. Firmanın verilen statülerdeki en yeni
+    // abonelik kaydı da aynı sorguda join edilir; plan özellikleri satırları çoğaltmamak için alt sorguda
+    // tek metne birleştirilir (virgülle ayrılmış).
+    @Query("SELECT u.id AS userId, u.email AS email, u.fullName AS fullName, u.password AS password, u.enabled AS enabled, u.locked AS locked, " +
+            "c.id AS companyId, c.name AS companyName, r.name AS roleName, p.name AS permissionName, " +
+            "cs.status AS subscriptionStatus, cs.endDate AS subscriptionEndDate, cs.trialEndDate AS subscriptionTrialEndDate, " +
+            "sp.displayName AS planName, " +
+            "(SELECT listagg(f, ',') FROM SubscriptionPlan fp JOIN fp.features f WHERE fp = sp) AS planFeatures " +
+            "FROM User u LEFT JOIN u.company c LEFT JOIN u.roles r LEFT JOIN r.permissions p " +
+            "LEFT JOIN CompanySubscription cs ON cs.company = c AND cs.status IN :subscriptionStatuses " +
+            "AND cs.createdAt = (SELECT MAX(latest.createdAt) FROM CompanySubscription latest " +
+            "WHERE latest.company = c AND latest.status IN :subscriptionStatuses) " +
+            "LEFT JOIN cs.plan sp " +
+            "WHERE u.email = :email")
+    List<UserAuthorityRow> findAuthorityRowsByEmail(@Param("email") String email,
+                                                    @Param("subscriptionStatuses") Collection<UserSubscriptionStatus> subscriptionStatuses);
+
     boolean existsByEmailOrUsername(String email, String username);
 
     long countByRolesContains(Role role);
@@ -26,4 +61,63 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Page<User> findByCompany(Company company, Pageable pageable);
 
     long countByCompany(Company company);
-}
\ No newline at end of file
+
+    // Liste ekranları için: sayfadaki tüm firmaların kullanıcı sayıları tek sorguda (firma başına ayrı COUNT yerine)
+    @Query("SELECT u.company.id AS companyId, COUNT(u) AS userCount FROM User u " +
+            "WHERE u.company.id IN :companyIds GROUP BY u.company.id")
+    List<CompanyUserCountView> countUsersByCompanyIds(@Param("companyIds") Collection<UUID> companyIds);
+
+    // Token versiyonu (self-contained token iptali) için
+    @Query("SELECT u.id AS id, u.tokenVersion AS tokenVersion, u.tokenVersionChangedAt AS tokenVersionChangedAt " +
+            "FROM User u WHERE u.tokenVersion > 0")
+    List<UserTokenVersionView> findAllWithTokenVersion();
+
+    @Query("SELECT u.id AS id, u.tokenVersion AS tokenVersion, u.tokenVersionChangedAt AS tokenVersionChangedAt " +
+            "FROM User u WHERE u.tokenVersionChangedAt >= :since")
+    List<UserTokenVersionView> findTokenVersionsChangedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT u.id AS id, u.tokenVersion AS tokenVersion, u.tokenVersionChangedAt AS tokenVersionChangedAt " +
+            "FROM User u WHERE u.id IN :userIds")
+    List<UserTokenVersionView> findTokenVersionsByIds(@Param("userIds") Collection<UUID> userIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.tokenVersion = COALESCE(u.tokenVersion, 0) + 1, " +
+            "u.tokenVersionChangedAt = CURRENT_TIMESTAMP WHERE u.id IN :userIds")
+    int incrementTokenVersions(@Param("userIds") Collection<UUID> userIds);
+
+    // Login sırasında eski algoritma/maliyetle saklanan şifrenin yeniden hash'lenmiş hali (entity yüklenmeden)
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
+    int updatePasswordByEmail(@Param("email") String email, @Param("password") String password);
+
+    // Başarısız login sayaçları (LoginAttemptThrottle) toplu olarak yazılır. E-postalar normalize edilmiş saklandığı
+    // ve normalize edilmiş geldiği için düz karşılaştırma yapılır; idx_users_email kullanılır
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Modifying
+    @Query("UPDATE User u SET u.failedLoginAttempts = u.failedLoginAttempts + :delta WHERE u.email IN :emails")
+    int incrementFailedLoginAttempts(@Param("emails") Collection<String> emails, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE User u SET u.failedLoginAttempts = 0 WHERE u.email IN :emails AND u.failedLoginAttempts > 0")
+    int resetFailedLoginAttempts(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.id AS id, u.email AS email FROM User u WHERE u.email IN :emails AND u.locked = false AND u.failedLoginAttempts >= :threshold")
+    List<UserIdEmailView> findUsersToLock(@Param("emails") Collection<String> emails, @Param("threshold") int threshold);
+
+    // Normalizasyondan önce kaydedilmiş e-postaları tek seferde normalize eder (UserEmailNormalizer)
+    @Modifying
+    @Query("UPDATE User u SET u.email = lower(trim(u.email)) WHERE u.email <> lower(trim(u.email))")
+    int normalizeStoredEmails();
+
+    @Modifying
+    @Query("UPDATE User u SET u.locked = true WHERE u.id IN :userIds")
+    int lockByIds(@Param("userIds") Collection<UUID> userIds);
+
+    @Query("SELECT u.id FROM User u WHERE u.company.id = :companyId")
+    List<UUID> findIdsByCompanyId(@Param("companyId") UUID companyId);
+
+    @Query("SELECT u.id FROM User u JOIN u.roles r WHERE r.id = :roleId")
+    List<UUID> findIdsByRoleId(@Param("roleId") UUID roleId);
+}
@@ -0,0 +1,13 @@
+package com.covolt.backend.core.repository.projection;
+
+import com.covolt.backend.core.model.enums.CompanyStatus;
+
+/**
+ * Statü bazında firma sayısı (GROUP BY status).
+ */
+public interface CompanyStatusCountView {
+
+    CompanyStatus getStatus();
+
+    long getCompanyCount();
+}
@@ -0,0 +1,17 @@
+package com.covolt.backend.core.repository.projection;
+
+import com.covolt.backend.core.model.enums.UserSubscriptionStatus;
+
+import java.util.UUID;
+
+/**
+ * Firma ve abonelik statüsü bazında abonelik kaydı sayısı (GROUP BY company_id, status).
+ */
+public interface CompanySubscriptionStatusCountView {
+
+    UUID getCompanyId();
+
+    UserSubscriptionStatus getStatus();
+
+    long getSubscriptionCount();
+}
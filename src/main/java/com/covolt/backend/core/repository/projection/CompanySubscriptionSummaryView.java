@@ -0,0 +1,23 @@
+package com.covolt.backend.core.repository.projection;
+
+import com.covolt.backend.core.model.enums.UserSubscriptionStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Bir firmanın en güncel (TRIAL/ACTIVE/PAST_DUE) abonelik kaydının liste ekranı için gereken alanları.
+ * Entity ve plan özellikleri yüklenmeden, sayfadaki tüm firmalar için tek sorguda okunur.
+ */
+public interface CompanySubscriptionSummaryView {
+
+    UUID getCompanyId();
+
+    String getPlanName();
+
+    UserSubscriptionStatus getStatus();
+
+    Instant getEndDate();
+
+    Instant getTrialEndDate();
+}
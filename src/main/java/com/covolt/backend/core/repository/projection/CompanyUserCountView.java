@@ -0,0 +1,13 @@
+package com.covolt.backend.core.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Firma bazında kullanıcı sayısı (GROUP BY company_id sonucu).
+ */
+public interface CompanyUserCountView {
+
+    UUID getCompanyId();
+
+    long getUserCount();
+}
@@ -0,0 +1,46 @@
+package com.covolt.backend.core.repository.projection;
+
+import com.covolt.backend.core.model.enums.UserSubscriptionStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Kullanıcının kimlik doğrulama ve yetkilendirme için gereken alanlarını taşıyan düz (flat) satır.
+ * Kullanıcı, firma, rol ve izin tabloları tek sorguda join edilir; her (rol, izin) kombinasyonu için bir satır döner.
+ * Abonelik alanları firmanın en yeni TRIAL/ACTIVE/PAST_DUE kaydına aittir (yoksa null) ve her satırda aynıdır.
+ * Entity oluşturulmadığı için persistence context'e hiçbir şey eklenmez ve dirty checking yapılmaz.
+ */
+public interface UserAuthorityRow {
+
+    UUID getUserId();
+
+    String getEmail();
+
+    String getFullName();
+
+    String getPassword();
+
+    boolean isEnabled();
+
+    boolean isLocked();
+
+    UUID getCompanyId();
+
+    String getCompanyName();
+
+    String getRoleName();
+
+    String getPermissionName();
+
+    UserSubscriptionStatus getSubscriptionStatus();
+
+    Instant getSubscriptionEndDate();
+
+    Instant getSubscriptionTrialEndDate();
+
+    String getPlanName();
+
+    // Virgülle ayrılmış özellik kodları; planın özelliği yoksa null
+    String getPlanFeatures();
+}
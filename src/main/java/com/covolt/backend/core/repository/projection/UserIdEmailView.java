@@ -0,0 +1,14 @@
+package com.covolt.backend.core.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Kullanıcı ID'si ve e-postasını taşıyan hafif projection.
+ * LoginAttemptThrottle'ın kilitlediği hesapların principal ve token'larını geçersiz kılmak için kullanılır.
+ */
+public interface UserIdEmailView {
+
+    UUID getId();
+
+    String getEmail();
+}
@@ -0,0 +1,17 @@
+package com.covolt.backend.core.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Kullanıcı ID'si ve token versiyonunu taşıyan hafif projection.
+ * Uygulama açılışında ve periyodik yenilemede TokenVersionRegistry'yi doldurmak için kullanılır.
+ */
+public interface UserTokenVersionView {
+
+    UUID getId();
+
+    Long getTokenVersion();
+
+    LocalDateTime getTokenVersionChangedAt(); // Eski kayıtlarda null olabilir
+}
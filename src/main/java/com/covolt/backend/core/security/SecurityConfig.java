@@ -4,6 +4,7 @@ import com.covolt.backend.core.security.common.ApiEndpoint;
 
 import com.covolt.backend.core.security.jwt.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor; // Lombok kullanıyorsak
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -16,8 +17,8 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService; // ÖNEMLİ
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder; // ÖNEMLİ
 import org.springframework.security.crypto.password.PasswordEncoder;   // ÖNEMLİ
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -37,20 +38,23 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final UserDetailsService userDetailsService; // CustomUserDetailsService buraya enjekte edilecek
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
+    // AdaptivePasswordEncoder: hash işleri sınırlı havuzda çalışır, algoritma/maliyet app.security.password.* ile ayarlanır
+    private final PasswordEncoder passwordEncoder;
+    private final UserDetailsPasswordService userPasswordUpgradeService;
+
+    @Value("${app.security.password.upgrade-on-login:true}")
+    private boolean upgradePasswordOnLogin;
 
     // AuthenticationProvider bean'i, UserDetailsService ve PasswordEncoder'ı kullanır.
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        // PasswordEncoder'ı doğrudan yukarıdaki @Bean metodunu çağırarak alıyoruz.
-        // VEYA Spring context'inden PasswordEncoder bean'ini enjekte almasını sağlayabiliriz:
-        // authProvider.setPasswordEncoder(this.passwordEncoder()); // this.passwordEncoder() yerine direkt metot çağrısı
-        authProvider.setPasswordEncoder(passwordEncoder()); // Yukarıdaki @Bean metodunu çağırır
+        authProvider.setPasswordEncoder(passwordEncoder);
+        if (upgradePasswordOnLogin) {
+            // Eski algoritma/maliyetle saklanan şifreler başarılı login'de yeniden hash'lenir
+            authProvider.setUserDetailsPasswordService(userPasswordUpgradeService);
+        }
         return authProvider;
     }
     @Bean
@@ -53,6 +53,7 @@ public enum ApiEndpoint {
     // === Platform Admin - Müşteri Firma (Company) Yönetimi ===
     // 'MANAGE_COMPANIES' iznine sahip olanlar erişebilir.
     COMPANY_GET_ALL_FOR_ADMIN("/api/v1/platform-admin/companies", HttpMethod.GET, SecurityAccess.HAS_AUTHORITY, "MANAGE_COMPANIES"),
+    COMPANY_GET_BY_CURSOR_FOR_ADMIN("/api/v1/platform-admin/companies/cursor", HttpMethod.GET, SecurityAccess.HAS_AUTHORITY, "MANAGE_COMPANIES"),
     COMPANY_GET_BY_ID_FOR_ADMIN("/api/v1/platform-admin/companies/{companyId}", HttpMethod.GET, SecurityAccess.HAS_AUTHORITY, "MANAGE_COMPANIES"),
     COMPANY_CREATE_MANUAL_FOR_ADMIN("/api/v1/platform-admin/companies", HttpMethod.POST, SecurityAccess.HAS_AUTHORITY, "MANAGE_COMPANIES"),
     COMPANY_UPDATE_PROFILE_FOR_ADMIN("/api/v1/platform-admin/companies/{companyId}", HttpMethod.PUT, SecurityAccess.HAS_AUTHORITY, "MANAGE_COMPANIES"),
@@ -63,6 +64,7 @@ public enum ApiEndpoint {
     // === Platform Admin - Müşteri Firma Kullanıcıları Yönetimi ===
     // 'MANAGE_COMPANY_USERS' (veya daha spesifik) iznine sahip olanlar erişebilir.
     COMPANY_USERS_GET_ALL_FOR_ADMIN("/api/v1/platform-admin/companies/{companyId}/users", HttpMethod.GET, SecurityAccess.HAS_AUTHORITY, "MANAGE_COMPANY_USERS"),
+    COMPANY_USERS_GET_BY_CURSOR_FOR_ADMIN("/api/v1/platform-admin/companies/{companyId}/users/cursor", HttpMethod.GET, SecurityAccess.HAS_AUTHORITY, "MANAGE_COMPANY_USERS"),
     COMPANY_USER_UPDATE_STATUS_FOR_ADMIN("/api/v1/platform-admin/users/{userId}/status", HttpMethod.PUT, SecurityAccess.HAS_AUTHORITY, "MANAGE_COMPANY_USERS"),
 
     // Kullanıcı ekleme/çıkarma işlemleri
@@ -109,6 +111,10 @@ public enum ApiEndpoint {
     EMAIL_STATUS("/api/v1/email/status", HttpMethod.GET, SecurityAccess.HAS_AUTHORITY, "VIEW_SYSTEM_STATUS"),
     EMAIL_HEALTH("/api/v1/email/health", HttpMethod.GET, SecurityAccess.PERMIT_ALL, null),
 
+    // Open / click tracking (opened from email clients, secured by signed tokens)
+    EMAIL_TRACK_OPEN("/api/v1/email/track/open/{token}", HttpMethod.GET, SecurityAccess.PERMIT_ALL, null),
+    EMAIL_TRACK_CLICK("/api/v1/email/track/click/{token}", HttpMethod.GET, SecurityAccess.PERMIT_ALL, null),
+
     // === Customer - Company Profile Management ===
     // Authenticated users can access their own company information
     CUSTOMER_COMPANY_PROFILE_GET("/api/v1/customer/company/profile", HttpMethod.GET, SecurityAccess.AUTHENTICATED, null),
@@ -119,6 +125,10 @@ public enum ApiEndpoint {
     // --- Diğer Modüller ve Endpoint'ler Buraya Eklenecek ---
     // DATA_UPLOAD_ENDPOINT("/api/v1/data/upload", HttpMethod.POST, SecurityAccess.AUTHENTICATED, "FEATURE_DATA_UPLOAD") // Özellik bazlı olabilir
 
+    // Actuator: sağlık kontrolü herkese açık, metrikler sistem durumu iznine bağlı
+    ACTUATOR_HEALTH("/actuator/health", HttpMethod.GET, SecurityAccess.PERMIT_ALL, null),
+    ACTUATOR_METRICS("/actuator/metrics/**", HttpMethod.GET, SecurityAccess.HAS_AUTHORITY, "VIEW_SYSTEM_STATUS"),
+
     // Swagger / OpenAPI endpoint'leri (permitAll)
     SWAGGER_UI("/swagger-ui/**", HttpMethod.GET, SecurityAccess.PERMIT_ALL, null),
     SWAGGER_RESOURCES("/swagger-resources/**", HttpMethod.GET, SecurityAccess.PERMIT_ALL, null),
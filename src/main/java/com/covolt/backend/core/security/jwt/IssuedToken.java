@@ -0,0 +1,18 @@
+package com.covolt.backend.core.security.jwt;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Yeni üretilmiş access token ve son kullanma zamanı.
+ * Bitiş zamanı üretim anında hesaplandığı için token'ı tekrar parse etmeye gerek kalmaz.
+ */
+@Getter
+@AllArgsConstructor
+public final class IssuedToken {
+
+    private final String token;
+    private final Instant expiresAt;
+}
@@ -1,6 +1,9 @@
 package com.covolt.backend.core.security.jwt;
 
+import com.covolt.backend.core.security.service.CovoltUserDetails;
 import com.covolt.backend.core.security.service.CustomUserDetailsService;
+import com.covolt.backend.core.security.service.UserPrincipalCache;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,10 +22,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final UserPrincipalCache userPrincipalCache;
 
-    public JwtAuthenticationFilter(JwtService jwtService, CustomUserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   CustomUserDetailsService userDetailsService,
+                                   UserPrincipalCache userPrincipalCache) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.userPrincipalCache = userPrincipalCache;
     }
 
     @Override
@@ -39,24 +46,80 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         final String jwt = authHeader.substring(7);
-        final String userEmail = jwtService.extractUsername(jwt);
-        
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
-                );
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+
+        try {
+            authenticate(jwt, request);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Geçersiz, süresi dolmuş veya iptal edilmiş token: istek kimliksiz devam eder, yetki kontrolü reddeder
+            logger.debug("JWT doğrulanamadı: " + e.getMessage());
+            SecurityContextHolder.clearContext();
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private void authenticate(String jwt, HttpServletRequest request) {
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            return;
+        }
+
+        // İmza ve süre burada bir kez doğrulanır; sonraki kontroller aynı claim görünümünü kullanır
+        VerifiedToken token = jwtService.verify(jwt);
+
+        // Self-contained modda yetkiler token'dan okunur, veritabanına gidilmez
+        if (jwtService.isSelfContainedMode()) {
+            CovoltUserDetails principal = jwtService.extractPrincipal(token);
+            if (principal != null) {
+                if (isActive(principal)) {
+                    setAuthentication(principal, request);
+                }
+                return;
+            }
+        }
+
+        final String userEmail = token.getSubject();
+        if (userEmail != null) {
+            UserDetails userDetails = loadUserDetails(userEmail);
+            if (jwtService.isTokenValid(token, userDetails) && isActive(userDetails)) {
+                setAuthentication(userDetails, request);
+            }
+        }
+    }
+
+    // Devre dışı bırakılmış veya kilitlenmiş hesabın token'ı süresi dolana kadar kullanılamaz
+    private boolean isActive(UserDetails userDetails) {
+        if (userDetails.isEnabled() && userDetails.isAccountNonLocked()) {
+            return true;
+        }
+        logger.debug("Hesap devre dışı veya kilitli, token reddedildi: " + userDetails.getUsername());
+        return false;
+    }
+
+    private void setAuthentication(UserDetails userDetails, HttpServletRequest request) {
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
+        authToken.setDetails(
+                new WebAuthenticationDetailsSource().buildDetails(request)
+        );
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
+
+    // Önce önbelleğe bakar; yoksa veritabanından yükleyip önbelleğe yazar.
+    private UserDetails loadUserDetails(String userEmail) {
+        CovoltUserDetails cached = userPrincipalCache.get(userEmail);
+        if (cached != null) {
+            return cached;
+        }
+        // Nesil yüklemeden önce alınır: yükleme sürerken yetkiler değişirse eski principal önbelleğe yazılmaz
+        long generation = userPrincipalCache.generation(userEmail);
+        UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+        if (userDetails instanceof CovoltUserDetails covoltUserDetails) {
+            userPrincipalCache.put(covoltUserDetails, generation);
+        }
+        return userDetails;
+    }
 }
@@ -1,81 +1,254 @@
 package com.covolt.backend.core.security.jwt;
 
+import com.covolt.backend.core.model.enums.UserSubscriptionStatus;
 import com.covolt.backend.core.security.service.CovoltUserDetails;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 import java.util.HashMap;
 import java.util.Map;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
 
-    @Value("${jwt.expiration}") // ms cinsinden, örneğin 86400000 (1 gün)
-    private long jwtExpiration;
+    // Self-contained token claim adları (token boyutunu küçük tutmak için kısa)
+    private static final String CLAIM_USER_ID = "userId";
+    private static final String CLAIM_VERSION = "ver";
+    private static final String CLAIM_COMPANY_ID = "cid";
+    private static final String CLAIM_COMPANY_NAME = "cnm";
+    private static final String CLAIM_ROLES = "rol";
+    private static final String CLAIM_PERMISSIONS = "prm";
+    private static final String CLAIM_SUBSCRIPTION_STATUS = "sst";
+    private static final String CLAIM_PLAN_NAME = "pln";
+    private static final String CLAIM_FEATURES = "ftr";
+    private static final String CLAIM_FULL_NAME = "fnm";
+    private static final String CLAIM_ENABLED = "enb";
+    private static final String CLAIM_ACCOUNT_NON_LOCKED = "anl";
+    private static final String ROLE_PREFIX = "ROLE_";
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    // Anahtar ve parser bir kez oluşturulur; ikisi de immutable ve thread-safe.
+    private final Key signingKey;
+    private final JwtParser jwtParser;
+
+    private final long jwtExpiration; // ms cinsinden, örneğin 86400000 (1 gün)
+
+    // true ise yetkiler, firma ve plan özellikleri token'a yazılır; filtre DB'ye gitmeden Authentication oluşturur
+    private final boolean selfContainedTokens;
+
+    public JwtService(TokenVersionRegistry tokenVersionRegistry,
+                      VerifiedTokenCache verifiedTokenCache,
+                      @Value("${jwt.secret}") String secretKey,
+                      @Value("${jwt.expiration}") long jwtExpiration,
+                      @Value("${app.security.jwt.self-contained:false}") boolean selfContainedTokens) {
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.jwtExpiration = jwtExpiration;
+        this.selfContainedTokens = selfContainedTokens;
     }
 
-    public String generateToken(UserDetails userDetails) {
+    public boolean isSelfContainedMode() {
+        return selfContainedTokens;
+    }
+
+    /**
+     * Access token üretir; bitiş zamanı üretim anında hesaplanıp token ile birlikte döner.
+     */
+    public IssuedToken issueToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
-        
-        // Sadece kullanıcı ID'sini ekle
+
         if (userDetails instanceof CovoltUserDetails) {
             CovoltUserDetails covoltUser = (CovoltUserDetails) userDetails;
-            claims.put("userId", covoltUser.getUserId().toString());
+            claims.put(CLAIM_USER_ID, covoltUser.getUserId().toString());
+            claims.put(CLAIM_VERSION, tokenVersionRegistry.currentVersion(covoltUser.getUserId()));
+            if (selfContainedTokens) {
+                putPrincipalClaims(claims, covoltUser);
+            }
         }
-        
-        return Jwts.builder()
+
+        long now = System.currentTimeMillis();
+        Date expiration = new Date(now + jwtExpiration);
+        String token = Jwts.builder()
                 .setClaims(claims)
                 .setSubject(userDetails.getUsername()) // Email adresi
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(expiration)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
+        return new IssuedToken(token, expiration.toInstant());
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+    public String generateToken(UserDetails userDetails) {
+        return issueToken(userDetails).getToken();
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    /**
+     * Token'ı tek seferde parse eder, imzasını ve süresini doğrular.
+     * İstek başına yalnızca bir kez çağrılmalı; sonraki tüm kontroller dönen nesne üzerinden yapılır.
+     * Yakın zamanda doğrulanmış (veya reddedilmiş) token'lar için sonuç önbellekten döner.
+     *
+     * @throws JwtException Token geçersiz, hatalı biçimlendirilmiş veya süresi dolmuşsa
+     */
+    public VerifiedToken verify(String token) {
+        if (!verifiedTokenCache.isEnabled()) {
+            return parse(token);
+        }
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("JWT boş olamaz.");
+        }
+
+        String key = verifiedTokenCache.keyOf(token);
+        VerifiedToken cached = verifiedTokenCache.getVerified(key);
+        if (cached != null) {
+            return cached;
+        }
+        String rejection = verifiedTokenCache.getRejection(key);
+        if (rejection != null) {
+            throw new JwtException(rejection);
+        }
+
+        try {
+            VerifiedToken verified = parse(token);
+            verifiedTokenCache.putVerified(key, verified);
+            return verified;
+        } catch (JwtException | IllegalArgumentException e) {
+            verifiedTokenCache.putRejected(key, e.getMessage());
+            throw e;
+        }
     }
 
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private VerifiedToken parse(String token) {
+        return new VerifiedToken(jwtParser.parseClaimsJws(token).getBody());
+    }
+
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        return token.getSubject() != null
+                && token.getSubject().equals(userDetails.getUsername())
+                && !token.isExpired();
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        return isTokenValid(verify(token), userDetails);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public String extractUsername(String token) {
+        return verify(token).getSubject();
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public Date extractExpiration(String token) {
+        return Date.from(verify(token).getExpiresAt());
     }
 
     // JWT'den kullanıcı ID'sini çıkarmak için yeni metod
     public String extractUserId(String token) {
-        return extractClaim(token, claims -> claims.get("userId", String.class));
+        return verify(token).getString(CLAIM_USER_ID);
+    }
+
+    /**
+     * Doğrulanmış self-contained token'dan, veritabanına gitmeden CovoltUserDetails oluşturur.
+     * Token versiyonu kullanıcının güncel versiyonundan eskiyse (rol/abonelik değişmiş, hesap devre dışı bırakılmış
+     * veya kilitlenmişse) token reddedilir. Hesap durumu da token'da taşınır; devre dışı veya kilitli bir hesap için
+     * üretilmiş token kabul edilmez. Bu nedenle hesabı devre dışı bırakan veya kilitleyen her yol
+     * {@code PrincipalInvalidationService.userChanged} ile token versiyonunu artırmalıdır.
+     *
+     * @return Principal; token self-contained formatta değilse null
+     * @throws JwtException Token versiyonu eskiyse veya hesap etkin değilse
+     */
+    public CovoltUserDetails extractPrincipal(VerifiedToken token) {
+        if (!token.hasClaim(CLAIM_COMPANY_ID) || !token.hasClaim(CLAIM_USER_ID)) {
+            return null; // Eski formatta üretilmiş token, DB üzerinden doğrulanmalı
+        }
+
+        UUID userId = UUID.fromString(token.getString(CLAIM_USER_ID));
+        Long version = token.getLong(CLAIM_VERSION);
+        if (version == null || !tokenVersionRegistry.isCurrent(userId, version)) {
+            logger.debug("Kullanıcı {} için token versiyonu güncel değil, token reddedildi.", userId);
+            throw new JwtException("Token versiyonu güncel değil, yeniden token alınmalı.");
+        }
+
+        // Bu claim'ler eklenmeden önce üretilmiş token'larda yoktur; o token'lar yalnızca etkin hesaplara verilmişti
+        boolean enabled = !Boolean.FALSE.equals(token.getBoolean(CLAIM_ENABLED));
+        boolean accountNonLocked = !Boolean.FALSE.equals(token.getBoolean(CLAIM_ACCOUNT_NON_LOCKED));
+        if (!enabled || !accountNonLocked) {
+            throw new JwtException("Hesap devre dışı veya kilitli, token kabul edilmedi.");
+        }
+
+        Set<GrantedAuthority> authorities = new HashSet<>();
+        for (String role : token.getStringList(CLAIM_ROLES)) {
+            authorities.add(new SimpleGrantedAuthority(role));
+        }
+        for (String permission : token.getStringList(CLAIM_PERMISSIONS)) {
+            authorities.add(new SimpleGrantedAuthority(permission));
+        }
+
+        String status = token.getString(CLAIM_SUBSCRIPTION_STATUS);
+        return new CovoltUserDetails(
+                token.getSubject(),
+                "", // Şifre token'da taşınmaz, bu principal sadece yetkilendirme için kullanılır
+                enabled,
+                true,
+                true,
+                accountNonLocked,
+                authorities,
+                userId,
+                token.getString(CLAIM_FULL_NAME),
+                UUID.fromString(token.getString(CLAIM_COMPANY_ID)),
+                token.getString(CLAIM_COMPANY_NAME),
+                status != null ? UserSubscriptionStatus.valueOf(status) : null,
+                token.getString(CLAIM_PLAN_NAME),
+                new HashSet<>(token.getStringList(CLAIM_FEATURES))
+        );
+    }
+
+    private void putPrincipalClaims(Map<String, Object> claims, CovoltUserDetails user) {
+        List<String> roles = new ArrayList<>();
+        List<String> permissions = new ArrayList<>();
+        for (GrantedAuthority authority : user.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name.startsWith(ROLE_PREFIX)) {
+                roles.add(name);
+            } else {
+                permissions.add(name);
+            }
+        }
+        claims.put(CLAIM_ENABLED, user.isEnabled());
+        claims.put(CLAIM_ACCOUNT_NON_LOCKED, user.isAccountNonLocked());
+        if (user.getFullName() != null) {
+            claims.put(CLAIM_FULL_NAME, user.getFullName());
+        }
+        claims.put(CLAIM_COMPANY_ID, user.getCompanyId().toString());
+        claims.put(CLAIM_COMPANY_NAME, user.getCompanyName());
+        claims.put(CLAIM_ROLES, roles);
+        claims.put(CLAIM_PERMISSIONS, permissions);
+        if (user.getActiveSubscriptionStatus() != null) {
+            claims.put(CLAIM_SUBSCRIPTION_STATUS, user.getActiveSubscriptionStatus().name());
+        }
+        if (user.getActiveSubscriptionPlanName() != null) {
+            claims.put(CLAIM_PLAN_NAME, user.getActiveSubscriptionPlanName());
+        }
+        claims.put(CLAIM_FEATURES, new ArrayList<>(user.getActiveSubscriptionFeatures()));
     }
 }
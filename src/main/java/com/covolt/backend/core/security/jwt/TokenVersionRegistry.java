@@ -0,0 +1,140 @@
+package com.covolt.backend.core.security.jwt;
+
+import com.covolt.backend.core.repository.UserRepository;
+import com.covolt.backend.core.repository.projection.UserTokenVersionView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kullanıcı bazlı token versiyon sayaçlarını bellekte tutar.
+ * <p>
+ * Self-contained token modunda filtre veritabanına gitmediği için, rol veya abonelik değişikliğinden sonra
+ * eski token'ların reddedilmesi bu sayaç üzerinden yapılır: token'daki "ver" claim'i kullanıcının güncel
+ * versiyonundan küçükse token geçersizdir. Sayaçlar users.token_version kolonunda kalıcı tutulur ve
+ * uygulama açılışında tek sorguyla belleğe yüklenir; istek sırasında hiçbir DB erişimi yapılmaz.
+ * <p>
+ * Bellekteki değer yalnızca veritabanından okunan değerle ({@code Math::max}) güncellenir, hiçbir zaman yerelde
+ * artırılmaz: bu node'daki iptaller commit'ten sonra ilgili kullanıcılar yeniden okunarak, diğer node'lardaki
+ * iptaller {@code app.security.jwt.token-version-refresh-ms} aralığıyla yalnızca son değişenler
+ * ({@code token_version_changed_at}) okunarak alınır. Bu süre boyunca başka node'da iptal edilmiş bir token bu
+ * node'da hâlâ kabul edilebilir. Self-contained mod kapalıyken sayaçlar belleğe yüklenmez.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenVersionRegistry.class);
+
+    // Zaman damgası transaction başlangıcıdır; commit'i gecikmiş değişiklikleri kaçırmamak için geriye dönük pay
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(5);
+
+    private final UserRepository userRepository;
+    private final boolean selfContainedTokens;
+    private final Map<UUID, Long> versions = new ConcurrentHashMap<>();
+
+    // Okunan en yeni token_version_changed_at (DB saati); null ise henüz artımlı okuma yapılamaz
+    private volatile LocalDateTime lastChangeSeen;
+
+    public TokenVersionRegistry(UserRepository userRepository,
+                                @Value("${app.security.jwt.self-contained:false}") boolean selfContainedTokens) {
+        this.userRepository = userRepository;
+        this.selfContainedTokens = selfContainedTokens;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadVersions() {
+        if (!selfContainedTokens) {
+            return;
+        }
+        merge(userRepository.findAllWithTokenVersion());
+        logger.info("{} kullanıcı için token versiyonu yüklendi.", versions.size());
+    }
+
+    @Scheduled(initialDelayString = "${app.security.jwt.token-version-refresh-ms:30000}",
+            fixedDelayString = "${app.security.jwt.token-version-refresh-ms:30000}")
+    public void refreshVersions() {
+        if (!selfContainedTokens) {
+            return;
+        }
+        LocalDateTime since = lastChangeSeen;
+        List<UserTokenVersionView> changed = since != null
+                ? userRepository.findTokenVersionsChangedSince(since.minus(REFRESH_OVERLAP))
+                : userRepository.findAllWithTokenVersion();
+        merge(changed);
+        logger.debug("Token versiyonları veritabanından yenilendi ({} kayıt).", changed.size());
+    }
+
+    public long currentVersion(UUID userId) {
+        if (userId == null) {
+            return 0L;
+        }
+        return versions.getOrDefault(userId, 0L);
+    }
+
+    public boolean isCurrent(UUID userId, long tokenVersion) {
+        return tokenVersion >= currentVersion(userId);
+    }
+
+    /**
+     * Verilen kullanıcıların sayaçlarını artırır; bu andan önce üretilmiş self-contained token'lar reddedilir.
+     * Kalıcı değer mevcut transaction ile birlikte yazılır; bellekteki değer commit'ten sonra veritabanından
+     * yeniden okunur, böylece geri alınan bir transaction token'ları geçersiz kılmaz.
+     */
+    @Transactional
+    public void revoke(Collection<UUID> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+        userRepository.incrementTokenVersions(userIds);
+        if (!selfContainedTokens) {
+            return;
+        }
+        List<UUID> ids = List.copyOf(userIds);
+        afterCommit(() -> {
+            merge(userRepository.findTokenVersionsByIds(ids));
+            logger.debug("{} kullanıcının token versiyonu artırıldı.", ids.size());
+        });
+    }
+
+    private synchronized void merge(List<UserTokenVersionView> views) {
+        LocalDateTime latest = lastChangeSeen;
+        for (UserTokenVersionView view : views) {
+            if (view.getTokenVersion() != null) {
+                versions.merge(view.getId(), view.getTokenVersion(), Math::max);
+            }
+            LocalDateTime changedAt = view.getTokenVersionChangedAt();
+            if (changedAt != null && (latest == null || changedAt.isAfter(latest))) {
+                latest = changedAt;
+            }
+        }
+        lastChangeSeen = latest;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
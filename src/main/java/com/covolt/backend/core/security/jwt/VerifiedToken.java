@@ -0,0 +1,85 @@
+package com.covolt.backend.core.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * İmzası ve süresi bir kez doğrulanmış JWT'nin değiştirilemez claim görünümü.
+ * <p>
+ * JwtService.verify() tarafından üretilir; filtre ve servisler aynı token için tekrar parse / HMAC
+ * doğrulaması yapmadan bu nesne üzerinden claim'lere erişir. Thread-safe'tir, önbellekte paylaşılabilir.
+ */
+@Getter
+public final class VerifiedToken {
+
+    private final String subject;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+    private final Map<String, Object> claims;
+
+    VerifiedToken(Claims claims) {
+        this.subject = claims.getSubject();
+        this.issuedAt = claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null;
+        this.expiresAt = claims.getExpiration() != null ? claims.getExpiration().toInstant() : null;
+        this.claims = Collections.unmodifiableMap(copy(claims));
+    }
+
+    public boolean isExpired() {
+        return expiresAt != null && !expiresAt.isAfter(Instant.now());
+    }
+
+    public boolean hasClaim(String name) {
+        return claims.containsKey(name);
+    }
+
+    public String getString(String name) {
+        Object value = claims.get(name);
+        return value != null ? value.toString() : null;
+    }
+
+    public Long getLong(String name) {
+        Object value = claims.get(name);
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    public Boolean getBoolean(String name) {
+        Object value = claims.get(name);
+        return value instanceof Boolean bool ? bool : null;
+    }
+
+    /**
+     * Liste tipindeki claim'i değiştirilemez String listesi olarak döner; claim yoksa boş liste.
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> getStringList(String name) {
+        Object value = claims.get(name);
+        return value instanceof List<?> ? (List<String>) value : List.of();
+    }
+
+    // Liste claim'lerini de değiştirilemez kopyaya çevirir, böylece nesne tamamen immutable olur
+    private static Map<String, Object> copy(Claims source) {
+        Map<String, Object> target = new LinkedHashMap<>(source.size());
+        for (Map.Entry<String, Object> entry : source.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Collection<?> values) {
+                List<String> list = new ArrayList<>(values.size());
+                for (Object item : values) {
+                    if (item != null) {
+                        list.add(item.toString());
+                    }
+                }
+                value = Collections.unmodifiableList(list);
+            }
+            target.put(entry.getKey(), value);
+        }
+        return target;
+    }
+}
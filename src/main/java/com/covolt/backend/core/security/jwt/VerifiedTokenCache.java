@@ -0,0 +1,110 @@
+package com.covolt.backend.core.security.jwt;
+
+import com.covolt.backend.core.cache.BoundedExpiringCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Yakın zamanda doğrulanmış token'ların önbelleği.
+ * <p>
+ * Aynı dashboard'dan saniyede onlarca kez gelen aynı bearer token için HMAC doğrulaması ve base64/JSON
+ * çözümlemesi tekrar yapılmaz. Anahtar, ham token'ın SHA-256 özetidir (token'ın kendisi bellekte tutulmaz).
+ * <ul>
+ *     <li>Pozitif girdiler tam olarak token'ın "exp" anında düşer.</li>
+ *     <li>Hatalı/geçersiz token'lar kısa süreli negatif önbellekte tutulur; çöp trafik CPU yakamaz.</li>
+ * </ul>
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algoritması bulunamadı", e);
+        }
+    });
+
+    private final boolean enabled;
+    private final long negativeTtlMillis;
+    private final BoundedExpiringCache<String, VerifiedToken> positiveCache;
+    private final BoundedExpiringCache<String, String> negativeCache; // değer: ret nedeni
+
+    public VerifiedTokenCache(@Value("${app.security.jwt.verification-cache.enabled:true}") boolean enabled,
+                              @Value("${app.security.jwt.verification-cache.maximum-size:20000}") int maximumSize,
+                              @Value("${app.security.jwt.verification-cache.negative-maximum-size:5000}") int negativeMaximumSize,
+                              @Value("${app.security.jwt.verification-cache.negative-ttl-seconds:30}") long negativeTtlSeconds,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.negativeTtlMillis = negativeTtlSeconds * 1000L;
+        this.positiveCache = new BoundedExpiringCache<>(maximumSize, 32);
+        this.negativeCache = new BoundedExpiringCache<>(negativeMaximumSize, 16);
+
+        registerMetrics(meterRegistry, "positive", positiveCache);
+        registerMetrics(meterRegistry, "negative", negativeCache);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Token için önbellek anahtarı üretir (SHA-256, URL-safe base64).
+     */
+    public String keyOf(String token) {
+        byte[] digest = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    public VerifiedToken getVerified(String key) {
+        return positiveCache.get(key);
+    }
+
+    /**
+     * @return Token daha önce reddedildiyse ret nedeni, değilse null
+     */
+    public String getRejection(String key) {
+        return negativeCache.get(key);
+    }
+
+    public void putVerified(String key, VerifiedToken token) {
+        if (token.getExpiresAt() == null) {
+            return; // Süresiz token önbelleğe alınmaz
+        }
+        positiveCache.put(key, token, token.getExpiresAt().toEpochMilli());
+    }
+
+    public void putRejected(String key, String reason) {
+        negativeCache.put(key, reason != null ? reason : "Geçersiz token", System.currentTimeMillis() + negativeTtlMillis);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.jwt.verification-cache.cleanup-interval-ms:60000}")
+    public void cleanUpExpired() {
+        positiveCache.cleanUp();
+        negativeCache.cleanUp();
+    }
+
+    private static void registerMetrics(MeterRegistry registry, String type, BoundedExpiringCache<String, ?> cache) {
+        Gauge.builder("covolt.security.jwt.cache.size", cache, BoundedExpiringCache::size)
+                .tag("type", type)
+                .register(registry);
+        FunctionCounter.builder("covolt.security.jwt.cache.requests", cache, BoundedExpiringCache::hitCount)
+                .tag("type", type).tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("covolt.security.jwt.cache.requests", cache, BoundedExpiringCache::missCount)
+                .tag("type", type).tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("covolt.security.jwt.cache.evictions", cache, BoundedExpiringCache::evictionCount)
+                .tag("type", type)
+                .register(registry);
+    }
+}
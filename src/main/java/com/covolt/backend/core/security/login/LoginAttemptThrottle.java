@@ -0,0 +1,446 @@
+package com.covolt.backend.core.security.login;
+
+import com.covolt.backend.core.cache.BoundedExpiringCache;
+import com.covolt.backend.core.exception.LoginThrottledException;
+import com.covolt.backend.core.model.User;
+import com.covolt.backend.core.repository.UserRepository;
+import com.covolt.backend.core.repository.projection.UserIdEmailView;
+import com.covolt.backend.core.security.service.PrincipalInvalidationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login denemelerini kimlik doğrulamadan önce sınırlar (brute-force koruması).
+ * <p>
+ * Başarısız denemeler e-posta adresi ve IP adresi başına kayan pencerede ({@code window-minutes}) sayılır. Sınır
+ * aşıldığında istek veritabanına ve BCrypt'e hiç ulaşmadan {@link LoginThrottledException} (HTTP 429) ile reddedilir.
+ * Sayaçlar sabit sayıda şerit (stripe) üzerinde tutulur; her şerit kendi kilidiyle korunan, boyutu sınırlı bir LRU
+ * tablosudur. Böylece farklı anahtarlar birbirini beklemez ve rastgele e-postalarla yapılan saldırılar belleği
+ * büyütemez (en uzun süredir görülmeyen sayaç düşer). Aynı anda gelen denemeler sınırı en fazla eş zamanlı istek
+ * sayısı kadar aşabilir.
+ * <p>
+ * Başarısız deneme sayıları {@code User.failedLoginAttempts} alanına login yolunda değil, {@code flush-interval-ms}
+ * aralıklarla toplu güncellemelerle yazılır; başarılı login sayacı sıfırlar. E-postalar {@link User#normalizeEmail}
+ * ile normalize edilmiş saklandığı için bellekte ve sorgularda aynı biçim kullanılır. Veritabanında karşılığı
+ * olmayan e-postalar bir pencere süresince hatırlanır ve bekleyen yazmalara eklenmez; bu e-postalar yalnızca
+ * bellekteki pencerede sayılır. Toplam başarısız deneme
+ * {@code lock-threshold} değerine ulaşan hesaplar {@code User.locked} ile kalıcı olarak kilitlenir (0: kapalı); kilitlenen
+ * hesabın önbellekteki principal'ı silinir ve token versiyonu artırılır, böylece açık oturumlar da kapanır.
+ * <p>
+ * Metrikler: {@code covolt.security.login.failures}, {@code covolt.security.login.throttled} ({@code key}: email/ip),
+ * {@code covolt.security.login.throttle.entries} ve {@code covolt.security.login.throttle.pending}.
+ */
+@Component
+public class LoginAttemptThrottle {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptThrottle.class);
+
+    private static final int SLOTS = 15; // Pencere 15 dilime bölünür
+    private static final int MAX_PENDING = 100_000; // Veritabanına yazılmayı bekleyen en fazla e-posta sayısı
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PrincipalInvalidationService principalInvalidationService;
+    private final boolean enabled;
+    private final int maxFailuresPerEmail;
+    private final int maxFailuresPerIp;
+    private final long slotMillis;
+    private final int lockThreshold;
+    private final int flushBatchSize;
+    private final boolean trustForwardedFor;
+    private final Stripe[] stripes;
+
+    private final Map<String, Integer> pendingFailures = new ConcurrentHashMap<>();
+    private final Set<String> pendingResets = ConcurrentHashMap.newKeySet();
+    private final BoundedExpiringCache<String, Boolean> unknownEmails;
+    private final long unknownEmailTtlMillis;
+
+    private final Counter failureCounter;
+    private final Counter emailThrottledCounter;
+    private final Counter ipThrottledCounter;
+
+    public LoginAttemptThrottle(UserRepository userRepository,
+                                TransactionTemplate transactionTemplate,
+                                PrincipalInvalidationService principalInvalidationService,
+                                @Value("${app.security.login-throttle.enabled:true}") boolean enabled,
+                                @Value("${app.security.login-throttle.max-failures-per-email:5}") int maxFailuresPerEmail,
+                                @Value("${app.security.login-throttle.max-failures-per-ip:20}") int maxFailuresPerIp,
+                                @Value("${app.security.login-throttle.window-minutes:15}") int windowMinutes,
+                                @Value("${app.security.login-throttle.maximum-size:100000}") int maximumSize,
+                                @Value("${app.security.login-throttle.stripes:64}") int stripeCount,
+                                @Value("${app.security.login-throttle.lock-threshold:20}") int lockThreshold,
+                                @Value("${app.security.login-throttle.flush-batch-size:500}") int flushBatchSize,
+                                @Value("${app.security.login-throttle.trust-forwarded-for:false}") boolean trustForwardedFor,
+                                MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.principalInvalidationService = principalInvalidationService;
+        this.enabled = enabled;
+        this.maxFailuresPerEmail = maxFailuresPerEmail;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.slotMillis = Math.max(1, TimeUnit.MINUTES.toMillis(windowMinutes) / SLOTS);
+        this.unknownEmailTtlMillis = TimeUnit.MINUTES.toMillis(windowMinutes);
+        this.lockThreshold = lockThreshold;
+        this.flushBatchSize = Math.max(1, flushBatchSize);
+        this.trustForwardedFor = trustForwardedFor;
+
+        int count = Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1); // 2'nin kuvvetine yuvarla
+        int entriesPerStripe = Math.max(1, maximumSize / count);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(entriesPerStripe);
+        }
+        this.unknownEmails = new BoundedExpiringCache<>(maximumSize, count);
+
+        this.failureCounter = Counter.builder("covolt.security.login.failures")
+                .description("Başarısız login denemesi sayısı")
+                .register(meterRegistry);
+        this.emailThrottledCounter = Counter.builder("covolt.security.login.throttled")
+                .description("Sınır aşıldığı için kimlik doğrulama yapılmadan reddedilen login denemesi sayısı")
+                .tag("key", "email")
+                .register(meterRegistry);
+        this.ipThrottledCounter = Counter.builder("covolt.security.login.throttled")
+                .description("Sınır aşıldığı için kimlik doğrulama yapılmadan reddedilen login denemesi sayısı")
+                .tag("key", "ip")
+                .register(meterRegistry);
+        Gauge.builder("covolt.security.login.throttle.entries", this, LoginAttemptThrottle::size)
+                .register(meterRegistry);
+        Gauge.builder("covolt.security.login.throttle.pending", pendingFailures, Map::size)
+                .register(meterRegistry);
+
+        logger.info("Login sınırlaması {} (e-posta başına {}, IP başına {} hatalı deneme / {} dk, kalıcı kilit: {}).",
+                enabled ? "aktif" : "devre dışı", maxFailuresPerEmail, maxFailuresPerIp, windowMinutes, lockThreshold);
+    }
+
+    /**
+     * Kimlik doğrulamadan önce çağrılır.
+     *
+     * @throws LoginThrottledException E-posta veya istemci IP'si için sınır aşılmışsa
+     */
+    public void checkAllowed(String email) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long emailRetryMs = retryAfterMillis(emailKey(normalizeEmail(email)), maxFailuresPerEmail, now);
+        if (emailRetryMs > 0) {
+            emailThrottledCounter.increment();
+            logger.warn("Login denemesi sınırlandı (e-posta): {}", email);
+            throw new LoginThrottledException(toSeconds(emailRetryMs));
+        }
+        String ip = currentClientIp();
+        long ipRetryMs = ip != null ? retryAfterMillis(ipKey(ip), maxFailuresPerIp, now) : 0;
+        if (ipRetryMs > 0) {
+            ipThrottledCounter.increment();
+            logger.warn("Login denemesi sınırlandı (IP): {}", ip);
+            throw new LoginThrottledException(toSeconds(ipRetryMs));
+        }
+    }
+
+    public void recordFailure(String email) {
+        if (!enabled) {
+            return;
+        }
+        failureCounter.increment();
+        long now = System.currentTimeMillis();
+        String normalizedEmail = normalizeEmail(email);
+        addFailure(emailKey(normalizedEmail), now);
+        String ip = currentClientIp();
+        if (ip != null) {
+            addFailure(ipKey(ip), now);
+        }
+        if (unknownEmails.get(normalizedEmail) != null) {
+            return; // Hesap yok; veritabanına yazılacak sayaç da yok
+        }
+        if (pendingFailures.size() < MAX_PENDING || pendingFailures.containsKey(normalizedEmail)) {
+            pendingFailures.merge(normalizedEmail, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * E-postanın sayacını temizler. IP sayacına dokunulmaz; aksi halde geçerli bir hesapla giriş yapan saldırgan
+     * diğer hesaplar üzerindeki denemelerinin sayacını sıfırlayabilirdi.
+     */
+    public void recordSuccess(String email) {
+        if (!enabled) {
+            return;
+        }
+        String normalizedEmail = normalizeEmail(email);
+        String key = emailKey(normalizedEmail);
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.windows.remove(key);
+        }
+        pendingFailures.remove(normalizedEmail);
+        unknownEmails.invalidate(normalizedEmail); // Hesap artık var (ör. yeni kayıt)
+        if (pendingResets.size() < MAX_PENDING) {
+            pendingResets.add(normalizedEmail);
+        }
+    }
+
+    /**
+     * Bekleyen sayaç değişikliklerini veritabanına toplu olarak yazar: önce sıfırlamalar, sonra aynı artış
+     * miktarına sahip e-postalar için tek UPDATE, ardından kilit eşiğine ulaşan hesapların kilitlenmesi.
+     * Karşılığı olmayan e-postalar atlanır ve pencere süresince yeniden kuyruğa alınmaz.
+     */
+    @Scheduled(fixedDelayString = "${app.security.login-throttle.flush-interval-ms:5000}")
+    public void flush() {
+        List<String> resets = new ArrayList<>();
+        for (String email : pendingResets) {
+            if (pendingResets.remove(email)) {
+                resets.add(email);
+            }
+        }
+        Map<Integer, List<String>> failuresByDelta = new HashMap<>();
+        for (String email : pendingFailures.keySet()) {
+            Integer delta = pendingFailures.remove(email);
+            if (delta != null) {
+                failuresByDelta.computeIfAbsent(delta, d -> new ArrayList<>()).add(email);
+            }
+        }
+        if (resets.isEmpty() && failuresByDelta.isEmpty()) {
+            return;
+        }
+
+        // Commit edilen parçalar ilerledikçe sayılır; hata halinde yalnızca yazılamayanlar geri konur
+        int writtenResets = 0;
+        Map<Integer, Integer> writtenFailures = new HashMap<>();
+        try {
+            for (List<String> chunk : chunks(resets)) {
+                transactionTemplate.executeWithoutResult(status -> userRepository.resetFailedLoginAttempts(chunk));
+                writtenResets += chunk.size();
+            }
+            for (Map.Entry<Integer, List<String>> entry : failuresByDelta.entrySet()) {
+                for (List<String> chunk : chunks(entry.getValue())) {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        List<String> existing = existingEmails(chunk);
+                        if (!existing.isEmpty()) {
+                            userRepository.incrementFailedLoginAttempts(existing, entry.getKey());
+                            lockIfThresholdReached(existing);
+                        }
+                    });
+                    writtenFailures.merge(entry.getKey(), chunk.size(), Integer::sum);
+                }
+            }
+        } catch (RuntimeException e) {
+            requeue(resets.subList(writtenResets, resets.size()), failuresByDelta, writtenFailures);
+            logger.error("Başarısız login sayaçları veritabanına yazılamadı; yazılamayanlar sonraki turda yeniden denenecek.", e);
+        }
+    }
+
+    // Yazılamayan sıfırlama ve artışları bekleyen tablolara geri koyar; artışlar bu arada gelenlerle toplanır.
+    // Boşaltmadan sonra başarılı login olmuş e-postanın eski artışı geri konmaz.
+    private void requeue(List<String> resets, Map<Integer, List<String>> failuresByDelta,
+                         Map<Integer, Integer> writtenFailures) {
+        for (Map.Entry<Integer, List<String>> entry : failuresByDelta.entrySet()) {
+            List<String> emails = entry.getValue();
+            int written = writtenFailures.getOrDefault(entry.getKey(), 0);
+            for (String email : emails.subList(written, emails.size())) {
+                if (!pendingResets.contains(email)) {
+                    pendingFailures.merge(email, entry.getKey(), Integer::sum);
+                }
+            }
+        }
+        pendingResets.addAll(resets); // Artışlardan sonra eklenir; flush sıfırlamayı artıştan önce uygular
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.windows.size();
+            }
+        }
+        return size;
+    }
+
+    // Veritabanında olmayan e-postaları ayıklar ve hatırlar
+    private List<String> existingEmails(List<String> emails) {
+        Set<String> found = new HashSet<>(userRepository.findExistingEmails(emails));
+        if (found.size() == emails.size()) {
+            return emails;
+        }
+        long expiresAt = System.currentTimeMillis() + unknownEmailTtlMillis;
+        List<String> existing = new ArrayList<>(found.size());
+        for (String email : emails) {
+            if (found.contains(email)) {
+                existing.add(email);
+            } else {
+                unknownEmails.put(email, Boolean.TRUE, expiresAt);
+            }
+        }
+        return existing;
+    }
+
+    private void lockIfThresholdReached(List<String> emails) {
+        if (lockThreshold <= 0) {
+            return;
+        }
+        List<UserIdEmailView> toLock = userRepository.findUsersToLock(emails, lockThreshold);
+        if (toLock.isEmpty()) {
+            return;
+        }
+        List<UUID> userIds = new ArrayList<>(toLock.size());
+        List<String> lockedEmails = new ArrayList<>(toLock.size());
+        for (UserIdEmailView user : toLock) {
+            userIds.add(user.getId());
+            lockedEmails.add(user.getEmail());
+        }
+        userRepository.lockByIds(userIds);
+        // Mevcut transaction'a katılır; token versiyonları kilitle birlikte commit edilir
+        for (UserIdEmailView user : toLock) {
+            principalInvalidationService.userChanged(user.getId(), user.getEmail());
+        }
+        logger.warn("{} hesap başarısız giriş denemeleri nedeniyle kilitlendi: {}", toLock.size(), lockedEmails);
+    }
+
+    private List<List<String>> chunks(List<String> emails) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < emails.size(); from += flushBatchSize) {
+            chunks.add(emails.subList(from, Math.min(emails.size(), from + flushBatchSize)));
+        }
+        return chunks;
+    }
+
+    private long retryAfterMillis(String key, int limit, long now) {
+        if (limit <= 0) {
+            return 0;
+        }
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            FailureWindow window = stripe.windows.get(key);
+            return window != null && window.count(now) >= limit ? window.millisUntilOldestExpires(now) : 0;
+        }
+    }
+
+    private void addFailure(String key, long now) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.windows.computeIfAbsent(key, k -> new FailureWindow()).add(now);
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private String currentClientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return null;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                return forwardedFor.split(",")[0].trim(); // İlk adres istemcidir
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    // Sayaç tabloları, bekleyen yazmalar ve sorgular saklanan e-postayla aynı biçimi kullanır
+    private static String normalizeEmail(String email) {
+        return email != null ? User.normalizeEmail(email) : "";
+    }
+
+    private static String emailKey(String normalizedEmail) {
+        return "e:" + normalizedEmail;
+    }
+
+    private static String ipKey(String ip) {
+        return "i:" + ip;
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+
+    /**
+     * Boyutu sınırlı, erişim sırasına göre LRU tablo; yalnızca kendi kilidi altında kullanılır.
+     */
+    private static final class Stripe {
+
+        private final LinkedHashMap<String, FailureWindow> windows;
+
+        private Stripe(int maximumSize) {
+            this.windows = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, FailureWindow> eldest) {
+                    return size() > maximumSize;
+                }
+            };
+        }
+    }
+
+    /**
+     * Son {@code SLOTS} dilimdeki başarısız denemeler; ait olduğu şeridin kilidi altında kullanılır.
+     */
+    private final class FailureWindow {
+
+        private final long[] slotEpochs = new long[SLOTS];
+        private final int[] counts = new int[SLOTS];
+
+        private void add(long now) {
+            long epoch = now / slotMillis;
+            int index = (int) (epoch % SLOTS);
+            if (slotEpochs[index] != epoch) {
+                slotEpochs[index] = epoch;
+                counts[index] = 0;
+            }
+            counts[index]++;
+        }
+
+        private int count(long now) {
+            long epoch = now / slotMillis;
+            int total = 0;
+            for (int i = 0; i < SLOTS; i++) {
+                if (epoch - slotEpochs[i] < SLOTS) {
+                    total += counts[i];
+                }
+            }
+            return total;
+        }
+
+        // En eski dolu dilimin pencereden çıkmasına kalan süre
+        private long millisUntilOldestExpires(long now) {
+            long epoch = now / slotMillis;
+            long oldest = epoch;
+            for (int i = 0; i < SLOTS; i++) {
+                if (counts[i] > 0 && epoch - slotEpochs[i] < SLOTS) {
+                    oldest = Math.min(oldest, slotEpochs[i]);
+                }
+            }
+            return (oldest + SLOTS) * slotMillis - now;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.covolt.backend.core.security.password;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Uygulamanın {@link PasswordEncoder}'ı.
+ * <p>
+ * Hash'ler {@code {id}} önekiyle saklanır ({@link DelegatingPasswordEncoder}); yeni şifreler
+ * {@code app.security.password.encoding-id} algoritmasıyla ({@code bcrypt} veya {@code pbkdf2}) ve BCrypt için
+ * {@code bcrypt-strength} maliyetiyle üretilir. Öneksiz eski BCrypt hash'leri doğrulanmaya devam eder.
+ * Algoritma veya maliyet değiştiğinde {@link #upgradeEncoding} true döner ve şifre bir sonraki başarılı login'de
+ * yeni ayarla tekrar hash'lenir (bkz. {@code UserPasswordUpgradeService}).
+ * <p>
+ * Tüm hash işleri {@link PasswordHashExecutor} üzerinde çalışır. Süreler
+ * {@code covolt.security.password.hash} metriğinde {@code operation} ve {@code algorithm} etiketleriyle tutulur.
+ */
+@Component
+public class AdaptivePasswordEncoder implements PasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptivePasswordEncoder.class);
+
+    static final String BCRYPT = "bcrypt";
+    static final String PBKDF2 = "pbkdf2";
+    private static final String LEGACY = "legacy-bcrypt"; // Öneksiz (eski) hash'ler için metrik etiketi
+
+    private final DelegatingPasswordEncoder delegate;
+    private final PasswordHashExecutor hashExecutor;
+    private final String encodingId;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new HashMap<>();
+
+    public AdaptivePasswordEncoder(PasswordHashExecutor hashExecutor,
+                                   @Value("${app.security.password.encoding-id:bcrypt}") String encodingId,
+                                   @Value("${app.security.password.bcrypt-strength:10}") int bcryptStrength,
+                                   MeterRegistry meterRegistry) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(PBKDF2, Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        if (!encoders.containsKey(encodingId)) {
+            throw new IllegalStateException("Desteklenmeyen şifre algoritması: " + encodingId + " (bcrypt veya pbkdf2 olmalı)");
+        }
+
+        this.delegate = new DelegatingPasswordEncoder(encodingId, encoders);
+        this.delegate.setDefaultPasswordEncoderForMatches(bcrypt); // Önek eklenmeden önce kaydedilmiş hash'ler
+        this.hashExecutor = hashExecutor;
+        this.encodingId = encodingId;
+        this.meterRegistry = meterRegistry;
+
+        // Etiket kombinasyonları sabit ve az olduğu için timer'lar baştan oluşturulur
+        for (String algorithm : new String[]{BCRYPT, PBKDF2, LEGACY}) {
+            timer("encode", algorithm);
+            timer("matches", algorithm);
+        }
+        logger.info("Şifre algoritması: {} (BCrypt maliyeti: {}).", encodingId, bcryptStrength);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        Timer timer = timers.get(key("encode", encodingId));
+        return hashExecutor.execute(() -> timer.recordCallable(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Timer timer = timers.get(key("matches", algorithmOf(encodedPassword)));
+        return hashExecutor.execute(() -> timer.recordCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    // Hash hesaplamaz (yalnızca önek ve maliyet okunur), havuza gönderilmez
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return encodedPassword != null && delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static String algorithmOf(String encodedPassword) {
+        if (encodedPassword != null && encodedPassword.startsWith("{")) {
+            int end = encodedPassword.indexOf('}');
+            String id = end > 0 ? encodedPassword.substring(1, end) : null;
+            if (BCRYPT.equals(id) || PBKDF2.equals(id)) {
+                return id;
+            }
+        }
+        return LEGACY;
+    }
+
+    private void timer(String operation, String algorithm) {
+        timers.put(key(operation, algorithm), Timer.builder("covolt.security.password.hash")
+                .description("Şifre hash'leme ve doğrulama süresi")
+                .tag("operation", operation)
+                .tag("algorithm", algorithm)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry));
+    }
+
+    private static String key(String operation, String algorithm) {
+        return operation + ':' + algorithm;
+    }
+}
@@ -0,0 +1,136 @@
+package com.covolt.backend.core.security.password;
+
+import com.covolt.backend.core.exception.QueueFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Şifre hash'leme ve doğrulama (BCrypt vb.) için sınırlı iş parçacığı havuzu.
+ * <p>
+ * Hash hesaplaması tamamen CPU işidir; login yoğunluğunda her istek thread'i aynı anda hash hesaplarsa CPU tükenir
+ * ve diğer tüm endpoint'ler yavaşlar. Bu havuz aynı anda en fazla {@code pool-size} hash hesaplanmasına izin verir
+ * (varsayılan: işlemci sayısı), {@code queue-capacity} kadar işi bekletir ve fazlasını hemen reddeder
+ * ({@link QueueFullException}, HTTP 503). Böylece login için bekleyen istek thread'i sayısı da sınırlı kalır.
+ * <p>
+ * Havuz yalnızca eş zamanlılığı sınırlar: çağıran thread sonucu {@code wait-timeout-ms} süresine kadar bloklanarak
+ * bekler, istek thread'i serbest kalmaz. Bu yüzden çağıran bu süre boyunca DB bağlantısı tutmamalıdır (login
+ * transaction dışında ve open-in-view kapalı çalışır, bkz. {@code OpenEntityManagerInViewConfig}).
+ * <p>
+ * Metrikler: {@code covolt.security.password.hash.queue.depth}, {@code .active}, {@code .wait}
+ * (kuyrukta bekleme süresi) ve {@code .rejected}.
+ */
+@Component
+public class PasswordHashExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashExecutor.class);
+    private static final String QUEUE_NAME = "şifre doğrulama";
+
+    private final ThreadPoolExecutor executor;
+    private final long waitTimeoutMs;
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashExecutor(@Value("${app.security.password.hash-executor.pool-size:0}") int poolSize,
+                                @Value("${app.security.password.hash-executor.queue-capacity:64}") int queueCapacity,
+                                @Value("${app.security.password.hash-executor.wait-timeout-ms:5000}") long waitTimeoutMs,
+                                MeterRegistry meterRegistry) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, queueCapacity)), new CustomizableThreadFactory("password-hash-"));
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.waitTimer = Timer.builder("covolt.security.password.hash.wait")
+                .description("Hash işinin havuzda başlamadan önce beklediği süre")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("covolt.security.password.hash.rejected")
+                .description("Havuz dolu olduğu için reddedilen hash işi sayısı")
+                .register(meterRegistry);
+        Gauge.builder("covolt.security.password.hash.queue.depth", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("covolt.security.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+
+        logger.info("Şifre hash havuzu: {} thread, kuyruk kapasitesi {}, bekleme süresi {} ms.",
+                threads, queueCapacity, waitTimeoutMs);
+    }
+
+    /**
+     * İşi havuzda çalıştırır ve sonucunu bekler.
+     *
+     * @throws QueueFullException Havuz doluysa veya iş {@code wait-timeout-ms} içinde tamamlanmadıysa
+     */
+    public <T> T execute(Callable<T> hashing) {
+        if (Thread.currentThread().getName().startsWith("password-hash-")) {
+            return call(hashing); // Havuz içinden gelen çağrı (iç içe encoder) kendi thread'inde çalışır
+        }
+
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return hashing.call();
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            logger.warn("Şifre hash havuzu dolu, istek reddedildi (kuyruk: {}).", executor.getQueue().size());
+            throw new QueueFullException(QUEUE_NAME);
+        }
+
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            logger.warn("Şifre hash işi {} ms içinde tamamlanmadı.", waitTimeoutMs);
+            throw new QueueFullException(QUEUE_NAME);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Şifre hash işi beklerken kesildi", e);
+        } catch (CancellationException e) {
+            throw new QueueFullException(QUEUE_NAME);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Şifre hash işi başarısız oldu", cause);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static <T> T call(Callable<T> hashing) {
+        try {
+            return hashing.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Şifre hash işi başarısız oldu", e);
+        }
+    }
+}
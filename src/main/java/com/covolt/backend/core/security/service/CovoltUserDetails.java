@@ -11,6 +11,7 @@ import java.util.*;
 public class CovoltUserDetails extends User { // Spring Security'nin User sınıfını genişletiyoruz
 
     private final UUID userId;
+    private final String fullName; // Login/refresh yanıtı için; token'dan oluşturulan principal'da null olabilir
     private final UUID companyId;
     private final String companyName; // Opsiyonel, ihtiyaç duyulursa
 
@@ -32,6 +33,7 @@ public class CovoltUserDetails extends User { // Spring Security'nin User sını
             boolean accountNonLocked, // Hesap kilitli mi? (User entity'sinden)
             Collection<? extends GrantedAuthority> authorities, // Hem ROLLER hem de İZİNLER burada olacak
             UUID userId, // Bizim User entity'mizin ID'si
+            String fullName, // Kullanıcının adı soyadı
             UUID companyId, // Kullanıcının bağlı olduğu Company'nin ID'si
             String companyName, // Kullanıcının bağlı olduğu Company'nin adı
             UserSubscriptionStatus activeSubscriptionStatus, // Aktif aboneliğin durumu
@@ -40,6 +42,7 @@ public class CovoltUserDetails extends User { // Spring Security'nin User sını
     ) {
         super(username, password, enabled, accountNonExpired, credentialsNonExpired, accountNonLocked, authorities);
         this.userId = userId;
+        this.fullName = fullName;
         this.companyId = companyId;
         this.companyName = companyName;
         this.activeSubscriptionStatus = activeSubscriptionStatus;
@@ -61,10 +64,17 @@ public class CovoltUserDetails extends User { // Spring Security'nin User sını
             boolean accountNonLocked
     ) {
         this(username, password, enabled, true, true, !accountNonLocked, authorities,
-                userId, companyId, companyName,
+                userId, null, companyId, companyName,
                 null, null, Collections.emptySet()); // Abonelik bilgileri null/boş
     }
 
+    /**
+     * Kullanıcının e-posta adresi (username olarak da kullanılır).
+     */
+    public String getEmail() {
+        return getUsername();
+    }
+
     // Lombok @Getter sayesinde bu alanlar için getter metodları otomatik olarak oluşacak.
     // Örnek: getUserId(), getCompanyId(), getActiveSubscriptionFeatures()
 }
\ No newline at end of file
@@ -1,14 +1,10 @@
 package com.covolt.backend.core.security.service;
 
 import com.covolt.backend.core.model.CompanySubscription;
-import com.covolt.backend.core.model.Permission;
-import com.covolt.backend.core.model.Role;
 import com.covolt.backend.core.model.User;
 import com.covolt.backend.core.model.enums.UserSubscriptionStatus;
 import com.covolt.backend.core.repository.UserRepository;
-import com.covolt.backend.service.CompanySubscriptionService; // BU SERVİSİ ENJEKTE EDECEĞİZ
-// GitHub reponda CompanySubscriptionService 'com.covolt.backend.service' paketinde.
-// Bu paketi modüler yapıya uygun olarak 'com.covolt.backend.modules.subscription.service' gibi bir yere taşımayı düşünebiliriz ileride.
+import com.covolt.backend.core.repository.projection.UserAuthorityRow;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.GrantedAuthority;
@@ -19,9 +15,9 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Optional;
+import java.util.List;
 import java.util.Set;
 import java.util.Collections;
 // Gerekli importları kontrol et
@@ -31,76 +27,69 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomUserDetailsService.class);
 
+    // "Aktif" olabilecek abonelik statüleri; en yeni kayıt erişim vermiyorsa firma aboneliksiz sayılır
+    private static final List<UserSubscriptionStatus> RELEVANT_SUBSCRIPTION_STATUSES =
+            List.of(UserSubscriptionStatus.TRIAL, UserSubscriptionStatus.ACTIVE, UserSubscriptionStatus.PAST_DUE);
+
     private final UserRepository userRepository;
-    private final CompanySubscriptionService companySubscriptionService; // YENİ BAĞIMLILIK
 
-    // Constructor'ı güncelle
-    public CustomUserDetailsService(UserRepository userRepository,
-                                    CompanySubscriptionService companySubscriptionService) {
+    public CustomUserDetailsService(UserRepository userRepository) {
         this.userRepository = userRepository;
-        this.companySubscriptionService = companySubscriptionService;
     }
 
     @Override
-    @Transactional(readOnly = true) // LAZY fetch edilecek ilişkiler için transaction gerekli
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         logger.debug("Kullanıcı yükleme denemesi: {}", email);
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> {
-                    logger.warn("Kullanıcı bulunamadı: {}", email);
-                    // Burada ResourceNotFoundException(ErrorCode.USER_003, email) kullanmak daha standart olurdu
-                    return new UsernameNotFoundException("Kullanıcı bulunamadı: " + email);
-                });
+        // Kullanıcı + firma + roller + izinler + aktif abonelik tek sorguda, entity oluşturmadan (her rol/izin için bir satır)
+        // E-postalar normalize edilmiş saklanır; login sınırlaması da aynı biçimle sayar ve kilitler
+        List<UserAuthorityRow> rows = userRepository.findAuthorityRowsByEmail(User.normalizeEmail(email), RELEVANT_SUBSCRIPTION_STATUSES);
+        if (rows.isEmpty()) {
+            logger.warn("Kullanıcı bulunamadı: {}", email);
+            // Burada ResourceNotFoundException(ErrorCode.USER_003, email) kullanmak daha standart olurdu
+            throw new UsernameNotFoundException("Kullanıcı bulunamadı: " + email);
+        }
 
-        logger.debug("Kullanıcı bulundu: {}. Roller, izinler ve abonelik bilgileri yükleniyor.", user.getUsername());
+        UserAuthorityRow user = rows.get(0);
+        logger.debug("Kullanıcı bulundu: {}. Roller, izinler ve abonelik bilgileri yükleniyor.", user.getEmail());
 
-        if (user.getCompany() == null) {
-            logger.error("KRİTİK HATA: Kullanıcı {} (ID: {}) bir firmaya bağlı değil!", user.getUsername(), user.getId());
+        if (user.getCompanyId() == null) {
+            logger.error("KRİTİK HATA: Kullanıcı {} (ID: {}) bir firmaya bağlı değil!", user.getEmail(), user.getUserId());
             throw new UsernameNotFoundException("Kullanıcı firma bilgisi eksik: " + email);
         }
 
         // Yetkileri topla (Roller + İzinler)
         Set<GrantedAuthority> authorities = new HashSet<>();
-        if (user.getRoles() != null && !user.getRoles().isEmpty()) {
-            for (Role role : user.getRoles()) { // User.roles LAZY olabilir, @Transactional gerekli
-                authorities.add(new SimpleGrantedAuthority(role.getName())); // Örn: ROLE_PLATFORM_ADMIN
-                if (role.getPermissions() != null && !role.getPermissions().isEmpty()) { // Role.permissions EAGER fetch edilmiş olmalı
-                    for (Permission permission : role.getPermissions()) {
-                        authorities.add(new SimpleGrantedAuthority(permission.getName())); // Örn: MANAGE_ROLES
-                    }
-                }
+        for (UserAuthorityRow row : rows) {
+            if (row.getRoleName() != null) {
+                authorities.add(new SimpleGrantedAuthority(row.getRoleName())); // Örn: ROLE_PLATFORM_ADMIN
             }
-        } else {
-            logger.warn("{} kullanıcısı için rol bulunamadı. Yetkisiz kalacak.", user.getUsername());
+            if (row.getPermissionName() != null) {
+                authorities.add(new SimpleGrantedAuthority(row.getPermissionName())); // Örn: MANAGE_ROLES
+            }
+        }
+        if (authorities.isEmpty()) {
+            logger.warn("{} kullanıcısı için rol bulunamadı. Yetkisiz kalacak.", user.getEmail());
         }
-        logger.debug("{} kullanıcı için {} adet yetki (rol/izin) yüklendi.", user.getUsername(), authorities.size());
+        logger.debug("{} kullanıcı için {} adet yetki (rol/izin) yüklendi.", user.getEmail(), authorities.size());
 
-        // Aktif abonelik bilgilerini çek
+        // Aktif abonelik bilgileri aynı satırlarda gelir (firmanın en yeni TRIAL/ACTIVE/PAST_DUE kaydı)
         UserSubscriptionStatus subscriptionStatus = null;
         String planName = null;
         Set<String> planFeatures = Collections.emptySet();
 
-        // CompanySubscriptionService null olabilir eğer opsiyonel bir bağımlılık olarak tasarlanırsa,
-        // ama bizim için kritik bir servis, bu yüzden null olmamalı.
-        if (companySubscriptionService != null) {
-            Optional<CompanySubscription> activeSubOpt = companySubscriptionService.getCurrentActiveSubscription(user.getCompany());
-            if (activeSubOpt.isPresent()) {
-                CompanySubscription activeSub = activeSubOpt.get();
-                subscriptionStatus = activeSub.getStatus();
-                if (activeSub.getPlan() != null) {
-                    planName = activeSub.getPlan().getDisplayName(); // Veya getPlan().getName()
-                    planFeatures = new HashSet<>(activeSub.getPlan().getFeatures());
-                }
-                logger.debug("Aktif abonelik bulundu: Plan='{}', Statü='{}', Özellik Sayısı={}", planName, subscriptionStatus, planFeatures.size());
-            } else {
-                logger.info("{} kullanıcısının firması (ID: {}) için aktif abonelik bulunamadı.", user.getUsername(), user.getCompany().getId());
+        if (CompanySubscription.hasActiveAccess(user.getSubscriptionStatus(), user.getSubscriptionTrialEndDate(), user.getSubscriptionEndDate())) {
+            subscriptionStatus = user.getSubscriptionStatus();
+            planName = user.getPlanName();
+            if (user.getPlanFeatures() != null) {
+                planFeatures = new HashSet<>(Arrays.asList(user.getPlanFeatures().split(",")));
             }
+            logger.debug("Aktif abonelik bulundu: Plan='{}', Statü='{}', Özellik Sayısı={}", planName, subscriptionStatus, planFeatures.size());
         } else {
-            logger.error("CompanySubscriptionService enjekte edilmemiş! Abonelik bilgileri çekilemiyor.");
+            logger.info("{} kullanıcısının firması (ID: {}) için aktif abonelik bulunamadı.", user.getEmail(), user.getCompanyId());
         }
 
-
         // CovoltUserDetails nesnesini oluştur
         return new CovoltUserDetails(
                 user.getEmail(),
@@ -110,12 +99,13 @@ public class CustomUserDetailsService implements UserDetailsService {
                 true, // credentialsNonExpired - Şimdilik true
                 !user.isLocked(), // accountNonLocked
                 authorities,
-                user.getId(),
-                user.getCompany().getId(),
-                user.getCompany().getName(),
+                user.getUserId(),
+                user.getFullName(),
+                user.getCompanyId(),
+                user.getCompanyName(),
                 subscriptionStatus,
                 planName,
                 planFeatures
         );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package com.covolt.backend.core.security.service;
+
+import com.covolt.backend.core.repository.UserRepository;
+import com.covolt.backend.core.security.jwt.TokenVersionRegistry;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Kullanıcının yetkilerini etkileyen değişikliklerden (rol, izin, firma, abonelik) sonra çağrılır.
+ * Önbellekteki principal'ları siler ve token versiyonlarını artırarak eski self-contained token'ların
+ * yeniden üretilmesini zorunlu kılar.
+ */
+@Service
+@RequiredArgsConstructor
+public class PrincipalInvalidationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrincipalInvalidationService.class);
+
+    private final UserPrincipalCache userPrincipalCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final UserRepository userRepository;
+
+    /**
+     * Tek bir kullanıcının rolleri, firması veya hesap durumu değişti.
+     */
+    @Transactional
+    public void userChanged(UUID userId, String email) {
+        userPrincipalCache.evictUser(email);
+        if (userId != null) {
+            tokenVersionRegistry.revoke(List.of(userId));
+        }
+    }
+
+    /**
+     * Firmanın aboneliği değişti; firmadaki tüm kullanıcılar etkilenir.
+     */
+    @Transactional
+    public void companyChanged(UUID companyId) {
+        userPrincipalCache.evictCompany(companyId);
+        List<UUID> userIds = userRepository.findIdsByCompanyId(companyId);
+        tokenVersionRegistry.revoke(userIds);
+        logger.debug("Firma {} için {} kullanıcının yetki bilgisi geçersiz kılındı.", companyId, userIds.size());
+    }
+
+    /**
+     * Rolün adı veya izinleri değişti; bu role sahip tüm kullanıcılar etkilenir.
+     *
+     * @param roleId   Değişen rolün ID'si
+     * @param roleName Rolün değişiklikten önceki adı (önbellekteki yetkiler bu adı taşır)
+     */
+    @Transactional
+    public void roleChanged(UUID roleId, String roleName) {
+        userPrincipalCache.evictAuthority(roleName);
+        List<UUID> userIds = userRepository.findIdsByRoleId(roleId);
+        tokenVersionRegistry.revoke(userIds);
+        logger.debug("Rol {} ({}) için {} kullanıcının yetki bilgisi geçersiz kılındı.", roleName, roleId, userIds.size());
+    }
+}
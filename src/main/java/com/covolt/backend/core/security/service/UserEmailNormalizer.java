@@ -0,0 +1,42 @@
+package com.covolt.backend.core.security.service;
+
+import com.covolt.backend.core.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Uygulama açılışında, {@code User} kaydedilirken normalize edilmeye başlanmadan önce saklanmış e-postaları
+ * (trim + küçük harf) normalize eder. Login ve sayaç sorguları e-postayı düz eşitlikle aradığı için büyük harfli
+ * eski kayıtlar aksi halde bulunamaz. Normalize edilmiş hali başka bir kayıtla çakışan hesaplar varsa güncelleme
+ * yapılmaz; bu hesapların elle birleştirilmesi gerekir.
+ */
+@Component
+public class UserEmailNormalizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserEmailNormalizer.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserEmailNormalizer(UserRepository userRepository, TransactionTemplate transactionTemplate) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void normalizeStoredEmails() {
+        try {
+            Integer updated = transactionTemplate.execute(status -> userRepository.normalizeStoredEmails());
+            if (updated != null && updated > 0) {
+                logger.info("{} kullanıcının e-posta adresi normalize edildi.", updated);
+            }
+        } catch (DataIntegrityViolationException e) {
+            logger.error("E-posta adresleri normalize edilemedi: yalnızca büyük/küçük harf farkı olan mükerrer hesaplar var.", e);
+        }
+    }
+}
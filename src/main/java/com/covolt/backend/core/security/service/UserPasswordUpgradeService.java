@@ -0,0 +1,36 @@
+package com.covolt.backend.core.security.service;
+
+import com.covolt.backend.core.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Başarılı login'de, şifresi eski algoritma veya düşük maliyetle saklanan kullanıcının yeniden hash'lenmiş
+ * şifresini kaydeder. DaoAuthenticationProvider, {@code PasswordEncoder.upgradeEncoding} true döndüğünde çağırır;
+ * yeni hash kullanıcının az önce doğrulanan şifresinden üretilir.
+ */
+@Service
+public class UserPasswordUpgradeService implements UserDetailsPasswordService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserPasswordUpgradeService.class);
+
+    private final UserRepository userRepository;
+
+    public UserPasswordUpgradeService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (userRepository.updatePasswordByEmail(user.getUsername(), newPassword) > 0) {
+            logger.info("Kullanıcı şifresi güncel algoritma/maliyet ile yeniden hash'lendi: {}", user.getUsername());
+        }
+        // Principal'daki şifre kimlik doğrulama sonrasında zaten silinir; aynı principal kullanılmaya devam eder
+        return user;
+    }
+}
@@ -0,0 +1,204 @@
+package com.covolt.backend.core.security.service;
+
+import com.covolt.backend.core.cache.BoundedExpiringCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * JwtAuthenticationFilter'ın her istekte veritabanına gitmemesi için tam oluşturulmuş
+ * {@link CovoltUserDetails} nesnelerini e-posta adresine göre önbellekte tutar.
+ * <p>
+ * Girdiler TTL süresi sonunda kendiliğinden düşer. Rol, izin, firma veya abonelik değişikliklerinde
+ * ilgili servisler evict* metodlarını çağırarak girdileri anında geçersiz kılar. Transaction içinden
+ * çağrıldığında silme işlemi commit sonrasında bir kez daha tekrarlanır.
+ * <p>
+ * Commit'ten önce veritabanından okunmuş eski bir principal'ın silme işleminden sonra önbelleğe yazılmaması için
+ * yazma işlemleri nesil (generation) numarasıyla korunur: okuyan taraf yüklemeden önce {@link #generation} alır ve
+ * {@link #put(CovoltUserDetails, long)} ile birlikte verir. Her silme, ilgili anahtarın (firma/yetki/tümü
+ * silmelerinde tüm anahtarların) neslini artırır; o arada başlamış yüklemelerin yazmaları atılır. Nesiller sabit
+ * boyutlu bir şerit dizisinde tutulur, aynı şeride düşen anahtarlar yalnızca gereksiz bir önbellek kaçırmasına yol açar.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserPrincipalCache.class);
+
+    private static final int GENERATION_STRIPES = 1024; // 2'nin kuvveti
+
+    private final BoundedExpiringCache<String, CovoltUserDetails> cache;
+    private final AtomicLongArray keyGenerations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLong globalGeneration = new AtomicLong();
+    private final boolean enabled;
+    private final long ttlMillis;
+
+    public UserPrincipalCache(@Value("${app.security.principal-cache.enabled:true}") boolean enabled,
+                              @Value("${app.security.principal-cache.ttl-seconds:300}") long ttlSeconds,
+                              @Value("${app.security.principal-cache.maximum-size:10000}") int maximumSize,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.cache = new BoundedExpiringCache<>(maximumSize, 16);
+
+        // Actuator üzerinden /actuator/metrics altında görünür
+        Gauge.builder("covolt.security.principal.cache.size", cache, BoundedExpiringCache::size)
+                .description("Önbellekteki kullanıcı principal sayısı")
+                .register(meterRegistry);
+        FunctionCounter.builder("covolt.security.principal.cache.requests", cache, BoundedExpiringCache::hitCount)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("covolt.security.principal.cache.requests", cache, BoundedExpiringCache::missCount)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("covolt.security.principal.cache.evictions", cache, BoundedExpiringCache::evictionCount)
+                .tag("cause", "size")
+                .register(meterRegistry);
+        FunctionCounter.builder("covolt.security.principal.cache.evictions", cache, BoundedExpiringCache::expirationCount)
+                .tag("cause", "expired")
+                .register(meterRegistry);
+
+        logger.info("Principal önbelleği {} (TTL: {} sn, maksimum: {} girdi).",
+                enabled ? "aktif" : "devre dışı", ttlSeconds, maximumSize);
+    }
+
+    public CovoltUserDetails get(String email) {
+        if (!enabled || email == null) {
+            return null;
+        }
+        return cache.get(email);
+    }
+
+    /**
+     * Principal veritabanından yüklenmeden önce alınır ve {@link #put(CovoltUserDetails, long)}'a verilir.
+     */
+    public long generation(String email) {
+        return keyGenerations.get(stripeOf(email)) + globalGeneration.get();
+    }
+
+    /**
+     * Principal'ı önbelleğe yazar; yükleme başladıktan sonra bu anahtar için silme yapıldıysa yazma atılır.
+     *
+     * @param generation Yüklemeden önce {@link #generation} ile alınan değer
+     */
+    public void put(CovoltUserDetails userDetails, long generation) {
+        if (!enabled || userDetails == null) {
+            return;
+        }
+        String email = userDetails.getUsername();
+        if (generation(email) != generation) {
+            logger.debug("Principal önbelleğe yazılmadı, yükleme sırasında geçersiz kılındı: {}", email);
+            return;
+        }
+        cache.put(email, userDetails, System.currentTimeMillis() + ttlMillis);
+        // Kontrol ile yazma arasında silme yapıldıysa yazılan eski girdi geri alınır
+        if (generation(email) != generation) {
+            cache.invalidate(email);
+        }
+    }
+
+    /**
+     * Tek bir kullanıcının önbellek girdisini siler (rol değişikliği, transfer, firmadan çıkarma vb.).
+     */
+    public void evictUser(String email) {
+        if (email == null) {
+            return;
+        }
+        int stripe = stripeOf(email);
+        evict(() -> {
+            keyGenerations.incrementAndGet(stripe);
+            cache.invalidate(email);
+        }, "kullanıcı " + email);
+    }
+
+    public void evictUserById(UUID userId) {
+        if (userId == null) {
+            return;
+        }
+        evict(() -> {
+            globalGeneration.incrementAndGet(); // E-posta bilinmediği için tüm yüklemeler etkilenir
+            cache.invalidateIf((email, details) -> userId.equals(details.getUserId()));
+        }, "kullanıcı ID " + userId);
+    }
+
+    /**
+     * Bir firmaya bağlı tüm kullanıcıların girdilerini siler (abonelik değişiklikleri).
+     */
+    public void evictCompany(UUID companyId) {
+        if (companyId == null) {
+            return;
+        }
+        evict(() -> {
+            globalGeneration.incrementAndGet();
+            cache.invalidateIf((email, details) -> companyId.equals(details.getCompanyId()));
+        }, "firma " + companyId);
+    }
+
+    /**
+     * Verilen yetkiye (rol adı veya izin adı) sahip tüm kullanıcıların girdilerini siler.
+     * Bir rolün izinleri değiştiğinde, o role sahip herkes etkilenir.
+     */
+    public void evictAuthority(String authority) {
+        if (authority == null) {
+            return;
+        }
+        evict(() -> {
+            globalGeneration.incrementAndGet();
+            cache.invalidateIf((email, details) -> hasAuthority(details, authority));
+        }, "yetki " + authority);
+    }
+
+    public void evictAll() {
+        evict(() -> {
+            globalGeneration.incrementAndGet();
+            cache.invalidateAll();
+        }, "tüm girdiler");
+    }
+
+    // Süresi dolan girdilerin bellekte gereksiz yer tutmaması için periyodik temizlik
+    @Scheduled(fixedDelayString = "${app.security.principal-cache.cleanup-interval-ms:60000}")
+    public void cleanUpExpired() {
+        int removed = cache.cleanUp();
+        if (removed > 0) {
+            logger.debug("Principal önbelleğinden süresi dolmuş {} girdi temizlendi.", removed);
+        }
+    }
+
+    private void evict(Runnable action, String description) {
+        action.run();
+        logger.debug("Principal önbelleği geçersiz kılındı: {}", description);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private static int stripeOf(String email) {
+        int hash = email != null ? email.hashCode() : 0;
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    private static boolean hasAuthority(CovoltUserDetails details, String authority) {
+        for (GrantedAuthority grantedAuthority : details.getAuthorities()) {
+            if (authority.equals(grantedAuthority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
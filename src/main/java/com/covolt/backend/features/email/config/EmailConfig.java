@@ -34,17 +34,31 @@ public class EmailConfig {
     // Queue settings
     private Queue queue = new Queue();
     
+    // Async send executor settings (sends without the queue)
+    private Async async = new Async();
+    
     // Provider settings
     private Provider provider = new Provider();
     
+    // SMTP connection pool settings
+    private Transport transport = new Transport();
+    
+    // Email log persistence settings
+    private Logging logging = new Logging();
+    
     @Data
     public static class RateLimiting {
         private boolean enabled = true;
         private int maxEmailsPerMinute = 60;
         private int maxEmailsPerHour = 1000;
         private int maxEmailsPerDay = 10000;
+        private int maxEmailsPerMinutePerCompany = 30;
+        private int maxEmailsPerHourPerCompany = 500;
+        private int maxEmailsPerDayPerCompany = 5000;
         private int bulkEmailBatchSize = 50;
         private long bulkEmailBatchDelayMs = 1000;
+        private int bulkEmailConcurrency = 4; // Parallel SMTP senders shared by all bulk jobs
+        private long cleanupIntervalMs = 600000; // How often idle company windows are dropped
     }
     
     @Data
@@ -54,6 +68,7 @@ public class EmailConfig {
         private long initialDelayMs = 1000;
         private double backoffMultiplier = 2.0;
         private long maxDelayMs = 300000; // 5 minutes
+        private int dispatchThreads = 2;
     }
     
     @Data
@@ -71,6 +86,11 @@ public class EmailConfig {
         private boolean trackClicks = true;
         private String trackingDomain = "track.covolt.com";
         private long trackingDataRetentionDays = 90;
+        private String signingSecret; // HMAC key of tracking links
+        private int bufferCapacity = 65536; // Hits held in memory until the writer stores them
+        private long flushIntervalMs = 1000;
+        private int flushBatchSize = 1000;
+        private String purgeCron = "0 30 3 * * *";
     }
     
     @Data
@@ -80,6 +100,16 @@ public class EmailConfig {
         private int maxQueueSize = 10000;
         private int workerThreads = 5;
         private long processingTimeoutMs = 30000;
+        private long enqueueTimeoutMs = 2000; // How long a producer waits for space when the queue is full
+        private long streamEnqueueTimeoutMs = 60000; // How long a streamed bulk upload waits for space before it stops
+    }
+    
+    @Data
+    public static class Async {
+        private boolean virtualThreads = true;
+        private int maxConcurrency = 20; // Sends running at the same time
+        private int queueCapacity = 1000; // Sends waiting for a free slot before new ones are rejected
+        private long shutdownTimeoutMs = 30000;
     }
     
     @Data
@@ -89,5 +119,30 @@ public class EmailConfig {
         private Map<String, Object> smtpSettings;
         private Map<String, Object> sendgridSettings;
         private Map<String, Object> awsSesSettings;
+
+        // Circuit breaker per provider
+        private int windowSize = 50;
+        private int minimumCalls = 10;
+        private double failureRateThreshold = 0.5;
+        private long slowCallThresholdMs = 10000; // p99 latency per message
+        private long openDurationMs = 30000;
+        private int halfOpenProbes = 3;
+    }
+    
+    @Data
+    public static class Transport {
+        private boolean poolEnabled = true;
+        private int maxConnections = 5;
+        private long borrowTimeoutMs = 10000; // How long a send waits for a free connection
+        private long maxIdleMs = 60000; // Idle connections older than this are closed
+        private long validateAfterIdleMs = 5000; // Idle connections are checked with NOOP before reuse
+        private int maxMessagesPerConnection = 100; // Servers like Gmail limit messages per session
+        private long evictionIntervalMs = 30000;
+    }
+    
+    @Data
+    public static class Logging {
+        private long flushIntervalMs = 1000; // Max delay before a status change reaches the database
+        private int batchSize = 500; // Pending writes that trigger an early flush
     }
 }
@@ -0,0 +1,124 @@
+package com.covolt.backend.features.email.config;
+
+import com.covolt.backend.features.email.provider.EmailProvider;
+import com.covolt.backend.features.email.provider.EmailProviderRouter;
+import com.covolt.backend.features.email.provider.JavaMailEmailProvider;
+import com.covolt.backend.features.email.transport.PooledJavaMailSender;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Replaces the auto-configured {@link JavaMailSender} with a connection-pooling one.
+ * The sender is built from the usual {@code spring.mail.*} properties, so every mail sending service in
+ * the application (including the legacy EmailServiceImpl) uses the pool.
+ * <p>
+ * Also sets up the email providers of the email feature: {@code smtp} is the sender above; {@code sendgrid}
+ * and {@code awsSes} are created when their settings are given and they are the primary or fallback provider;
+ * they send through the service's SMTP relay. Their senders are not beans: {@link EmailProviderRouter} evicts
+ * their idle connections and closes them on shutdown.
+ */
+@Configuration
+@EnableConfigurationProperties(MailProperties.class)
+public class EmailTransportConfig {
+
+    private static final String SENDGRID_SMTP_HOST = "smtp.sendgrid.net";
+    private static final String SENDGRID_SMTP_USERNAME = "apikey";
+    private static final int RELAY_SMTP_PORT = 587;
+
+    @Bean
+    public JavaMailSender javaMailSender(MailProperties mailProperties, EmailConfig emailConfig) {
+        JavaMailSenderImpl sender = createSender(emailConfig);
+
+        sender.setHost(mailProperties.getHost());
+        if (mailProperties.getPort() != null) {
+            sender.setPort(mailProperties.getPort());
+        }
+        sender.setUsername(mailProperties.getUsername());
+        sender.setPassword(mailProperties.getPassword());
+        sender.setProtocol(mailProperties.getProtocol());
+        sender.setDefaultEncoding(mailProperties.getDefaultEncoding() != null
+                ? mailProperties.getDefaultEncoding().name()
+                : StandardCharsets.UTF_8.name());
+        if (!mailProperties.getProperties().isEmpty()) {
+            Properties properties = new Properties();
+            properties.putAll(mailProperties.getProperties());
+            sender.setJavaMailProperties(properties);
+        }
+        return sender;
+    }
+
+    @Bean
+    public EmailProviderRouter emailProviderRouter(JavaMailSender javaMailSender, EmailConfig emailConfig) {
+        EmailConfig.Provider settings = emailConfig.getProvider();
+        List<EmailProvider> providers = new ArrayList<>();
+        providers.add(new JavaMailEmailProvider("smtp", javaMailSender, false));
+
+        if (isRouted(settings, "sendgrid") && settings.getSendgridSettings() != null
+                && !settings.getSendgridSettings().isEmpty()) {
+            Map<String, Object> sendgrid = settings.getSendgridSettings();
+            providers.add(new JavaMailEmailProvider("sendgrid", createRelaySender(emailConfig,
+                    setting(sendgrid, "host", SENDGRID_SMTP_HOST),
+                    setting(sendgrid, "port", String.valueOf(RELAY_SMTP_PORT)),
+                    setting(sendgrid, "username", SENDGRID_SMTP_USERNAME),
+                    setting(sendgrid, "apiKey", setting(sendgrid, "password", null))), true));
+        }
+        if (isRouted(settings, "awsSes") && settings.getAwsSesSettings() != null
+                && !settings.getAwsSesSettings().isEmpty()) {
+            Map<String, Object> awsSes = settings.getAwsSesSettings();
+            String region = setting(awsSes, "region", "eu-central-1");
+            providers.add(new JavaMailEmailProvider("awsSes", createRelaySender(emailConfig,
+                    setting(awsSes, "host", "email-smtp." + region + ".amazonaws.com"),
+                    setting(awsSes, "port", String.valueOf(RELAY_SMTP_PORT)),
+                    setting(awsSes, "username", null),
+                    setting(awsSes, "password", null)), true));
+        }
+        return new EmailProviderRouter(providers, settings);
+    }
+
+    private static JavaMailSenderImpl createSender(EmailConfig emailConfig) {
+        return emailConfig.getTransport().isPoolEnabled()
+                ? new PooledJavaMailSender(emailConfig.getTransport())
+                : new JavaMailSenderImpl();
+    }
+
+    // SMTP relays of SendGrid and SES: STARTTLS on port 587 with SMTP credentials
+    private static JavaMailSenderImpl createRelaySender(EmailConfig emailConfig, String host, String port,
+                                                        String username, String password) {
+        JavaMailSenderImpl sender = createSender(emailConfig);
+        sender.setHost(host);
+        sender.setPort(Integer.parseInt(port));
+        sender.setUsername(username);
+        sender.setPassword(password);
+        sender.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        Properties properties = new Properties();
+        properties.put("mail.smtp.auth", "true");
+        properties.put("mail.smtp.starttls.enable", "true");
+        properties.put("mail.smtp.starttls.required", "true");
+        String timeout = String.valueOf(emailConfig.getQueue().getProcessingTimeoutMs());
+        properties.put("mail.smtp.connectiontimeout", timeout);
+        properties.put("mail.smtp.timeout", timeout);
+        properties.put("mail.smtp.writetimeout", timeout);
+        sender.setJavaMailProperties(properties);
+        return sender;
+    }
+
+    // Relay senders are only built for providers the router uses, so none is left without eviction and shutdown
+    private static boolean isRouted(EmailConfig.Provider settings, String name) {
+        return name.equals(settings.getPrimary()) || name.equals(settings.getFallback());
+    }
+
+    private static String setting(Map<String, Object> settings, String key, String defaultValue) {
+        Object value = settings.get(key);
+        return value != null ? value.toString() : defaultValue;
+    }
+}
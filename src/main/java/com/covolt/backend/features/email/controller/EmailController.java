@@ -2,6 +2,7 @@ package com.covolt.backend.features.email.controller;
 
 import com.covolt.backend.features.email.dto.*;
 import com.covolt.backend.features.email.enums.EmailType;
+import com.covolt.backend.features.email.ingest.RecipientStreamReader;
 import com.covolt.backend.features.email.service.EmailFeatureService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,10 +12,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.Optional;
@@ -71,7 +75,7 @@ public class EmailController {
         log.debug("REST request to send bulk email: type={}, recipients={}", 
                 request.getEmailType(), request.getRecipients().size());
         BulkEmailResponse response = emailFeatureService.sendBulkEmail(request);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.accepted().body(response);
     }
 
     @PostMapping("/bulk/send-async")
@@ -84,6 +88,20 @@ public class EmailController {
         return ResponseEntity.ok(Map.of("bulkEmailId", bulkEmailId, "status", "QUEUED"));
     }
 
+    @PostMapping(value = "/bulk/stream", consumes = {RecipientStreamReader.NDJSON_VALUE, RecipientStreamReader.CSV_VALUE})
+    @PreAuthorize("hasAuthority('SEND_BULK_EMAIL')")
+    @Operation(summary = "Send bulk emails from a recipient stream",
+            description = "Queue emails for recipients streamed as NDJSON (one JSON recipient per line) or CSV (header row, "
+                    + "'email' column required, unknown columns become template variables); settings are query parameters")
+    public ResponseEntity<BulkEmailResponse> sendBulkEmailStream(@Valid @ModelAttribute BulkEmailStreamRequest settings,
+                                                                 @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                                 InputStream recipients) {
+        log.debug("REST request to send bulk email from stream: type={}, format={}", settings.getEmailType(), contentType);
+        BulkEmailResponse response = emailFeatureService.sendBulkEmailStream(
+                settings.toBulkEmailRequest(), recipients, MediaType.parseMediaType(contentType));
+        return ResponseEntity.ok(response);
+    }
+
     // === QUICK SEND ENDPOINTS ===
 
     @PostMapping("/quick/welcome")
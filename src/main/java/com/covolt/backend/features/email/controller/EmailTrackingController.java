@@ -0,0 +1,57 @@
+package com.covolt.backend.features.email.controller;
+
+import com.covolt.backend.features.email.tracking.EmailTrackingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Base64;
+
+/**
+ * Public endpoints hit by email clients: the open pixel and the click redirect.
+ * Hits are only buffered in memory, so these endpoints never wait for the database.
+ */
+@RestController
+@RequestMapping("/api/v1/email/track")
+@RequiredArgsConstructor
+@Tag(name = "Email Tracking", description = "Email open and click tracking")
+public class EmailTrackingController {
+
+    // 1x1 transparent GIF
+    private static final byte[] PIXEL = Base64.getDecoder().decode("R0lGODlhAQABAIAAAAAAAP///yH5BAEAAAAALAAAAAABAAEAAAIBRAA7");
+
+    private final EmailTrackingService trackingService;
+
+    @GetMapping("/open/{token}")
+    @Operation(summary = "Track email open", description = "Records an email open and returns a 1x1 pixel")
+    public ResponseEntity<byte[]> trackOpen(@PathVariable String token,
+                                            @RequestHeader(value = HttpHeaders.USER_AGENT, required = false) String userAgent) {
+        trackingService.recordOpen(token, userAgent);
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_GIF)
+                .cacheControl(CacheControl.noStore())
+                .body(PIXEL);
+    }
+
+    @GetMapping("/click/{token}")
+    @Operation(summary = "Track link click", description = "Records a link click and redirects to the original URL")
+    public ResponseEntity<Void> trackClick(@PathVariable String token,
+                                           @RequestHeader(value = HttpHeaders.USER_AGENT, required = false) String userAgent) {
+        return trackingService.recordClick(token, userAgent)
+                .map(url -> ResponseEntity.status(HttpStatus.FOUND)
+                        .cacheControl(CacheControl.noStore())
+                        .header(HttpHeaders.LOCATION, url)
+                        .<Void>build())
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
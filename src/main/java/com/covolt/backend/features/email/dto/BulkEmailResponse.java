@@ -40,6 +40,8 @@ public class BulkEmailResponse {
     private int successCount;
     private int failedCount;
     private int pendingCount;
+    private int openCount;
+    private int clickCount;
     
     // Batch processing info
     private int batchSize;
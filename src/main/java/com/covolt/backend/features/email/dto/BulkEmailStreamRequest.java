@@ -0,0 +1,76 @@
+package com.covolt.backend.features.email.dto;
+
+import com.covolt.backend.features.email.enums.EmailPriority;
+import com.covolt.backend.features.email.enums.EmailType;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings of a bulk email whose recipients are streamed in the request body (NDJSON or CSV).
+ * Bound from query parameters; common template variables are passed as {@code variables[name]=value}.
+ */
+@Data
+@NoArgsConstructor
+public class BulkEmailStreamRequest {
+
+    @NotNull(message = "Email type is required")
+    private EmailType emailType;
+
+    // Common subject for all emails (will use default from EmailType if not provided)
+    private String subject;
+
+    // Common template variables (can be overridden per recipient)
+    private Map<String, String> variables = new HashMap<>();
+
+    private EmailPriority priority = EmailPriority.NORMAL;
+
+    // Progress is stored after every batchSize recipients
+    private int batchSize = 50;
+
+    private int maxRetries = 3;
+
+    // Context info
+    private String userId;
+    private String companyId;
+    private String campaignId;
+    private String campaignName;
+
+    // Email tracking
+    private boolean trackOpens = true;
+    private boolean trackClicks = true;
+
+    // Custom sender info (optional)
+    private String fromName;
+    private String fromEmail;
+
+    private String notes;
+
+    /**
+     * The same settings as a bulk email request without recipients.
+     */
+    public BulkEmailRequest toBulkEmailRequest() {
+        return BulkEmailRequest.builder()
+                .emailType(emailType)
+                .recipients(List.of())
+                .subject(subject)
+                .commonTemplateVariables(new HashMap<>(variables))
+                .priority(priority)
+                .batchSize(batchSize)
+                .maxRetries(maxRetries)
+                .userId(userId)
+                .companyId(companyId)
+                .campaignId(campaignId)
+                .campaignName(campaignName)
+                .trackOpens(trackOpens)
+                .trackClicks(trackClicks)
+                .fromName(fromName)
+                .fromEmail(fromEmail)
+                .notes(notes)
+                .build();
+    }
+}
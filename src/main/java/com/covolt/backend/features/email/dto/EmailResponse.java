@@ -63,6 +63,7 @@ public class EmailResponse {
     private String companyId;
     private String referenceId;
     private String referenceType;
+    private String bulkEmailId; // Set when the email was sent as part of a bulk email
     
     // Sender info
     private String fromName;
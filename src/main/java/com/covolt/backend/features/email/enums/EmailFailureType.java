@@ -0,0 +1,46 @@
+package com.covolt.backend.features.email.enums;
+
+/**
+ * Enum for the kind of a send failure, stored as the email error code
+ */
+public enum EmailFailureType {
+
+    TRANSIENT("SEND_FAILED_TRANSIENT", "Geçici hata, tekrar denenebilir"),
+    THROTTLED("SEND_THROTTLED", "Sağlayıcı gönderim hızını sınırlıyor, tekrar denenebilir"),
+    PERMANENT("SEND_FAILED_PERMANENT", "Kalıcı hata, tekrar denenmez");
+
+    private final String errorCode;
+    private final String description;
+
+    EmailFailureType(String errorCode, String description) {
+        this.errorCode = errorCode;
+        this.description = description;
+    }
+
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Check if another attempt may succeed
+     */
+    public boolean isRetryable() {
+        return this != PERMANENT;
+    }
+
+    /**
+     * Find the failure type of a stored error code, null if the code is not a send failure
+     */
+    public static EmailFailureType fromErrorCode(String errorCode) {
+        for (EmailFailureType type : values()) {
+            if (type.errorCode.equals(errorCode)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.covolt.backend.features.email.enums;
+
+/**
+ * Enum for recorded email tracking events
+ */
+public enum TrackingEventType {
+
+    OPEN("o", "E-posta açıldı"),
+    CLICK("c", "E-postadaki bir bağlantı tıklandı");
+
+    private final String code;
+    private final String description;
+
+    TrackingEventType(String code, String description) {
+        this.code = code;
+        this.description = description;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public static TrackingEventType fromCode(String code) {
+        for (TrackingEventType type : values()) {
+            if (type.code.equals(code)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,175 @@
+package com.covolt.backend.features.email.ingest;
+
+import com.covolt.backend.core.exception.InvalidRecipientStreamException;
+import com.covolt.backend.features.email.dto.BulkEmailRequest.BulkEmailRecipient;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * RFC 4180 CSV with a header row. The columns {@code email}, {@code name}, {@code userId}, {@code referenceId},
+ * {@code referenceType} and {@code customSubject} fill the recipient fields; every other column becomes a
+ * template variable of that name. Only {@code email} is required. Empty lines are skipped.
+ */
+class CsvRecipientReader extends RecipientStreamReader {
+
+    private static final String EMAIL = "email";
+    private static final String NAME = "name";
+    private static final String USER_ID = "userid";
+    private static final String REFERENCE_ID = "referenceid";
+    private static final String REFERENCE_TYPE = "referencetype";
+    private static final String CUSTOM_SUBJECT = "customsubject";
+    private static final List<String> RECIPIENT_COLUMNS = List.of(EMAIL, NAME, USER_ID, REFERENCE_ID, REFERENCE_TYPE, CUSTOM_SUBJECT);
+
+    private final StringBuilder field = new StringBuilder();
+    private List<String> header;
+    private Map<String, Integer> recipientColumns;
+    private String recordError;
+
+    CsvRecipientReader(BufferedReader reader) {
+        super(reader);
+    }
+
+    @Override
+    protected BulkEmailRecipient readRecord() throws IOException {
+        if (header == null && !readHeader()) {
+            return null;
+        }
+        List<String> values = readFields();
+        if (values == null) {
+            return null;
+        }
+        if (recordError != null) {
+            throw malformed(recordError);
+        }
+        if (values.size() != header.size()) {
+            throw malformed("Expected " + header.size() + " columns but found " + values.size());
+        }
+
+        Map<String, Object> variables = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            if (!RECIPIENT_COLUMNS.contains(header.get(i).toLowerCase(Locale.ROOT))) {
+                variables.put(header.get(i), values.get(i));
+            }
+        }
+        return BulkEmailRecipient.builder()
+                .email(column(values, EMAIL))
+                .name(column(values, NAME))
+                .userId(column(values, USER_ID))
+                .referenceId(column(values, REFERENCE_ID))
+                .referenceType(column(values, REFERENCE_TYPE))
+                .customSubject(column(values, CUSTOM_SUBJECT))
+                .templateVariables(variables)
+                .build();
+    }
+
+    private boolean readHeader() throws IOException {
+        List<String> names = readFields();
+        if (names == null) {
+            return false;
+        }
+        if (recordError != null) {
+            throw new InvalidRecipientStreamException("Invalid CSV header: " + recordError);
+        }
+        if (!names.isEmpty() && names.get(0).startsWith("\uFEFF")) {
+            names.set(0, names.get(0).substring(1));
+        }
+
+        recipientColumns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim();
+            names.set(i, name);
+            String key = name.toLowerCase(Locale.ROOT);
+            if (RECIPIENT_COLUMNS.contains(key)) {
+                recipientColumns.putIfAbsent(key, i);
+            }
+        }
+        if (!recipientColumns.containsKey(EMAIL)) {
+            throw new InvalidRecipientStreamException("CSV header has no 'email' column");
+        }
+        header = names;
+        return true;
+    }
+
+    private String column(List<String> values, String name) {
+        Integer index = recipientColumns.get(name);
+        if (index == null) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Reads the fields of the next non-empty record, or null at the end of the stream. A record with broken
+     * quoting is read to its end and reported through {@link #recordError}.
+     */
+    private List<String> readFields() throws IOException {
+        List<String> values = new ArrayList<>();
+        recordError = null;
+        field.setLength(0);
+        int length = 0;
+        boolean quoted = false;
+        boolean afterQuote = false; // Closing quote seen, only a separator or the end of the record may follow
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (++length > MAX_RECORD_LENGTH) {
+                throw new InvalidRecipientStreamException("Record " + (getRecordNumber() + 1) + " is longer than " + MAX_RECORD_LENGTH + " characters");
+            }
+            if (quoted) {
+                if (c != '"') {
+                    field.append((char) c);
+                    continue;
+                }
+                reader.mark(1);
+                if (reader.read() == '"') {
+                    field.append('"');
+                } else {
+                    reader.reset();
+                    quoted = false;
+                    afterQuote = true;
+                }
+                continue;
+            }
+
+            if (c == '\r') {
+                continue;
+            }
+            if (c == '\n') {
+                if (values.isEmpty() && field.isEmpty() && !afterQuote) {
+                    length = 0; // Empty line
+                    continue;
+                }
+                values.add(field.toString());
+                return values;
+            }
+            if (c == ',') {
+                values.add(field.toString());
+                field.setLength(0);
+                afterQuote = false;
+            } else if (afterQuote) {
+                if (recordError == null) {
+                    recordError = "Unexpected character after a quoted field";
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+        }
+
+        if (quoted) {
+            recordError = "Unterminated quoted field";
+        } else if (values.isEmpty() && field.isEmpty() && !afterQuote) {
+            return null;
+        }
+        values.add(field.toString());
+        return values;
+    }
+}
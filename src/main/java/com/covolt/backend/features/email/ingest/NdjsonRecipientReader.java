@@ -0,0 +1,57 @@
+package com.covolt.backend.features.email.ingest;
+
+import com.covolt.backend.core.exception.InvalidRecipientStreamException;
+import com.covolt.backend.features.email.dto.BulkEmailRequest.BulkEmailRecipient;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * One JSON recipient object per line; blank lines are skipped.
+ */
+class NdjsonRecipientReader extends RecipientStreamReader {
+
+    private final ObjectReader recipientReader;
+    private final StringBuilder line = new StringBuilder();
+
+    NdjsonRecipientReader(BufferedReader reader, ObjectMapper objectMapper) {
+        super(reader);
+        this.recipientReader = objectMapper.readerFor(BulkEmailRecipient.class);
+    }
+
+    @Override
+    protected BulkEmailRecipient readRecord() throws IOException {
+        while (readLine()) {
+            if (line.toString().isBlank()) {
+                continue;
+            }
+            try {
+                return recipientReader.readValue(line.toString());
+            } catch (JsonProcessingException e) {
+                throw malformed("Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+        return null;
+    }
+
+    private boolean readLine() throws IOException {
+        line.setLength(0);
+        int c = reader.read();
+        if (c == -1) {
+            return false;
+        }
+        while (c != -1 && c != '\n') {
+            if (c != '\r') {
+                if (line.length() == MAX_RECORD_LENGTH) {
+                    throw new InvalidRecipientStreamException("Record " + (getRecordNumber() + 1) + " is longer than " + MAX_RECORD_LENGTH + " characters");
+                }
+                line.append((char) c);
+            }
+            c = reader.read();
+        }
+        return true;
+    }
+}
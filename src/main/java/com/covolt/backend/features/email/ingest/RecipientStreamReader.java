@@ -0,0 +1,97 @@
+package com.covolt.backend.features.email.ingest;
+
+import com.covolt.backend.core.exception.InvalidRecipientStreamException;
+import com.covolt.backend.features.email.dto.BulkEmailRequest.BulkEmailRecipient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads bulk email recipients one record at a time from a request body, so a recipient list of any length is
+ * held in memory only one record at a time. A record is limited to {@link #MAX_RECORD_LENGTH} characters.
+ */
+public abstract class RecipientStreamReader implements Closeable {
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final String CSV_VALUE = "text/csv";
+
+    static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private static final MediaType NDJSON = MediaType.parseMediaType(NDJSON_VALUE);
+    private static final MediaType CSV = MediaType.parseMediaType(CSV_VALUE);
+
+    protected final BufferedReader reader;
+    private long recordNumber;
+
+    protected RecipientStreamReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Opens a reader for the body format given by its content type (NDJSON or CSV, UTF-8 unless a charset is set).
+     *
+     * @throws InvalidRecipientStreamException if the content type is not supported
+     */
+    public static RecipientStreamReader open(InputStream body, MediaType contentType, ObjectMapper objectMapper) {
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, charset));
+        if (NDJSON.isCompatibleWith(contentType)) {
+            return new NdjsonRecipientReader(reader, objectMapper);
+        }
+        if (CSV.isCompatibleWith(contentType)) {
+            return new CsvRecipientReader(reader);
+        }
+        throw new InvalidRecipientStreamException("Unsupported content type: " + contentType);
+    }
+
+    /**
+     * Reads the next recipient.
+     *
+     * @return the recipient, or null at the end of the stream
+     * @throws MalformedRecordException if this record cannot be read; the next call continues with the next record
+     * @throws InvalidRecipientStreamException if the stream cannot be read any further
+     */
+    public final BulkEmailRecipient next() throws IOException {
+        BulkEmailRecipient recipient = readRecord();
+        if (recipient != null) {
+            recordNumber++;
+        }
+        return recipient;
+    }
+
+    /**
+     * Number of the record last returned by {@link #next()} or rejected as malformed, starting at 1.
+     */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    protected abstract BulkEmailRecipient readRecord() throws IOException;
+
+    protected MalformedRecordException malformed(String reason) {
+        recordNumber++;
+        return new MalformedRecordException(reason);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * A single record could not be read; the records after it are still readable.
+     */
+    public static class MalformedRecordException extends RuntimeException {
+
+        public MalformedRecordException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.covolt.backend.features.email.provider;
+
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.MailException;
+
+import java.util.Map;
+
+/**
+ * A service that delivers email messages (SMTP server, SendGrid, Amazon SES, ...).
+ * Implementations must be thread-safe; {@link EmailProviderRouter} decides which provider gets a send.
+ */
+public interface EmailProvider extends AutoCloseable {
+
+    /**
+     * Name used in {@code app.email.provider.primary} / {@code fallback}.
+     */
+    String getName();
+
+    MimeMessage createMimeMessage();
+
+    /**
+     * Sends all messages, preferably over one connection.
+     *
+     * @throws MailException if sending fails; partial failures are reported through
+     *                       {@link org.springframework.mail.MailSendException#getFailedMessages()}
+     */
+    void send(MimeMessage... messages) throws MailException;
+
+    /**
+     * Provider specific figures for the health status, e.g. connection pool usage.
+     */
+    default Map<String, Object> getStatus() {
+        return Map.of();
+    }
+
+    /**
+     * Closes connections that have been idle too long; called periodically by {@link EmailProviderRouter}.
+     */
+    default void evictIdleConnections() {
+    }
+
+    /**
+     * Releases the provider's connections; called once when the router is destroyed.
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,161 @@
+package com.covolt.backend.features.email.provider;
+
+import com.covolt.backend.features.email.config.EmailConfig;
+import com.covolt.backend.features.email.enums.EmailFailureType;
+import com.covolt.backend.features.email.service.EmailFailureClassifier;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Sends through the primary provider and fails over to the fallback provider.
+ * <p>
+ * Each provider has a {@link ProviderCircuitBreaker} fed with the outcome and the per-message latency of every
+ * send. While the primary's circuit is open (too many provider failures or a too high p99 latency), sends go to
+ * the fallback; once trial sends to the primary succeed again, traffic returns to it. Recipient errors such as an
+ * unknown mailbox do not count against a provider. If no provider may be used, the send fails fast as a
+ * transient failure and is left to the retry engine.
+ * <p>
+ * The router owns its providers: as a bean it evicts their idle connections on a schedule and closes them on
+ * shutdown, since senders created for a provider are not beans themselves.
+ */
+@Slf4j
+public class EmailProviderRouter implements DisposableBean {
+
+    private final List<Route> routes = new ArrayList<>();
+    private final List<EmailProvider> providers;
+    private final LongSupplier clockMs;
+
+    public EmailProviderRouter(List<EmailProvider> providers, EmailConfig.Provider settings) {
+        this(providers, settings, System::currentTimeMillis);
+    }
+
+    EmailProviderRouter(List<EmailProvider> providers, EmailConfig.Provider settings, LongSupplier clockMs) {
+        this.clockMs = clockMs;
+        Map<String, EmailProvider> byName = new LinkedHashMap<>();
+        providers.forEach(provider -> byName.put(provider.getName(), provider));
+        this.providers = List.copyOf(byName.values());
+
+        for (String name : List.of(settings.getPrimary(), settings.getFallback())) {
+            EmailProvider provider = byName.get(name);
+            if (provider == null) {
+                throw new IllegalStateException("Unknown or unconfigured email provider: " + name
+                        + " (available: " + byName.keySet() + ")");
+            }
+            if (routes.stream().noneMatch(route -> route.provider == provider)) {
+                routes.add(new Route(provider, new ProviderCircuitBreaker(settings, clockMs)));
+            }
+        }
+        log.info("Email providers: primary={}, fallback={}", settings.getPrimary(), settings.getFallback());
+    }
+
+    /**
+     * Creates a message for the primary provider; messages can be sent through any JavaMail based provider.
+     */
+    public MimeMessage createMimeMessage() {
+        return routes.get(0).provider.createMimeMessage();
+    }
+
+    public void send(MimeMessage... messages) throws MailException {
+        Route route = selectRoute();
+        if (route == null) {
+            throw new MailSendException("No email provider available, all provider circuits are open");
+        }
+
+        long started = clockMs.getAsLong();
+        try {
+            route.provider.send(messages);
+            route.circuitBreaker.onResult(latencyPerMessage(started, messages.length), false);
+        } catch (MailException e) {
+            route.circuitBreaker.onResult(latencyPerMessage(started, messages.length), isProviderFault(e));
+            throw e;
+        } catch (RuntimeException e) {
+            route.circuitBreaker.onResult(latencyPerMessage(started, messages.length), true);
+            throw e;
+        }
+    }
+
+    /**
+     * Name of the provider new sends currently go to, or null if all circuits are open.
+     */
+    public String getActiveProvider() {
+        for (Route route : routes) {
+            if (route.circuitBreaker.getState() != ProviderCircuitBreaker.State.OPEN) {
+                return route.provider.getName();
+            }
+        }
+        return null;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        for (Route route : routes) {
+            Map<String, Object> providerStatus = new LinkedHashMap<>(route.circuitBreaker.getStatus());
+            providerStatus.putAll(route.provider.getStatus());
+            status.put(route.provider.getName(), providerStatus);
+        }
+        return status;
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.transport.eviction-interval-ms:30000}")
+    public void evictIdleConnections() {
+        for (EmailProvider provider : providers) {
+            try {
+                provider.evictIdleConnections();
+            } catch (RuntimeException e) {
+                log.warn("Failed to evict idle connections of email provider {}", provider.getName(), e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (EmailProvider provider : providers) {
+            try {
+                provider.close();
+            } catch (RuntimeException e) {
+                log.warn("Failed to close email provider {}", provider.getName(), e);
+            }
+        }
+    }
+
+    private Route selectRoute() {
+        for (Route route : routes) {
+            if (route.circuitBreaker.tryAcquire()) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private long latencyPerMessage(long started, int messageCount) {
+        return (clockMs.getAsLong() - started) / Math.max(1, messageCount);
+    }
+
+    // Rejected credentials are the provider's problem; other permanent errors belong to the message
+    private static boolean isProviderFault(MailException e) {
+        return e instanceof MailAuthenticationException
+                || EmailFailureClassifier.classify(e) != EmailFailureType.PERMANENT;
+    }
+
+    private static final class Route {
+
+        private final EmailProvider provider;
+        private final ProviderCircuitBreaker circuitBreaker;
+
+        private Route(EmailProvider provider, ProviderCircuitBreaker circuitBreaker) {
+            this.provider = provider;
+            this.circuitBreaker = circuitBreaker;
+        }
+    }
+}
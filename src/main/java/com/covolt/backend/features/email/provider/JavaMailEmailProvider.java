@@ -0,0 +1,65 @@
+package com.covolt.backend.features.email.provider;
+
+import com.covolt.backend.features.email.transport.PooledJavaMailSender;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.MailException;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.util.Map;
+
+/**
+ * Provider that sends through a {@link JavaMailSender}: the application's SMTP server, or the SMTP relay of a
+ * service such as SendGrid or Amazon SES.
+ */
+public class JavaMailEmailProvider implements EmailProvider {
+
+    private final String name;
+    private final JavaMailSender mailSender;
+    private final boolean ownsSender;
+
+    /**
+     * @param ownsSender true if the sender was created for this provider and is closed with it
+     */
+    public JavaMailEmailProvider(String name, JavaMailSender mailSender, boolean ownsSender) {
+        this.name = name;
+        this.mailSender = mailSender;
+        this.ownsSender = ownsSender;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public MimeMessage createMimeMessage() {
+        return mailSender.createMimeMessage();
+    }
+
+    @Override
+    public void send(MimeMessage... messages) throws MailException {
+        mailSender.send(messages);
+    }
+
+    @Override
+    public Map<String, Object> getStatus() {
+        return mailSender instanceof PooledJavaMailSender pooledSender ? pooledSender.getPoolStatus() : Map.of();
+    }
+
+    /**
+     * Closes idle pooled connections of a sender that is not a Spring bean (beans are evicted by the scheduler).
+     */
+    @Override
+    public void evictIdleConnections() {
+        if (ownsSender && mailSender instanceof PooledJavaMailSender pooledSender) {
+            pooledSender.evictIdleConnections();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (ownsSender && mailSender instanceof PooledJavaMailSender pooledSender) {
+            pooledSender.destroy();
+        }
+    }
+}
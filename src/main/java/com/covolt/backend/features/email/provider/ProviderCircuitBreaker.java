@@ -0,0 +1,145 @@
+package com.covolt.backend.features.email.provider;
+
+import com.covolt.backend.features.email.config.EmailConfig;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker of one provider over a sliding window of its last {@code windowSize} sends.
+ * <p>
+ * The circuit opens when at least {@code minimumCalls} sends are in the window and either the failure rate
+ * reaches {@code failureRateThreshold} or the p99 latency per message exceeds {@code slowCallThresholdMs}.
+ * After {@code openDurationMs} it lets {@code halfOpenProbes} trial sends through; if all of them succeed in
+ * time the circuit closes with an empty window, otherwise it opens again.
+ */
+public class ProviderCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final EmailConfig.Provider settings;
+    private final LongSupplier clockMs;
+
+    // Ring buffer of the latest results; guarded by this
+    private final long[] latencies;
+    private final boolean[] failures;
+    private int size;
+    private int next;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    public ProviderCircuitBreaker(EmailConfig.Provider settings, LongSupplier clockMs) {
+        this.settings = settings;
+        this.clockMs = clockMs;
+        int windowSize = Math.max(1, settings.getWindowSize());
+        this.latencies = new long[windowSize];
+        this.failures = new boolean[windowSize];
+    }
+
+    /**
+     * Asks for permission to send. Every granted permission must be followed by {@link #onResult}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clockMs.getAsLong() - openedAt < settings.getOpenDurationMs()) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+            probeSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight >= Math.max(1, settings.getHalfOpenProbes())) {
+                return false;
+            }
+            probesInFlight++;
+        }
+        return true;
+    }
+
+    /**
+     * Records the outcome of a permitted send.
+     *
+     * @param latencyMs time per message
+     * @param failed    true if the provider itself failed (not the recipient)
+     */
+    public synchronized void onResult(long latencyMs, boolean failed) {
+        boolean slow = latencyMs > settings.getSlowCallThresholdMs();
+        switch (state) {
+            case HALF_OPEN -> {
+                probesInFlight = Math.max(0, probesInFlight - 1);
+                if (failed || slow) {
+                    open();
+                } else if (++probeSuccesses >= Math.max(1, settings.getHalfOpenProbes())) {
+                    close();
+                }
+            }
+            case CLOSED -> {
+                latencies[next] = latencyMs;
+                failures[next] = failed;
+                next = (next + 1) % latencies.length;
+                size = Math.min(size + 1, latencies.length);
+                if (size >= settings.getMinimumCalls()
+                        && (failureRate() >= settings.getFailureRateThreshold() || p99LatencyMs() > settings.getSlowCallThresholdMs())) {
+                    open();
+                }
+            }
+            case OPEN -> {
+                // Result of a send that started before the circuit opened
+            }
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", state);
+        status.put("calls", size);
+        status.put("failureRate", failureRate());
+        status.put("p99LatencyMs", p99LatencyMs());
+        return status;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clockMs.getAsLong();
+        probesInFlight = 0;
+        probeSuccesses = 0;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        size = 0;
+        next = 0;
+    }
+
+    private double failureRate() {
+        if (size == 0) {
+            return 0;
+        }
+        int failed = 0;
+        for (int i = 0; i < size; i++) {
+            if (failures[i]) {
+                failed++;
+            }
+        }
+        return (double) failed / size;
+    }
+
+    private long p99LatencyMs() {
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, size);
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(size * 0.99) - 1];
+    }
+}
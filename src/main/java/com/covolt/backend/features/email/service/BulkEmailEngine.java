@@ -0,0 +1,336 @@
+package com.covolt.backend.features.email.service;
+
+import com.covolt.backend.features.email.config.EmailConfig;
+import com.covolt.backend.features.email.dto.BulkEmailRequest;
+import com.covolt.backend.features.email.dto.BulkEmailResponse;
+import com.covolt.backend.features.email.dto.EmailRequest;
+import com.covolt.backend.features.email.dto.EmailResponse;
+import com.covolt.backend.features.email.template.EmailTemplateRenderer;
+import com.covolt.backend.features.email.template.EmailTemplateRenderer.BulkTemplate;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs bulk email jobs.
+ * <p>
+ * Each batch is split into one chunk per SMTP sender of a shared pool; a chunk is sent with a single
+ * {@link EmailDeliveryService#deliverBatch} call and so over one pooled connection. The pace is set by
+ * {@link EmailRateLimiter} permits rather than fixed pauses between batches. Progress counters are updated as
+ * each email completes and can be read while the job runs. A cancelled job stops taking new recipients;
+ * emails already being sent are finished and the rest are reported as pending.
+ * <p>
+ * Every job runs on a coordinator thread of the engine, never on the caller's (request) thread: sending is paced
+ * by blocking on rate limiter permits, which must not tie up a servlet thread.
+ */
+@Component
+@Slf4j
+public class BulkEmailEngine {
+
+    // Jobs running at the same time; further jobs wait for a free coordinator
+    private static final int MAX_CONCURRENT_JOBS = 2;
+
+    private final EmailDeliveryService deliveryService;
+    private final EmailLogStore emailLogStore;
+    private final EmailRateLimiter rateLimiter;
+    private final EmailRetryScheduler retryScheduler;
+    private final EmailTemplateRenderer templateRenderer;
+    private final EmailConfig emailConfig;
+
+    private final ExecutorService senders;
+    private final ExecutorService coordinators;
+    private final Map<String, BulkJob> activeJobs = new ConcurrentHashMap<>();
+    private final int concurrency;
+
+    public BulkEmailEngine(EmailDeliveryService deliveryService,
+                           EmailLogStore emailLogStore,
+                           EmailRateLimiter rateLimiter,
+                           EmailRetryScheduler retryScheduler,
+                           EmailTemplateRenderer templateRenderer,
+                           EmailConfig emailConfig) {
+        this.deliveryService = deliveryService;
+        this.emailLogStore = emailLogStore;
+        this.rateLimiter = rateLimiter;
+        this.retryScheduler = retryScheduler;
+        this.templateRenderer = templateRenderer;
+        this.emailConfig = emailConfig;
+        this.concurrency = Math.max(1, emailConfig.getRateLimiting().getBulkEmailConcurrency());
+        this.senders = Executors.newFixedThreadPool(concurrency, new CustomizableThreadFactory("bulk-email-sender-"));
+        this.coordinators = Executors.newFixedThreadPool(MAX_CONCURRENT_JOBS,
+                new CustomizableThreadFactory("bulk-email-job-"));
+    }
+
+    /**
+     * Starts the job in the background and returns immediately.
+     *
+     * @return the state of the job when it was registered; progress is available from {@link #findActive}
+     */
+    public BulkEmailResponse submit(String bulkEmailId, BulkEmailRequest request) {
+        BulkJob job = register(bulkEmailId, request);
+        coordinators.execute(() -> execute(job));
+        return job.snapshot();
+    }
+
+    /**
+     * Live state of a running job.
+     */
+    public Optional<BulkEmailResponse> findActive(String bulkEmailId) {
+        BulkJob job = activeJobs.get(bulkEmailId);
+        return job != null ? Optional.of(job.snapshot()) : Optional.empty();
+    }
+
+    /**
+     * Stops a running job from starting further sends.
+     *
+     * @return true if the job was running
+     */
+    public boolean cancel(String bulkEmailId) {
+        BulkJob job = activeJobs.get(bulkEmailId);
+        if (job == null) {
+            return false;
+        }
+        job.cancelled = true;
+        log.info("Bulk email cancellation requested: id={}", bulkEmailId);
+        return true;
+    }
+
+    public int activeJobCount() {
+        return activeJobs.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        activeJobs.values().forEach(job -> job.cancelled = true);
+        coordinators.shutdown();
+        senders.shutdown();
+        try {
+            if (!coordinators.awaitTermination(emailConfig.getQueue().getProcessingTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                coordinators.shutdownNow();
+            }
+            senders.awaitTermination(emailConfig.getQueue().getProcessingTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private BulkJob register(String bulkEmailId, BulkEmailRequest request) {
+        BulkJob job = new BulkJob(bulkEmailId, request);
+        activeJobs.put(bulkEmailId, job);
+        emailLogStore.recordBulk(job.snapshot());
+        return job;
+    }
+
+    private void execute(BulkJob job) {
+        BulkEmailRequest request = job.request;
+        List<BulkEmailRequest.BulkEmailRecipient> recipients = request.getRecipients();
+        int batchSize = Math.max(1, request.getBatchSize());
+        long started = System.currentTimeMillis();
+
+        try {
+            BulkTemplate bulkTemplate = prepareTemplate(request);
+            for (int i = 0; i < recipients.size() && !job.cancelled; i += batchSize) {
+                List<BulkEmailRequest.BulkEmailRecipient> batch = recipients.subList(i, Math.min(i + batchSize, recipients.size()));
+                int chunkSize = Math.max(1, (int) Math.ceil((double) batch.size() / concurrency));
+                List<CompletableFuture<Void>> sends = new ArrayList<>();
+                List<EmailRequest> chunk = new ArrayList<>(chunkSize);
+
+                for (BulkEmailRequest.BulkEmailRecipient recipient : batch) {
+                    if (!rateLimiter.acquire(request.getCompanyId(), () -> job.cancelled)) {
+                        break;
+                    }
+                    chunk.add(buildEmailRequestFromBulk(request, recipient));
+                    if (chunk.size() == chunkSize) {
+                        sends.add(submitChunk(job, chunk, bulkTemplate));
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    sends.add(submitChunk(job, chunk, bulkTemplate));
+                }
+
+                CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).join();
+                job.completedBatches.incrementAndGet();
+                emailLogStore.recordBulk(job.snapshot());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.cancelled = true;
+        } catch (RuntimeException e) {
+            log.error("Failed to send bulk email: id={}", job.bulkEmailId, e);
+        } finally {
+            job.totalProcessingTimeMs = System.currentTimeMillis() - started;
+            job.completedAt = LocalDateTime.now();
+            emailLogStore.recordBulk(job.snapshot());
+            activeJobs.remove(job.bulkEmailId);
+        }
+
+        log.info("Bulk email {}: id={}, success={}, failed={}, pending={}",
+                job.cancelled ? "cancelled" : "completed", job.bulkEmailId,
+                job.successCount.get(), job.failedCount.get(), recipients.size() - job.processedCount());
+    }
+
+    /**
+     * Renders the parts shared by all recipients once; recipient-specific variables become slots.
+     */
+    private BulkTemplate prepareTemplate(BulkEmailRequest request) {
+        String templatePath = request.getEmailType().getTemplatePath();
+        if (request.getRecipients().isEmpty() || !templateRenderer.exists(templatePath)) {
+            return null;
+        }
+        Set<String> slotNames = new HashSet<>(List.of("recipientName", "recipientEmail"));
+        for (BulkEmailRequest.BulkEmailRecipient recipient : request.getRecipients()) {
+            slotNames.addAll(recipient.getTemplateVariables().keySet());
+        }
+        Map<String, Object> sampleVariables = buildEmailRequestFromBulk(request, request.getRecipients().get(0)).getTemplateVariables();
+        BulkTemplate bulkTemplate = templateRenderer.prepareBulk(templatePath, request.getCommonTemplateVariables(), slotNames, sampleVariables);
+        log.debug("Bulk template prepared: template={}, skeleton={}", templatePath, bulkTemplate.isSkeleton());
+        return bulkTemplate;
+    }
+
+    private CompletableFuture<Void> submitChunk(BulkJob job, List<EmailRequest> chunk, BulkTemplate bulkTemplate) {
+        return CompletableFuture.runAsync(() -> sendChunk(job, chunk, bulkTemplate), senders);
+    }
+
+    private void sendChunk(BulkJob job, List<EmailRequest> chunk, BulkTemplate bulkTemplate) {
+        List<EmailResponse> responses;
+        try {
+            responses = deliveryService.deliverBatch(chunk, job.bulkEmailId, bulkTemplate);
+        } catch (RuntimeException e) {
+            log.error("Bulk email chunk failed: bulkId={}, size={}", job.bulkEmailId, chunk.size(), e);
+            String errorCode = EmailFailureClassifier.classify(e).getErrorCode();
+            chunk.forEach(emailRequest -> job.recordFailure(emailRequest.getTo(), e.getMessage(), errorCode));
+            return;
+        }
+        for (int i = 0; i < responses.size(); i++) {
+            // Retryable failures continue outside the job; the job reports the outcome of the first attempt
+            EmailResponse response = retryScheduler.afterDelivery(responses.get(i), chunk.get(i));
+            if (response.getStatus().isSuccessful()) {
+                job.successCount.incrementAndGet();
+            } else {
+                job.recordFailure(response.getTo(), response.getErrorMessage(), response.getErrorCode());
+            }
+        }
+    }
+
+    /**
+     * The single email sent to one recipient of a bulk email; its variables are a view over the common ones.
+     */
+    static EmailRequest buildEmailRequestFromBulk(BulkEmailRequest bulkRequest,
+                                                 BulkEmailRequest.BulkEmailRecipient recipient) {
+        return EmailRequest.builder()
+                .emailType(bulkRequest.getEmailType())
+                .to(recipient.getEmail())
+                .subject(recipient.getCustomSubject() != null ? recipient.getCustomSubject() : bulkRequest.getSubject())
+                .templateVariables(new RecipientTemplateVariables(bulkRequest.getCommonTemplateVariables(), recipient))
+                .priority(bulkRequest.getPriority())
+                .scheduledAt(bulkRequest.getScheduledAt())
+                .maxRetries(bulkRequest.getMaxRetries())
+                .userId(bulkRequest.getUserId())
+                .companyId(bulkRequest.getCompanyId())
+                .referenceId(recipient.getReferenceId())
+                .referenceType(recipient.getReferenceType())
+                .trackOpens(bulkRequest.isTrackOpens())
+                .trackClicks(bulkRequest.isTrackClicks())
+                .fromName(bulkRequest.getFromName())
+                .fromEmail(bulkRequest.getFromEmail())
+                .notes(bulkRequest.getNotes())
+                .build();
+    }
+
+    /**
+     * Mutable state of one bulk job; counters are updated concurrently by the sender threads.
+     */
+    private static final class BulkJob {
+
+        private final String bulkEmailId;
+        private final BulkEmailRequest request;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final AtomicInteger successCount = new AtomicInteger();
+        private final AtomicInteger failedCount = new AtomicInteger();
+        private final AtomicInteger completedBatches = new AtomicInteger();
+        private final List<BulkEmailResponse.BulkEmailError> errors = Collections.synchronizedList(new ArrayList<>());
+
+        private volatile boolean cancelled;
+        private volatile LocalDateTime completedAt;
+        private volatile long totalProcessingTimeMs;
+
+        private BulkJob(String bulkEmailId, BulkEmailRequest request) {
+            this.bulkEmailId = bulkEmailId;
+            this.request = request;
+        }
+
+        private int processedCount() {
+            return successCount.get() + failedCount.get();
+        }
+
+        private void recordFailure(String email, String errorMessage, String errorCode) {
+            failedCount.incrementAndGet();
+            errors.add(BulkEmailResponse.BulkEmailError.builder()
+                    .email(email)
+                    .errorMessage(errorMessage)
+                    .errorCode(errorCode)
+                    .occurredAt(LocalDateTime.now())
+                    .build());
+        }
+
+        private BulkEmailResponse snapshot() {
+            int total = request.getRecipients().size();
+            int batchSize = Math.max(1, request.getBatchSize());
+            int success = successCount.get();
+            int failed = failedCount.get();
+            int processed = success + failed;
+            List<BulkEmailResponse.BulkEmailError> errorList;
+            synchronized (errors) {
+                errorList = new ArrayList<>(errors);
+            }
+
+            return BulkEmailResponse.builder()
+                    .bulkEmailId(bulkEmailId)
+                    .emailType(request.getEmailType())
+                    .priority(request.getPriority())
+                    .campaignId(request.getCampaignId())
+                    .campaignName(request.getCampaignName())
+                    .createdAt(createdAt)
+                    .scheduledAt(request.getScheduledAt())
+                    .startedAt(createdAt)
+                    .completedAt(completedAt)
+                    .totalRecipients(total)
+                    .processedCount(processed)
+                    .successCount(success)
+                    .failedCount(failed)
+                    .pendingCount(total - processed)
+                    .batchSize(batchSize)
+                    .totalBatches((int) Math.ceil((double) total / batchSize))
+                    .completedBatches(completedBatches.get())
+                    .batchDelayMs(request.getBatchDelayMs())
+                    .userId(request.getUserId())
+                    .companyId(request.getCompanyId())
+                    .totalProcessingTimeMs(totalProcessingTimeMs)
+                    .averageProcessingTimeMs(processed > 0 ? (double) totalProcessingTimeMs / processed : 0)
+                    .notes(cancelled ? appendNote(request.getNotes(), "Cancelled") : request.getNotes())
+                    .emailResults(new ArrayList<>())
+                    .errors(errorList)
+                    .build();
+        }
+
+        private static String appendNote(String notes, String note) {
+            return notes == null || notes.isBlank() ? note : notes + " | " + note;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.covolt.backend.features.email.service;
+
+import com.covolt.backend.core.exception.QueueFullException;
+import com.covolt.backend.features.email.config.EmailConfig;
+import com.covolt.backend.features.email.dto.BulkEmailRequest;
+import com.covolt.backend.features.email.dto.BulkEmailResponse;
+import com.covolt.backend.features.email.dto.EmailRequest;
+import com.covolt.backend.features.email.dto.EmailResponse;
+import com.covolt.backend.features.email.ingest.RecipientStreamReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Feeds a bulk email whose recipients arrive as a stream (NDJSON or CSV) into the send queue.
+ * <p>
+ * Recipients are read and queued one at a time, so memory use does not depend on the size of the list. When the
+ * queue is full the upload waits for space (and so slows down the client) up to {@code streamEnqueueTimeoutMs};
+ * after that ingestion stops and the response tells from which record on nothing was queued. Malformed records and
+ * recipients without an email address are skipped and reported as failed. With the queue disabled, each
+ * recipient is sent on the calling thread instead.
+ */
+@Component
+@Slf4j
+public class BulkRecipientStreamIngestor {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final EmailSendQueue emailSendQueue;
+    private final EmailDeliveryService deliveryService;
+    private final EmailRetryScheduler retryScheduler;
+    private final EmailRateLimiter rateLimiter;
+    private final EmailLogStore emailLogStore;
+    private final EmailConfig.Queue queueConfig;
+    private final ObjectMapper objectMapper;
+
+    public BulkRecipientStreamIngestor(EmailSendQueue emailSendQueue,
+                                       EmailDeliveryService deliveryService,
+                                       EmailRetryScheduler retryScheduler,
+                                       EmailRateLimiter rateLimiter,
+                                       EmailLogStore emailLogStore,
+                                       EmailConfig emailConfig,
+                                       ObjectMapper objectMapper) {
+        this.emailSendQueue = emailSendQueue;
+        this.deliveryService = deliveryService;
+        this.retryScheduler = retryScheduler;
+        this.rateLimiter = rateLimiter;
+        this.emailLogStore = emailLogStore;
+        this.queueConfig = emailConfig.getQueue();
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads all recipients of the body and queues an email for each of them.
+     *
+     * @return the bulk email after ingestion; queued emails are counted as pending
+     */
+    public BulkEmailResponse ingest(String bulkEmailId, BulkEmailRequest request, InputStream body, MediaType contentType) {
+        Ingestion ingestion = new Ingestion(bulkEmailId, request);
+        emailLogStore.recordBulk(ingestion.snapshot());
+        int batchSize = Math.max(1, request.getBatchSize());
+
+        try (RecipientStreamReader reader = RecipientStreamReader.open(body, contentType, objectMapper)) {
+            while (true) {
+                BulkEmailRequest.BulkEmailRecipient recipient;
+                try {
+                    recipient = reader.next();
+                } catch (RecipientStreamReader.MalformedRecordException e) {
+                    ingestion.recordFailure("record " + reader.getRecordNumber(), e.getMessage(), "INVALID_RECIPIENT");
+                    continue;
+                }
+                if (recipient == null) {
+                    break;
+                }
+                if (recipient.getEmail() == null || recipient.getEmail().isBlank()) {
+                    ingestion.recordFailure("record " + reader.getRecordNumber(), "Email address is missing", "INVALID_RECIPIENT");
+                    continue;
+                }
+
+                if (!submit(ingestion, BulkEmailEngine.buildEmailRequestFromBulk(request, recipient))) {
+                    ingestion.stopReason = "Email queue stayed full, record " + reader.getRecordNumber() + " and later were not queued";
+                    break;
+                }
+                if (ingestion.read() % batchSize == 0) {
+                    emailLogStore.recordBulk(ingestion.snapshot());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Bulk recipient stream interrupted: id={}, read={}", bulkEmailId, ingestion.read(), e);
+            ingestion.stopReason = "Upload interrupted after " + ingestion.read() + " recipients";
+        }
+
+        ingestion.completedAt = LocalDateTime.now();
+        BulkEmailResponse response = ingestion.snapshot();
+        emailLogStore.recordBulk(response);
+        log.info("Bulk recipient stream ingested: id={}, queued={}, sent={}, failed={}{}", bulkEmailId,
+                ingestion.queued, ingestion.success, ingestion.failed,
+                ingestion.stopReason != null ? ", " + ingestion.stopReason : "");
+        return response;
+    }
+
+    /**
+     * @return false if the queue stayed full
+     */
+    private boolean submit(Ingestion ingestion, EmailRequest emailRequest) {
+        if (!emailSendQueue.isEnabled()) {
+            rateLimiter.awaitPermit(emailRequest.getCompanyId());
+            String emailId = UUID.randomUUID().toString();
+            EmailResponse response = retryScheduler.afterDelivery(deliveryService.deliver(emailId, emailRequest, ingestion.bulkEmailId), emailRequest);
+            if (response.getStatus().isSuccessful()) {
+                ingestion.success++;
+            } else {
+                ingestion.recordFailure(emailRequest.getTo(), response.getErrorMessage(), response.getErrorCode());
+            }
+            return true;
+        }
+        try {
+            emailSendQueue.enqueue(emailRequest, ingestion.bulkEmailId, queueConfig.getStreamEnqueueTimeoutMs());
+            ingestion.queued++;
+            return true;
+        } catch (QueueFullException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Counters of one stream; only touched by the thread reading it.
+     */
+    private static final class Ingestion {
+
+        private final String bulkEmailId;
+        private final BulkEmailRequest request;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final List<BulkEmailResponse.BulkEmailError> errors = new ArrayList<>();
+
+        private int queued;
+        private int success;
+        private int failed;
+        private String stopReason;
+        private LocalDateTime completedAt;
+
+        private Ingestion(String bulkEmailId, BulkEmailRequest request) {
+            this.bulkEmailId = bulkEmailId;
+            this.request = request;
+        }
+
+        private int read() {
+            return queued + success + failed;
+        }
+
+        private void recordFailure(String email, String errorMessage, String errorCode) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(BulkEmailResponse.BulkEmailError.builder()
+                        .email(email)
+                        .errorMessage(errorMessage)
+                        .errorCode(errorCode)
+                        .occurredAt(LocalDateTime.now())
+                        .build());
+            }
+        }
+
+        private BulkEmailResponse snapshot() {
+            int total = read();
+            int batchSize = Math.max(1, request.getBatchSize());
+            long elapsedMs = Duration.between(startedAt, completedAt != null ? completedAt : LocalDateTime.now()).toMillis();
+            String notes = request.getNotes();
+            if (stopReason != null) {
+                notes = notes == null || notes.isBlank() ? stopReason : notes + " | " + stopReason;
+            }
+
+            return BulkEmailResponse.builder()
+                    .bulkEmailId(bulkEmailId)
+                    .emailType(request.getEmailType())
+                    .priority(request.getPriority())
+                    .campaignId(request.getCampaignId())
+                    .campaignName(request.getCampaignName())
+                    .createdAt(startedAt)
+                    .startedAt(startedAt)
+                    .completedAt(completedAt)
+                    .totalRecipients(total)
+                    .processedCount(success + failed)
+                    .successCount(success)
+                    .failedCount(failed)
+                    .pendingCount(queued)
+                    .batchSize(batchSize)
+                    .totalBatches((int) Math.ceil((double) total / batchSize))
+                    .completedBatches(total / batchSize)
+                    .userId(request.getUserId())
+                    .companyId(request.getCompanyId())
+                    .totalProcessingTimeMs(elapsedMs)
+                    .averageProcessingTimeMs(total > 0 ? (double) elapsedMs / total : 0)
+                    .notes(notes)
+                    .emailResults(new ArrayList<>())
+                    .errors(new ArrayList<>(errors))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.covolt.backend.features.email.service;
+
+import com.covolt.backend.features.email.config.EmailConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor for single emails sent asynchronously without the send queue ({@code app.email.async.*}).
+ * <p>
+ * Sending blocks on SMTP I/O, so it must not run on the shared {@code ForkJoinPool.commonPool}. Sends run on
+ * virtual threads (platform threads if the JVM has none), at most {@code maxConcurrency} at a time; up to
+ * {@code queueCapacity} further sends wait, anything beyond is rejected so overload cannot pile up unbounded.
+ * On shutdown waiting and running sends are given {@code shutdownTimeoutMs} to finish.
+ * <p>
+ * Metrics: {@code covolt.email.async.queue.depth}, {@code covolt.email.async.active},
+ * {@code covolt.email.async.send} (time from submission to completion) and {@code covolt.email.async.rejected}.
+ */
+@Component
+@Slf4j
+public class EmailAsyncExecutor {
+
+    private static final String THREAD_NAME_PREFIX = "email-async-";
+
+    private final ThreadPoolExecutor executor;
+    private final EmailConfig.Async asyncConfig;
+    private final boolean virtualThreads;
+    private final Timer sendTimer;
+    private final Counter rejectedCounter;
+
+    public EmailAsyncExecutor(EmailConfig emailConfig, MeterRegistry meterRegistry) {
+        this.asyncConfig = emailConfig.getAsync();
+        ThreadFactory threadFactory = asyncConfig.isVirtualThreads() ? virtualThreadFactory() : null;
+        this.virtualThreads = threadFactory != null;
+        if (threadFactory == null) {
+            threadFactory = new CustomizableThreadFactory(THREAD_NAME_PREFIX);
+        }
+
+        int maxConcurrency = Math.max(1, asyncConfig.getMaxConcurrency());
+        this.executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, asyncConfig.getQueueCapacity())), threadFactory);
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.sendTimer = Timer.builder("covolt.email.async.send")
+                .description("Time from submission to completed send")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("covolt.email.async.rejected")
+                .description("Async sends rejected because the executor was saturated")
+                .register(meterRegistry);
+        Gauge.builder("covolt.email.async.queue.depth", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("covolt.email.async.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+
+        log.info("Email async executor: virtualThreads={}, maxConcurrency={}, queueCapacity={}",
+                virtualThreads, maxConcurrency, asyncConfig.getQueueCapacity());
+    }
+
+    /**
+     * Runs the send in the background.
+     *
+     * @throws RejectedExecutionException if the executor is saturated or shutting down
+     */
+    public void execute(Runnable send) {
+        long submittedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                try {
+                    send.run();
+                } finally {
+                    sendTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw e;
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("virtualThreads", virtualThreads);
+        status.put("active", executor.getActiveCount());
+        status.put("queued", executor.getQueue().size());
+        status.put("maxConcurrency", executor.getMaximumPoolSize());
+        status.put("rejected", (long) rejectedCounter.count());
+        return status;
+    }
+
+    /**
+     * Stops taking sends and waits for the waiting and running ones to finish.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(asyncConfig.getShutdownTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Runnable> dropped = executor.shutdownNow();
+        log.warn("Email async executor did not drain in time, {} sends not started", dropped.size());
+    }
+
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            return new VirtualThreadTaskExecutor(THREAD_NAME_PREFIX).getVirtualThreadFactory();
+        } catch (UnsupportedOperationException e) {
+            log.warn("Virtual threads are not available on this JVM, email async executor uses platform threads");
+            return null;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.covolt.backend.features.email.service;
+
+import com.covolt.backend.features.email.config.EmailConfig;
+import com.covolt.backend.features.email.dto.EmailRequest;
+import com.covolt.backend.features.email.dto.EmailResponse;
+import com.covolt.backend.features.email.enums.EmailFailureType;
+import com.covolt.backend.features.email.enums.EmailStatus;
+import com.covolt.backend.features.email.provider.EmailProviderRouter;
+import com.covolt.backend.features.email.template.EmailTemplateRenderer;
+import com.covolt.backend.features.email.tracking.EmailTrackingService;
+import com.covolt.backend.features.email.template.EmailTemplateRenderer.BulkTemplate;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Renders and sends emails and records the outcome in the email log.
+ * Shared by the synchronous API, the send queue workers and bulk sending.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailDeliveryService {
+
+    private final EmailProviderRouter providerRouter;
+    private final EmailTemplateRenderer templateRenderer;
+    private final EmailConfig emailConfig;
+    private final EmailLogStore emailLogStore;
+    private final EmailTrackingService trackingService;
+
+    /**
+     * Sends the email on the calling thread.
+     *
+     * @param bulkEmailId id of the bulk email this email belongs to, or null
+     * @return the recorded outcome; failures are reported through the status, not thrown
+     */
+    public EmailResponse deliver(String emailId, EmailRequest request, String bulkEmailId) {
+        return deliver(emailId, request, bulkEmailId, 0);
+    }
+
+    /**
+     * Sends the email on the calling thread as the given retry attempt.
+     *
+     * @param retryCount number of retries before this attempt
+     */
+    public EmailResponse deliver(String emailId, EmailRequest request, String bulkEmailId, int retryCount) {
+        EmailResponse response = createEmailResponse(emailId, request);
+        response.setBulkEmailId(bulkEmailId);
+        response.setRetryCount(retryCount);
+
+        try {
+            // Build and send email
+            providerRouter.send(buildMessage(response, request, null));
+            markSent(response);
+        } catch (Exception e) {
+            markFailed(response, e);
+        }
+
+        emailLogStore.record(response);
+        return response;
+    }
+
+    /**
+     * Sends several emails with a single provider call, so a pooled sender delivers them over one SMTP connection.
+     *
+     * @param bulkTemplate prepared template of the bulk send, or null to render each email in full
+     * @return one recorded outcome per request, in request order
+     */
+    public List<EmailResponse> deliverBatch(List<EmailRequest> requests, String bulkEmailId, BulkTemplate bulkTemplate) {
+        List<EmailResponse> responses = new ArrayList<>(requests.size());
+        Map<MimeMessage, EmailResponse> messages = new LinkedHashMap<>();
+
+        for (EmailRequest request : requests) {
+            EmailResponse response = createEmailResponse(UUID.randomUUID().toString(), request);
+            response.setBulkEmailId(bulkEmailId);
+            responses.add(response);
+            try {
+                messages.put(buildMessage(response, request, bulkTemplate), response);
+            } catch (Exception e) {
+                markFailed(response, e);
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            Map<Object, Exception> failures = Map.of();
+            try {
+                providerRouter.send(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                failures = e.getFailedMessages();
+                if (failures.isEmpty()) {
+                    messages.values().forEach(response -> markFailed(response, e));
+                    messages.clear();
+                }
+            } catch (MailException e) {
+                messages.values().forEach(response -> markFailed(response, e));
+                messages.clear();
+            }
+
+            for (Map.Entry<MimeMessage, EmailResponse> entry : messages.entrySet()) {
+                Exception failure = failures.get(entry.getKey());
+                if (failure != null) {
+                    markFailed(entry.getValue(), failure);
+                } else {
+                    markSent(entry.getValue());
+                }
+            }
+        }
+
+        responses.forEach(emailLogStore::record);
+        return responses;
+    }
+
+    /**
+     * Circuit state, latency and connection pool figures per email provider.
+     */
+    public Map<String, Object> getTransportStatus() {
+        Map<String, Object> status = new LinkedHashMap<>(providerRouter.getStatus());
+        status.put("activeProvider", providerRouter.getActiveProvider());
+        return status;
+    }
+
+    private void markSent(EmailResponse response) {
+        response.setStatus(EmailStatus.SENT);
+        response.setSentAt(LocalDateTime.now());
+        response.setProcessingTimeMs(System.currentTimeMillis() - response.getCreatedAt().atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli());
+
+        log.info("Email sent successfully: id={}, type={}, to={}", response.getEmailId(), response.getEmailType(), response.getTo());
+    }
+
+    private void markFailed(EmailResponse response, Exception e) {
+        EmailFailureType failureType = EmailFailureClassifier.classify(e);
+        log.error("Failed to send email: id={}, type={}, to={}, failure={}",
+                response.getEmailId(), response.getEmailType(), response.getTo(), failureType, e);
+        response.setStatus(EmailStatus.FAILED);
+        response.setErrorMessage(e.getMessage());
+        response.setErrorCode(failureType.getErrorCode());
+    }
+
+    private MimeMessage buildMessage(EmailResponse response, EmailRequest request, BulkTemplate bulkTemplate)
+            throws MessagingException {
+        // Build email content
+        String subject = buildSubject(request);
+        String htmlContent = trackingService.decorate(buildHtmlContent(request, bulkTemplate),
+                response.getEmailId(), response.getBulkEmailId(), request.isTrackOpens(), request.isTrackClicks());
+        return createMimeMessage(request.getTo(), subject, htmlContent, request);
+    }
+
+    public EmailResponse createEmailResponse(String emailId, EmailRequest request) {
+        return EmailResponse.builder()
+                .emailId(emailId)
+                .emailType(request.getEmailType())
+                .status(EmailStatus.PENDING)
+                .priority(request.getPriority())
+                .to(request.getTo())
+                .cc(request.getCc())
+                .bcc(request.getBcc())
+                .subject(buildSubject(request))
+                .templatePath(request.getEmailType().getTemplatePath())
+                .createdAt(LocalDateTime.now())
+                .scheduledAt(request.getScheduledAt())
+                .trackOpens(request.isTrackOpens())
+                .trackClicks(request.isTrackClicks())
+                .maxRetries(request.getMaxRetries())
+                .userId(request.getUserId())
+                .companyId(request.getCompanyId())
+                .referenceId(request.getReferenceId())
+                .referenceType(request.getReferenceType())
+                .fromName(request.getFromName() != null ? request.getFromName() : emailConfig.getDefaultFromName())
+                .fromEmail(request.getFromEmail() != null ? request.getFromEmail() : emailConfig.getDefaultFromEmail())
+                .notes(request.getNotes())
+                .build();
+    }
+
+    private String buildSubject(EmailRequest request) {
+        if (request.getSubject() != null && !request.getSubject().trim().isEmpty()) {
+            return request.getSubject();
+        }
+        return request.getEmailType().getDefaultSubject();
+    }
+
+    private String buildHtmlContent(EmailRequest request, BulkTemplate bulkTemplate) {
+        try {
+            if (bulkTemplate != null) {
+                return bulkTemplate.render(request.getTemplateVariables());
+            }
+            return templateRenderer.render(request.getEmailType().getTemplatePath(), request.getTemplateVariables());
+        } catch (Exception e) {
+            log.error("Failed to build HTML content for email type: {}", request.getEmailType(), e);
+            return buildFallbackContent(request);
+        }
+    }
+
+    private String buildFallbackContent(EmailRequest request) {
+        return String.format("""
+            <html>
+            <body style="font-family: Arial, sans-serif;">
+                <h2>%s</h2>
+                <p>Bu email %s türünde bir bildirimdir.</p>
+                <p>Template yüklenemediği için basit format kullanılmıştır.</p>
+                <hr>
+                <p style="font-size: 12px; color: #666;">Bu email Covolt tarafından gönderilmiştir.</p>
+            </body>
+            </html>
+            """, request.getEmailType().getDefaultSubject(), request.getEmailType().getCode());
+    }
+
+    private MimeMessage createMimeMessage(String to, String subject, String htmlContent, EmailRequest request)
+            throws MessagingException {
+        MimeMessage message = providerRouter.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        try {
+            helper.setFrom(request.getFromEmail() != null ? request.getFromEmail() : emailConfig.getDefaultFromEmail(),
+                          request.getFromName() != null ? request.getFromName() : emailConfig.getDefaultFromName());
+        } catch (java.io.UnsupportedEncodingException e) {
+            // Fallback to simple email without name
+            helper.setFrom(request.getFromEmail() != null ? request.getFromEmail() : emailConfig.getDefaultFromEmail());
+        }
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(htmlContent, true);
+
+        // Add CC recipients
+        if (request.getCc() != null && !request.getCc().isEmpty()) {
+            helper.setCc(request.getCc().toArray(new String[0]));
+        }
+
+        // Add BCC recipients
+        if (request.getBcc() != null && !request.getBcc().isEmpty()) {
+            helper.setBcc(request.getBcc().toArray(new String[0]));
+        }
+
+        return message;
+    }
+}
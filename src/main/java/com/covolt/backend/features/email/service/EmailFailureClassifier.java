@@ -0,0 +1,116 @@
+package com.covolt.backend.features.email.service;
+
+import com.covolt.backend.features.email.enums.EmailFailureType;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.AddressException;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSenderFailedException;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Decides whether a send failure is worth retrying.
+ * <p>
+ * SMTP reply codes found anywhere in the cause chain decide first: 5xx is permanent, 4xx is transient, and
+ * 421 or a 4xx that reports a rate limit means the provider is throttling. Without a reply code, invalid
+ * messages and rejected credentials are permanent; connection and I/O problems are transient.
+ */
+public final class EmailFailureClassifier {
+
+    private static final String[] THROTTLING_HINTS = {"rate", "limit", "throttl", "too many", "try again later", "4.7."};
+
+    private EmailFailureClassifier() {
+    }
+
+    public static EmailFailureType classify(Throwable failure) {
+        EmailFailureType withoutReplyCode = EmailFailureType.TRANSIENT;
+
+        for (Throwable cause : causeChain(failure)) {
+            int returnCode = returnCode(cause);
+            if (returnCode >= 500) {
+                return EmailFailureType.PERMANENT;
+            }
+            if (returnCode >= 400) {
+                return returnCode == 421 || mentionsThrottling(cause.getMessage())
+                        ? EmailFailureType.THROTTLED
+                        : EmailFailureType.TRANSIENT;
+            }
+            if (isPermanentWithoutReplyCode(cause)) {
+                withoutReplyCode = EmailFailureType.PERMANENT;
+            }
+        }
+        return withoutReplyCode;
+    }
+
+    private static int returnCode(Throwable cause) {
+        if (cause instanceof SMTPSendFailedException sendFailed) {
+            return sendFailed.getReturnCode();
+        }
+        if (cause instanceof SMTPAddressFailedException addressFailed) {
+            return addressFailed.getReturnCode();
+        }
+        if (cause instanceof SMTPSenderFailedException senderFailed) {
+            return senderFailed.getReturnCode();
+        }
+        return -1;
+    }
+
+    private static boolean isPermanentWithoutReplyCode(Throwable cause) {
+        return cause instanceof AddressException
+                || cause instanceof AuthenticationFailedException
+                || cause instanceof MailAuthenticationException
+                || cause instanceof MailParseException
+                || cause instanceof MailPreparationException;
+    }
+
+    private static boolean mentionsThrottling(String message) {
+        if (message == null) {
+            return false;
+        }
+        String lower = message.toLowerCase(Locale.ROOT);
+        for (String hint : THROTTLING_HINTS) {
+            if (lower.contains(hint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Causes, chained messaging exceptions and the per-message failures of a MailSendException
+    private static List<Throwable> causeChain(Throwable failure) {
+        List<Throwable> chain = new ArrayList<>();
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Throwable> pending = new ArrayDeque<>();
+        pending.add(failure);
+        while (!pending.isEmpty()) {
+            Throwable current = pending.poll();
+            if (current == null || !seen.add(current)) {
+                continue;
+            }
+            chain.add(current);
+            if (current.getCause() != null) {
+                pending.add(current.getCause());
+            }
+            if (current instanceof MessagingException messagingException && messagingException.getNextException() != null) {
+                pending.add(messagingException.getNextException());
+            }
+            if (current instanceof MailSendException mailSendException) {
+                pending.addAll(mailSendException.getFailedMessages().values());
+            }
+        }
+        return chain;
+    }
+}
@@ -4,7 +4,9 @@ import com.covolt.backend.features.email.dto.*;
 import com.covolt.backend.features.email.enums.EmailType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -19,18 +21,23 @@ public interface EmailFeatureService {
     // === SINGLE EMAIL OPERATIONS ===
 
     /**
-     * Send a single email
+     * Send a single email.
+     * Over the rate limit the email is queued and returned as PENDING; without the send queue it is rejected.
      *
      * @param request Email request with all details
      * @return Email response with status and tracking info
+     * @throws com.covolt.backend.core.exception.RateLimitExceededException if over the rate limit and the send
+     *                                                                      queue is disabled
      */
     EmailResponse sendEmail(EmailRequest request);
 
     /**
-     * Send a single email asynchronously
+     * Send a single email asynchronously.
+     * The email is queued by priority and sent by a worker; this method returns immediately.
      *
      * @param request Email request with all details
      * @return Email ID for tracking
+     * @throws com.covolt.backend.core.exception.QueueFullException if the send queue stays full
      */
     String sendEmailAsync(EmailRequest request);
 
@@ -45,10 +52,12 @@ public interface EmailFeatureService {
     // === BULK EMAIL OPERATIONS ===
 
     /**
-     * Send bulk emails
+     * Send bulk emails.
+     * The job is started in the background and this method returns immediately; progress and the final
+     * counts are available from {@link #getBulkEmailById}.
      *
      * @param request Bulk email request
-     * @return Bulk email response with statistics
+     * @return Bulk email response with the job ID and its initial counts; all recipients are pending
      */
     BulkEmailResponse sendBulkEmail(BulkEmailRequest request);
 
@@ -60,6 +69,17 @@ public interface EmailFeatureService {
      */
     String sendBulkEmailAsync(BulkEmailRequest request);
 
+    /**
+     * Send bulk emails to recipients read from a stream.
+     * Recipients are read one record at a time and queued, so the list is never held in memory as a whole.
+     *
+     * @param request     Bulk email settings; its recipient list is not used
+     * @param recipients  NDJSON or CSV recipient stream
+     * @param contentType Format of the stream
+     * @return Bulk email response with the counts after ingestion; queued emails are pending
+     */
+    BulkEmailResponse sendBulkEmailStream(BulkEmailRequest request, InputStream recipients, MediaType contentType);
+
     // === QUICK SEND METHODS (for common use cases) ===
 
     /**
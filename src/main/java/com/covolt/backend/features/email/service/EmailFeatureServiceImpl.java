@@ -1,29 +1,25 @@
 package com.covolt.backend.features.email.service;
 
+import com.covolt.backend.core.exception.RateLimitExceededException;
 import com.covolt.backend.features.email.config.EmailConfig;
 import com.covolt.backend.features.email.dto.*;
+import com.covolt.backend.features.email.enums.EmailFailureType;
 import com.covolt.backend.features.email.enums.EmailPriority;
 import com.covolt.backend.features.email.enums.EmailStatus;
 import com.covolt.backend.features.email.enums.EmailType;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import com.covolt.backend.features.email.tracking.EmailTrackingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Implementation of EmailFeatureService
@@ -34,13 +30,17 @@ import java.util.concurrent.ConcurrentHashMap;
 @Slf4j
 public class EmailFeatureServiceImpl implements EmailFeatureService {
 
-    private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
     private final EmailConfig emailConfig;
-
-    // In-memory storage for demo purposes (in production, use database)
-    private final Map<String, EmailResponse> emailStorage = new ConcurrentHashMap<>();
-    private final Map<String, BulkEmailResponse> bulkEmailStorage = new ConcurrentHashMap<>();
+    private final EmailLogStore emailLogStore;
+    private final EmailDeliveryService deliveryService;
+    private final EmailSendQueue emailSendQueue;
+    private final BulkEmailEngine bulkEmailEngine;
+    private final BulkRecipientStreamIngestor recipientStreamIngestor;
+    private final EmailScheduler emailScheduler;
+    private final EmailRetryScheduler retryScheduler;
+    private final EmailRateLimiter rateLimiter;
+    private final EmailTrackingService trackingService;
+    private final EmailAsyncExecutor asyncExecutor;
 
     @Override
     public EmailResponse sendEmail(EmailRequest request) {
@@ -51,54 +51,59 @@ public class EmailFeatureServiceImpl implements EmailFeatureService {
             return createFailedResponse(request, "Email service is disabled");
         }
 
-        String emailId = UUID.randomUUID().toString();
-        EmailResponse response = createEmailResponse(emailId, request);
-
-        try {
-            // Build email content
-            String subject = buildSubject(request);
-            String htmlContent = buildHtmlContent(request);
-
-            // Send email
-            sendEmailMessage(request.getTo(), subject, htmlContent, request);
-
-            // Update response with success
-            response.setStatus(EmailStatus.SENT);
-            response.setSentAt(LocalDateTime.now());
-            response.setProcessingTimeMs(System.currentTimeMillis() - response.getCreatedAt().atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli());
-
-            log.info("Email sent successfully: id={}, type={}, to={}", emailId, request.getEmailType(), request.getTo());
-
-        } catch (Exception e) {
-            log.error("Failed to send email: id={}, type={}, to={}", emailId, request.getEmailType(), request.getTo(), e);
-            response.setStatus(EmailStatus.FAILED);
-            response.setErrorMessage(e.getMessage());
-            response.setErrorCode("SEND_FAILED");
+        long waitMs = rateLimiter.tryAcquire(request.getCompanyId());
+        if (waitMs > 0) {
+            if (emailSendQueue.isEnabled()) {
+                // Over the rate limit: the queue sends it as soon as the limit allows
+                String emailId = emailSendQueue.enqueue(request);
+                log.info("Email over rate limit, queued: id={}, companyId={}", emailId, request.getCompanyId());
+                return deliveryService.createEmailResponse(emailId, request);
+            }
+            // Without the queue there is nothing to hand it to; waiting here would hold the request thread
+            log.warn("Email over rate limit, rejected: to={}, companyId={}", request.getTo(), request.getCompanyId());
+            throw new RateLimitExceededException("Email", (waitMs + 999) / 1000);
         }
 
-        // Store response
-        emailStorage.put(emailId, response);
-        return response;
+        EmailResponse response = deliveryService.deliver(UUID.randomUUID().toString(), request, null);
+        return retryScheduler.afterDelivery(response, request);
     }
 
     @Override
-    @Async
     public String sendEmailAsync(EmailRequest request) {
+        if (!emailConfig.isEnabled()) {
+            log.info("Email service is disabled. Skipping email: {}", request.getTo());
+            EmailResponse failedResponse = createFailedResponse(request, "Email service is disabled");
+            emailLogStore.record(failedResponse);
+            return failedResponse.getEmailId();
+        }
+
+        if (emailSendQueue.isEnabled()) {
+            return emailSendQueue.enqueue(request);
+        }
+
         String emailId = UUID.randomUUID().toString();
         log.debug("Sending email asynchronously: id={}, type={}, to={}", emailId, request.getEmailType(), request.getTo());
 
-        CompletableFuture.runAsync(() -> {
-            try {
-                EmailResponse response = sendEmail(request);
-                response.setEmailId(emailId);
-                emailStorage.put(emailId, response);
-            } catch (Exception e) {
-                log.error("Failed to send async email: id={}", emailId, e);
-                EmailResponse failedResponse = createFailedResponse(request, e.getMessage());
-                failedResponse.setEmailId(emailId);
-                emailStorage.put(emailId, failedResponse);
-            }
-        });
+        try {
+            asyncExecutor.execute(() -> {
+                try {
+                    rateLimiter.awaitPermit(request.getCompanyId());
+                    retryScheduler.afterDelivery(deliveryService.deliver(emailId, request, null), request);
+                } catch (Exception e) {
+                    log.error("Failed to send async email: id={}", emailId, e);
+                    EmailResponse failedResponse = createFailedResponse(request, e.getMessage());
+                    failedResponse.setEmailId(emailId);
+                    emailLogStore.record(failedResponse);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Saturated: hand the email to the retry engine instead of losing it
+            log.warn("Email async executor saturated, send deferred to retry: id={}", emailId);
+            EmailResponse deferredResponse = createFailedResponse(request, "Email async executor saturated");
+            deferredResponse.setEmailId(emailId);
+            deferredResponse.setErrorCode(EmailFailureType.TRANSIENT.getErrorCode());
+            retryScheduler.afterDelivery(deferredResponse, request);
+        }
 
         return emailId;
     }
@@ -108,15 +113,9 @@ public class EmailFeatureServiceImpl implements EmailFeatureService {
         log.debug("Scheduling email: type={}, to={}, scheduledAt={}",
                 request.getEmailType(), request.getTo(), request.getScheduledAt());
 
-        String emailId = UUID.randomUUID().toString();
-        EmailResponse response = createEmailResponse(emailId, request);
-        response.setStatus(EmailStatus.PENDING);
-        response.setScheduledAt(request.getScheduledAt());
-
-        // Store for later processing
-        emailStorage.put(emailId, response);
+        EmailResponse response = emailScheduler.schedule(request);
 
-        log.info("Email scheduled: id={}, scheduledAt={}", emailId, request.getScheduledAt());
+        log.info("Email scheduled: id={}, scheduledAt={}", response.getEmailId(), request.getScheduledAt());
         return response;
     }
 
@@ -125,80 +124,37 @@ public class EmailFeatureServiceImpl implements EmailFeatureService {
         log.debug("Sending bulk email: type={}, recipients={}", request.getEmailType(), request.getRecipients().size());
 
         String bulkEmailId = UUID.randomUUID().toString();
-        BulkEmailResponse bulkResponse = createBulkEmailResponse(bulkEmailId, request);
-
-        try {
-            List<EmailResponse> emailResults = new ArrayList<>();
-            int successCount = 0;
-            int failedCount = 0;
-
-            // Process recipients in batches
-            List<BulkEmailRequest.BulkEmailRecipient> recipients = request.getRecipients();
-            int batchSize = request.getBatchSize();
-
-            for (int i = 0; i < recipients.size(); i += batchSize) {
-                int endIndex = Math.min(i + batchSize, recipients.size());
-                List<BulkEmailRequest.BulkEmailRecipient> batch = recipients.subList(i, endIndex);
-
-                for (BulkEmailRequest.BulkEmailRecipient recipient : batch) {
-                    EmailRequest emailRequest = buildEmailRequestFromBulk(request, recipient);
-                    EmailResponse emailResponse = sendEmail(emailRequest);
-                    emailResults.add(emailResponse);
-
-                    if (emailResponse.getStatus().isSuccessful()) {
-                        successCount++;
-                    } else {
-                        failedCount++;
-                    }
-                }
-
-                // Add delay between batches
-                if (i + batchSize < recipients.size()) {
-                    try {
-                        Thread.sleep(request.getBatchDelayMs());
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
-            }
-
-            // Update bulk response
-            bulkResponse.setEmailResults(emailResults);
-            bulkResponse.setSuccessCount(successCount);
-            bulkResponse.setFailedCount(failedCount);
-            bulkResponse.setProcessedCount(successCount + failedCount);
-            bulkResponse.setCompletedAt(LocalDateTime.now());
-
-        } catch (Exception e) {
-            log.error("Failed to send bulk email: id={}", bulkEmailId, e);
-            bulkResponse.setFailedCount(request.getRecipients().size());
+        if (!emailConfig.isEnabled()) {
+            return createDisabledBulkEmailResponse(bulkEmailId, request);
         }
-
-        // Store bulk response
-        bulkEmailStorage.put(bulkEmailId, bulkResponse);
-        return bulkResponse;
+        // Runs on the engine's pool; pacing by rate limiter permits must not block the request thread
+        return bulkEmailEngine.submit(bulkEmailId, request);
     }
 
     @Override
-    @Async
     public String sendBulkEmailAsync(BulkEmailRequest request) {
         String bulkEmailId = UUID.randomUUID().toString();
         log.debug("Sending bulk email asynchronously: id={}, recipients={}", bulkEmailId, request.getRecipients().size());
 
-        CompletableFuture.runAsync(() -> {
-            try {
-                BulkEmailResponse response = sendBulkEmail(request);
-                response.setBulkEmailId(bulkEmailId);
-                bulkEmailStorage.put(bulkEmailId, response);
-            } catch (Exception e) {
-                log.error("Failed to send async bulk email: id={}", bulkEmailId, e);
-            }
-        });
-
+        if (!emailConfig.isEnabled()) {
+            createDisabledBulkEmailResponse(bulkEmailId, request);
+        } else {
+            bulkEmailEngine.submit(bulkEmailId, request);
+        }
         return bulkEmailId;
     }
 
+    @Override
+    public BulkEmailResponse sendBulkEmailStream(BulkEmailRequest request, InputStream recipients, MediaType contentType) {
+        String bulkEmailId = UUID.randomUUID().toString();
+        log.debug("Sending bulk email from recipient stream: id={}, format={}", bulkEmailId, contentType);
+
+        if (!emailConfig.isEnabled()) {
+            return createDisabledBulkEmailResponse(bulkEmailId, request);
+        }
+        return recipientStreamIngestor.ingest(bulkEmailId, request, recipients, contentType);
+    }
+
     // === QUICK SEND METHODS ===
 
     @Override
@@ -316,42 +272,18 @@ public class EmailFeatureServiceImpl implements EmailFeatureService {
 
     // === Helper Methods ===
 
-    private EmailResponse createEmailResponse(String emailId, EmailRequest request) {
-        return EmailResponse.builder()
-                .emailId(emailId)
-                .emailType(request.getEmailType())
-                .status(EmailStatus.PENDING)
-                .priority(request.getPriority())
-                .to(request.getTo())
-                .cc(request.getCc())
-                .bcc(request.getBcc())
-                .subject(buildSubject(request))
-                .templatePath(request.getEmailType().getTemplatePath())
-                .createdAt(LocalDateTime.now())
-                .scheduledAt(request.getScheduledAt())
-                .trackOpens(request.isTrackOpens())
-                .trackClicks(request.isTrackClicks())
-                .maxRetries(request.getMaxRetries())
-                .userId(request.getUserId())
-                .companyId(request.getCompanyId())
-                .referenceId(request.getReferenceId())
-                .referenceType(request.getReferenceType())
-                .fromName(request.getFromName() != null ? request.getFromName() : emailConfig.getDefaultFromName())
-                .fromEmail(request.getFromEmail() != null ? request.getFromEmail() : emailConfig.getDefaultFromEmail())
-                .notes(request.getNotes())
-                .build();
-    }
-
     private EmailResponse createFailedResponse(EmailRequest request, String errorMessage) {
-        EmailResponse response = createEmailResponse(UUID.randomUUID().toString(), request);
+        EmailResponse response = deliveryService.createEmailResponse(UUID.randomUUID().toString(), request);
         response.setStatus(EmailStatus.FAILED);
         response.setErrorMessage(errorMessage);
         response.setErrorCode("SERVICE_DISABLED");
         return response;
     }
 
-    private BulkEmailResponse createBulkEmailResponse(String bulkEmailId, BulkEmailRequest request) {
-        return BulkEmailResponse.builder()
+    private BulkEmailResponse createDisabledBulkEmailResponse(String bulkEmailId, BulkEmailRequest request) {
+        log.info("Email service is disabled. Skipping bulk email: {} recipients", request.getRecipients().size());
+        int total = request.getRecipients().size();
+        BulkEmailResponse response = BulkEmailResponse.builder()
                 .bulkEmailId(bulkEmailId)
                 .emailType(request.getEmailType())
                 .priority(request.getPriority())
@@ -360,9 +292,12 @@ public class EmailFeatureServiceImpl implements EmailFeatureService {
                 .createdAt(LocalDateTime.now())
                 .scheduledAt(request.getScheduledAt())
                 .startedAt(LocalDateTime.now())
-                .totalRecipients(request.getRecipients().size())
+                .completedAt(LocalDateTime.now())
+                .totalRecipients(total)
+                .processedCount(total)
+                .failedCount(total)
                 .batchSize(request.getBatchSize())
-                .totalBatches((int) Math.ceil((double) request.getRecipients().size() / request.getBatchSize()))
+                .totalBatches((int) Math.ceil((double) total / request.getBatchSize()))
                 .batchDelayMs(request.getBatchDelayMs())
                 .userId(request.getUserId())
                 .companyId(request.getCompanyId())
@@ -370,104 +305,8 @@ public class EmailFeatureServiceImpl implements EmailFeatureService {
                 .emailResults(new ArrayList<>())
                 .errors(new ArrayList<>())
                 .build();
-    }
-
-    private String buildSubject(EmailRequest request) {
-        if (request.getSubject() != null && !request.getSubject().trim().isEmpty()) {
-            return request.getSubject();
-        }
-        return request.getEmailType().getDefaultSubject();
-    }
-
-    private String buildHtmlContent(EmailRequest request) {
-        try {
-            Context context = new Context();
-
-            // Add all template variables
-            request.getTemplateVariables().forEach(context::setVariable);
-
-            // Add common variables
-            context.setVariable("currentYear", LocalDateTime.now().getYear());
-            context.setVariable("companyName", "Covolt");
-            context.setVariable("supportEmail", "support@covolt.com");
-
-            return templateEngine.process(request.getEmailType().getTemplatePath(), context);
-        } catch (Exception e) {
-            log.error("Failed to build HTML content for email type: {}", request.getEmailType(), e);
-            return buildFallbackContent(request);
-        }
-    }
-
-    private String buildFallbackContent(EmailRequest request) {
-        return String.format("""
-            <html>
-            <body style="font-family: Arial, sans-serif;">
-                <h2>%s</h2>
-                <p>Bu email %s türünde bir bildirimdir.</p>
-                <p>Template yüklenemediği için basit format kullanılmıştır.</p>
-                <hr>
-                <p style="font-size: 12px; color: #666;">Bu email Covolt tarafından gönderilmiştir.</p>
-            </body>
-            </html>
-            """, request.getEmailType().getDefaultSubject(), request.getEmailType().getCode());
-    }
-
-    private void sendEmailMessage(String to, String subject, String htmlContent, EmailRequest request)
-            throws MessagingException {
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-        try {
-            helper.setFrom(request.getFromEmail() != null ? request.getFromEmail() : emailConfig.getDefaultFromEmail(),
-                          request.getFromName() != null ? request.getFromName() : emailConfig.getDefaultFromName());
-        } catch (java.io.UnsupportedEncodingException e) {
-            // Fallback to simple email without name
-            helper.setFrom(request.getFromEmail() != null ? request.getFromEmail() : emailConfig.getDefaultFromEmail());
-        }
-        helper.setTo(to);
-        helper.setSubject(subject);
-        helper.setText(htmlContent, true);
-
-        // Add CC recipients
-        if (request.getCc() != null && !request.getCc().isEmpty()) {
-            helper.setCc(request.getCc().toArray(new String[0]));
-        }
-
-        // Add BCC recipients
-        if (request.getBcc() != null && !request.getBcc().isEmpty()) {
-            helper.setBcc(request.getBcc().toArray(new String[0]));
-        }
-
-        mailSender.send(message);
-    }
-
-    private EmailRequest buildEmailRequestFromBulk(BulkEmailRequest bulkRequest,
-                                                  BulkEmailRequest.BulkEmailRecipient recipient) {
-        Map<String, Object> variables = new HashMap<>(bulkRequest.getCommonTemplateVariables());
-        variables.putAll(recipient.getTemplateVariables());
-
-        // Add recipient-specific variables
-        variables.put("recipientName", recipient.getName());
-        variables.put("recipientEmail", recipient.getEmail());
-
-        return EmailRequest.builder()
-                .emailType(bulkRequest.getEmailType())
-                .to(recipient.getEmail())
-                .subject(recipient.getCustomSubject() != null ? recipient.getCustomSubject() : bulkRequest.getSubject())
-                .templateVariables(variables)
-                .priority(bulkRequest.getPriority())
-                .scheduledAt(bulkRequest.getScheduledAt())
-                .maxRetries(bulkRequest.getMaxRetries())
-                .userId(bulkRequest.getUserId())
-                .companyId(bulkRequest.getCompanyId())
-                .referenceId(recipient.getReferenceId())
-                .referenceType(recipient.getReferenceType())
-                .trackOpens(bulkRequest.isTrackOpens())
-                .trackClicks(bulkRequest.isTrackClicks())
-                .fromName(bulkRequest.getFromName())
-                .fromEmail(bulkRequest.getFromEmail())
-                .notes(bulkRequest.getNotes())
-                .build();
+        emailLogStore.recordBulk(response);
+        return response;
     }
 
     // === System Management Methods ===
@@ -481,8 +320,17 @@ public class EmailFeatureServiceImpl implements EmailFeatureService {
     public Map<String, Object> getServiceHealthStatus() {
         Map<String, Object> status = new HashMap<>();
         status.put("enabled", emailConfig.isEnabled());
-        status.put("emailsInStorage", emailStorage.size());
-        status.put("bulkEmailsInStorage", bulkEmailStorage.size());
+        status.put("pendingLogWrites", emailLogStore.pendingCount());
+        status.put("queuedEmails", emailSendQueue.size());
+        status.put("queueRemainingCapacity", emailSendQueue.remainingCapacity());
+        status.put("activeBulkJobs", bulkEmailEngine.activeJobCount());
+        status.put("scheduledEmails", emailScheduler.size());
+        status.put("retryingEmails", retryScheduler.size());
+        status.put("retryCooldownMs", retryScheduler.getCooldownRemainingMs());
+        status.put("rateLimits", rateLimiter.getUsage());
+        status.put("transport", deliveryService.getTransportStatus());
+        status.put("tracking", trackingService.getStatus());
+        status.put("asyncExecutor", asyncExecutor.getStatus());
         status.put("lastHealthCheck", LocalDateTime.now());
         status.put("status", "HEALTHY");
         return status;
@@ -521,66 +369,52 @@ public class EmailFeatureServiceImpl implements EmailFeatureService {
 
     @Override
     public Optional<EmailResponse> getEmailById(String emailId) {
-        return Optional.ofNullable(emailStorage.get(emailId));
+        return emailLogStore.findEmail(emailId);
     }
 
     @Override
     public Page<EmailResponse> getEmailsByUser(String userId, Pageable pageable) {
-        // Simple implementation - in production use database
-        List<EmailResponse> userEmails = emailStorage.values().stream()
-                .filter(email -> userId.equals(email.getUserId()))
-                .toList();
-        return new PageImpl<>(userEmails, pageable, userEmails.size());
+        return emailLogStore.findByUser(userId, pageable);
     }
 
     @Override
     public Page<EmailResponse> getEmailsByCompany(String companyId, Pageable pageable) {
-        List<EmailResponse> companyEmails = emailStorage.values().stream()
-                .filter(email -> companyId.equals(email.getCompanyId()))
-                .toList();
-        return new PageImpl<>(companyEmails, pageable, companyEmails.size());
+        return emailLogStore.findByCompany(companyId, pageable);
     }
 
     @Override
     public Page<EmailResponse> getEmailsByType(EmailType emailType, Pageable pageable) {
-        List<EmailResponse> typeEmails = emailStorage.values().stream()
-                .filter(email -> emailType.equals(email.getEmailType()))
-                .toList();
-        return new PageImpl<>(typeEmails, pageable, typeEmails.size());
+        return emailLogStore.findByType(emailType, pageable);
     }
 
     @Override
     public Page<EmailResponse> getEmailsByDateRange(LocalDateTime startDate, LocalDateTime endDate,
                                                    Pageable pageable) {
-        List<EmailResponse> dateEmails = emailStorage.values().stream()
-                .filter(email -> email.getCreatedAt().isAfter(startDate) && email.getCreatedAt().isBefore(endDate))
-                .toList();
-        return new PageImpl<>(dateEmails, pageable, dateEmails.size());
+        return emailLogStore.findByDateRange(startDate, endDate, pageable);
     }
 
     @Override
     public Optional<BulkEmailResponse> getBulkEmailById(String bulkEmailId) {
-        return Optional.ofNullable(bulkEmailStorage.get(bulkEmailId));
+        Optional<BulkEmailResponse> active = bulkEmailEngine.findActive(bulkEmailId);
+        return active.isPresent() ? active : emailLogStore.findBulkEmail(bulkEmailId);
     }
 
     @Override
     public Page<BulkEmailResponse> getBulkEmailsByCampaign(String campaignId, Pageable pageable) {
-        List<BulkEmailResponse> campaignEmails = bulkEmailStorage.values().stream()
-                .filter(bulk -> campaignId.equals(bulk.getCampaignId()))
-                .toList();
-        return new PageImpl<>(campaignEmails, pageable, campaignEmails.size());
+        return emailLogStore.findBulkByCampaign(campaignId, pageable);
     }
 
     @Override
     public EmailResponse retryEmail(String emailId) {
-        EmailResponse email = emailStorage.get(emailId);
+        EmailResponse email = emailLogStore.findEmail(emailId).orElse(null);
         if (email != null && email.canRetry()) {
-            // Create new request from existing email
-            EmailRequest retryRequest = EmailRequest.builder()
-                    .emailType(email.getEmailType())
-                    .to(email.getTo())
-                    .subject(email.getSubject())
-                    .build();
+            // Resend the original request; emails logged without a payload are rebuilt from the log entry
+            EmailRequest retryRequest = retryScheduler.findOriginalRequest(emailId)
+                    .orElseGet(() -> EmailRequest.builder()
+                            .emailType(email.getEmailType())
+                            .to(email.getTo())
+                            .subject(email.getSubject())
+                            .build());
 
             return sendEmail(retryRequest);
         }
@@ -589,9 +423,15 @@ public class EmailFeatureServiceImpl implements EmailFeatureService {
 
     @Override
     public boolean cancelScheduledEmail(String emailId) {
-        EmailResponse email = emailStorage.get(emailId);
+        EmailResponse email = emailLogStore.findEmail(emailId).orElse(null);
         if (email != null && email.getStatus() == EmailStatus.PENDING) {
+            boolean stopped = emailScheduler.cancel(emailId) || retryScheduler.cancel(emailId)
+                    || emailSendQueue.cancel(emailId);
+            if (!stopped) {
+                return false; // Sending has already started; its result will be recorded
+            }
             email.setStatus(EmailStatus.CANCELLED);
+            emailLogStore.record(email);
             return true;
         }
         return false;
@@ -599,9 +439,14 @@ public class EmailFeatureServiceImpl implements EmailFeatureService {
 
     @Override
     public boolean cancelBulkEmail(String bulkEmailId) {
-        BulkEmailResponse bulkEmail = bulkEmailStorage.get(bulkEmailId);
+        if (bulkEmailEngine.cancel(bulkEmailId)) {
+            return true;
+        }
+        // Not running here, e.g. interrupted by a restart; only the stored record can be closed
+        BulkEmailResponse bulkEmail = emailLogStore.findBulkEmail(bulkEmailId).orElse(null);
         if (bulkEmail != null && !bulkEmail.isCompleted()) {
             bulkEmail.setCompletedAt(LocalDateTime.now());
+            emailLogStore.recordBulk(bulkEmail);
             return true;
         }
         return false;
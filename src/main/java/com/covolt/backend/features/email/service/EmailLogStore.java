@@ -0,0 +1,438 @@
+package com.covolt.backend.features.email.service;
+
+import com.covolt.backend.core.model.BulkEmailLog;
+import com.covolt.backend.core.model.EmailLog;
+import com.covolt.backend.core.repository.BulkEmailLogRepository;
+import com.covolt.backend.core.repository.EmailLogRepository;
+import com.covolt.backend.features.email.config.EmailConfig;
+import com.covolt.backend.features.email.dto.BulkEmailResponse;
+import com.covolt.backend.features.email.dto.EmailResponse;
+import com.covolt.backend.features.email.enums.EmailStatus;
+import com.covolt.backend.features.email.enums.EmailType;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Persistent email log with write-behind buffering.
+ * <p>
+ * Sending threads only record a snapshot of the email state in memory; a scheduled flush writes all pending
+ * snapshots in one transaction using JDBC batching. Several state changes of the same email between two
+ * flushes (e.g. PENDING then SENT) collapse into a single write. Lookups by id see unflushed state, including
+ * snapshots of a flush that has not committed yet; listing queries are served by indexed, paged database
+ * queries and may lag by up to one flush interval.
+ */
+@Component
+@Slf4j
+public class EmailLogStore {
+
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.DESC, "createdAt");
+    private static final String LIST_SEPARATOR = ",";
+
+    private final EmailLogRepository emailLogRepository;
+    private final BulkEmailLogRepository bulkEmailLogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final Map<String, EmailLog> pendingEmails = new ConcurrentHashMap<>();
+    private final Map<String, BulkEmailLog> pendingBulkEmails = new ConcurrentHashMap<>();
+    // Snapshots taken by the running flush; visible to lookups until its transaction has committed
+    private volatile Map<String, EmailLog> inFlightEmails = Map.of();
+    private volatile Map<String, BulkEmailLog> inFlightBulkEmails = Map.of();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public EmailLogStore(EmailLogRepository emailLogRepository,
+                         BulkEmailLogRepository bulkEmailLogRepository,
+                         TransactionTemplate transactionTemplate,
+                         EmailConfig emailConfig) {
+        this.emailLogRepository = emailLogRepository;
+        this.bulkEmailLogRepository = bulkEmailLogRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = Math.max(1, emailConfig.getLogging().getBatchSize());
+    }
+
+    /**
+     * Records the current state of an email. The response is copied, so later changes to it are not
+     * persisted unless recorded again.
+     */
+    public void record(EmailResponse response) {
+        pendingEmails.put(response.getEmailId(), toLog(response));
+        flushIfFull();
+    }
+
+    /**
+     * Records the current state of an email together with the request payload needed to send it again.
+     */
+    public void record(EmailResponse response, String payload) {
+        EmailLog snapshot = toLog(response);
+        snapshot.setPayload(payload);
+        pendingEmails.put(response.getEmailId(), snapshot);
+        flushIfFull();
+    }
+
+    public void recordBulk(BulkEmailResponse response) {
+        pendingBulkEmails.put(response.getBulkEmailId(), toBulkLog(response));
+        flushIfFull();
+    }
+
+    /**
+     * Writes a queued email immediately, together with the request payload needed to send it after a restart.
+     * Later {@link #record} calls keep the payload until the email is sent or cancelled.
+     */
+    public void recordQueued(EmailResponse response, String payload) {
+        EmailLog snapshot = toLog(response);
+        snapshot.setPayload(payload);
+        pendingEmails.remove(response.getEmailId());
+        transactionTemplate.executeWithoutResult(status -> writeEmails(Map.of(response.getEmailId(), snapshot)));
+    }
+
+    /**
+     * Loads a page of emails that were queued but not sent, oldest first.
+     */
+    public List<EmailLog> findQueuedEmails(Pageable pageable) {
+        return emailLogRepository.findByStatusAndScheduledAtIsNullAndNextRetryAtIsNullAndPayloadIsNotNull(EmailStatus.PENDING, pageable);
+    }
+
+    /**
+     * Loads a page of scheduled emails that were not sent yet.
+     */
+    public List<EmailLog> findScheduledEmails(Pageable pageable) {
+        return emailLogRepository.findByStatusAndScheduledAtIsNotNullAndNextRetryAtIsNullAndPayloadIsNotNull(EmailStatus.PENDING, pageable);
+    }
+
+    /**
+     * Loads a page of emails waiting for a retry.
+     */
+    public List<EmailLog> findRetryEmails(Pageable pageable) {
+        return emailLogRepository.findByStatusAndNextRetryAtIsNotNullAndPayloadIsNotNull(EmailStatus.PENDING, pageable);
+    }
+
+    /**
+     * The stored request payload of an email, if it is still kept.
+     */
+    public Optional<String> findPayload(String emailId) {
+        EmailLog pending = findUnflushed(emailId);
+        if (pending != null && pending.getPayload() != null) {
+            return Optional.of(pending.getPayload());
+        }
+        return emailLogRepository.findByEmailId(emailId).map(EmailLog::getPayload);
+    }
+
+    public Optional<EmailResponse> findEmail(String emailId) {
+        EmailLog pending = findUnflushed(emailId);
+        if (pending != null) {
+            return Optional.of(toResponse(pending));
+        }
+        return emailLogRepository.findByEmailId(emailId).map(this::toResponse);
+    }
+
+    public Optional<BulkEmailResponse> findBulkEmail(String bulkEmailId) {
+        BulkEmailLog pending = pendingBulkEmails.get(bulkEmailId);
+        if (pending == null) {
+            pending = inFlightBulkEmails.get(bulkEmailId);
+        }
+        if (pending != null) {
+            return Optional.of(toBulkResponse(pending));
+        }
+        return bulkEmailLogRepository.findByBulkEmailId(bulkEmailId).map(this::toBulkResponse);
+    }
+
+    // The newest unflushed snapshot: a pending one supersedes the one being written
+    private EmailLog findUnflushed(String emailId) {
+        EmailLog pending = pendingEmails.get(emailId);
+        return pending != null ? pending : inFlightEmails.get(emailId);
+    }
+
+    public Page<EmailResponse> findByUser(String userId, Pageable pageable) {
+        return emailLogRepository.findByUserId(userId, withDefaultSort(pageable)).map(this::toResponse);
+    }
+
+    public Page<EmailResponse> findByCompany(String companyId, Pageable pageable) {
+        return emailLogRepository.findByCompanyId(companyId, withDefaultSort(pageable)).map(this::toResponse);
+    }
+
+    public Page<EmailResponse> findByType(EmailType emailType, Pageable pageable) {
+        return emailLogRepository.findByEmailType(emailType, withDefaultSort(pageable)).map(this::toResponse);
+    }
+
+    public Page<EmailResponse> findByDateRange(LocalDateTime start, LocalDateTime end, Pageable pageable) {
+        return emailLogRepository.findByCreatedAtBetween(start, end, withDefaultSort(pageable)).map(this::toResponse);
+    }
+
+    public Page<BulkEmailResponse> findBulkByCampaign(String campaignId, Pageable pageable) {
+        return bulkEmailLogRepository.findByCampaignId(campaignId, withDefaultSort(pageable)).map(this::toBulkResponse);
+    }
+
+    public int pendingCount() {
+        return pendingEmails.size() + pendingBulkEmails.size();
+    }
+
+    /**
+     * Writes all pending snapshots. Runs periodically, when the buffer reaches the batch size and on shutdown.
+     */
+    @Scheduled(fixedDelayString = "${app.email.logging.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            doFlush();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void flushIfFull() {
+        // Caller threads help flushing only when nobody else is; otherwise the buffer keeps absorbing writes
+        if (pendingEmails.size() >= batchSize && flushLock.tryLock()) {
+            try {
+                doFlush();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    private void doFlush() {
+        if (pendingEmails.isEmpty() && pendingBulkEmails.isEmpty()) {
+            return;
+        }
+        Map<String, EmailLog> emails = new ConcurrentHashMap<>();
+        Map<String, BulkEmailLog> bulkEmails = new ConcurrentHashMap<>();
+        inFlightEmails = emails;
+        inFlightBulkEmails = bulkEmails;
+        drain(pendingEmails, emails);
+        drain(pendingBulkEmails, bulkEmails);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                writeEmails(emails);
+                writeBulkEmails(bulkEmails);
+            });
+            log.debug("Flushed email log: {} emails, {} bulk emails", emails.size(), bulkEmails.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to flush email log ({} emails, {} bulk emails), will retry", emails.size(), bulkEmails.size(), e);
+            // Put back what has not been superseded by a newer snapshot in the meantime
+            emails.forEach(pendingEmails::putIfAbsent);
+            bulkEmails.forEach(pendingBulkEmails::putIfAbsent);
+        } finally {
+            // Committed or back in the pending maps
+            inFlightEmails = Map.of();
+            inFlightBulkEmails = Map.of();
+        }
+    }
+
+    private void writeEmails(Map<String, EmailLog> emails) {
+        List<String> ids = new ArrayList<>(emails.keySet());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<String> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            // Snapshots of already persisted emails take over the row id and are merged as updates
+            for (EmailLog existing : emailLogRepository.findByEmailIdIn(chunk)) {
+                EmailLog snapshot = emails.get(existing.getEmailId());
+                snapshot.setId(existing.getId());
+                snapshot.setCreatedAt(existing.getCreatedAt());
+                snapshot.setUpdatedAt(existing.getUpdatedAt());
+                // Failed emails keep their payload so that they can be retried with the original variables
+                if (snapshot.getPayload() == null && !snapshot.getStatus().isSuccessful()
+                        && snapshot.getStatus() != EmailStatus.CANCELLED) {
+                    snapshot.setPayload(existing.getPayload());
+                }
+            }
+            List<EmailLog> batch = new ArrayList<>(chunk.size());
+            for (String id : chunk) {
+                batch.add(emails.get(id));
+            }
+            emailLogRepository.saveAll(batch);
+        }
+    }
+
+    private void writeBulkEmails(Map<String, BulkEmailLog> bulkEmails) {
+        if (bulkEmails.isEmpty()) {
+            return;
+        }
+        for (BulkEmailLog existing : bulkEmailLogRepository.findByBulkEmailIdIn(bulkEmails.keySet())) {
+            BulkEmailLog snapshot = bulkEmails.get(existing.getBulkEmailId());
+            snapshot.setId(existing.getId());
+            snapshot.setCreatedAt(existing.getCreatedAt());
+            snapshot.setUpdatedAt(existing.getUpdatedAt());
+        }
+        bulkEmailLogRepository.saveAll(bulkEmails.values());
+    }
+
+    // Each snapshot is added to the in-flight map before it leaves the pending map, so lookups always find it
+    private static <T> void drain(Map<String, T> pending, Map<String, T> inFlight) {
+        for (String key : pending.keySet()) {
+            T value = pending.get(key);
+            if (value != null) {
+                inFlight.put(key, value);
+                pending.remove(key, value); // A newer snapshot stays pending for the next flush
+            }
+        }
+    }
+
+    private static Pageable withDefaultSort(Pageable pageable) {
+        if (pageable.isPaged() && pageable.getSort().isUnsorted()) {
+            return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), DEFAULT_SORT);
+        }
+        return pageable;
+    }
+
+    // === Mapping ===
+
+    private EmailLog toLog(EmailResponse response) {
+        EmailLog emailLog = new EmailLog();
+        emailLog.setEmailId(response.getEmailId());
+        emailLog.setEmailType(response.getEmailType());
+        emailLog.setStatus(response.getStatus());
+        emailLog.setPriority(response.getPriority());
+        emailLog.setRecipient(response.getTo());
+        emailLog.setCc(joinList(response.getCc()));
+        emailLog.setBcc(joinList(response.getBcc()));
+        emailLog.setSubject(response.getSubject());
+        emailLog.setTemplatePath(response.getTemplatePath());
+        emailLog.setCreatedAt(response.getCreatedAt());
+        emailLog.setScheduledAt(response.getScheduledAt());
+        emailLog.setSentAt(response.getSentAt());
+        emailLog.setDeliveredAt(response.getDeliveredAt());
+        emailLog.setTrackOpens(response.isTrackOpens());
+        emailLog.setTrackClicks(response.isTrackClicks());
+        emailLog.setOpenCount(response.getOpenCount());
+        emailLog.setClickCount(response.getClickCount());
+        emailLog.setRetryCount(response.getRetryCount());
+        emailLog.setMaxRetries(response.getMaxRetries());
+        emailLog.setNextRetryAt(response.getNextRetryAt());
+        emailLog.setErrorMessage(response.getErrorMessage());
+        emailLog.setErrorCode(response.getErrorCode());
+        emailLog.setUserId(response.getUserId());
+        emailLog.setCompanyId(response.getCompanyId());
+        emailLog.setReferenceId(response.getReferenceId());
+        emailLog.setReferenceType(response.getReferenceType());
+        emailLog.setFromName(response.getFromName());
+        emailLog.setFromEmail(response.getFromEmail());
+        emailLog.setNotes(response.getNotes());
+        emailLog.setBulkEmailId(response.getBulkEmailId());
+        emailLog.setProcessingTimeMs(response.getProcessingTimeMs());
+        return emailLog;
+    }
+
+    private EmailResponse toResponse(EmailLog emailLog) {
+        return EmailResponse.builder()
+                .emailId(emailLog.getEmailId())
+                .emailType(emailLog.getEmailType())
+                .status(emailLog.getStatus())
+                .priority(emailLog.getPriority())
+                .to(emailLog.getRecipient())
+                .cc(splitList(emailLog.getCc()))
+                .bcc(splitList(emailLog.getBcc()))
+                .subject(emailLog.getSubject())
+                .templatePath(emailLog.getTemplatePath())
+                .createdAt(emailLog.getCreatedAt())
+                .scheduledAt(emailLog.getScheduledAt())
+                .sentAt(emailLog.getSentAt())
+                .deliveredAt(emailLog.getDeliveredAt())
+                .trackOpens(emailLog.isTrackOpens())
+                .trackClicks(emailLog.isTrackClicks())
+                .openCount(emailLog.getOpenCount())
+                .clickCount(emailLog.getClickCount())
+                .retryCount(emailLog.getRetryCount())
+                .maxRetries(emailLog.getMaxRetries())
+                .nextRetryAt(emailLog.getNextRetryAt())
+                .errorMessage(emailLog.getErrorMessage())
+                .errorCode(emailLog.getErrorCode())
+                .userId(emailLog.getUserId())
+                .companyId(emailLog.getCompanyId())
+                .referenceId(emailLog.getReferenceId())
+                .referenceType(emailLog.getReferenceType())
+                .fromName(emailLog.getFromName())
+                .fromEmail(emailLog.getFromEmail())
+                .notes(emailLog.getNotes())
+                .bulkEmailId(emailLog.getBulkEmailId())
+                .processingTimeMs(emailLog.getProcessingTimeMs())
+                .build();
+    }
+
+    private BulkEmailLog toBulkLog(BulkEmailResponse response) {
+        BulkEmailLog bulkLog = new BulkEmailLog();
+        bulkLog.setBulkEmailId(response.getBulkEmailId());
+        bulkLog.setEmailType(response.getEmailType());
+        bulkLog.setPriority(response.getPriority());
+        bulkLog.setCampaignId(response.getCampaignId());
+        bulkLog.setCampaignName(response.getCampaignName());
+        bulkLog.setCreatedAt(response.getCreatedAt());
+        bulkLog.setScheduledAt(response.getScheduledAt());
+        bulkLog.setStartedAt(response.getStartedAt());
+        bulkLog.setCompletedAt(response.getCompletedAt());
+        bulkLog.setTotalRecipients(response.getTotalRecipients());
+        bulkLog.setProcessedCount(response.getProcessedCount());
+        bulkLog.setSuccessCount(response.getSuccessCount());
+        bulkLog.setFailedCount(response.getFailedCount());
+        bulkLog.setPendingCount(response.getPendingCount());
+        bulkLog.setBatchSize(response.getBatchSize());
+        bulkLog.setTotalBatches(response.getTotalBatches());
+        bulkLog.setCompletedBatches(response.getCompletedBatches());
+        bulkLog.setBatchDelayMs(response.getBatchDelayMs());
+        bulkLog.setUserId(response.getUserId());
+        bulkLog.setCompanyId(response.getCompanyId());
+        bulkLog.setTotalProcessingTimeMs(response.getTotalProcessingTimeMs());
+        bulkLog.setNotes(response.getNotes());
+        return bulkLog;
+    }
+
+    // Individual results are not embedded; they are queryable through the email log by bulkEmailId
+    private BulkEmailResponse toBulkResponse(BulkEmailLog bulkLog) {
+        return BulkEmailResponse.builder()
+                .bulkEmailId(bulkLog.getBulkEmailId())
+                .emailType(bulkLog.getEmailType())
+                .priority(bulkLog.getPriority())
+                .campaignId(bulkLog.getCampaignId())
+                .campaignName(bulkLog.getCampaignName())
+                .createdAt(bulkLog.getCreatedAt())
+                .scheduledAt(bulkLog.getScheduledAt())
+                .startedAt(bulkLog.getStartedAt())
+                .completedAt(bulkLog.getCompletedAt())
+                .totalRecipients(bulkLog.getTotalRecipients())
+                .processedCount(bulkLog.getProcessedCount())
+                .successCount(bulkLog.getSuccessCount())
+                .failedCount(bulkLog.getFailedCount())
+                .pendingCount(bulkLog.getPendingCount())
+                .openCount(bulkLog.getOpenCount())
+                .clickCount(bulkLog.getClickCount())
+                .batchSize(bulkLog.getBatchSize())
+                .totalBatches(bulkLog.getTotalBatches())
+                .completedBatches(bulkLog.getCompletedBatches())
+                .batchDelayMs(bulkLog.getBatchDelayMs())
+                .userId(bulkLog.getUserId())
+                .companyId(bulkLog.getCompanyId())
+                .totalProcessingTimeMs(bulkLog.getTotalProcessingTimeMs())
+                .notes(bulkLog.getNotes())
+                .emailResults(new ArrayList<>())
+                .errors(new ArrayList<>())
+                .build();
+    }
+
+    private static String joinList(List<String> values) {
+        return values == null || values.isEmpty() ? null : String.join(LIST_SEPARATOR, values);
+    }
+
+    private static List<String> splitList(String value) {
+        return value == null || value.isEmpty() ? null : Arrays.asList(value.split(LIST_SEPARATOR));
+    }
+}
@@ -0,0 +1,245 @@
+package com.covolt.backend.features.email.service;
+
+import com.covolt.backend.features.email.config.EmailConfig;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Sliding-window rate limiter for outgoing emails, built from {@link EmailConfig.RateLimiting}.
+ * <p>
+ * Every send needs room in the global minute/hour/day windows and in the windows of its company
+ * ({@code EmailRequest.companyId}), so one company's campaign cannot use up the quota of the others. Emails
+ * without a company only count against the global limits.
+ * <p>
+ * Each window is split into slots; a slot packs its epoch and count into one {@code long} that is updated with
+ * compare-and-set, so permits are taken without locks. A send is counted first and rolled back if any window
+ * went over its limit, which means the limits are never exceeded under concurrency.
+ */
+@Component
+public class EmailRateLimiter {
+
+    // Waiting is done in slices so cancellation is noticed quickly
+    private static final long MAX_WAIT_SLICE_MS = 250;
+
+    private final boolean enabled;
+    private final WindowSet global;
+    private final EmailConfig.RateLimiting settings;
+    private final Map<String, WindowSet> companies = new ConcurrentHashMap<>();
+
+    public EmailRateLimiter(EmailConfig emailConfig) {
+        this.settings = emailConfig.getRateLimiting();
+        this.enabled = settings.isEnabled();
+        this.global = new WindowSet(settings.getMaxEmailsPerMinute(), settings.getMaxEmailsPerHour(), settings.getMaxEmailsPerDay());
+    }
+
+    /**
+     * Takes a permit for one email if the global and company limits allow it.
+     *
+     * @param companyId company the email is sent for, or null
+     * @return 0 if a permit was taken, otherwise the milliseconds after which a permit may be available
+     */
+    public long tryAcquire(String companyId) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        long waitMs = global.tryAcquire(now);
+        if (waitMs > 0 || companyId == null) {
+            return waitMs;
+        }
+        waitMs = companyWindows(companyId).tryAcquire(now);
+        if (waitMs > 0) {
+            global.release(now);
+        }
+        return waitMs;
+    }
+
+    /**
+     * Blocks until a permit is taken.
+     *
+     * @param cancelled checked while waiting; waiting stops when it returns true
+     * @return true if a permit was taken, false if cancelled first
+     */
+    public boolean acquire(String companyId, BooleanSupplier cancelled) throws InterruptedException {
+        while (!cancelled.getAsBoolean()) {
+            long waitMs = tryAcquire(companyId);
+            if (waitMs == 0) {
+                return true;
+            }
+            TimeUnit.MILLISECONDS.sleep(Math.min(waitMs, MAX_WAIT_SLICE_MS));
+        }
+        return false;
+    }
+
+    /**
+     * Blocks until a permit is taken. An interrupted thread returns without a permit (and keeps its interrupt
+     * flag), so shutdown is never held up.
+     */
+    public void awaitPermit(String companyId) {
+        try {
+            acquire(companyId, () -> false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Emails counted in the current windows, globally and per company.
+     */
+    public Map<String, Object> getUsage() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> usage = new LinkedHashMap<>();
+        usage.put("enabled", enabled);
+        usage.put("global", global.usage(now));
+        Map<String, Object> byCompany = new TreeMap<>();
+        companies.forEach((companyId, windows) -> byCompany.put(companyId, windows.usage(now)));
+        usage.put("companies", byCompany);
+        return usage;
+    }
+
+    /**
+     * Forgets companies that sent nothing within the longest window.
+     */
+    @Scheduled(fixedDelayString = "${app.email.rateLimiting.cleanupIntervalMs:600000}")
+    public void evictIdleCompanies() {
+        long now = System.currentTimeMillis();
+        // A send racing with the removal may be counted on the evicted windows; the company starts over empty
+        companies.entrySet().removeIf(entry -> entry.getValue().isIdle(now));
+    }
+
+    private WindowSet companyWindows(String companyId) {
+        return companies.computeIfAbsent(companyId, id -> new WindowSet(settings.getMaxEmailsPerMinutePerCompany(),
+                settings.getMaxEmailsPerHourPerCompany(), settings.getMaxEmailsPerDayPerCompany()));
+    }
+
+    /**
+     * The minute, hour and day windows of one key; non-positive limits disable a window.
+     */
+    private static final class WindowSet {
+
+        private final List<SlidingWindow> windows = new ArrayList<>();
+
+        private WindowSet(int perMinute, int perHour, int perDay) {
+            addWindow("perMinute", perMinute, TimeUnit.SECONDS.toMillis(5), 12);
+            addWindow("perHour", perHour, TimeUnit.MINUTES.toMillis(5), 12);
+            addWindow("perDay", perDay, TimeUnit.HOURS.toMillis(1), 24);
+        }
+
+        private void addWindow(String name, int limit, long slotMs, int slots) {
+            if (limit > 0) {
+                windows.add(new SlidingWindow(name, limit, slotMs, slots));
+            }
+        }
+
+        private long tryAcquire(long now) {
+            for (int i = 0; i < windows.size(); i++) {
+                SlidingWindow window = windows.get(i);
+                if (window.increment(now) > window.limit) {
+                    for (int j = 0; j <= i; j++) {
+                        windows.get(j).decrement(now);
+                    }
+                    return window.millisUntilNextSlot(now);
+                }
+            }
+            return 0;
+        }
+
+        private void release(long now) {
+            windows.forEach(window -> window.decrement(now));
+        }
+
+        private boolean isIdle(long now) {
+            return windows.stream().allMatch(window -> window.count(now) == 0);
+        }
+
+        private Map<String, Object> usage(long now) {
+            Map<String, Object> usage = new LinkedHashMap<>();
+            for (SlidingWindow window : windows) {
+                usage.put(window.name, window.count(now) + "/" + window.limit);
+            }
+            return usage;
+        }
+    }
+
+    /**
+     * Counts events of the last {@code slots * slotMs} milliseconds with a granularity of one slot.
+     */
+    private static final class SlidingWindow {
+
+        private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+        private final String name;
+        private final int limit;
+        private final long slotMs;
+        private final int slots;
+        private final AtomicLongArray cells; // (epoch << 32) | count
+
+        private SlidingWindow(String name, int limit, long slotMs, int slots) {
+            this.name = name;
+            this.limit = limit;
+            this.slotMs = slotMs;
+            this.slots = slots;
+            this.cells = new AtomicLongArray(slots);
+        }
+
+        // Counts one event and returns the window total including it
+        private int increment(long now) {
+            long epoch = epoch(now);
+            int index = (int) (epoch % slots);
+            while (true) {
+                long cell = cells.get(index);
+                long updated = (cell >>> 32) == epoch ? cell + 1 : (epoch << 32) | 1;
+                if (cells.compareAndSet(index, cell, updated)) {
+                    return count(now);
+                }
+            }
+        }
+
+        // Takes back an event counted in the current slot; a slot that has moved on keeps its new count
+        private void decrement(long now) {
+            long epoch = epoch(now);
+            int index = (int) (epoch % slots);
+            while (true) {
+                long cell = cells.get(index);
+                if ((cell >>> 32) != epoch || (cell & COUNT_MASK) == 0) {
+                    return;
+                }
+                if (cells.compareAndSet(index, cell, cell - 1)) {
+                    return;
+                }
+            }
+        }
+
+        private int count(long now) {
+            long epoch = epoch(now);
+            int total = 0;
+            for (int i = 0; i < slots; i++) {
+                long cell = cells.get(i);
+                long age = epoch - (cell >>> 32);
+                if (age >= 0 && age < slots) {
+                    total += (int) (cell & COUNT_MASK);
+                }
+            }
+            return total;
+        }
+
+        private long millisUntilNextSlot(long now) {
+            return slotMs - now % slotMs;
+        }
+
+        // Slot number since the epoch; fits in 32 bits for slots of a second and longer
+        private long epoch(long now) {
+            return (now / slotMs) & COUNT_MASK;
+        }
+    }
+}
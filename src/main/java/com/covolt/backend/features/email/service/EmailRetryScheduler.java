@@ -0,0 +1,316 @@
+package com.covolt.backend.features.email.service;
+
+import com.covolt.backend.core.model.EmailLog;
+import com.covolt.backend.features.email.config.EmailConfig;
+import com.covolt.backend.features.email.dto.EmailRequest;
+import com.covolt.backend.features.email.dto.EmailResponse;
+import com.covolt.backend.features.email.enums.EmailFailureType;
+import com.covolt.backend.features.email.enums.EmailStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retries failed emails with jittered exponential backoff ({@code app.email.retry.*}).
+ * <p>
+ * Only failures classified as transient or throttled are retried, up to the smaller of the request's and the
+ * configured {@code maxRetries}. A waiting retry is stored as PENDING with its request payload and
+ * {@code nextRetryAt}, and sits in a {@link DelayQueue}, so no thread sleeps on its behalf; retries that were
+ * waiting at shutdown are restored on the next startup.
+ * <p>
+ * When the provider throttles, a shared cooldown is started that grows with consecutive throttling replies.
+ * Retries that become due during the cooldown are spread over a window after it instead of all firing at once.
+ */
+@Component
+@Slf4j
+public class EmailRetryScheduler {
+
+    private static final int RELOAD_PAGE_SIZE = 500;
+
+    private final EmailDeliveryService deliveryService;
+    private final EmailLogStore emailLogStore;
+    private final EmailRateLimiter rateLimiter;
+    private final EmailConfig.Retry retryConfig;
+    private final ObjectMapper objectMapper;
+
+    private final DelayQueue<RetryTask> delayQueue = new DelayQueue<>();
+    private final Map<String, RetryTask> waiting = new ConcurrentHashMap<>();
+    private final AtomicLong throttledUntil = new AtomicLong();
+    private final AtomicInteger consecutiveThrottles = new AtomicInteger();
+
+    private final ExecutorService dispatchers;
+    private final Thread dispatcherThread;
+    private volatile boolean running = true;
+
+    public EmailRetryScheduler(EmailDeliveryService deliveryService,
+                               EmailLogStore emailLogStore,
+                               EmailRateLimiter rateLimiter,
+                               EmailConfig emailConfig,
+                               ObjectMapper objectMapper) {
+        this.deliveryService = deliveryService;
+        this.emailLogStore = emailLogStore;
+        this.rateLimiter = rateLimiter;
+        this.retryConfig = emailConfig.getRetry();
+        this.objectMapper = objectMapper;
+        this.dispatchers = Executors.newFixedThreadPool(Math.max(1, retryConfig.getDispatchThreads()),
+                new CustomizableThreadFactory("email-retry-"));
+        this.dispatcherThread = new CustomizableThreadFactory("email-retry-timer-").newThread(this::runDispatcher);
+        this.dispatcherThread.setDaemon(true);
+    }
+
+    /**
+     * Schedules a retry if the delivery failed with a retryable error. Failed emails keep their payload in the
+     * email log either way, so they can still be retried manually with the original variables.
+     *
+     * @return the response as recorded: PENDING with {@code nextRetryAt} if a retry was scheduled
+     */
+    public EmailResponse afterDelivery(EmailResponse response, EmailRequest request) {
+        if (response.getStatus() != EmailStatus.FAILED) {
+            if (response.getRetryCount() > 0 && response.getStatus().isSuccessful()) {
+                consecutiveThrottles.set(0);
+            }
+            return response;
+        }
+
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            log.error("Failed email payload could not be stored, no retry: id={}", response.getEmailId(), e);
+            return response;
+        }
+
+        EmailFailureType failureType = EmailFailureType.fromErrorCode(response.getErrorCode());
+        if (failureType == EmailFailureType.THROTTLED) {
+            startCooldown();
+        }
+
+        int maxRetries = Math.min(response.getMaxRetries(), retryConfig.getMaxRetries());
+        if (!retryConfig.isEnabled() || failureType == null || !failureType.isRetryable()
+                || response.getRetryCount() >= maxRetries) {
+            emailLogStore.record(response, payload);
+            return response;
+        }
+
+        int attempt = response.getRetryCount() + 1;
+        long dueAtMs = System.currentTimeMillis() + jittered(backoffMs(attempt));
+        response.setStatus(EmailStatus.PENDING);
+        response.setRetryCount(attempt);
+        response.setNextRetryAt(toLocalDateTime(dueAtMs));
+        emailLogStore.record(response, payload);
+
+        arm(new RetryTask(response.getEmailId(), request, response.getBulkEmailId(), attempt, dueAtMs));
+        log.info("Email retry scheduled: id={}, attempt={}/{}, failure={}, nextRetryAt={}",
+                response.getEmailId(), attempt, maxRetries, failureType, response.getNextRetryAt());
+        return response;
+    }
+
+    /**
+     * Drops a waiting retry.
+     *
+     * @return true if the email was waiting for a retry
+     */
+    public boolean cancel(String emailId) {
+        RetryTask task = waiting.remove(emailId);
+        if (task == null) {
+            return false;
+        }
+        delayQueue.remove(task);
+        return true;
+    }
+
+    public int size() {
+        return waiting.size();
+    }
+
+    /**
+     * The original request of a stored email, if its payload is still kept.
+     */
+    public Optional<EmailRequest> findOriginalRequest(String emailId) {
+        return emailLogStore.findPayload(emailId).flatMap(payload -> {
+            try {
+                return Optional.of(objectMapper.readValue(payload, EmailRequest.class));
+            } catch (JsonProcessingException e) {
+                log.warn("Stored email payload could not be read: id={}", emailId, e);
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Milliseconds left of the throttling cooldown, 0 if the provider is not throttling.
+     */
+    public long getCooldownRemainingMs() {
+        return Math.max(0, throttledUntil.get() - System.currentTimeMillis());
+    }
+
+    /**
+     * Restores retries left over from a previous run, then starts dispatching.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // The dispatcher is not running yet, so no row changes while the pages are read
+        List<EmailLog> rows = new ArrayList<>();
+        List<EmailLog> page;
+        int pageNumber = 0;
+        do {
+            page = emailLogStore.findRetryEmails(
+                    PageRequest.of(pageNumber++, RELOAD_PAGE_SIZE, Sort.by(Sort.Direction.ASC, "nextRetryAt")));
+            rows.addAll(page);
+        } while (page.size() == RELOAD_PAGE_SIZE);
+
+        int reloaded = 0;
+        for (EmailLog row : rows) {
+            try {
+                EmailRequest request = objectMapper.readValue(row.getPayload(), EmailRequest.class);
+                if (!waiting.containsKey(row.getEmailId())) {
+                    long dueAtMs = row.getNextRetryAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                    arm(new RetryTask(row.getEmailId(), request, row.getBulkEmailId(), row.getRetryCount(), dueAtMs));
+                    reloaded++;
+                }
+            } catch (JsonProcessingException e) {
+                log.error("Email retry could not be restored and is skipped: id={}", row.getEmailId(), e);
+            }
+        }
+        dispatcherThread.start();
+        log.info("Email retry scheduler started, {} retries restored", reloaded);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Waiting retries stay PENDING with their nextRetryAt and are restored on the next startup
+        running = false;
+        dispatcherThread.interrupt();
+        dispatchers.shutdown();
+        try {
+            if (!dispatchers.awaitTermination(10, TimeUnit.SECONDS)) {
+                dispatchers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            dispatchers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void arm(RetryTask task) {
+        waiting.put(task.emailId, task);
+        delayQueue.put(task);
+    }
+
+    private void runDispatcher() {
+        while (running) {
+            RetryTask task;
+            try {
+                task = delayQueue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (waiting.get(task.emailId) != task) {
+                continue; // Cancelled
+            }
+
+            long cooldownEnd = throttledUntil.get();
+            long now = System.currentTimeMillis();
+            if (now < cooldownEnd) {
+                // Spread postponed retries over a window as long as the cooldown itself
+                long spreadMs = Math.max(retryConfig.getInitialDelayMs(), cooldownEnd - now);
+                task.dueAtMs = cooldownEnd + ThreadLocalRandom.current().nextLong(spreadMs + 1);
+                delayQueue.put(task);
+                continue;
+            }
+
+            if (waiting.remove(task.emailId, task)) {
+                dispatchers.execute(() -> fire(task));
+            }
+        }
+    }
+
+    private void fire(RetryTask task) {
+        long waitMs = rateLimiter.tryAcquire(task.request.getCompanyId());
+        if (waitMs > 0) {
+            task.dueAtMs = System.currentTimeMillis() + waitMs;
+            arm(task);
+            return;
+        }
+        try {
+            log.debug("Retrying email: id={}, attempt={}", task.emailId, task.attempt);
+            EmailResponse response = deliveryService.deliver(task.emailId, task.request, task.bulkEmailId, task.attempt);
+            afterDelivery(response, task.request);
+        } catch (RuntimeException e) {
+            log.error("Email retry failed to run: id={}", task.emailId, e);
+        }
+    }
+
+    private void startCooldown() {
+        long cooldownMs = backoffMs(consecutiveThrottles.incrementAndGet());
+        long until = throttledUntil.accumulateAndGet(System.currentTimeMillis() + cooldownMs, Math::max);
+        log.warn("Email provider is throttling, retries paused until {}", toLocalDateTime(until));
+    }
+
+    // initialDelayMs * backoffMultiplier^(attempt - 1), capped at maxDelayMs
+    private long backoffMs(int attempt) {
+        double delay = retryConfig.getInitialDelayMs() * Math.pow(retryConfig.getBackoffMultiplier(), Math.max(0, attempt - 1));
+        return (long) Math.min(delay, retryConfig.getMaxDelayMs());
+    }
+
+    // Half fixed, half random, so retries of emails that failed together do not return together
+    private static long jittered(long delayMs) {
+        long half = delayMs / 2;
+        return half + ThreadLocalRandom.current().nextLong(delayMs - half + 1);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault());
+    }
+
+    private static final class RetryTask implements Delayed {
+
+        private final String emailId;
+        private final EmailRequest request;
+        private final String bulkEmailId;
+        private final int attempt;
+        private volatile long dueAtMs; // Only changed while the task is out of the queue
+
+        private RetryTask(String emailId, EmailRequest request, String bulkEmailId, int attempt, long dueAtMs) {
+            this.emailId = emailId;
+            this.request = request;
+            this.bulkEmailId = bulkEmailId;
+            this.attempt = attempt;
+            this.dueAtMs = dueAtMs;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMs - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAtMs, ((RetryTask) other).dueAtMs);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.covolt.backend.features.email.service;
+
+import com.covolt.backend.core.model.EmailLog;
+import com.covolt.backend.features.email.dto.EmailRequest;
+import com.covolt.backend.features.email.dto.EmailResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds future-dated emails in memory and hands them to the send queue at their {@code scheduledAt}.
+ * <p>
+ * Timers live in a {@link ScheduledThreadPoolExecutor} (a binary heap ordered by due time) with
+ * remove-on-cancel, so scheduling and cancelling are O(log n) and waiting emails cost no database polling.
+ * Scheduled emails are stored as PENDING with their request payload; the database is read only once at
+ * startup to restore the timers. Emails that became due while the application was down are sent right away.
+ */
+@Component
+@Slf4j
+public class EmailScheduler {
+
+    private static final int RELOAD_PAGE_SIZE = 500;
+
+    private final EmailDeliveryService deliveryService;
+    private final EmailLogStore emailLogStore;
+    private final EmailSendQueue emailSendQueue;
+    private final ObjectMapper objectMapper;
+
+    private final ScheduledThreadPoolExecutor timer;
+    private final Map<String, Timer> scheduled = new ConcurrentHashMap<>();
+
+    public EmailScheduler(EmailDeliveryService deliveryService,
+                          EmailLogStore emailLogStore,
+                          EmailSendQueue emailSendQueue,
+                          ObjectMapper objectMapper) {
+        this.deliveryService = deliveryService;
+        this.emailLogStore = emailLogStore;
+        this.emailSendQueue = emailSendQueue;
+        this.objectMapper = objectMapper;
+        this.timer = new ScheduledThreadPoolExecutor(1, new CustomizableThreadFactory("email-scheduler-"));
+        this.timer.setRemoveOnCancelPolicy(true);
+        this.timer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Stores the email as PENDING and starts its timer.
+     */
+    public EmailResponse schedule(EmailRequest request) {
+        String emailId = UUID.randomUUID().toString();
+        EmailResponse response = deliveryService.createEmailResponse(emailId, request);
+        try {
+            emailLogStore.recordQueued(response, objectMapper.writeValueAsString(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Email could not be scheduled: " + e.getMessage(), e);
+        }
+        arm(emailId, request, request.getScheduledAt());
+        return response;
+    }
+
+    /**
+     * Removes the timer of a scheduled email.
+     *
+     * @return true if the email was waiting for its time
+     */
+    public boolean cancel(String emailId) {
+        Timer entry = scheduled.remove(emailId);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.future != null) {
+            entry.future.cancel(false);
+        }
+        return true;
+    }
+
+    public int size() {
+        return scheduled.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        // Read everything before arming: due timers change rows while pages are being read
+        List<EmailLog> rows = new ArrayList<>();
+        List<EmailLog> page;
+        int pageNumber = 0;
+        do {
+            page = emailLogStore.findScheduledEmails(
+                    PageRequest.of(pageNumber++, RELOAD_PAGE_SIZE, Sort.by(Sort.Direction.ASC, "scheduledAt")));
+            rows.addAll(page);
+        } while (page.size() == RELOAD_PAGE_SIZE);
+
+        int reloaded = 0;
+        for (EmailLog row : rows) {
+            try {
+                EmailRequest request = objectMapper.readValue(row.getPayload(), EmailRequest.class);
+                if (!scheduled.containsKey(row.getEmailId())) {
+                    arm(row.getEmailId(), request, row.getScheduledAt());
+                    reloaded++;
+                }
+            } catch (JsonProcessingException e) {
+                log.error("Scheduled email could not be restored and is skipped: id={}", row.getEmailId(), e);
+            }
+        }
+        log.info("Email scheduler started, {} scheduled emails restored", reloaded);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Pending timers are dropped; the emails stay PENDING and are restored on the next startup
+        timer.shutdownNow();
+    }
+
+    private void arm(String emailId, EmailRequest request, LocalDateTime scheduledAt) {
+        long delayMs = scheduledAt != null ? Math.max(0, Duration.between(LocalDateTime.now(), scheduledAt).toMillis()) : 0;
+        // Registered before the timer starts, so even an immediately due timer finds its entry
+        Timer entry = new Timer();
+        scheduled.put(emailId, entry);
+        entry.future = timer.schedule(() -> fire(emailId, entry, request), delayMs, TimeUnit.MILLISECONDS);
+        log.debug("Email timer armed: id={}, scheduledAt={}, delayMs={}", emailId, scheduledAt, delayMs);
+    }
+
+    private void fire(String emailId, Timer entry, EmailRequest request) {
+        // Whoever removes the entry first wins: either this timer or cancel()
+        if (!scheduled.remove(emailId, entry)) {
+            return;
+        }
+        try {
+            emailSendQueue.submitPersisted(emailId, request);
+            log.debug("Scheduled email is due and queued: id={}", emailId);
+        } catch (RuntimeException e) {
+            log.error("Scheduled email could not be queued: id={}", emailId, e);
+        }
+    }
+
+    private static final class Timer {
+        private volatile ScheduledFuture<?> future;
+    }
+}
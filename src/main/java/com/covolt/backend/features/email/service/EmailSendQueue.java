@@ -0,0 +1,372 @@
+package com.covolt.backend.features.email.service;
+
+import com.covolt.backend.core.exception.QueueFullException;
+import com.covolt.backend.core.model.EmailLog;
+import com.covolt.backend.features.email.config.EmailConfig;
+import com.covolt.backend.features.email.dto.EmailRequest;
+import com.covolt.backend.features.email.dto.EmailResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Durable, prioritized send queue drained by a fixed worker pool.
+ * <p>
+ * Every enqueued email is first written to the email log as PENDING together with its request payload, so
+ * emails that were not sent before a shutdown are loaded again on the next startup. Workers take emails in
+ * {@code EmailPriority.level} order (FIFO within a level). When {@code maxQueueSize} emails are waiting or
+ * being sent, producers wait up to {@code enqueueTimeoutMs} for space and then get a {@link QueueFullException}.
+ * An email that is over the rate limit of its company (or the global one) is put back into the queue once the
+ * limit allows it again; it keeps its place in the capacity count meanwhile.
+ * <p>
+ * Each email is QUEUED until a worker claims it for SENDING; {@link #cancel} only succeeds while it is QUEUED,
+ * so an email reported as cancelled is never sent.
+ */
+@Component
+@Slf4j
+public class EmailSendQueue {
+
+    private static final int RELOAD_PAGE_SIZE = 500;
+
+    private final EmailDeliveryService deliveryService;
+    private final EmailLogStore emailLogStore;
+    private final EmailRetryScheduler retryScheduler;
+    private final EmailRateLimiter rateLimiter;
+    private final EmailConfig.Queue queueConfig;
+    private final JavaMailSender mailSender;
+    private final ObjectMapper objectMapper;
+
+    private final PriorityBlockingQueue<QueuedEmail> queue = new PriorityBlockingQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Emails waiting in the queue or being sent; its size is the capacity in use. Guarded by capacityLock.
+    private final Map<String, SendState> inFlight = new HashMap<>();
+    private final ReentrantLock capacityLock = new ReentrantLock();
+    private final Condition notFull = capacityLock.newCondition();
+
+    private ExecutorService workers;
+    private ScheduledExecutorService deferrer;
+    private volatile boolean running;
+
+    public EmailSendQueue(EmailDeliveryService deliveryService,
+                          EmailLogStore emailLogStore,
+                          EmailRetryScheduler retryScheduler,
+                          EmailRateLimiter rateLimiter,
+                          EmailConfig emailConfig,
+                          JavaMailSender mailSender,
+                          ObjectMapper objectMapper) {
+        this.deliveryService = deliveryService;
+        this.emailLogStore = emailLogStore;
+        this.retryScheduler = retryScheduler;
+        this.rateLimiter = rateLimiter;
+        this.queueConfig = emailConfig.getQueue();
+        this.mailSender = mailSender;
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean isEnabled() {
+        return queueConfig.isEnabled();
+    }
+
+    /**
+     * Persists the email as PENDING and queues it for a worker.
+     *
+     * @return the email id
+     * @throws QueueFullException if no space became available within {@code enqueueTimeoutMs}
+     */
+    public String enqueue(EmailRequest request) {
+        return enqueue(request, null, queueConfig.getEnqueueTimeoutMs());
+    }
+
+    /**
+     * Persists an email that belongs to a bulk email as PENDING and queues it for a worker.
+     *
+     * @param bulkEmailId id of the bulk email, or null
+     * @param timeoutMs   how long to wait for space when the queue is full
+     * @return the email id
+     * @throws QueueFullException if no space became available within {@code timeoutMs}
+     */
+    public String enqueue(EmailRequest request, String bulkEmailId, long timeoutMs) {
+        String emailId = UUID.randomUUID().toString();
+        // Reserve first, so the startup reload can never queue the same email a second time
+        if (!reserve(emailId, timeoutMs)) {
+            log.warn("Email queue is full ({} emails), rejecting email to {}", queueConfig.getMaxQueueSize(), request.getTo());
+            throw new QueueFullException(queueConfig.getQueueName());
+        }
+
+        try {
+            EmailResponse response = deliveryService.createEmailResponse(emailId, request);
+            response.setBulkEmailId(bulkEmailId);
+            emailLogStore.recordQueued(response, objectMapper.writeValueAsString(request));
+            queue.put(new QueuedEmail(emailId, request, bulkEmailId, sequence.incrementAndGet()));
+        } catch (JsonProcessingException | RuntimeException e) {
+            release(emailId);
+            throw new IllegalStateException("Email could not be queued: " + e.getMessage(), e);
+        }
+
+        log.debug("Email queued: id={}, priority={}, to={}", emailId, request.getPriority(), request.getTo());
+        return emailId;
+    }
+
+    /**
+     * Queues an email that is already stored with its payload (e.g. a scheduled email that became due).
+     * It is admitted even when the queue is full, since it cannot be rejected back to a caller.
+     */
+    public void submitPersisted(String emailId, EmailRequest request) {
+        if (!queueConfig.isEnabled()) {
+            rateLimiter.awaitPermit(request.getCompanyId());
+            retryScheduler.afterDelivery(deliveryService.deliver(emailId, request, null), request);
+            return;
+        }
+        if (forceReserve(emailId)) {
+            queue.put(new QueuedEmail(emailId, request, null, sequence.incrementAndGet()));
+        }
+    }
+
+    /**
+     * Prevents a queued email from being sent.
+     *
+     * @return true if the email was still waiting in the queue; false once a worker has started sending it
+     */
+    public boolean cancel(String emailId) {
+        return transition(emailId, SendState.QUEUED, SendState.CANCELLED);
+    }
+
+    public int size() {
+        capacityLock.lock();
+        try {
+            return inFlight.size();
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+
+    public int remainingCapacity() {
+        return Math.max(0, queueConfig.getMaxQueueSize() - size());
+    }
+
+    /**
+     * Loads emails left over from a previous run, then starts the workers.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!queueConfig.isEnabled()) {
+            log.info("Email queue is disabled, emails are sent without queueing");
+            return;
+        }
+        applySmtpTimeouts();
+        int reloaded = reloadPendingEmails();
+
+        running = true;
+        deferrer = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("email-deferrer-"));
+        int threads = Math.max(1, queueConfig.getWorkerThreads());
+        workers = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("email-worker-"));
+        for (int i = 0; i < threads; i++) {
+            workers.execute(this::runWorker);
+        }
+        log.info("Email queue started: workers={}, maxQueueSize={}, reloaded={}", threads, queueConfig.getMaxQueueSize(), reloaded);
+    }
+
+    /**
+     * Stops the workers after the emails being sent are finished. Emails still waiting stay PENDING in the
+     * email log and are sent after the next startup.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (workers == null) {
+            return;
+        }
+        deferrer.shutdownNow(); // Deferred emails are still PENDING and reloaded on the next startup
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(queueConfig.getProcessingTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        log.info("Email queue stopped, {} emails left for the next startup", queue.size());
+    }
+
+    private void runWorker() {
+        while (running) {
+            QueuedEmail item;
+            try {
+                item = queue.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (item == null) {
+                continue;
+            }
+
+            boolean deferred = false;
+            try {
+                if (!transition(item.emailId, SendState.QUEUED, SendState.SENDING)) {
+                    log.debug("Skipping cancelled email: id={}", item.emailId);
+                } else {
+                    long waitMs = rateLimiter.tryAcquire(item.request.getCompanyId());
+                    if (waitMs > 0) {
+                        deferred = defer(item, waitMs);
+                    } else {
+                        retryScheduler.afterDelivery(deliveryService.deliver(item.emailId, item.request, item.bulkEmailId), item.request);
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.error("Email worker failed to process email: id={}", item.emailId, e);
+            } finally {
+                if (!deferred) {
+                    release(item.emailId);
+                }
+            }
+        }
+    }
+
+    private boolean defer(QueuedEmail item, long waitMs) {
+        transition(item.emailId, SendState.SENDING, SendState.QUEUED); // Can be cancelled while it waits
+        try {
+            deferrer.schedule(() -> queue.put(item), waitMs, TimeUnit.MILLISECONDS);
+            log.debug("Email over rate limit, deferred by {} ms: id={}, companyId={}", waitMs, item.emailId, item.request.getCompanyId());
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false; // Shutting down; the email stays PENDING for the next startup
+        }
+    }
+
+    private int reloadPendingEmails() {
+        int reloaded = 0;
+        int page = 0;
+        List<EmailLog> rows;
+        do {
+            rows = emailLogStore.findQueuedEmails(
+                    PageRequest.of(page++, RELOAD_PAGE_SIZE, Sort.by(Sort.Direction.ASC, "createdAt")));
+            for (EmailLog row : rows) {
+                try {
+                    EmailRequest request = objectMapper.readValue(row.getPayload(), EmailRequest.class);
+                    // Reloaded emails are admitted beyond the limit; producers wait until the backlog drains
+                    if (forceReserve(row.getEmailId())) {
+                        queue.put(new QueuedEmail(row.getEmailId(), request, row.getBulkEmailId(), sequence.incrementAndGet()));
+                        reloaded++;
+                    }
+                } catch (JsonProcessingException e) {
+                    log.error("Queued email could not be restored and is skipped: id={}", row.getEmailId(), e);
+                }
+            }
+        } while (rows.size() == RELOAD_PAGE_SIZE);
+        return reloaded;
+    }
+
+    // Connection, read and write timeouts bound how long a single send can hold a worker
+    private void applySmtpTimeouts() {
+        if (mailSender instanceof JavaMailSenderImpl senderImpl) {
+            String timeout = String.valueOf(queueConfig.getProcessingTimeoutMs());
+            Properties properties = senderImpl.getJavaMailProperties();
+            properties.putIfAbsent("mail.smtp.connectiontimeout", timeout);
+            properties.putIfAbsent("mail.smtp.timeout", timeout);
+            properties.putIfAbsent("mail.smtp.writetimeout", timeout);
+        }
+    }
+
+    private boolean reserve(String emailId, long timeoutMs) {
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        capacityLock.lock();
+        try {
+            while (inFlight.size() >= queueConfig.getMaxQueueSize()) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = notFull.awaitNanos(remainingNanos);
+            }
+            inFlight.put(emailId, SendState.QUEUED);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+
+    private boolean forceReserve(String emailId) {
+        capacityLock.lock();
+        try {
+            return inFlight.putIfAbsent(emailId, SendState.QUEUED) == null;
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+
+    private void release(String emailId) {
+        capacityLock.lock();
+        try {
+            inFlight.remove(emailId);
+            notFull.signal();
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+
+    private boolean transition(String emailId, SendState from, SendState to) {
+        capacityLock.lock();
+        try {
+            return inFlight.replace(emailId, from, to);
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+
+    private enum SendState {
+        QUEUED, SENDING, CANCELLED
+    }
+
+    private static final class QueuedEmail implements Comparable<QueuedEmail> {
+
+        private final String emailId;
+        private final EmailRequest request;
+        private final String bulkEmailId;
+        private final int priorityLevel;
+        private final long sequence;
+
+        private QueuedEmail(String emailId, EmailRequest request, String bulkEmailId, long sequence) {
+            this.emailId = emailId;
+            this.request = request;
+            this.bulkEmailId = bulkEmailId;
+            this.priorityLevel = request.getPriority() != null ? request.getPriority().getLevel() : 0;
+            this.sequence = sequence;
+        }
+
+        // Higher priority first, then in arrival order
+        @Override
+        public int compareTo(QueuedEmail other) {
+            int byPriority = Integer.compare(other.priorityLevel, priorityLevel);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
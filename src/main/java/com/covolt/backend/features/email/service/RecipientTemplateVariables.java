@@ -0,0 +1,79 @@
+package com.covolt.backend.features.email.service;
+
+import com.covolt.backend.features.email.dto.BulkEmailRequest;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Read-only template variables of one bulk recipient, layered over the common variables of the bulk email
+ * instead of copied: {@code recipientName}/{@code recipientEmail} first, then the recipient's own variables,
+ * then the common ones. Lookups go through the layers; nothing is merged until the map is iterated.
+ */
+final class RecipientTemplateVariables extends AbstractMap<String, Object> {
+
+    private static final String NAME_KEY = "recipientName";
+    private static final String EMAIL_KEY = "recipientEmail";
+
+    private final Map<String, Object> common;
+    private final Map<String, Object> own;
+    private final String name;
+    private final String email;
+
+    RecipientTemplateVariables(Map<String, Object> common, BulkEmailRequest.BulkEmailRecipient recipient) {
+        this.common = common != null ? common : Map.of();
+        this.own = recipient.getTemplateVariables() != null ? recipient.getTemplateVariables() : Map.of();
+        this.name = recipient.getName();
+        this.email = recipient.getEmail();
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (NAME_KEY.equals(key)) {
+            return name;
+        }
+        if (EMAIL_KEY.equals(key)) {
+            return email;
+        }
+        return own.containsKey(key) ? own.get(key) : common.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return NAME_KEY.equals(key) || EMAIL_KEY.equals(key) || own.containsKey(key) || common.containsKey(key);
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return entries().iterator();
+            }
+
+            @Override
+            public int size() {
+                return (int) entries().count();
+            }
+        };
+    }
+
+    private Stream<Entry<String, Object>> entries() {
+        Stream<Entry<String, Object>> recipient = Stream.of(
+                new SimpleImmutableEntry<String, Object>(NAME_KEY, name),
+                new SimpleImmutableEntry<String, Object>(EMAIL_KEY, email));
+        Stream<Entry<String, Object>> ownEntries = own.entrySet().stream()
+                .filter(entry -> !isRecipientKey(entry.getKey()));
+        Stream<Entry<String, Object>> commonEntries = common.entrySet().stream()
+                .filter(entry -> !isRecipientKey(entry.getKey()) && !own.containsKey(entry.getKey()));
+        return Stream.concat(recipient, Stream.concat(ownEntries, commonEntries));
+    }
+
+    private static boolean isRecipientKey(String key) {
+        return NAME_KEY.equals(key) || EMAIL_KEY.equals(key);
+    }
+}
@@ -0,0 +1,233 @@
+package com.covolt.backend.features.email.template;
+
+import com.covolt.backend.features.email.config.EmailConfig;
+import com.covolt.backend.features.email.enums.EmailType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.unbescape.html.HtmlEscape;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renders email templates from {@code app.email.template.basePath}.
+ * <p>
+ * Uses its own template engine so the email settings apply: parsed templates are cached according to
+ * {@code cacheEnabled} / {@code cacheExpirationMinutes}, and SpEL expressions are compiled. All templates
+ * of {@link EmailType} are parsed at startup.
+ * <p>
+ * For bulk sends, {@link #prepareBulk} renders the template once with placeholder values for the
+ * per-recipient variables and keeps the result as a skeleton; each recipient then only fills in its
+ * (HTML-escaped) values.
+ */
+@Component
+@Slf4j
+public class EmailTemplateRenderer {
+
+    private static final String TEMPLATE_SUFFIX = ".html";
+
+    private final SpringTemplateEngine templateEngine;
+    private final String basePath;
+
+    public EmailTemplateRenderer(EmailConfig emailConfig) {
+        EmailConfig.Template settings = emailConfig.getTemplate();
+        this.basePath = trimSlashes(settings.getBasePath());
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix(basePath + "/");
+        resolver.setSuffix(TEMPLATE_SUFFIX);
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resolver.setCheckExistence(true);
+        resolver.setCacheable(settings.isCacheEnabled());
+        if (settings.isCacheEnabled() && settings.getCacheExpirationMinutes() > 0) {
+            resolver.setCacheTTLMs(settings.getCacheExpirationMinutes() * 60_000L);
+        }
+
+        this.templateEngine = new SpringTemplateEngine();
+        this.templateEngine.setTemplateResolver(resolver);
+        this.templateEngine.setEnableSpringELCompiler(true);
+    }
+
+    /**
+     * Parses every email template once so the first emails do not pay for it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        int parsed = 0;
+        for (EmailType emailType : EmailType.values()) {
+            if (!exists(emailType.getTemplatePath())) {
+                continue;
+            }
+            try {
+                templateEngine.process(emailType.getTemplatePath(), new Context());
+            } catch (RuntimeException e) {
+                // Expected without variables; the template has been parsed and cached by now
+                log.trace("Template warm-up render failed for {}: {}", emailType, e.getMessage());
+            }
+            parsed++;
+        }
+        log.info("Email templates parsed at startup: {}", parsed);
+    }
+
+    public boolean exists(String templatePath) {
+        return getClass().getClassLoader().getResource(basePath + "/" + templatePath + TEMPLATE_SUFFIX) != null;
+    }
+
+    /**
+     * Renders the template with the given variables plus the common ones (currentYear, companyName, supportEmail).
+     */
+    public String render(String templatePath, Map<String, Object> variables) {
+        Context context = new Context();
+        variables.forEach(context::setVariable);
+        addCommonVariables(context); // Common variables win, as they always have
+        return templateEngine.process(templatePath, context);
+    }
+
+    /**
+     * Prepares a bulk template: the common part is rendered once, per-recipient variables become slots.
+     *
+     * @param commonVariables  variables shared by all recipients
+     * @param slotNames        variables that differ per recipient
+     * @param sampleVariables  complete variables of one recipient, used to check the skeleton against a full render
+     * @return a skeleton template, or one that renders every recipient in full if the template cannot be split
+     */
+    public BulkTemplate prepareBulk(String templatePath, Map<String, Object> commonVariables,
+                                    Set<String> slotNames, Map<String, Object> sampleVariables) {
+        String nonce = UUID.randomUUID().toString().replace("-", "");
+        List<String> slots = new ArrayList<>(slotNames);
+        Map<String, Object> variables = new HashMap<>(commonVariables);
+        for (int i = 0; i < slots.size(); i++) {
+            variables.put(slots.get(i), sentinel(nonce, i));
+        }
+
+        try {
+            BulkTemplate skeleton = BulkTemplate.skeleton(this, templatePath, render(templatePath, variables),
+                    Pattern.compile("CVSLOT" + nonce + "X(\\d+)X"), slots);
+            if (skeleton.matchesFullRender(sampleVariables)) {
+                return skeleton;
+            }
+            log.info("Template {} uses per-recipient variables beyond plain text output, rendering each recipient in full", templatePath);
+        } catch (RuntimeException e) {
+            log.warn("Bulk skeleton could not be prepared for template {}: {}", templatePath, e.getMessage());
+        }
+        return BulkTemplate.fullRender(this, templatePath);
+    }
+
+    private static String sentinel(String nonce, int index) {
+        // Letters and digits only, so HTML escaping leaves it untouched
+        return "CVSLOT" + nonce + "X" + index + "X";
+    }
+
+    private static void addCommonVariables(Context context) {
+        context.setVariable("currentYear", LocalDateTime.now().getYear());
+        context.setVariable("companyName", "Covolt");
+        context.setVariable("supportEmail", "support@covolt.com");
+    }
+
+    private static String trimSlashes(String path) {
+        String trimmed = path.startsWith("/") ? path.substring(1) : path;
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    /**
+     * A template prepared for one bulk send. Thread-safe; shared by all sender threads of the job.
+     */
+    public static final class BulkTemplate {
+
+        private final EmailTemplateRenderer renderer;
+        private final String templatePath;
+        private final List<String> slotNames;
+        private final List<String> literals; // literals.size() == slotIndexes.size() + 1
+        private final int[] slotIndexes;
+
+        private BulkTemplate(EmailTemplateRenderer renderer, String templatePath, List<String> slotNames,
+                             List<String> literals, int[] slotIndexes) {
+            this.renderer = renderer;
+            this.templatePath = templatePath;
+            this.slotNames = slotNames;
+            this.literals = literals;
+            this.slotIndexes = slotIndexes;
+        }
+
+        private static BulkTemplate skeleton(EmailTemplateRenderer renderer, String templatePath, String rendered,
+                                             Pattern sentinelPattern, List<String> slotNames) {
+            List<String> literals = new ArrayList<>();
+            List<Integer> indexes = new ArrayList<>();
+            Matcher matcher = sentinelPattern.matcher(rendered);
+            int last = 0;
+            while (matcher.find()) {
+                literals.add(rendered.substring(last, matcher.start()));
+                indexes.add(Integer.parseInt(matcher.group(1)));
+                last = matcher.end();
+            }
+            literals.add(rendered.substring(last));
+            return new BulkTemplate(renderer, templatePath, List.copyOf(slotNames), literals,
+                    indexes.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        private static BulkTemplate fullRender(EmailTemplateRenderer renderer, String templatePath) {
+            return new BulkTemplate(renderer, templatePath, List.of(), null, null);
+        }
+
+        public boolean isSkeleton() {
+            return literals != null;
+        }
+
+        /**
+         * Renders the email of one recipient.
+         *
+         * @param variables all variables of the recipient (common and per-recipient)
+         */
+        public String render(Map<String, Object> variables) {
+            if (!isSkeleton() || !canFill(variables)) {
+                return renderer.render(templatePath, variables);
+            }
+            StringBuilder html = new StringBuilder(estimateLength());
+            for (int i = 0; i < slotIndexes.length; i++) {
+                html.append(literals.get(i));
+                html.append(HtmlEscape.escapeHtml4Xml(String.valueOf(variables.get(slotNames.get(slotIndexes[i])))));
+            }
+            html.append(literals.get(slotIndexes.length));
+            return html.toString();
+        }
+
+        private boolean matchesFullRender(Map<String, Object> sampleVariables) {
+            return canFill(sampleVariables)
+                    && render(sampleVariables).equals(renderer.render(templatePath, sampleVariables));
+        }
+
+        // Slot values are written as escaped text; anything else could render differently (null checks, formatting)
+        private boolean canFill(Map<String, Object> variables) {
+            for (String slotName : slotNames) {
+                Object value = variables.get(slotName);
+                if (!(value instanceof CharSequence) || ((CharSequence) value).isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int estimateLength() {
+            int length = 0;
+            for (String literal : literals) {
+                length += literal.length();
+            }
+            return length + slotIndexes.length * 32;
+        }
+    }
+}
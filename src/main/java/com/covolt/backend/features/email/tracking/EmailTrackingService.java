@@ -0,0 +1,139 @@
+package com.covolt.backend.features.email.tracking;
+
+import com.covolt.backend.features.email.config.EmailConfig;
+import com.covolt.backend.features.email.enums.TrackingEventType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.unbescape.html.HtmlEscape;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Open and click tracking ({@code app.email.tracking.*}).
+ * <p>
+ * At render time {@link #decorate} points the links of an email at the click endpoint and adds an open pixel,
+ * each carrying a signed token. Recording a hit only verifies the token and appends to the in-memory buffer of
+ * the {@link TrackingEventWriter}, so the endpoints never wait for the database.
+ */
+@Service
+@Slf4j
+public class EmailTrackingService {
+
+    private static final String OPEN_PATH = "/api/v1/email/track/open/";
+    private static final String CLICK_PATH = "/api/v1/email/track/click/";
+
+    // href="http(s)://..." of anchor tags, double or single quoted
+    private static final Pattern LINK_PATTERN = Pattern.compile(
+            "(<a\\s[^>]*?href\\s*=\\s*)([\"'])(https?://[^\"']+)\\2", Pattern.CASE_INSENSITIVE);
+    private static final Pattern BODY_END_PATTERN = Pattern.compile("</body\\s*>", Pattern.CASE_INSENSITIVE);
+
+    private final EmailConfig.Tracking trackingConfig;
+    private final TrackingTokenCodec tokenCodec;
+    private final TrackingEventWriter eventWriter;
+    private final String baseUrl;
+
+    public EmailTrackingService(EmailConfig emailConfig, TrackingEventWriter eventWriter) {
+        this.trackingConfig = emailConfig.getTracking();
+        this.tokenCodec = new TrackingTokenCodec(trackingConfig.getSigningSecret());
+        this.eventWriter = eventWriter;
+        String domain = trackingConfig.getTrackingDomain();
+        String base = domain.contains("://") ? domain : "https://" + domain;
+        this.baseUrl = base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+    }
+
+    /**
+     * Adds the open pixel and rewrites links for click tracking, as far as the request and the configuration
+     * ask for it.
+     *
+     * @param bulkEmailId bulk email the email belongs to, or null
+     */
+    public String decorate(String html, String emailId, String bulkEmailId, boolean trackOpens, boolean trackClicks) {
+        if (html == null || !trackingConfig.isEnabled()) {
+            return html;
+        }
+        String decorated = html;
+        if (trackClicks && trackingConfig.isTrackClicks()) {
+            decorated = rewriteLinks(decorated, emailId, bulkEmailId);
+        }
+        if (trackOpens && trackingConfig.isTrackOpens()) {
+            decorated = addOpenPixel(decorated, emailId, bulkEmailId);
+        }
+        return decorated;
+    }
+
+    /**
+     * Records an open. Invalid tokens are ignored so the pixel is always served.
+     */
+    public void recordOpen(String token, String userAgent) {
+        tokenCodec.decode(token)
+                .filter(target -> target.getType() == TrackingEventType.OPEN)
+                .ifPresent(target -> record(target, userAgent));
+    }
+
+    /**
+     * Records a click.
+     *
+     * @return the original URL to redirect to, or empty if the token is invalid
+     */
+    public Optional<String> recordClick(String token, String userAgent) {
+        return tokenCodec.decode(token)
+                .filter(target -> target.getType() == TrackingEventType.CLICK && target.getUrl() != null)
+                .map(target -> {
+                    record(target, userAgent);
+                    return target.getUrl();
+                });
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", trackingConfig.isEnabled());
+        status.putAll(eventWriter.getStatus());
+        return status;
+    }
+
+    private void record(TrackingTokenCodec.Target target, String userAgent) {
+        TrackingHit hit = new TrackingHit(target.getType(), target.getEmailId(), target.getBulkEmailId(),
+                target.getUrl(), userAgent, System.currentTimeMillis());
+        if (!eventWriter.offer(hit)) {
+            log.debug("Tracking buffer full, hit dropped: id={}, type={}", target.getEmailId(), target.getType());
+        }
+    }
+
+    private String rewriteLinks(String html, String emailId, String bulkEmailId) {
+        Matcher matcher = LINK_PATTERN.matcher(html);
+        StringBuilder result = new StringBuilder(html.length() + 256);
+        while (matcher.find()) {
+            // The attribute value is HTML-escaped; the redirect needs the real URL
+            String url = HtmlEscape.unescapeHtml(matcher.group(3));
+            String replacement = url.startsWith(baseUrl)
+                    ? matcher.group()
+                    : matcher.group(1) + matcher.group(2) + trackingUrl(CLICK_PATH, TrackingEventType.CLICK, emailId, bulkEmailId, url)
+                    + matcher.group(2);
+            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    private String addOpenPixel(String html, String emailId, String bulkEmailId) {
+        String pixel = "<img src=\"" + trackingUrl(OPEN_PATH, TrackingEventType.OPEN, emailId, bulkEmailId, null)
+                + "\" width=\"1\" height=\"1\" alt=\"\" style=\"display:none;border:0;\"/>";
+        int bodyEnd = -1;
+        Matcher matcher = BODY_END_PATTERN.matcher(html);
+        while (matcher.find()) {
+            bodyEnd = matcher.start();
+        }
+        if (bodyEnd < 0) {
+            return html + pixel;
+        }
+        return html.substring(0, bodyEnd) + pixel + html.substring(bodyEnd);
+    }
+
+    private String trackingUrl(String path, TrackingEventType type, String emailId, String bulkEmailId, String url) {
+        return baseUrl + path + tokenCodec.encode(type, emailId, bulkEmailId, url);
+    }
+}
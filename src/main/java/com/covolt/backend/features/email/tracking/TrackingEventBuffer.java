@@ -0,0 +1,83 @@
+package com.covolt.backend.features.email.tracking;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded ring buffer between the tracking endpoint (many producers) and the tracking writer (one consumer).
+ * <p>
+ * Producers claim a slot with a single compare-and-set and never block; when the buffer is full the hit is
+ * dropped and counted instead of slowing down the request. Tracking data is statistical, so losing hits under
+ * extreme load is preferred over holding request threads.
+ */
+public class TrackingEventBuffer {
+
+    private final AtomicReferenceArray<TrackingHit> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); // Next slot to claim
+    private volatile long head; // Next slot to drain; only written by the consumer
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    public TrackingEventBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return false if the buffer was full and the hit was dropped
+     */
+    public boolean offer(TrackingHit hit) {
+        while (true) {
+            long claimed = tail.get();
+            if (claimed - head >= slots.length()) {
+                dropped.incrementAndGet();
+                return false;
+            }
+            if (tail.compareAndSet(claimed, claimed + 1)) {
+                slots.set((int) (claimed & mask), hit);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code max} hits into {@code target}, oldest first. Stops early at a slot that was claimed
+     * but not yet written, so hits stay in order.
+     *
+     * @return number of hits moved
+     */
+    public synchronized int drainTo(List<TrackingHit> target, int max) {
+        long position = head;
+        long end = Math.min(tail.get(), position + max);
+        while (position < end) {
+            int index = (int) (position & mask);
+            TrackingHit hit = slots.get(index);
+            if (hit == null) {
+                break;
+            }
+            slots.set(index, null);
+            target.add(hit);
+            position++;
+        }
+        int drained = (int) (position - head);
+        head = position;
+        return drained;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,157 @@
+package com.covolt.backend.features.email.tracking;
+
+import com.covolt.backend.core.model.EmailTrackingEvent;
+import com.covolt.backend.core.repository.BulkEmailLogRepository;
+import com.covolt.backend.core.repository.EmailLogRepository;
+import com.covolt.backend.core.repository.EmailTrackingEventRepository;
+import com.covolt.backend.features.email.config.EmailConfig;
+import com.covolt.backend.features.email.enums.TrackingEventType;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves tracking hits from the in-memory buffer into the database.
+ * <p>
+ * Every {@code flushIntervalMs} the buffer is drained in batches of {@code flushBatchSize}. A batch is stored in
+ * one transaction: the raw events with a batch insert, plus one counter update per email and per bulk email
+ * instead of one per hit. Expired events are purged a whole day at a time through the {@code event_date} index,
+ * the way a date partition would be dropped.
+ */
+@Component
+@Slf4j
+public class TrackingEventWriter {
+
+    private static final int URL_LENGTH = 2048;
+    private static final int USER_AGENT_LENGTH = 255;
+
+    private final TrackingEventBuffer buffer;
+    private final EmailTrackingEventRepository trackingEventRepository;
+    private final EmailLogRepository emailLogRepository;
+    private final BulkEmailLogRepository bulkEmailLogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EmailConfig.Tracking trackingConfig;
+
+    public TrackingEventWriter(EmailTrackingEventRepository trackingEventRepository,
+                               EmailLogRepository emailLogRepository,
+                               BulkEmailLogRepository bulkEmailLogRepository,
+                               TransactionTemplate transactionTemplate,
+                               EmailConfig emailConfig) {
+        this.trackingEventRepository = trackingEventRepository;
+        this.emailLogRepository = emailLogRepository;
+        this.bulkEmailLogRepository = bulkEmailLogRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.trackingConfig = emailConfig.getTracking();
+        this.buffer = new TrackingEventBuffer(trackingConfig.getBufferCapacity());
+    }
+
+    /**
+     * Queues a hit for the next flush without blocking.
+     *
+     * @return false if the buffer was full and the hit was dropped
+     */
+    public boolean offer(TrackingHit hit) {
+        return buffer.offer(hit);
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.tracking.flush-interval-ms:1000}")
+    public void flush() {
+        int batchSize = Math.max(1, trackingConfig.getFlushBatchSize());
+        List<TrackingHit> batch = new ArrayList<>(Math.min(batchSize, buffer.capacity()));
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> store(batch));
+            } catch (RuntimeException e) {
+                // Keep what still fits for the next run; the database may only be briefly unavailable
+                int requeued = (int) batch.stream().filter(buffer::offer).count();
+                log.error("Tracking events could not be stored, {} of {} requeued", requeued, batch.size(), e);
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Deletes events older than {@code trackingDataRetentionDays}, one day per statement and transaction.
+     */
+    @Scheduled(cron = "${app.email.tracking.purge-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        LocalDate cutoff = LocalDate.now().minusDays(trackingConfig.getTrackingDataRetentionDays());
+        LocalDate oldest = trackingEventRepository.findOldestEventDate();
+        if (oldest == null) {
+            return;
+        }
+
+        int purged = 0;
+        for (LocalDate day = oldest; day.isBefore(cutoff); day = day.plusDays(1)) {
+            LocalDate eventDate = day;
+            Integer deleted = transactionTemplate.execute(status -> trackingEventRepository.deleteByEventDate(eventDate));
+            purged += deleted != null ? deleted : 0;
+        }
+        if (purged > 0) {
+            log.info("Purged {} email tracking events older than {}", purged, cutoff);
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("buffered", buffer.size());
+        status.put("capacity", buffer.capacity());
+        status.put("dropped", buffer.getDroppedCount());
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void store(List<TrackingHit> batch) {
+        List<EmailTrackingEvent> events = new ArrayList<>(batch.size());
+        Map<String, int[]> byEmail = new HashMap<>();
+        Map<String, int[]> byBulkEmail = new HashMap<>();
+
+        for (TrackingHit hit : batch) {
+            events.add(toEvent(hit));
+            int counter = hit.getType() == TrackingEventType.OPEN ? 0 : 1;
+            byEmail.computeIfAbsent(hit.getEmailId(), id -> new int[2])[counter]++;
+            if (hit.getBulkEmailId() != null) {
+                byBulkEmail.computeIfAbsent(hit.getBulkEmailId(), id -> new int[2])[counter]++;
+            }
+        }
+
+        trackingEventRepository.saveAll(events);
+        byEmail.forEach((emailId, counts) -> emailLogRepository.incrementTrackingCounts(emailId, counts[0], counts[1]));
+        byBulkEmail.forEach((bulkEmailId, counts) ->
+                bulkEmailLogRepository.incrementTrackingCounts(bulkEmailId, counts[0], counts[1]));
+    }
+
+    private static EmailTrackingEvent toEvent(TrackingHit hit) {
+        LocalDateTime occurredAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(hit.getOccurredAtMs()), ZoneId.systemDefault());
+        EmailTrackingEvent event = new EmailTrackingEvent();
+        event.setEmailId(hit.getEmailId());
+        event.setBulkEmailId(hit.getBulkEmailId());
+        event.setEventType(hit.getType());
+        event.setUrl(truncate(hit.getUrl(), URL_LENGTH));
+        event.setUserAgent(truncate(hit.getUserAgent(), USER_AGENT_LENGTH));
+        event.setOccurredAt(occurredAt);
+        event.setEventDate(occurredAt.toLocalDate());
+        return event;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
@@ -0,0 +1,50 @@
+package com.covolt.backend.features.email.tracking;
+
+import com.covolt.backend.features.email.enums.TrackingEventType;
+
+/**
+ * One open or click as received by the tracking endpoint, before it is stored.
+ */
+public final class TrackingHit {
+
+    private final TrackingEventType type;
+    private final String emailId;
+    private final String bulkEmailId;
+    private final String url;
+    private final String userAgent;
+    private final long occurredAtMs;
+
+    public TrackingHit(TrackingEventType type, String emailId, String bulkEmailId, String url, String userAgent,
+                       long occurredAtMs) {
+        this.type = type;
+        this.emailId = emailId;
+        this.bulkEmailId = bulkEmailId;
+        this.url = url;
+        this.userAgent = userAgent;
+        this.occurredAtMs = occurredAtMs;
+    }
+
+    public TrackingEventType getType() {
+        return type;
+    }
+
+    public String getEmailId() {
+        return emailId;
+    }
+
+    public String getBulkEmailId() {
+        return bulkEmailId;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getUserAgent() {
+        return userAgent;
+    }
+
+    public long getOccurredAtMs() {
+        return occurredAtMs;
+    }
+}
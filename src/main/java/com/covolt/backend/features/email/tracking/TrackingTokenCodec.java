@@ -0,0 +1,149 @@
+package com.covolt.backend.features.email.tracking;
+
+import com.covolt.backend.features.email.enums.TrackingEventType;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Encodes the target of a tracking link into a signed, URL-safe token.
+ * <p>
+ * The token carries everything the endpoint needs (event type, email, bulk email and the original URL of a
+ * click), so a hit is accepted without a database lookup. The HMAC stops anyone from forging hits for other
+ * emails or turning the click endpoint into an open redirect.
+ * <p>
+ * The HMAC key is derived from the configured secret (HMAC-SHA256 over a fixed label), never the secret itself,
+ * so a secret shared with another signer (e.g. the JWT key) does not make tracking tokens and that signer's
+ * signatures interchangeable.
+ */
+@Slf4j
+public class TrackingTokenCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte[] KEY_LABEL = "email-tracking".getBytes(StandardCharsets.UTF_8);
+    private static final int SIGNATURE_BYTES = 16;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final ThreadLocal<Mac> macs;
+
+    public TrackingTokenCodec(String secret) {
+        byte[] key;
+        if (secret == null || secret.isBlank()) {
+            log.warn("No email tracking signing secret configured, tracking links will not survive a restart");
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+        } else {
+            key = deriveKey(secret.getBytes(StandardCharsets.UTF_8));
+        }
+        SecretKeySpec keySpec = new SecretKeySpec(key, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(keySpec);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC-SHA256 is not available", e);
+            }
+        });
+    }
+
+    /**
+     * @param url original URL of a click link, null for the open pixel
+     */
+    public String encode(TrackingEventType type, String emailId, String bulkEmailId, String url) {
+        String payload = type.getCode() + "|" + emailId + "|" + (bulkEmailId != null ? bulkEmailId : "")
+                + "|" + (url != null ? url : "");
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+    }
+
+    /**
+     * @return the decoded target, or empty if the token is malformed or its signature does not match
+     */
+    public Optional<Target> decode(String token) {
+        int dot = token != null ? token.indexOf('.') : -1;
+        if (dot <= 0) {
+            return Optional.empty();
+        }
+        byte[] payloadBytes;
+        byte[] signature;
+        try {
+            payloadBytes = DECODER.decode(token.substring(0, dot));
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+            return Optional.empty();
+        }
+
+        String[] parts = new String(payloadBytes, StandardCharsets.UTF_8).split("\\|", 4);
+        TrackingEventType type = parts.length == 4 ? TrackingEventType.fromCode(parts[0]) : null;
+        if (type == null || parts[1].isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Target(type, parts[1], emptyToNull(parts[2]), emptyToNull(parts[3])));
+    }
+
+    private static byte[] deriveKey(byte[] secret) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret, ALGORITHM));
+            return mac.doFinal(KEY_LABEL);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        // doFinal resets the Mac, so the thread's instance can be reused right away
+        return Arrays.copyOf(macs.get().doFinal(payload), SIGNATURE_BYTES);
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * What a tracking token points at.
+     */
+    public static final class Target {
+
+        private final TrackingEventType type;
+        private final String emailId;
+        private final String bulkEmailId;
+        private final String url;
+
+        private Target(TrackingEventType type, String emailId, String bulkEmailId, String url) {
+            this.type = type;
+            this.emailId = emailId;
+            this.bulkEmailId = bulkEmailId;
+            this.url = url;
+        }
+
+        public TrackingEventType getType() {
+            return type;
+        }
+
+        public String getEmailId() {
+            return emailId;
+        }
+
+        public String getBulkEmailId() {
+            return bulkEmailId;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.covolt.backend.features.email.transport;
+
+import com.covolt.backend.features.email.config.EmailConfig;
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link JavaMailSenderImpl} that keeps authenticated SMTP connections open and reuses them.
+ * <p>
+ * Without pooling every message pays TCP connect, STARTTLS and AUTH. Here a send borrows an idle connection
+ * (most recently used first), sends all messages of the call over it and returns it to the pool, so a batch
+ * passed to {@link #send(MimeMessage...)} shares one connection. Connections idle longer than
+ * {@code validateAfterIdleMs} are checked with a NOOP before reuse; connections idle longer than
+ * {@code maxIdleMs} are closed by a periodic eviction, and a connection is retired after
+ * {@code maxMessagesPerConnection} messages.
+ */
+@Slf4j
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private final EmailConfig.Transport settings;
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private volatile boolean closed;
+
+    public PooledJavaMailSender(EmailConfig.Transport settings) {
+        this.settings = settings;
+        this.permits = new Semaphore(Math.max(1, settings.getMaxConnections()), true);
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        PooledTransport connection = null;
+
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                MimeMessage mimeMessage = mimeMessages[i];
+                Object original = originalMessages != null ? originalMessages[i] : mimeMessage;
+
+                if (connection == null) {
+                    try {
+                        connection = borrow();
+                    } catch (AuthenticationFailedException e) {
+                        throw new MailAuthenticationException(e);
+                    } catch (MessagingException e) {
+                        // No connection: the remaining messages fail with the same cause
+                        for (int j = i; j < mimeMessages.length; j++) {
+                            failedMessages.put(originalMessages != null ? originalMessages[j] : mimeMessages[j], e);
+                        }
+                        throw new MailSendException("Mail server connection failed", e, failedMessages);
+                    }
+                }
+
+                try {
+                    sendOne(connection, mimeMessage);
+                } catch (Exception e) {
+                    failedMessages.put(original, e);
+                    if (!connection.transport.isConnected()) {
+                        invalidate(connection);
+                        connection = null;
+                    }
+                }
+            }
+        } finally {
+            if (connection != null) {
+                release(connection);
+            }
+        }
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    /**
+     * Closes connections that have been idle longer than {@code maxIdleMs}.
+     */
+    @Scheduled(fixedDelayString = "${app.email.transport.eviction-interval-ms:30000}")
+    public void evictIdleConnections() {
+        long now = System.currentTimeMillis();
+        int evicted = 0;
+        Iterator<PooledTransport> iterator = idle.iterator();
+        while (iterator.hasNext()) {
+            PooledTransport connection = iterator.next();
+            if (now - connection.lastUsedAt > settings.getMaxIdleMs() && idle.removeFirstOccurrence(connection)) {
+                invalidate(connection);
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle SMTP connections", evicted);
+        }
+    }
+
+    public Map<String, Object> getPoolStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("maxConnections", settings.getMaxConnections());
+        status.put("idleConnections", idle.size());
+        status.put("activeConnections", settings.getMaxConnections() - permits.availablePermits() - idle.size());
+        status.put("connectionsCreated", created.get());
+        status.put("connectionsReused", reused.get());
+        status.put("connectionsDiscarded", discarded.get());
+        return status;
+    }
+
+    @Override
+    public void destroy() {
+        closed = true;
+        PooledTransport connection;
+        while ((connection = idle.pollFirst()) != null) {
+            invalidate(connection);
+        }
+    }
+
+    private void sendOne(PooledTransport connection, MimeMessage mimeMessage) throws MessagingException {
+        // Same preparation as JavaMailSenderImpl.doSend
+        if (mimeMessage.getSentDate() == null) {
+            mimeMessage.setSentDate(new Date());
+        }
+        String messageId = mimeMessage.getMessageID();
+        mimeMessage.saveChanges();
+        if (messageId != null) {
+            mimeMessage.setHeader("Message-ID", messageId);
+        }
+        Address[] addresses = mimeMessage.getAllRecipients();
+        connection.transport.sendMessage(mimeMessage, addresses != null ? addresses : new Address[0]);
+        connection.messagesSent++;
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        PooledTransport connection;
+        while ((connection = idle.pollFirst()) != null) {
+            if (isUsable(connection)) {
+                reused.incrementAndGet();
+                return connection;
+            }
+            invalidate(connection);
+        }
+
+        // Idle ones (if any) are taken; a permit is still held by every connection in use or idle
+        try {
+            if (!permits.tryAcquire(settings.getBorrowTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("No SMTP connection available within " + settings.getBorrowTimeoutMs() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+
+        // A connection may have been returned while waiting for the permit
+        connection = idle.pollFirst();
+        if (connection != null) {
+            permits.release();
+            if (isUsable(connection)) {
+                reused.incrementAndGet();
+                return connection;
+            }
+            invalidate(connection);
+            return borrow();
+        }
+
+        try {
+            Transport transport = connectTransport();
+            created.incrementAndGet();
+            return new PooledTransport(transport);
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private boolean isUsable(PooledTransport connection) {
+        if (connection.messagesSent >= settings.getMaxMessagesPerConnection()) {
+            return false;
+        }
+        if (System.currentTimeMillis() - connection.lastUsedAt < settings.getValidateAfterIdleMs()) {
+            return true;
+        }
+        // SMTPTransport.isConnected sends a NOOP and reports false if the server dropped the connection
+        return connection.transport.isConnected();
+    }
+
+    private void release(PooledTransport connection) {
+        if (closed || connection.messagesSent >= settings.getMaxMessagesPerConnection()) {
+            invalidate(connection);
+            return;
+        }
+        connection.lastUsedAt = System.currentTimeMillis();
+        idle.offerFirst(connection);
+    }
+
+    private void invalidate(PooledTransport connection) {
+        discarded.incrementAndGet();
+        try {
+            connection.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error while closing SMTP connection: {}", e.getMessage());
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Used by one thread at a time: either borrowed or idle in the pool
+    private static final class PooledTransport {
+
+        private final Transport transport;
+        private long lastUsedAt = System.currentTimeMillis();
+        private int messagesSent;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
@@ -2,7 +2,6 @@ package com.covolt.backend.modules.authentication.service;
 
 import com.covolt.backend.core.exception.TokenRefreshException;
 import com.covolt.backend.core.model.RefreshToken;
-import com.covolt.backend.core.repository.RefreshTokenRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,56 +14,63 @@ import java.util.UUID;
 
 @Service
 public class RefreshTokenService {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
 
     @Value("${app.security.jwt.refreshExpirationMs}")
     private Long refreshTokenDurationMs;
 
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
 
-    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository) {
-        this.refreshTokenRepository = refreshTokenRepository;
-        logger.info("RefreshTokenService initialized with expiration time: {} ms", refreshTokenDurationMs);
+    public RefreshTokenService(RefreshTokenStore refreshTokenStore) {
+        this.refreshTokenStore = refreshTokenStore;
     }
 
+    /**
+     * Ham token'a ait kaydı bulur (önce sıcak katman, sonra özet indeksi ile veritabanı).
+     * Token değerleri loglanmaz.
+     */
     public Optional<RefreshToken> findByToken(String token) {
-        logger.debug("Searching for refresh token: {}", token);
-        Optional<RefreshToken> refreshToken = refreshTokenRepository.findByToken(token);
-        if (refreshToken.isPresent()) {
-            logger.debug("Refresh token found: {}", token);
-        } else {
-            logger.debug("Refresh token not found: {}", token);
-        }
+        Optional<RefreshToken> refreshToken = refreshTokenStore.find(token);
+        logger.debug("Refresh token {}.", refreshToken.isPresent() ? "bulundu" : "bulunamadı");
         return refreshToken;
     }
 
+    /**
+     * Yeni bir oturum (token ailesi) başlatır. Kullanıcının diğer cihazlardaki oturumlarına dokunulmaz;
+     * oturum sınırı commit sonrasında arka planda uygulanır.
+     */
     @Transactional
     public RefreshToken createRefreshToken(String username) {
         logger.info("Creating new refresh token for user: {}", username);
-        
-        logger.debug("Deleting existing refresh tokens for user: {}", username);
-        refreshTokenRepository.deleteByUsername(username);
 
-        RefreshToken refreshToken = RefreshToken.builder()
-                .username(username)
-                .expiryDate(Instant.now().plusMillis(refreshTokenDurationMs))
-                .token(UUID.randomUUID().toString())
-                .build();
-
-        RefreshToken savedToken = refreshTokenRepository.save(refreshToken);
+        RefreshToken savedToken = refreshTokenStore.save(newToken(username, UUID.randomUUID()), true);
         logger.info("New refresh token created for user: {}", username);
-        logger.debug("Token details - Expiry: {}, Token: {}", savedToken.getExpiryDate(), savedToken.getToken());
-        
+        logger.debug("Token details - Expiry: {}", savedToken.getExpiryDate());
+
         return savedToken;
     }
 
-    public RefreshToken verifyExpiration(RefreshToken token) {
-        logger.debug("Verifying expiration for token: {}", token.getToken());
+    /**
+     * Token'ı kullanıldı olarak işaretleyip aynı ailede yeni bir token üretir. Token daha önce kullanılmışsa
+     * (veya eş zamanlı başka bir istek onu kullandıysa) token çalınmış olabilir; tüm aile iptal edilir.
+     */
+    @Transactional(noRollbackFor = TokenRefreshException.class) // Aile iptali geri alınmamalı
+    public RefreshToken rotate(RefreshToken existing) {
+        if (existing.getUsedAt() != null || !refreshTokenStore.markUsed(existing.getToken())) {
+            refreshTokenStore.revokeFamilyOnReuse(existing);
+            throw new TokenRefreshException();
+        }
 
+        RefreshToken savedToken = refreshTokenStore.save(newToken(existing.getUsername(), existing.getFamilyId()), false);
+        logger.debug("Refresh token rotated for user: {}", existing.getUsername());
+        return savedToken;
+    }
+
+    public RefreshToken verifyExpiration(RefreshToken token) {
         if (token.getExpiryDate().isBefore(Instant.now())) {
-            logger.warn("Refresh token expired for user: {} with token {}", token.getUsername(), token.getToken());
-            refreshTokenRepository.delete(token);
+            logger.warn("Refresh token expired for user: {}", token.getUsername());
+            refreshTokenStore.delete(token.getToken());
             // YENİ ve DOĞRU KULLANIM:
             // Token süresi dolduğu için ErrorCode.AUTH_006'yı kullanıyoruz.
             // Token değerini de (expiredTokenValue) constructor'a iletiyoruz.
@@ -73,15 +79,22 @@ public class RefreshTokenService {
         return token;
     }
 
+    /**
+     * Token'ın ait olduğu oturumu sonlandırır (logout). Diğer cihazlardaki oturumlar etkilenmez.
+     */
     @Transactional
-    public void deleteByToken(String token) {
-        logger.info("Attempting to delete refresh token: {}", token);
-        try {
-            refreshTokenRepository.deleteByToken(token);
-            logger.info("Refresh token successfully deleted");
-        } catch (Exception e) {
-            logger.error("Error while deleting refresh token: {}", token, e);
-            throw e;
-        }
+    public void revokeSession(String token) {
+        Optional<RefreshToken> refreshToken = refreshTokenStore.find(token);
+        refreshToken.ifPresent(stored -> refreshTokenStore.revokeFamily(stored.getFamilyId()));
+        logger.info("Refresh token oturumu {}.", refreshToken.isPresent() ? "sonlandırıldı" : "bulunamadı");
+    }
+
+    private RefreshToken newToken(String username, UUID familyId) {
+        return RefreshToken.builder()
+                .username(username)
+                .expiryDate(Instant.now().plusMillis(refreshTokenDurationMs))
+                .token(UUID.randomUUID().toString())
+                .familyId(familyId)
+                .build();
     }
-}
\ No newline at end of file
+}
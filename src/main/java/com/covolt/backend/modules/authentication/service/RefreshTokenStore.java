@@ -0,0 +1,294 @@
+package com.covolt.backend.modules.authentication.service;
+
+import com.covolt.backend.core.cache.BoundedExpiringCache;
+import com.covolt.backend.core.model.RefreshToken;
+import com.covolt.backend.core.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Refresh token'ların kalıcı deposu ve önündeki bellek içi sıcak katman.
+ * <p>
+ * Token'lar ham halleriyle değil SHA-256 özetleriyle saklanır ve aranır (bkz. {@link RefreshToken#hashOf}).
+ * Yeni token'lar önce veritabanına yazılır, commit sonrasında sıcak katmana eklenir (write-through); aramalar
+ * önce sıcak katmana bakar. Sıcak katman boyutla ve {@code hot-ttl-seconds} ile sınırlıdır, birden fazla
+ * instance'ta eskimiş bir girdi kalsa bile güvenlik kararı veritabanındaki güncelleme sonucuna dayanır: bir
+ * token'ı yalnızca onu kullanıldı olarak işaretleyebilen istek kullanabilir.
+ * <p>
+ * Kullanıcı başına oturum (token ailesi) sınırı login yolunun dışında, arka planda tek bir silme ifadesiyle
+ * uygulanır; en uzun süredir kullanılmayan oturumlar düşer. Süresi dolan kayıtlar zamanlanmış bir görevle parça
+ * parça silinir. Metrikler: {@code covolt.security.refresh-token.active}, {@code .purged}, {@code .reuse-detected},
+ * {@code .sessions-evicted} ve sıcak katman için {@code covolt.security.refresh-token.cache.*}.
+ */
+@Component
+public class RefreshTokenStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenStore.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BoundedExpiringCache<String, RefreshToken> hotTier;
+    private final boolean hotTierEnabled;
+    private final long hotTtlMillis;
+    private final int purgeChunkSize;
+    private final int maxSessionsPerUser;
+    private final AtomicLong activeTokens = new AtomicLong();
+    private final Counter purgedCounter;
+    private final Counter reuseCounter;
+    private final Counter evictedSessionsCounter;
+
+    // Oturum sınırı kontrolleri login'i bekletmez; aynı kullanıcı için bekleyen tek bir kontrol yeterlidir
+    private final ThreadPoolExecutor sessionLimitExecutor;
+    private final Set<String> pendingSessionLimits = ConcurrentHashMap.newKeySet();
+
+    public RefreshTokenStore(RefreshTokenRepository refreshTokenRepository,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${app.security.refresh-token.hot-tier.enabled:true}") boolean hotTierEnabled,
+                             @Value("${app.security.refresh-token.hot-tier.maximum-size:10000}") int hotTierMaximumSize,
+                             @Value("${app.security.refresh-token.hot-tier.ttl-seconds:300}") long hotTtlSeconds,
+                             @Value("${app.security.refresh-token.purge-chunk-size:1000}") int purgeChunkSize,
+                             @Value("${app.security.refresh-token.max-sessions-per-user:5}") int maxSessionsPerUser,
+                             MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.hotTierEnabled = hotTierEnabled;
+        this.hotTtlMillis = hotTtlSeconds * 1000L;
+        this.purgeChunkSize = Math.max(1, purgeChunkSize);
+        this.maxSessionsPerUser = Math.max(1, maxSessionsPerUser);
+        this.hotTier = new BoundedExpiringCache<>(hotTierMaximumSize, 16);
+        this.sessionLimitExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(10_000), new CustomizableThreadFactory("refresh-token-sessions-"));
+
+        Gauge.builder("covolt.security.refresh-token.active", activeTokens, AtomicLong::get)
+                .description("Süresi dolmamış ve kullanılmamış refresh token (aktif oturum) sayısı")
+                .register(meterRegistry);
+        this.purgedCounter = Counter.builder("covolt.security.refresh-token.purged")
+                .description("Süresi dolduğu için silinen refresh token sayısı")
+                .register(meterRegistry);
+        this.reuseCounter = Counter.builder("covolt.security.refresh-token.reuse-detected")
+                .description("Kullanılmış bir token tekrar sunulduğu için iptal edilen oturum sayısı")
+                .register(meterRegistry);
+        this.evictedSessionsCounter = Counter.builder("covolt.security.refresh-token.sessions-evicted")
+                .description("Kullanıcı başına oturum sınırı nedeniyle silinen token sayısı")
+                .register(meterRegistry);
+        Gauge.builder("covolt.security.refresh-token.cache.size", hotTier, BoundedExpiringCache::size)
+                .register(meterRegistry);
+        FunctionCounter.builder("covolt.security.refresh-token.cache.requests", hotTier, BoundedExpiringCache::hitCount)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("covolt.security.refresh-token.cache.requests", hotTier, BoundedExpiringCache::missCount)
+                .tag("result", "miss")
+                .register(meterRegistry);
+
+        logger.info("Refresh token sıcak katmanı {} (TTL: {} sn, maksimum: {} girdi), kullanıcı başına en fazla {} oturum.",
+                hotTierEnabled ? "aktif" : "devre dışı", hotTtlSeconds, hotTierMaximumSize, this.maxSessionsPerUser);
+    }
+
+    /**
+     * Ham token'a ait kaydı bulur. Dönen nesne bir kopyadır ve ham token değerini de taşır.
+     */
+    public Optional<RefreshToken> find(String token) {
+        String tokenHash = RefreshToken.hashOf(token);
+        RefreshToken cached = hotTierEnabled ? hotTier.get(tokenHash) : null;
+        if (cached != null) {
+            return Optional.of(copyOf(cached, token));
+        }
+        return refreshTokenRepository.findByTokenHash(tokenHash).map(stored -> {
+            cache(stored);
+            return copyOf(stored, token);
+        });
+    }
+
+    /**
+     * Token'ı tek bir insert ile veritabanına yazar; sıcak katmana commit sonrasında eklenir. Yeni bir oturum
+     * başlatıldıysa kullanıcının oturum sınırı commit sonrasında arka planda uygulanır.
+     */
+    public RefreshToken save(RefreshToken refreshToken, boolean newSession) {
+        RefreshToken saved = refreshTokenRepository.save(refreshToken);
+        RefreshToken snapshot = copyOf(saved, null);
+        afterCommit(() -> {
+            cache(snapshot);
+            if (newSession) {
+                enforceSessionLimitAsync(snapshot.getUsername());
+            }
+        });
+        return saved;
+    }
+
+    /**
+     * Token'ı kullanıldı olarak işaretler (rotasyon).
+     *
+     * @return Token bu çağrıyla işaretlendiyse true; zaten kullanılmış veya silinmişse false
+     */
+    public boolean markUsed(String token) {
+        String tokenHash = RefreshToken.hashOf(token);
+        hotTier.invalidate(tokenHash);
+        int updated = refreshTokenRepository.markUsed(tokenHash, Instant.now());
+        afterCommit(() -> hotTier.invalidate(tokenHash));
+        return updated > 0;
+    }
+
+    /**
+     * Kullanılmış bir token tekrar sunulduğunda çağrılır; token çalınmış olabileceğinden oturumun tamamı iptal edilir.
+     */
+    public void revokeFamilyOnReuse(RefreshToken reused) {
+        reuseCounter.increment();
+        logger.warn("Kullanılmış refresh token tekrar sunuldu, oturum iptal ediliyor: kullanıcı {}, aile {}",
+                reused.getUsername(), reused.getFamilyId());
+        revokeFamily(reused.getFamilyId());
+    }
+
+    /**
+     * Bir oturumun tüm token'larını siler (logout, tekrar kullanım).
+     */
+    public void revokeFamily(UUID familyId) {
+        if (familyId == null) {
+            return;
+        }
+        hotTier.invalidateIf((hash, stored) -> familyId.equals(stored.getFamilyId()));
+        refreshTokenRepository.deleteByFamilyId(familyId);
+        afterCommit(() -> hotTier.invalidateIf((hash, stored) -> familyId.equals(stored.getFamilyId())));
+    }
+
+    /**
+     * Tek bir token'ı siler (süresi dolmuş token).
+     */
+    public void delete(String token) {
+        String tokenHash = RefreshToken.hashOf(token);
+        hotTier.invalidate(tokenHash);
+        refreshTokenRepository.deleteByTokenHash(tokenHash);
+    }
+
+    /**
+     * Süresi dolmuş kayıtları {@code purge-chunk-size}'lık parçalar halinde, her parça ayrı transaction'da siler.
+     */
+    @Scheduled(cron = "${app.security.refresh-token.purge-cron:0 15 * * * *}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int purged = 0;
+        int deleted;
+        do {
+            Integer result = transactionTemplate.execute(status -> refreshTokenRepository.deleteExpiredChunk(now, purgeChunkSize));
+            deleted = result != null ? result : 0;
+            purged += deleted;
+        } while (deleted == purgeChunkSize);
+
+        if (purged > 0) {
+            purgedCounter.increment(purged);
+            logger.info("Süresi dolmuş {} refresh token silindi.", purged);
+        }
+    }
+
+    // Aktif oturum sayısı tüm instance'ların yazdığı kayıtları kapsaması için veritabanından periyodik olarak okunur
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.security.refresh-token.count-interval-ms:60000}",
+            fixedDelayString = "${app.security.refresh-token.count-interval-ms:60000}")
+    public void refreshActiveCount() {
+        activeTokens.set(refreshTokenRepository.countByExpiryDateAfterAndUsedAtIsNull(Instant.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.refresh-token.hot-tier.cleanup-interval-ms:60000}")
+    public void cleanUpHotTier() {
+        hotTier.cleanUp();
+    }
+
+    public long activeCount() {
+        return activeTokens.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sessionLimitExecutor.shutdownNow(); // Atlanan kontroller kullanıcının bir sonraki login'inde yapılır
+    }
+
+    private void enforceSessionLimitAsync(String username) {
+        if (!pendingSessionLimits.add(username)) {
+            return;
+        }
+        try {
+            sessionLimitExecutor.execute(() -> {
+                pendingSessionLimits.remove(username);
+                enforceSessionLimit(username);
+            });
+        } catch (RejectedExecutionException e) {
+            pendingSessionLimits.remove(username);
+            logger.debug("Oturum sınırı kontrolü atlandı (kuyruk dolu): {}", username);
+        }
+    }
+
+    private void enforceSessionLimit(String username) {
+        try {
+            Integer evicted = transactionTemplate.execute(status ->
+                    refreshTokenRepository.deleteLeastRecentlyUsedSessions(username, maxSessionsPerUser, Instant.now()));
+            if (evicted != null && evicted > 0) {
+                hotTier.invalidateIf((hash, stored) -> username.equals(stored.getUsername()));
+                evictedSessionsCounter.increment(evicted);
+                logger.info("Oturum sınırı ({}) aşıldı, en eski oturumlara ait {} token silindi: {}",
+                        maxSessionsPerUser, evicted, username);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Oturum sınırı uygulanamadı: {}", username, e);
+        }
+    }
+
+    private void cache(RefreshToken stored) {
+        if (!hotTierEnabled) {
+            return;
+        }
+        long expiresAt = Math.min(stored.getExpiryDate().toEpochMilli(), System.currentTimeMillis() + hotTtlMillis);
+        hotTier.put(stored.getTokenHash(), copyOf(stored, null), expiresAt);
+    }
+
+    // Önbellekteki nesne dışarıdan değiştirilemesin diye kopyalanır; ham token önbelleğe alınmaz
+    private static RefreshToken copyOf(RefreshToken stored, String token) {
+        RefreshToken copy = new RefreshToken();
+        copy.setTokenHash(stored.getTokenHash());
+        copy.setToken(token);
+        copy.setUsername(stored.getUsername());
+        copy.setExpiryDate(stored.getExpiryDate());
+        copy.setFamilyId(stored.getFamilyId());
+        copy.setUsedAt(stored.getUsedAt());
+        copy.setId(stored.getId());
+        copy.setCreatedAt(stored.getCreatedAt());
+        copy.setUpdatedAt(stored.getUpdatedAt());
+        return copy;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
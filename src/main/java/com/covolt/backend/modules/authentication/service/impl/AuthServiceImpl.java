@@ -8,6 +8,7 @@ import com.covolt.backend.modules.authentication.dto.RegisterRequest;
 import com.covolt.backend.modules.authentication.dto.UserAuthoritiesResponse;
 import com.covolt.backend.modules.authentication.service.AuthService;
 import com.covolt.backend.modules.authentication.service.RefreshTokenService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -21,6 +22,8 @@ import org.springframework.transaction.annotation.Transactional; // Transaction
 
 // --- Proje İçi Importlar ---
 
+import com.covolt.backend.core.event.CompanyCreatedEvent;
+import com.covolt.backend.core.event.UserCreatedEvent;
 import com.covolt.backend.core.exception.DuplicateRegistrationException;
 import com.covolt.backend.core.exception.ResourceCreationException; // Yeni özel hata sınıfı
 import com.covolt.backend.core.exception.TokenRefreshException;
@@ -37,7 +40,10 @@ import com.covolt.backend.core.model.enums.UserSubscriptionStatus; // Abonelik E
 import com.covolt.backend.core.repository.CompanyRepository; // Yeni Company Repository
 import com.covolt.backend.core.repository.RoleRepository;
 import com.covolt.backend.core.repository.UserRepository;
+import com.covolt.backend.core.security.jwt.IssuedToken;
 import com.covolt.backend.core.security.jwt.JwtService;
+import com.covolt.backend.core.security.login.LoginAttemptThrottle;
+import com.covolt.backend.core.security.service.CovoltUserDetails;
 import com.covolt.backend.core.security.service.CustomUserDetailsService;
 import com.covolt.backend.service.CompanySubscriptionService; // Yeni Abonelik Servisi (şimdi kullanıyoruz)
 
@@ -67,6 +73,8 @@ public class AuthServiceImpl implements AuthService {
     private final RefreshTokenService refreshTokenService;
     private final CustomUserDetailsService userDetailsService;
     private final CompanySubscriptionService companySubscriptionService; // Abonelik servisi şimdi enjekte ediliyor
+    private final ApplicationEventPublisher eventPublisher; // Firma/kullanıcı oluşturma event'leri (istatistikler için)
+    private final LoginAttemptThrottle loginAttemptThrottle; // Brute-force koruması
 
 
     // --- Constructor ---
@@ -79,7 +87,9 @@ public class AuthServiceImpl implements AuthService {
                            JwtService jwtService,
                            RefreshTokenService refreshTokenService,
                            CustomUserDetailsService userDetailsService,
-                           CompanySubscriptionService companySubscriptionService // Abonelik servisi şimdi bağımlılık
+                           CompanySubscriptionService companySubscriptionService, // Abonelik servisi şimdi bağımlılık
+                           ApplicationEventPublisher eventPublisher,
+                           LoginAttemptThrottle loginAttemptThrottle
     ) { // Abonelik servisi için yer tutuldu
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
@@ -90,6 +100,8 @@ public class AuthServiceImpl implements AuthService {
         this.refreshTokenService = refreshTokenService;
         this.userDetailsService = userDetailsService;
         this.companySubscriptionService = companySubscriptionService; // Şimdi atanıyor
+        this.eventPublisher = eventPublisher;
+        this.loginAttemptThrottle = loginAttemptThrottle;
     }
 
 
@@ -100,7 +112,7 @@ public class AuthServiceImpl implements AuthService {
         logger.info("Yeni kullanıcı ve firma kaydı başlatıldı. Email: {}, Firma Adı: {}", request.getEmail(), request.getCompanyName());
 
         // 1. Kullanıcı (Email ve Username) Benzersizliğini Kontrol Et
-        if (userRepository.existsByEmailOrUsername(request.getEmail(), request.getUsername())) {
+        if (userRepository.existsByEmailOrUsername(User.normalizeEmail(request.getEmail()), request.getUsername())) {
             logger.warn("Kayıt reddedildi: Email ({}) veya Kullanıcı adı ({}) zaten kullanımda.", request.getEmail(), request.getUsername());
             throw new DuplicateRegistrationException("Bu e-posta veya kullanıcı adı zaten kayıtlı.");
         }
@@ -121,6 +133,7 @@ public class AuthServiceImpl implements AuthService {
         try {
             savedCompany = companyRepository.save(newCompany);
             logger.info("Yeni firma/kuruluş başarıyla oluşturuldu: Adı='{}', ID='{}'", savedCompany.getName(), savedCompany.getId());
+            eventPublisher.publishEvent(new CompanyCreatedEvent(savedCompany.getId(), savedCompany.getStatus()));
         } catch (Exception e) {
             // Örneğin DataIntegrityViolationException (eğer DB'de unique kısıtlama varsa) veya başka DB hataları
             logger.error("Firma/kuruluş ('{}') oluşturulurken kritik hata: {}", request.getCompanyName(), e.getMessage(), e);
@@ -166,6 +179,7 @@ public class AuthServiceImpl implements AuthService {
         try {
             savedUser = userRepository.save(newUser);
             logger.info("Yeni kullanıcı ('{}') başarıyla oluşturuldu ve firmaya (ID: {}) bağlandı.", savedUser.getEmail(), savedCompany.getId());
+            eventPublisher.publishEvent(new UserCreatedEvent(savedUser.getId(), savedCompany.getId()));
         } catch (Exception e) {
             // DataIntegrityViolationException (email/username unique constraint) veya diğer DB hataları
             logger.error("Kullanıcı kaydedilirken kritik hata: {}. İstek: {}", e.getMessage(), request.getEmail(), e);
@@ -197,10 +211,11 @@ public class AuthServiceImpl implements AuthService {
         // Şimdilik sadece rolleri ve temel kullanıcı bilgilerini alıyor.
         UserDetails userDetails = userDetailsService.loadUserByUsername(savedUser.getEmail());
 
-        String accessToken = jwtService.generateToken(userDetails);
+        IssuedToken issuedToken = jwtService.issueToken(userDetails);
+        String accessToken = issuedToken.getToken();
         RefreshToken refreshTokenEntity = refreshTokenService.createRefreshToken(savedUser.getEmail());
 
-        Instant accessTokenExpiration = jwtService.extractExpiration(accessToken).toInstant();
+        Instant accessTokenExpiration = issuedToken.getExpiresAt();
 
         // 8. Yanıtı Hazırla (AuthResponse DTO)
         AuthResponse authResponse = AuthResponse.builder()
@@ -218,11 +233,15 @@ public class AuthServiceImpl implements AuthService {
     }
 
     // --- Login Metodu ---
+    // Transaction yok: şifre doğrulaması hash havuzunda beklerken JDBC bağlantısı tutulmamalı. Kullanıcı okuma,
+    // şifre yükseltme ve refresh token oluşturma kendi kısa transaction'larında çalışır.
     @Override
-    @Transactional(readOnly = false) // Başarısız deneme sayacını sıfırlamak/Son login zamanını kaydetmek için false yaptık
     public AuthResponse login(LoginRequest request) {
         logger.info("Kullanıcı giriş denemesi: Email: {}", request.getEmail());
 
+        // Sınırı aşan e-posta/IP için veritabanına ve BCrypt'e gitmeden reddet
+        loginAttemptThrottle.checkAllowed(request.getEmail());
+
         Authentication authentication;
         try {
             // Spring Security'nin Authentication Manager'ını kullanarak kimlik doğrula
@@ -238,15 +257,18 @@ public class AuthServiceImpl implements AuthService {
             // Başarısız giriş deneme sayısını artırma gibi logic burada VEYA CustomUserDetailsService'de yapılabilir.
             // GlobalExceptionHandler bu hatayı yakalayacak ve genel bir 401 yanıtı dönecek.
             logger.warn("Kimlik doğrulama başarısız: Email: {}", request.getEmail());
-            // Optional: Başarısız deneme sayısını artırma logic'i eklenebilir (buradan kaldırıldı, User Entity'sinde alan var).
+            // Sayaç bellekte artırılır; User.failedLoginAttempts/locked LoginAttemptThrottle tarafından toplu yazılır
+            loginAttemptThrottle.recordFailure(request.getEmail());
             // throw new BadCredentialsException("E-posta veya şifre yanlış."); // GlobalExceptionHandler handled it
             throw ex; // Hata fırlatmayı GlobalExceptionHandler'a bırakıyoruz
         }
 
 
         // Kimlik doğrulama başarılıysa Spring Security'nin UserDetails objesini al
-        // CustomUserDetailsService'in dönüştürdüğü UserDetails objesi buraya gelir.
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        // CustomUserDetailsService'in dönüştürdüğü CovoltUserDetails objesi buraya gelir; yanıt için gereken
+        // kullanıcı bilgileri (ID, e-posta, ad soyad) de üzerinde olduğu için kullanıcı tekrar okunmaz.
+        CovoltUserDetails userDetails = (CovoltUserDetails) authentication.getPrincipal();
+        loginAttemptThrottle.recordSuccess(request.getEmail());
 
         // --- Login Sonrası Kontroller ve Abonelik Logic'i ---
         // Bu kısım CustomUserDetailsService içine taşındı. CustomUserDetailsService zaten
@@ -279,25 +301,11 @@ public class AuthServiceImpl implements AuthService {
         // Tokenları Üret (Access ve Refresh) - Eğer kontrollere takılmadıysa
         // CustomUserDetailsService UserDetails'e abonelik/firma bilgisi ekleyecekse,
         // burada generateToken metoduna verdiğimiz userDetails bu bilgiyi taşıyacak.
-        String accessToken = jwtService.generateToken(userDetails);
+        IssuedToken issuedToken = jwtService.issueToken(userDetails);
         RefreshToken refreshTokenEntity = refreshTokenService.createRefreshToken(userDetails.getUsername());
 
-        Instant accessTokenExpiration = jwtService.extractExpiration(accessToken).toInstant();
-
-        // Kullanıcı bilgilerini veritabanından al
-        User user = userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new IllegalStateException("Kimliği doğrulanmış kullanıcı veritabanında bulunamadı."));
-
         // AuthResponse Hazırla
-        AuthResponse authResponse = AuthResponse.builder()
-                .accessToken(accessToken)
-                .refreshToken(refreshTokenEntity.getToken())
-                .tokenType("Bearer")
-                .expiresAt(accessTokenExpiration)
-                .userId(user.getId())
-                .email(user.getEmail())
-                .fullName(user.getFullName())
-                .build();
+        AuthResponse authResponse = buildAuthResponse(userDetails, issuedToken, refreshTokenEntity);
 
         logger.info("Kullanıcı girişi başarılı. Email: {}", request.getEmail());
         return authResponse;
@@ -305,14 +313,14 @@ public class AuthServiceImpl implements AuthService {
 
     // --- Refresh Token Metodu ---
     @Override
-    @Transactional
+    @Transactional(noRollbackFor = TokenRefreshException.class) // Tekrar kullanımda oturum iptali geri alınmamalı
     // AuthServiceImpl.java - refreshToken metodu
     public AuthResponse refreshToken(RefreshTokenRequest request) {
         logger.info("Refresh token isteği alındı.");
 
         RefreshToken existingRefreshToken = refreshTokenService.findByToken(request.getRefreshToken())
                 .orElseThrow(() -> {
-                    logger.warn("Refresh token bulunamadı veya geçerli değil. İstenen token: {}", request.getRefreshToken());
+                    logger.warn("Refresh token bulunamadı veya geçerli değil.");
                     // TokenRefreshException'ın parametresiz constructor'ını kullanıyoruz (AUTH_005).
                     return new TokenRefreshException();
                 });
@@ -321,7 +329,8 @@ public class AuthServiceImpl implements AuthService {
         // Başka bir try/catch gerekmez, hata yakalama GlobalExceptionHandler'a bırakılır.
         refreshTokenService.verifyExpiration(existingRefreshToken);
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(existingRefreshToken.getUsername());
+        // Kullanıcı (yetkiler, abonelik ve yanıt için gereken bilgilerle birlikte) yalnızca burada okunur
+        CovoltUserDetails userDetails = (CovoltUserDetails) userDetailsService.loadUserByUsername(existingRefreshToken.getUsername());
 
         // --- Refresh Sonrası Abonelik Kontrolü (Planlanan - CustomUserDetailsService'de yapılıyor artık) ---
         // userDetails zaten CovoltUserDetails ise gerekli abonelik bilgileri ve durumu içerir.
@@ -333,40 +342,40 @@ public class AuthServiceImpl implements AuthService {
         // Şu anki yapıda CovoltUserDetails isEnabled'ı User entity enabled/locked'ından alıyor, abonelik durumu ayrı taşınıyor.
         // Erişim kontrolü Security layer veya metod seviyesinde @PreAuthorize ile yapılmalıdır, login/refresh değil.
 
-        // Eski refresh tokenı sil
-        refreshTokenService.deleteByToken(existingRefreshToken.getToken());
+        // Eski refresh tokenı kullanıldı olarak işaretle ve aynı oturumda yenisini üret. İşaretleme sonucu veritabanından
+        // gelir: token aynı anda iki istekle veya daha önce kullanılmışsa tekrar kullanım sayılır ve oturum iptal edilir.
+        RefreshToken newRefreshTokenEntity = refreshTokenService.rotate(existingRefreshToken);
 
-        // Yeni tokenları üret
-        String newAccessToken = jwtService.generateToken(userDetails);
-        RefreshToken newRefreshTokenEntity = refreshTokenService.createRefreshToken(userDetails.getUsername());
-        Instant newAccessTokenExpiration = jwtService.extractExpiration(newAccessToken).toInstant();
+        // Yeni access token'ı üret (bitiş zamanı üretim anında hesaplanır)
+        IssuedToken newIssuedToken = jwtService.issueToken(userDetails);
 
-        // Kullanıcı bilgilerini veritabanından al
-        User user = userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new IllegalStateException("Kimliği doğrulanmış kullanıcı veritabanında bulunamadı."));
-
-        AuthResponse authResponse = AuthResponse.builder()
-                .accessToken(newAccessToken)
-                .refreshToken(newRefreshTokenEntity.getToken())
-                .tokenType("Bearer")
-                .expiresAt(newAccessTokenExpiration)
-                .userId(user.getId())
-                .email(user.getEmail())
-                .fullName(user.getFullName())
-                .build();
+        AuthResponse authResponse = buildAuthResponse(userDetails, newIssuedToken, newRefreshTokenEntity);
 
         logger.info("Refresh token başarıyla tamamlandı kullanıcı: {}", userDetails.getUsername());
         return authResponse;
     }
 
+    // Login ve refresh yanıtı: tüm alanlar principal ve üretilen token'lardan gelir, veritabanına gidilmez
+    private AuthResponse buildAuthResponse(CovoltUserDetails userDetails, IssuedToken issuedToken, RefreshToken refreshToken) {
+        return AuthResponse.builder()
+                .accessToken(issuedToken.getToken())
+                .refreshToken(refreshToken.getToken())
+                .tokenType("Bearer")
+                .expiresAt(issuedToken.getExpiresAt())
+                .userId(userDetails.getUserId())
+                .email(userDetails.getEmail())
+                .fullName(userDetails.getFullName())
+                .build();
+    }
+
     // --- Logout Metodu ---
     @Override
     @Transactional // Refresh token silme işlemi
     public void logout(String refreshToken) {
         logger.info("Logout isteği alındı.");
-        // Sadece ilgili refresh tokenı veritabanından sil
+        // Sadece bu cihazın oturumunu (refresh token ailesini) sil, diğer cihazlar açık kalır
         // RefreshTokenService içinde loglama var. Bulunamazsa hata fırlatmıyor, sadece logluyor.
-        refreshTokenService.deleteByToken(refreshToken);
+        refreshTokenService.revokeSession(refreshToken);
         // Access token hala geçerli olsa da, refresh token olmadığından
         // yeni token setine ulaşılamaz ve oturum etkin bir şekilde sona erer.
         // SecurityContextHolder.clearContext(); // Logout request Spring Security context temizleyicisi tarafından handle edilebilir.
@@ -416,27 +425,4 @@ public class AuthServiceImpl implements AuthService {
         logger.info("Kullanıcı yetkileri başarıyla alındı: {}", user.getEmail());
         return response;
     }
-
-    // --- Başarısız Login Denemesi Yardımcı Metodu (Opsiyonel - Şu an kullanılmıyor) ---
-     /*
-     @Transactional // Bu metot transaction içinde olmalı
-     private void handleFailedLoginAttempt(String email) {
-         // LOGIN_ATTEMPT_THRESHOLD ve LOCKOUT_DURATION_MINUTES gibi sabitlere ihtiyacı var
-         // User entity'de lockoutEndTime gibi alanlara da ihtiyacı var.
-         // Eğer UserStatus enum kullanılıyorsa.
-         // Bu logic UserRepository'nin içinde veya ayrı bir AccountManagementService içinde daha uygun olabilir.
-         Optional<User> userOpt = userRepository.findByEmail(email);
-         userOpt.ifPresent(user -> {
-             int currentAttempts = user.getFailedLoginAttempts() + 1;
-             user.setFailedLoginAttempts(currentAttempts);
-             if (currentAttempts >= LOGIN_ATTEMPT_THRESHOLD) {
-                 user.setLocked(true);
-                 // user.setLockoutEndTime(LocalDateTime.now().plusMinutes(LOCKOUT_DURATION_MINUTES));
-                 // user.setStatus(UserStatus.LOCKED_FAILED_LOGIN); // Eğer UserStatus varsa
-                 logger.warn("Kullanici hesabı başarısız giriş denemeleri nedeniyle kilitlendi: {}", email);
-             }
-             userRepository.save(user); // Değişiklikleri kaydet
-         });
-     }
-     */
 }
\ No newline at end of file
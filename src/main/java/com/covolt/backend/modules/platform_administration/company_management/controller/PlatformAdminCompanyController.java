@@ -40,6 +40,20 @@ public class PlatformAdminCompanyController {
         return ResponseEntity.ok(companyManagementService.getAllCompanies(status, name, type, pageable));
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "Get companies by cursor",
+            description = "Retrieves companies newest first with keyset pagination; pass nextCursor as cursor to get the next slice")
+    public ResponseEntity<CursorPage<CompanyDto>> getCompaniesByCursor(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.debug("REST request to get companies by cursor with filters - status: {}, name: {}, type: {}", status, name, type);
+        return ResponseEntity.ok(companyManagementService.getCompaniesByCursor(status, name, type, cursor, size, includeTotal));
+    }
+
     @GetMapping("/{companyId}")
     @Operation(summary = "Get company by ID", description = "Retrieves a specific company by its ID")
     public ResponseEntity<CompanyDto> getCompanyById(@PathVariable UUID companyId) {
@@ -91,6 +105,18 @@ public class PlatformAdminCompanyController {
         return ResponseEntity.ok(companyManagementService.getCompanyUsers(companyId, pageable));
     }
 
+    @GetMapping("/{companyId}/users/cursor")
+    @Operation(summary = "Get company users by cursor",
+            description = "Retrieves users of a company newest first with keyset pagination; pass nextCursor as cursor to get the next slice")
+    public ResponseEntity<CursorPage<UserDto>> getCompanyUsersByCursor(
+            @PathVariable UUID companyId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.debug("REST request to get users by cursor for company with ID: {}", companyId);
+        return ResponseEntity.ok(companyManagementService.getCompanyUsersByCursor(companyId, cursor, size, includeTotal));
+    }
+
     @GetMapping("/statistics")
     @Operation(summary = "Get company statistics", description = "Retrieves statistics about companies in the platform")
     public ResponseEntity<CompanyStatisticsDto> getCompanyStatistics() {
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 /**
  * DTO for company statistics
  */
@@ -28,4 +30,8 @@ public class CompanyStatisticsDto {
     private long companiesWithActiveSubscription;
     private long companiesWithTrialSubscription;
     private long companiesWithExpiredSubscription;
+
+    // Freshness: when the figures last changed and when they were last verified against the database
+    private Instant lastUpdatedAt;
+    private Instant lastReconciledAt;
 }
@@ -0,0 +1,28 @@
+package com.covolt.backend.modules.platform_administration.company_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A slice of a keyset-paginated listing. Pass {@code nextCursor} back as the {@code cursor}
+ * parameter to fetch the following slice; it is null on the last slice.
+ *
+ * @param <T> Item type
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    // Only populated when the caller asks for it, since counting is what makes deep offset pages slow
+    private Long totalElements;
+}
@@ -23,6 +23,19 @@ public interface CompanyManagementService {
      */
     Page<CompanyDto> getAllCompanies(String status, String name, String type, Pageable pageable);
 
+    /**
+     * Get companies with keyset pagination, newest first, using the same filters as {@link #getAllCompanies}
+     *
+     * @param status Optional status filter
+     * @param name Optional name filter (partial match)
+     * @param type Optional type filter
+     * @param cursor Continuation token from the previous slice, or null for the first slice
+     * @param size Maximum number of items in the slice
+     * @param includeTotal Whether to run the total count query
+     * @return Slice of company DTOs
+     */
+    CursorPage<CompanyDto> getCompaniesByCursor(String status, String name, String type, String cursor, int size, boolean includeTotal);
+
     /**
      * Get company by ID
      *
@@ -75,6 +88,17 @@ public interface CompanyManagementService {
      */
     Page<UserDto> getCompanyUsers(UUID companyId, Pageable pageable);
 
+    /**
+     * Get users for a company with keyset pagination, newest first
+     *
+     * @param companyId Company ID
+     * @param cursor Continuation token from the previous slice, or null for the first slice
+     * @param size Maximum number of items in the slice
+     * @param includeTotal Whether to run the total count query
+     * @return Slice of user DTOs
+     */
+    CursorPage<UserDto> getCompanyUsersByCursor(UUID companyId, String cursor, int size, boolean includeTotal);
+
     /**
      * Get company statistics
      *
@@ -1,7 +1,12 @@
 package com.covolt.backend.modules.platform_administration.company_management.service;
 
+import com.covolt.backend.core.event.CompanyCreatedEvent;
+import com.covolt.backend.core.event.CompanyStatusChangedEvent;
+import com.covolt.backend.core.event.SubscriptionStatusChangedEvent;
+import com.covolt.backend.core.event.UserCreatedEvent;
 import com.covolt.backend.core.exception.DuplicateRegistrationException;
 import com.covolt.backend.core.exception.ResourceNotFoundException;
+import com.covolt.backend.core.model.BaseEntity;
 import com.covolt.backend.core.model.Company;
 import com.covolt.backend.core.model.CompanySubscription;
 import com.covolt.backend.core.model.Role;
@@ -10,19 +15,26 @@ import com.covolt.backend.core.model.User;
 import com.covolt.backend.core.model.enums.CompanyStatus;
 import com.covolt.backend.core.model.enums.CompanyType;
 import com.covolt.backend.core.model.enums.UserSubscriptionStatus;
+import com.covolt.backend.core.pagination.KeysetCursor;
 import com.covolt.backend.core.repository.CompanyRepository;
 import com.covolt.backend.core.repository.RoleRepository;
 import com.covolt.backend.core.repository.SubscriptionPlanRepository;
 import com.covolt.backend.core.repository.UserRepository;
+import com.covolt.backend.core.repository.projection.CompanySubscriptionSummaryView;
+import com.covolt.backend.core.repository.projection.CompanyUserCountView;
+import com.covolt.backend.core.security.service.PrincipalInvalidationService;
 import com.covolt.backend.modules.platform_administration.company_management.dto.*;
 import com.covolt.backend.service.CompanySubscriptionService;
 import com.covolt.backend.service.email.EmailService;
 import com.covolt.backend.service.email.dto.PasswordResetEmailDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,9 +42,11 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -43,6 +57,8 @@ import java.util.stream.Collectors;
 @Slf4j
 public class CompanyManagementServiceImpl implements CompanyManagementService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final CompanyRepository companyRepository;
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
@@ -50,40 +66,34 @@ public class CompanyManagementServiceImpl implements CompanyManagementService {
     private final CompanySubscriptionService companySubscriptionService;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final PrincipalInvalidationService principalInvalidationService;
+    private final CompanyStatisticsSnapshot companyStatisticsSnapshot;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
     public Page<CompanyDto> getAllCompanies(String statusStr, String name, String typeStr, Pageable pageable) {
         log.debug("Getting all companies with filters - status: {}, name: {}, type: {}", statusStr, name, typeStr);
 
-        Specification<Company> spec = Specification.where(null);
+        Specification<Company> spec = buildCompanySpecification(statusStr, name, typeStr);
 
-        if (statusStr != null && !statusStr.isEmpty()) {
-            try {
-                CompanyStatus status = CompanyStatus.valueOf(statusStr.toUpperCase());
-                spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
-            } catch (IllegalArgumentException e) {
-                log.warn("Invalid company status filter: {}", statusStr);
-            }
-        }
+        Page<Company> companies = companyRepository.findAll(spec, pageable);
+        log.debug("Found {} companies matching the criteria", companies.getTotalElements());
 
-        if (name != null && !name.isEmpty()) {
-            spec = spec.and((root, query, cb) -> cb.like(cb.lower(root.get("name")), "%" + name.toLowerCase() + "%"));
-        }
+        return mapToCompanyDtos(companies);
+    }
 
-        if (typeStr != null && !typeStr.isEmpty()) {
-            try {
-                CompanyType type = CompanyType.valueOf(typeStr.toUpperCase());
-                spec = spec.and((root, query, cb) -> cb.equal(root.get("type"), type));
-            } catch (IllegalArgumentException e) {
-                log.warn("Invalid company type filter: {}", typeStr);
-            }
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CompanyDto> getCompaniesByCursor(String statusStr, String name, String typeStr,
+                                                       String cursor, int size, boolean includeTotal) {
+        log.debug("Getting companies by cursor - status: {}, name: {}, type: {}, size: {}", statusStr, name, typeStr, size);
 
-        Page<Company> companies = companyRepository.findAll(spec, pageable);
-        log.debug("Found {} companies matching the criteria", companies.getTotalElements());
+        Specification<Company> filters = buildCompanySpecification(statusStr, name, typeStr);
+        List<Company> companies = findSlice(companyRepository, filters, KeysetCursor.decode(cursor), size);
+        Long total = includeTotal ? companyRepository.count(filters) : null;
 
-        return companies.map(this::mapToCompanyDto);
+        return toCursorPage(companies, size, total, this::mapToCompanyDtos);
     }
 
     @Override
@@ -111,6 +121,7 @@ public class CompanyManagementServiceImpl implements CompanyManagementService {
 
         Company savedCompany = companyRepository.save(company);
         log.info("Created new company with ID: {}", savedCompany.getId());
+        eventPublisher.publishEvent(new CompanyCreatedEvent(savedCompany.getId(), savedCompany.getStatus()));
 
         // Start trial subscription
         companySubscriptionService.startTrial(savedCompany);
@@ -162,11 +173,13 @@ public class CompanyManagementServiceImpl implements CompanyManagementService {
         log.debug("Updating status for company with ID: {} to {}", companyId, request.getStatus());
 
         Company company = findCompanyById(companyId);
+        CompanyStatus previousStatus = company.getStatus();
 
         company.setStatus(request.getStatus());
 
         Company updatedCompany = companyRepository.save(company);
         log.info("Updated status for company with ID: {} to {}", updatedCompany.getId(), updatedCompany.getStatus());
+        eventPublisher.publishEvent(new CompanyStatusChangedEvent(updatedCompany.getId(), previousStatus, updatedCompany.getStatus()));
 
         return mapToCompanyDto(updatedCompany);
     }
@@ -196,6 +209,10 @@ public class CompanyManagementServiceImpl implements CompanyManagementService {
 
         Company updatedCompany = companyRepository.save(company);
         log.info("Created subscription for company with ID: {}", updatedCompany.getId());
+        eventPublisher.publishEvent(new SubscriptionStatusChangedEvent(updatedCompany.getId(), subscription.getId(), null, subscription.getStatus()));
+
+        // Cached principals and self-contained tokens carry the subscription plan and features
+        principalInvalidationService.companyChanged(updatedCompany.getId());
 
         return mapToCompanyDto(updatedCompany);
     }
@@ -215,38 +232,22 @@ public class CompanyManagementServiceImpl implements CompanyManagementService {
 
     @Override
     @Transactional(readOnly = true)
+    public CursorPage<UserDto> getCompanyUsersByCursor(UUID companyId, String cursor, int size, boolean includeTotal) {
+        log.debug("Getting users by cursor for company with ID: {}, size: {}", companyId, size);
+
+        Company company = findCompanyById(companyId);
+        Specification<User> filters = (root, query, cb) -> cb.equal(root.get("company"), company);
+        List<User> users = findSlice(userRepository, filters, KeysetCursor.decode(cursor), size);
+        Long total = includeTotal ? userRepository.countByCompany(company) : null;
+
+        return toCursorPage(users, size, total,
+                slice -> slice.stream().map(this::mapToUserDto).collect(Collectors.toList()));
+    }
+
+    @Override
     public CompanyStatisticsDto getCompanyStatistics() {
-        log.debug("Getting company statistics");
-
-        long totalCompanies = companyRepository.count();
-        long activeCompanies = companyRepository.countByStatus(CompanyStatus.ACTIVE);
-        long suspendedCompanies = companyRepository.countByStatus(CompanyStatus.SUSPENDED);
-        long pendingVerificationCompanies = companyRepository.countByStatus(CompanyStatus.PENDING_VERIFICATION);
-        long deletedCompanies = companyRepository.countByStatus(CompanyStatus.DELETED);
-
-        long totalUsers = userRepository.count();
-        double averageUsersPerCompany = totalCompanies > 0 ? (double) totalUsers / totalCompanies : 0;
-
-        // Subscription statistics
-        long companiesWithActiveSubscription = companyRepository.countCompaniesWithSubscriptionStatus(UserSubscriptionStatus.ACTIVE);
-        long companiesWithTrialSubscription = companyRepository.countCompaniesWithSubscriptionStatus(UserSubscriptionStatus.TRIAL);
-        long companiesWithExpiredSubscription = companyRepository.countCompaniesWithSubscriptionStatus(UserSubscriptionStatus.EXPIRED);
-
-        log.debug("Calculated company statistics - total: {}, active: {}, suspended: {}",
-                totalCompanies, activeCompanies, suspendedCompanies);
-
-        return CompanyStatisticsDto.builder()
-                .totalCompanies(totalCompanies)
-                .activeCompanies(activeCompanies)
-                .suspendedCompanies(suspendedCompanies)
-                .pendingVerificationCompanies(pendingVerificationCompanies)
-                .deletedCompanies(deletedCompanies)
-                .totalUsers(totalUsers)
-                .averageUsersPerCompany(averageUsersPerCompany)
-                .companiesWithActiveSubscription(companiesWithActiveSubscription)
-                .companiesWithTrialSubscription(companiesWithTrialSubscription)
-                .companiesWithExpiredSubscription(companiesWithExpiredSubscription)
-                .build();
+        // Served from the incrementally maintained snapshot instead of running the count queries per request
+        return companyStatisticsSnapshot.getStatistics();
     }
 
     @Override
@@ -258,30 +259,111 @@ public class CompanyManagementServiceImpl implements CompanyManagementService {
                 });
     }
 
+    private Specification<Company> buildCompanySpecification(String statusStr, String name, String typeStr) {
+        Specification<Company> spec = Specification.where(null);
+
+        if (statusStr != null && !statusStr.isEmpty()) {
+            try {
+                CompanyStatus status = CompanyStatus.valueOf(statusStr.toUpperCase());
+                spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid company status filter: {}", statusStr);
+            }
+        }
+
+        if (name != null && !name.isEmpty()) {
+            spec = spec.and((root, query, cb) -> cb.like(cb.lower(root.get("name")), "%" + name.toLowerCase() + "%"));
+        }
+
+        if (typeStr != null && !typeStr.isEmpty()) {
+            try {
+                CompanyType type = CompanyType.valueOf(typeStr.toUpperCase());
+                spec = spec.and((root, query, cb) -> cb.equal(root.get("type"), type));
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid company type filter: {}", typeStr);
+            }
+        }
+
+        return spec;
+    }
+
+    /**
+     * Reads one slice in keyset order. One extra row is fetched to know whether another slice follows.
+     */
+    private <T extends BaseEntity> List<T> findSlice(JpaSpecificationExecutor<T> repository, Specification<T> filters,
+                                                     KeysetCursor cursor, int size) {
+        Specification<T> spec = cursor != null ? filters.and(cursor.after()) : filters;
+        return repository.findBy(spec, query -> query.sortBy(KeysetCursor.SORT).limit(clampSize(size) + 1).all());
+    }
+
+    private static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+    }
+
+    private <T extends BaseEntity, D> CursorPage<D> toCursorPage(List<T> rows, int size, Long total,
+                                                                Function<List<T>, List<D>> mapper) {
+        int limit = clampSize(size);
+        boolean hasNext = rows.size() > limit;
+        List<T> slice = hasNext ? rows.subList(0, limit) : rows;
+        return CursorPage.<D>builder()
+                .content(mapper.apply(slice))
+                .size(slice.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? KeysetCursor.of(slice.get(slice.size() - 1)).encode() : null)
+                .totalElements(total)
+                .build();
+    }
+
     /**
      * Maps a Company entity to a CompanyDto
      */
     private CompanyDto mapToCompanyDto(Company company) {
-        // Get user count for the company
-        long userCount = userRepository.countByCompany(company);
-
-        // Get active subscription for the company
-        final String[] subscriptionPlanRef = {"None"};
-        final String[] subscriptionStatusRef = {"None"};
-        final Instant[] subscriptionEndDateRef = {null};
-
-        companySubscriptionService.getCurrentActiveSubscription(company)
-                .ifPresent(subscription -> {
-                    if (subscription.getPlan() != null) {
-                        subscriptionPlanRef[0] = subscription.getPlan().getName();
-                    }
-                    subscriptionStatusRef[0] = subscription.getStatus().name();
-                    if (subscription.getStatus() == UserSubscriptionStatus.TRIAL) {
-                        subscriptionEndDateRef[0] = subscription.getTrialEndDate();
-                    } else {
-                        subscriptionEndDateRef[0] = subscription.getEndDate();
-                    }
-                });
+        return mapToCompanyDtos(List.of(company)).get(0);
+    }
+
+    /**
+     * Maps a page of companies in a fixed number of queries: one grouped user count query and one
+     * latest-subscription query for the whole page, instead of two queries per company.
+     */
+    private Page<CompanyDto> mapToCompanyDtos(Page<Company> companies) {
+        List<CompanyDto> content = mapToCompanyDtos(companies.getContent());
+        return new PageImpl<>(content, companies.getPageable(), companies.getTotalElements());
+    }
+
+    private List<CompanyDto> mapToCompanyDtos(List<Company> companies) {
+        if (companies.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> companyIds = companies.stream().map(Company::getId).collect(Collectors.toList());
+
+        Map<UUID, Long> userCounts = userRepository.countUsersByCompanyIds(companyIds).stream()
+                .collect(Collectors.toMap(CompanyUserCountView::getCompanyId, CompanyUserCountView::getUserCount));
+        Map<UUID, CompanySubscriptionSummaryView> subscriptions =
+                companySubscriptionService.getCurrentActiveSubscriptionSummaries(companyIds);
+
+        return companies.stream()
+                .map(company -> buildCompanyDto(company,
+                        userCounts.getOrDefault(company.getId(), 0L),
+                        subscriptions.get(company.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private CompanyDto buildCompanyDto(Company company, long userCount, CompanySubscriptionSummaryView subscription) {
+        String subscriptionPlan = "None";
+        String subscriptionStatus = "None";
+        Instant subscriptionEndDate = null;
+
+        if (subscription != null) {
+            if (subscription.getPlanName() != null) {
+                subscriptionPlan = subscription.getPlanName();
+            }
+            subscriptionStatus = subscription.getStatus().name();
+            if (subscription.getStatus() == UserSubscriptionStatus.TRIAL) {
+                subscriptionEndDate = subscription.getTrialEndDate();
+            } else {
+                subscriptionEndDate = subscription.getEndDate();
+            }
+        }
 
         return CompanyDto.builder()
                 .id(company.getId())
@@ -295,9 +377,9 @@ public class CompanyManagementServiceImpl implements CompanyManagementService {
                 .createdAt(company.getCreatedAt())
                 .updatedAt(company.getUpdatedAt())
                 .userCount((int) userCount)
-                .subscriptionPlan(subscriptionPlanRef[0])
-                .subscriptionStatus(subscriptionStatusRef[0])
-                .subscriptionEndDate(subscriptionEndDateRef[0])
+                .subscriptionPlan(subscriptionPlan)
+                .subscriptionStatus(subscriptionStatus)
+                .subscriptionEndDate(subscriptionEndDate)
                 .build();
     }
 
@@ -327,7 +409,7 @@ public class CompanyManagementServiceImpl implements CompanyManagementService {
         Company company = findCompanyById(companyId);
 
         // Check if user already exists
-        if (userRepository.existsByEmailOrUsername(request.getEmail(), request.getUsername())) {
+        if (userRepository.existsByEmailOrUsername(User.normalizeEmail(request.getEmail()), request.getUsername())) {
             log.warn("User already exists with email: {} or username: {}", request.getEmail(), request.getUsername());
             throw new DuplicateRegistrationException("User already exists with this email or username");
         }
@@ -357,6 +439,7 @@ public class CompanyManagementServiceImpl implements CompanyManagementService {
 
         User savedUser = userRepository.save(newUser);
         log.info("Successfully added user {} to company {}", savedUser.getEmail(), company.getName());
+        eventPublisher.publishEvent(new UserCreatedEvent(savedUser.getId(), company.getId()));
 
         // Send welcome email if requested
         if (request.isSendWelcomeEmail()) {
@@ -406,6 +489,7 @@ public class CompanyManagementServiceImpl implements CompanyManagementService {
         user.setEnabled(false); // Disable the user
 
         User updatedUser = userRepository.save(user);
+        principalInvalidationService.userChanged(user.getId(), user.getEmail());
         log.info("Successfully removed user {} from company {}", user.getEmail(), company.getName());
 
         return UserOperationResponse.builder()
@@ -459,6 +543,7 @@ public class CompanyManagementServiceImpl implements CompanyManagementService {
         }
 
         User updatedUser = userRepository.save(user);
+        principalInvalidationService.userChanged(user.getId(), user.getEmail());
         log.info("Successfully transferred user {} from company {} to company {}",
                 user.getEmail(), sourceCompany.getName(), targetCompany.getName());
 
@@ -524,6 +609,7 @@ public class CompanyManagementServiceImpl implements CompanyManagementService {
         }
 
         User updatedUser = userRepository.save(user);
+        principalInvalidationService.userChanged(user.getId(), user.getEmail());
         log.info("Successfully updated roles for user {} in company {}", user.getEmail(), company.getName());
 
         // Send role update notification email if requested
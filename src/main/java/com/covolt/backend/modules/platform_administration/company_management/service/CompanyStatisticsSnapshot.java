@@ -0,0 +1,321 @@
+package com.covolt.backend.modules.platform_administration.company_management.service;
+
+import com.covolt.backend.core.event.CompanyCreatedEvent;
+import com.covolt.backend.core.event.CompanyStatusChangedEvent;
+import com.covolt.backend.core.event.SubscriptionStatusChangedEvent;
+import com.covolt.backend.core.event.UserCreatedEvent;
+import com.covolt.backend.core.model.enums.CompanyStatus;
+import com.covolt.backend.core.model.enums.UserSubscriptionStatus;
+import com.covolt.backend.core.repository.CompanyRepository;
+import com.covolt.backend.core.repository.CompanySubscriptionRepository;
+import com.covolt.backend.core.repository.UserRepository;
+import com.covolt.backend.core.repository.projection.CompanyStatusCountView;
+import com.covolt.backend.core.repository.projection.CompanySubscriptionStatusCountView;
+import com.covolt.backend.modules.platform_administration.company_management.dto.CompanyStatisticsDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Admin paneli için bellekte tutulan ve artımlı güncellenen platform istatistikleri.
+ * <p>
+ * Sayaçlar, olayı yayınlayan transaction commit edildikten sonra domain olaylarıyla güncellenir; geri alınan
+ * değişiklikler hiç sayılmaz. Okumalar veritabanına gitmeden en son değişmez görüntüyü döner. Periyodik
+ * mutabakat, olay yayınlamayan yollardan yapılan değişikliklerin yol açtığı sapmayı düzeltmek için tüm sayaçları
+ * gruplu sorgularla yeniden yükler.
+ * <p>
+ * Mutabakat sorguları kilit dışında çalıştığı için bu sırada olaylar gelmeye devam eder. Her olaya bir sıra numarası
+ * verilir ve her gruplu sorgu başladığı andaki sıra numarasını kaydeder. Yüklenen sayılar bellekteki durumun yerine
+ * geçtiğinde, sorgusu başladıktan sonra gelen olaylar üzerine yeniden uygulanır; daha önce gelenler sorgu sonucunda
+ * zaten yer aldığı için atılır.
+ * <p>
+ * "X abonelik statüsündeki firmalar" rakamları tekil firma sayılarıdır; bir firmanın bir statüye girip çıktığını
+ * bilmek için firma ve statü bazında abonelik kaydı sayısı tutulur.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CompanyStatisticsSnapshot {
+
+    private final CompanyRepository companyRepository;
+    private final UserRepository userRepository;
+    private final CompanySubscriptionRepository companySubscriptionRepository;
+
+    // Değiştirilebilir durum, "this" kilidiyle korunur
+    private final Map<CompanyStatus, Long> companiesByStatus = new EnumMap<>(CompanyStatus.class);
+    private final Map<UUID, Map<UserSubscriptionStatus, Integer>> subscriptionsByCompany = new HashMap<>();
+    private final Map<UserSubscriptionStatus, Long> companiesBySubscriptionStatus = new EnumMap<>(UserSubscriptionStatus.class);
+    private long totalCompanies;
+    private long totalUsers;
+    private Instant lastReconciledAt;
+
+    // Son olayın sıra numarası; mutabakat sorguları sürerken olaylar ayrıca biriktirilir
+    private long eventSequence;
+    private boolean reconciling;
+    private final List<SequencedEvent> eventsDuringReconcile = new ArrayList<>();
+
+    // Aynı anda tek mutabakat çalışır; sorgular sürerken "this" kilidiyle birlikte tutulmaz
+    private final Object reconcileLock = new Object();
+
+    // Yayınlanan okuma görüntüsü; her değişiklikten sonra yenisiyle değiştirilir
+    private volatile CompanyStatisticsDto current;
+
+    /**
+     * Güncel istatistikleri döner. Açılıştaki mutabakat henüz çalışmadıysa ilk kullanımda veritabanından yükler.
+     */
+    public CompanyStatisticsDto getStatistics() {
+        CompanyStatisticsDto snapshot = current;
+        if (snapshot == null) {
+            reconcile();
+            snapshot = current;
+        }
+        return copyOf(snapshot);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    /**
+     * Tüm sayaçları veritabanından yeniden yükler ve bellekteki durumu değiştirir.
+     */
+    @Scheduled(initialDelayString = "${app.statistics.reconcile-interval-ms:300000}",
+            fixedDelayString = "${app.statistics.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        synchronized (reconcileLock) {
+            long started = System.currentTimeMillis();
+            try {
+                // Veritabanı okumaları kilit dışında yapılır; bu sırada gelen olaylar uygulanır ve biriktirilir
+                long companiesFrom = startRead();
+                Iterable<CompanyStatusCountView> statusCounts = companyRepository.countGroupedByStatus();
+                long usersFrom = currentSequence();
+                long userCount = userRepository.count();
+                long subscriptionsFrom = currentSequence();
+                Iterable<CompanySubscriptionStatusCountView> subscriptionCounts =
+                        companySubscriptionRepository.countGroupedByCompanyAndStatus();
+
+                synchronized (this) {
+                    load(statusCounts, userCount, subscriptionCounts);
+                    int replayed = replay(companiesFrom, usersFrom, subscriptionsFrom);
+                    lastReconciledAt = Instant.now();
+                    publish(lastReconciledAt);
+                    log.debug("Firma istatistikleri {} ms'de mutabık kılındı - firma: {}, kullanıcı: {}, yeniden uygulanan olay: {}",
+                            System.currentTimeMillis() - started, totalCompanies, totalUsers, replayed);
+                }
+            } finally {
+                synchronized (this) {
+                    reconciling = false;
+                    eventsDuringReconcile.clear();
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onCompanyCreated(CompanyCreatedEvent event) {
+        if (track(event)) {
+            applyCompanyCreated(event);
+            publish(Instant.now());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onCompanyStatusChanged(CompanyStatusChangedEvent event) {
+        if (event.getPreviousStatus() != event.getNewStatus() && track(event)) {
+            applyCompanyStatusChanged(event);
+            publish(Instant.now());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onUserCreated(UserCreatedEvent event) {
+        if (track(event)) {
+            totalUsers++;
+            publish(Instant.now());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onSubscriptionStatusChanged(SubscriptionStatusChangedEvent event) {
+        if (event.getPreviousStatus() != event.getNewStatus() && track(event)) {
+            applySubscriptionStatusChanged(event);
+            publish(Instant.now());
+        }
+    }
+
+    private synchronized long startRead() {
+        reconciling = true;
+        eventsDuringReconcile.clear();
+        return eventSequence;
+    }
+
+    private synchronized long currentSequence() {
+        return eventSequence;
+    }
+
+    /**
+     * Olaya sıra numarası verir ve mutabakat sorguları sürüyorsa biriktirir. Kilit tutulurken çağrılmalıdır.
+     *
+     * @return Olay mevcut duruma hemen uygulanacaksa true; ilk yüklemeden önce false (çalışan mutabakat
+     * olayı yeniden uygular)
+     */
+    private boolean track(Object event) {
+        long sequence = ++eventSequence;
+        if (reconciling) {
+            eventsDuringReconcile.add(new SequencedEvent(sequence, event));
+        }
+        return current != null;
+    }
+
+    // Kilit tutulurken çağrılmalıdır
+    private void load(Iterable<CompanyStatusCountView> statusCounts, long userCount,
+                      Iterable<CompanySubscriptionStatusCountView> subscriptionCounts) {
+        companiesByStatus.clear();
+        totalCompanies = 0;
+        for (CompanyStatusCountView row : statusCounts) {
+            totalCompanies += row.getCompanyCount();
+            if (row.getStatus() != null) {
+                companiesByStatus.put(row.getStatus(), row.getCompanyCount());
+            }
+        }
+
+        totalUsers = userCount;
+
+        subscriptionsByCompany.clear();
+        companiesBySubscriptionStatus.clear();
+        for (CompanySubscriptionStatusCountView row : subscriptionCounts) {
+            if (row.getStatus() == null) {
+                continue;
+            }
+            subscriptionsByCompany
+                    .computeIfAbsent(row.getCompanyId(), id -> new EnumMap<>(UserSubscriptionStatus.class))
+                    .put(row.getStatus(), (int) row.getSubscriptionCount());
+            companiesBySubscriptionStatus.merge(row.getStatus(), 1L, Long::sum);
+        }
+    }
+
+    // Biriken olaylardan, ait oldukları sayacın sorgusunun görmediklerini yeniden uygular. Kilit tutulurken çağrılmalıdır
+    private int replay(long companiesFrom, long usersFrom, long subscriptionsFrom) {
+        int replayed = 0;
+        for (SequencedEvent sequenced : eventsDuringReconcile) {
+            Object event = sequenced.event;
+            if (event instanceof CompanyCreatedEvent created && sequenced.sequence > companiesFrom) {
+                applyCompanyCreated(created);
+            } else if (event instanceof CompanyStatusChangedEvent changed && sequenced.sequence > companiesFrom) {
+                applyCompanyStatusChanged(changed);
+            } else if (event instanceof UserCreatedEvent && sequenced.sequence > usersFrom) {
+                totalUsers++;
+            } else if (event instanceof SubscriptionStatusChangedEvent changed && sequenced.sequence > subscriptionsFrom) {
+                applySubscriptionStatusChanged(changed);
+            } else {
+                continue;
+            }
+            replayed++;
+        }
+        return replayed;
+    }
+
+    private void applyCompanyCreated(CompanyCreatedEvent event) {
+        totalCompanies++;
+        adjustCompanyStatus(event.getStatus(), 1);
+    }
+
+    private void applyCompanyStatusChanged(CompanyStatusChangedEvent event) {
+        adjustCompanyStatus(event.getPreviousStatus(), -1);
+        adjustCompanyStatus(event.getNewStatus(), 1);
+    }
+
+    private void applySubscriptionStatusChanged(SubscriptionStatusChangedEvent event) {
+        Map<UserSubscriptionStatus, Integer> counts = subscriptionsByCompany
+                .computeIfAbsent(event.getCompanyId(), id -> new EnumMap<>(UserSubscriptionStatus.class));
+
+        UserSubscriptionStatus previous = event.getPreviousStatus();
+        if (previous != null) {
+            Integer previousCount = counts.get(previous);
+            if (previousCount != null) {
+                if (previousCount <= 1) {
+                    counts.remove(previous);
+                    companiesBySubscriptionStatus.merge(previous, -1L, Long::sum);
+                } else {
+                    counts.put(previous, previousCount - 1);
+                }
+            }
+        }
+
+        UserSubscriptionStatus next = event.getNewStatus();
+        if (next != null && counts.merge(next, 1, Integer::sum) == 1) {
+            companiesBySubscriptionStatus.merge(next, 1L, Long::sum);
+        }
+
+        if (counts.isEmpty()) {
+            subscriptionsByCompany.remove(event.getCompanyId());
+        }
+    }
+
+    private void adjustCompanyStatus(CompanyStatus status, long delta) {
+        if (status != null) {
+            companiesByStatus.merge(status, delta, Long::sum);
+        }
+    }
+
+    // Kilit tutulurken çağrılmalıdır
+    private void publish(Instant updatedAt) {
+        current = CompanyStatisticsDto.builder()
+                .totalCompanies(totalCompanies)
+                .activeCompanies(companiesByStatus.getOrDefault(CompanyStatus.ACTIVE, 0L))
+                .suspendedCompanies(companiesByStatus.getOrDefault(CompanyStatus.SUSPENDED, 0L))
+                .pendingVerificationCompanies(companiesByStatus.getOrDefault(CompanyStatus.PENDING_VERIFICATION, 0L))
+                .deletedCompanies(companiesByStatus.getOrDefault(CompanyStatus.DELETED, 0L))
+                .totalUsers(totalUsers)
+                .averageUsersPerCompany(totalCompanies > 0 ? (double) totalUsers / totalCompanies : 0)
+                .companiesWithActiveSubscription(companiesBySubscriptionStatus.getOrDefault(UserSubscriptionStatus.ACTIVE, 0L))
+                .companiesWithTrialSubscription(companiesBySubscriptionStatus.getOrDefault(UserSubscriptionStatus.TRIAL, 0L))
+                .companiesWithExpiredSubscription(companiesBySubscriptionStatus.getOrDefault(UserSubscriptionStatus.EXPIRED, 0L))
+                .lastUpdatedAt(updatedAt)
+                .lastReconciledAt(lastReconciledAt)
+                .build();
+    }
+
+    // DTO değiştirilebilir; yayınlanan görüntü bozulmasın diye çağıranlara kopyası verilir
+    private static CompanyStatisticsDto copyOf(CompanyStatisticsDto source) {
+        return CompanyStatisticsDto.builder()
+                .totalCompanies(source.getTotalCompanies())
+                .activeCompanies(source.getActiveCompanies())
+                .suspendedCompanies(source.getSuspendedCompanies())
+                .pendingVerificationCompanies(source.getPendingVerificationCompanies())
+                .deletedCompanies(source.getDeletedCompanies())
+                .totalUsers(source.getTotalUsers())
+                .averageUsersPerCompany(source.getAverageUsersPerCompany())
+                .companiesWithActiveSubscription(source.getCompaniesWithActiveSubscription())
+                .companiesWithTrialSubscription(source.getCompaniesWithTrialSubscription())
+                .companiesWithExpiredSubscription(source.getCompaniesWithExpiredSubscription())
+                .lastUpdatedAt(source.getLastUpdatedAt())
+                .lastReconciledAt(source.getLastReconciledAt())
+                .build();
+    }
+
+    private static final class SequencedEvent {
+
+        private final long sequence;
+        private final Object event;
+
+        private SequencedEvent(long sequence, Object event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+    }
+}
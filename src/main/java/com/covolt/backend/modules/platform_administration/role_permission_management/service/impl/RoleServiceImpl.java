@@ -8,6 +8,7 @@ import com.covolt.backend.core.model.Role;
 import com.covolt.backend.core.repository.PermissionRepository;
 import com.covolt.backend.core.repository.RoleRepository;
 import com.covolt.backend.core.repository.UserRepository; // Rol silinirken kontrol için
+import com.covolt.backend.core.security.service.PrincipalInvalidationService;
 import com.covolt.backend.modules.platform_administration.role_permission_management.dto.RoleRequestDto;
 import com.covolt.backend.modules.platform_administration.role_permission_management.service.RoleService;
 import lombok.RequiredArgsConstructor;
@@ -32,6 +33,7 @@ public class RoleServiceImpl implements RoleService {
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
     private final UserRepository userRepository; // Rol silinirken kullanıcı kontrolü için
+    private final PrincipalInvalidationService principalInvalidationService; // Rol/izin değişince principal önbelleği ve token'lar geçersiz kılınır
 
     private static final String ROLE_NOT_FOUND_MSG = "ID'si %s olan rol bulunamadı.";
     private static final String PERMISSION_NOT_FOUND_MSG = "ID'si %s olan izin bulunamadı.";
@@ -91,6 +93,8 @@ public class RoleServiceImpl implements RoleService {
                     return new ResourceNotFoundException(String.format(ROLE_NOT_FOUND_MSG, roleId));
                 });
 
+        String previousRoleName = existingRole.getName();
+
         // Rol adını güncelliyorsak ve yeni ad farklıysa, benzersizlik kontrolü yap
         String newRoleNameWithPrefix = ensureRolePrefix(roleDto.getName());
         if (!existingRole.getName().equals(newRoleNameWithPrefix)) {
@@ -111,6 +115,8 @@ public class RoleServiceImpl implements RoleService {
         }
 
         Role updatedRole = roleRepository.save(existingRole);
+        // Bu role sahip kullanıcıların önbellekteki yetkileri ve token'ları artık geçersiz
+        principalInvalidationService.roleChanged(updatedRole.getId(), previousRoleName);
         logger.info("Rol güncellendi: ID={}, Adı='{}'", updatedRole.getId(), updatedRole.getName());
         return updatedRole;
     }
@@ -165,6 +171,7 @@ public class RoleServiceImpl implements RoleService {
 
         if (updated) {
             Role savedRole = roleRepository.save(role);
+            principalInvalidationService.roleChanged(roleId, role.getName());
             logger.info("{} adet izin role (ID={}) atandı.", permissionIds.size(), roleId);
             return savedRole;
         }
@@ -191,6 +198,7 @@ public class RoleServiceImpl implements RoleService {
 
         if (removed) {
             Role savedRole = roleRepository.save(role);
+            principalInvalidationService.roleChanged(roleId, role.getName());
             logger.info("{} adet izin rolden (ID={}) kaldırıldı.", permissionIds.size(), roleId); // Kaldırılan gerçek sayıyı bulmak daha iyi olur.
             return savedRole;
         }
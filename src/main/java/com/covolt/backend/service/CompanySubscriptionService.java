@@ -4,12 +4,14 @@ package com.covolt.backend.service;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
 // --- Proje İçi Importlar ---
+import com.covolt.backend.core.event.SubscriptionStatusChangedEvent; // İstatistik güncellemesi için domain event
 import com.covolt.backend.core.model.Company; // Company Entity
 import com.covolt.backend.core.model.CompanySubscription; // Entity
 import com.covolt.backend.core.model.SubscriptionPlan; // Entity
@@ -18,13 +20,20 @@ import com.covolt.backend.core.exception.ResourceCreationException; // Kaynak ya
 
 import com.covolt.backend.core.repository.CompanySubscriptionRepository; // Repository
 import com.covolt.backend.core.repository.SubscriptionPlanRepository; // Repository
+import com.covolt.backend.core.repository.projection.CompanySubscriptionSummaryView; // Liste ekranı özeti
+import com.covolt.backend.core.security.service.PrincipalInvalidationService; // Abonelik değişince principal önbelleği ve token'lar
 
 
 // --- Java Standart Importlar ---
 import java.time.Instant; // Zaman
 import java.time.temporal.ChronoUnit; // Zaman birimleri
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List; // Liste
+import java.util.Map;
 import java.util.Optional; // Optional
+import java.util.UUID;
 
 @Service // Spring Service
 @RequiredArgsConstructor // Final alanlar için constructor injection
@@ -35,6 +44,8 @@ public class CompanySubscriptionService {
     // --- Bağımlılıklar ---
     private final CompanySubscriptionRepository companySubscriptionRepository;
     private final SubscriptionPlanRepository subscriptionPlanRepository;
+    private final PrincipalInvalidationService principalInvalidationService;
+    private final ApplicationEventPublisher eventPublisher; // Abonelik statü değişiklikleri (istatistikler için)
 
     // Config'den alınacak deneme süresi (gün) ve varsayılan deneme planı adı
     @Value("${app.subscription.trialDays}")
@@ -97,6 +108,9 @@ public class CompanySubscriptionService {
         CompanySubscription savedSubscription;
         try {
             savedSubscription = companySubscriptionRepository.save(companySubscription);
+            principalInvalidationService.companyChanged(company.getId());
+            eventPublisher.publishEvent(new SubscriptionStatusChangedEvent(
+                    company.getId(), savedSubscription.getId(), null, UserSubscriptionStatus.TRIAL));
             logger.info("Firma '{}' (ID: {}) için ücretsiz deneme aboneliği başarıyla başlatıldı. Bitiş: {}",
                     company.getName(), company.getId(), trialEndDate);
         } catch (Exception e) {
@@ -162,6 +176,38 @@ public class CompanySubscriptionService {
         }
     }
 
+    /**
+     * Birden fazla firmanın geçerli aktif abonelik özetlerini tek sorguda döner (admin liste ekranları için).
+     * Her firma için en yeni TRIAL/ACTIVE/PAST_DUE kaydı alınır ve {@link #getCurrentActiveSubscription(Company)}
+     * ile aynı kural uygulanır: kayıt erişim vermiyorsa firma sonuçta yer almaz.
+     * @param companyIds Firma ID'leri
+     * @return Firma ID'si -> aktif abonelik özeti
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, CompanySubscriptionSummaryView> getCurrentActiveSubscriptionSummaries(Collection<UUID> companyIds) {
+        if (companyIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<CompanySubscriptionSummaryView> summaries = companySubscriptionRepository.findLatestSummariesByCompanyIds(
+                companyIds,
+                List.of(UserSubscriptionStatus.TRIAL, UserSubscriptionStatus.ACTIVE, UserSubscriptionStatus.PAST_DUE)
+        );
+
+        Map<UUID, CompanySubscriptionSummaryView> activeByCompany = new HashMap<>();
+        for (CompanySubscriptionSummaryView summary : summaries) {
+            // Aynı createdAt'e sahip iki kayıt varsa ilki alınır
+            if (hasActiveAccess(summary)) {
+                activeByCompany.putIfAbsent(summary.getCompanyId(), summary);
+            }
+        }
+        return activeByCompany;
+    }
+
+    // CompanySubscription.hasActiveAccess() ile aynı kural, projection üzerinde
+    private boolean hasActiveAccess(CompanySubscriptionSummaryView summary) {
+        return CompanySubscription.hasActiveAccess(summary.getStatus(), summary.getTrialEndDate(), summary.getEndDate());
+    }
+
     /**
      * Aboneliğin durumunu EXPIRED olarak günceller.
      * Genellikle Zamanlanmış görev veya aboneliğin süresi dolduğunda login/refresh sırasında çağrılır.
@@ -183,10 +229,15 @@ public class CompanySubscriptionService {
         if ((UserSubscriptionStatus.TRIAL.equals(subscription.getStatus()) && subscription.getTrialEndDate() != null && subscription.getTrialEndDate().isBefore(Instant.now())) ||
                 (UserSubscriptionStatus.ACTIVE.equals(subscription.getStatus()) && subscription.getEndDate() != null && subscription.getEndDate().isBefore(Instant.now()))) {
 
+            UserSubscriptionStatus previousStatus = subscription.getStatus();
             subscription.setStatus(UserSubscriptionStatus.EXPIRED); // Statüyü EXPIRED yap
             // subscription.setEndDate(Instant.now()); // EXPIRED olma zamanını set etmek isteyebilirsiniz
 
             CompanySubscription updatedSubscription = companySubscriptionRepository.save(subscription);
+            // Firmanın kullanıcılarının önbellekteki ve token'daki plan/özellik bilgileri artık geçersiz
+            principalInvalidationService.companyChanged(updatedSubscription.getCompany().getId());
+            eventPublisher.publishEvent(new SubscriptionStatusChangedEvent(
+                    updatedSubscription.getCompany().getId(), updatedSubscription.getId(), previousStatus, UserSubscriptionStatus.EXPIRED));
             logger.info("Abonelik {} (Firma: {}) süresi dolmuş olarak işaretlendi. Yeni Statü: {}",
                     updatedSubscription.getId(), updatedSubscription.getCompany().getName(), updatedSubscription.getStatus());
 
@@ -0,0 +1,88 @@
+package com.covolt.backend.core.security.jwt;
+
+import com.covolt.backend.core.model.enums.UserSubscriptionStatus;
+import com.covolt.backend.core.repository.UserRepository;
+import com.covolt.backend.core.repository.projection.UserTokenVersionView;
+import com.covolt.backend.core.security.service.CovoltUserDetails;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("JwtService Self-Contained Token Testleri")
+class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-key-that-is-at-least-32-bytes-long";
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final UUID COMPANY_ID = UUID.randomUUID();
+
+    private UserRepository userRepository;
+    private TokenVersionRegistry tokenVersionRegistry;
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        tokenVersionRegistry = new TokenVersionRegistry(userRepository, true);
+        jwtService = new JwtService(tokenVersionRegistry,
+                new VerifiedTokenCache(false, 100, 100, 30, new SimpleMeterRegistry()),
+                SECRET, 60_000L, true);
+    }
+
+    @Test
+    @DisplayName("Token'dan oluşturulan principal hesap durumunu ve ad soyadı taşır")
+    void extractPrincipal_shouldRestoreAccountStateAndFullName() {
+        CovoltUserDetails user = principal(true, true);
+
+        CovoltUserDetails restored = jwtService.extractPrincipal(jwtService.verify(jwtService.generateToken(user)));
+
+        assertEquals(user.getUsername(), restored.getUsername());
+        assertEquals("Test Kullanıcı", restored.getFullName());
+        assertTrue(restored.isEnabled());
+        assertTrue(restored.isAccountNonLocked());
+        assertEquals(user.getCompanyId(), restored.getCompanyId());
+        assertTrue(restored.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    @Test
+    @DisplayName("Devre dışı veya kilitli hesaba üretilmiş token kabul edilmez")
+    void extractPrincipal_whenAccountDisabledOrLocked_shouldThrow() {
+        String disabledToken = jwtService.generateToken(principal(false, true));
+        String lockedToken = jwtService.generateToken(principal(true, false));
+
+        assertThrows(JwtException.class, () -> jwtService.extractPrincipal(jwtService.verify(disabledToken)));
+        assertThrows(JwtException.class, () -> jwtService.extractPrincipal(jwtService.verify(lockedToken)));
+    }
+
+    @Test
+    @DisplayName("Token versiyonu artırıldıktan sonra eski token reddedilir")
+    void extractPrincipal_whenVersionRevoked_shouldThrow() {
+        CovoltUserDetails user = principal(true, true);
+        String token = jwtService.generateToken(user);
+
+        UserTokenVersionView persisted = mock(UserTokenVersionView.class);
+        when(persisted.getId()).thenReturn(user.getUserId());
+        when(persisted.getTokenVersion()).thenReturn(1L);
+        when(userRepository.findTokenVersionsByIds(List.of(user.getUserId()))).thenReturn(List.of(persisted));
+        tokenVersionRegistry.revoke(List.of(user.getUserId()));
+
+        assertThrows(JwtException.class, () -> jwtService.extractPrincipal(jwtService.verify(token)));
+        assertNotNull(jwtService.extractPrincipal(jwtService.verify(jwtService.generateToken(user))));
+    }
+
+    private static CovoltUserDetails principal(boolean enabled, boolean accountNonLocked) {
+        return new CovoltUserDetails("jwt@example.com", "", enabled, true, true, accountNonLocked,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), USER_ID, "Test Kullanıcı",
+                COMPANY_ID, "Firma", UserSubscriptionStatus.ACTIVE, "Pro", Set.of("REPORTS"));
+    }
+}
@@ -0,0 +1,114 @@
+package com.covolt.backend.core.security.jwt;
+
+import com.covolt.backend.core.model.enums.UserSubscriptionStatus;
+import com.covolt.backend.core.repository.UserRepository;
+import com.covolt.backend.core.security.service.CovoltUserDetails;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Filtrenin istek başına JWT doğrulama maliyetini ölçer.
+ * <ul>
+ *     <li>{@code legacyPerCallParse}: eski yol; kullanıcı adı, bitiş zamanı ve geçerlilik için token üç kez parse
+ *     edilir ve her seferinde anahtar ile parser yeniden oluşturulur.</li>
+ *     <li>{@code verifyWithoutCache}: önceden oluşturulmuş anahtar ve parser ile tek parse
+ *     ({@code app.security.jwt.verification-cache.enabled=false}).</li>
+ *     <li>{@code verifyCached}: doğrulanmış token önbelleğinden dönüş (aynı token'la tekrarlanan istekler).</li>
+ * </ul>
+ * Test sınıfı değildir (surefire çalıştırmaz). Çalıştırma:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.covolt.backend.core.security.jwt.JwtVerificationBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-at-least-32-bytes-long";
+    private static final long EXPIRATION_MS = 3_600_000L;
+
+    private JwtService cachedService;
+    private JwtService uncachedService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        TokenVersionRegistry tokenVersionRegistry = new TokenVersionRegistry(mock(UserRepository.class), true);
+        cachedService = new JwtService(tokenVersionRegistry,
+                new VerifiedTokenCache(true, 20_000, 5_000, 30, new SimpleMeterRegistry()),
+                SECRET, EXPIRATION_MS, true);
+        uncachedService = new JwtService(tokenVersionRegistry,
+                new VerifiedTokenCache(false, 20_000, 5_000, 30, new SimpleMeterRegistry()),
+                SECRET, EXPIRATION_MS, true);
+
+        token = cachedService.generateToken(new CovoltUserDetails("bench@example.com", "", true, true, true, true,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("REPORT_READ")),
+                UUID.randomUUID(), "Benchmark Kullanıcı", UUID.randomUUID(), "Firma",
+                UserSubscriptionStatus.ACTIVE, "Pro", Set.of("REPORTS", "EXPORT")));
+        cachedService.verify(token); // Önbelleği ısıt
+    }
+
+    @Benchmark
+    public void legacyPerCallParse(Blackhole blackhole) {
+        String username = legacyClaims(token).getSubject();
+        boolean valid = username.equals(legacyClaims(token).getSubject())
+                && !legacyClaims(token).getExpiration().before(new Date());
+        blackhole.consume(valid);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyWithoutCache() {
+        return uncachedService.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCached() {
+        return cachedService.verify(token);
+    }
+
+    // Eski JwtService.extractAllClaims ile aynı: anahtar ve parser her çağrıda yeniden oluşturulur
+    private static Claims legacyClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,100 @@
+package com.covolt.backend.core.security.jwt;
+
+import com.covolt.backend.core.repository.UserRepository;
+import com.covolt.backend.core.repository.projection.UserTokenVersionView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("TokenVersionRegistry Testleri")
+class TokenVersionRegistryTest {
+
+    private final UUID userId = UUID.randomUUID();
+
+    private UserRepository userRepository;
+    private TokenVersionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        registry = new TokenVersionRegistry(userRepository, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Bellekteki versiyon commit'ten sonra veritabanından okunur, rollback'te değişmez")
+    void revoke_shouldReadPersistedVersionOnlyAfterCommit() {
+        when(userRepository.findTokenVersionsByIds(List.of(userId)))
+                .thenReturn(List.of(view(1L, LocalDateTime.now())));
+
+        TransactionSynchronizationManager.initSynchronization();
+        registry.revoke(List.of(userId));
+
+        assertEquals(0L, registry.currentVersion(userId));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertEquals(0L, registry.currentVersion(userId));
+
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1L, registry.currentVersion(userId));
+        verify(userRepository).incrementTokenVersions(List.of(userId));
+    }
+
+    @Test
+    @DisplayName("Yenileme commit'ten önce koşsa da yerel değer veritabanını aşmaz, sonraki iptal kaçırılmaz")
+    void refreshBeforeAfterCommit_shouldNotOvershootPersistedVersion() {
+        LocalDateTime changedAt = LocalDateTime.now();
+        when(userRepository.findAllWithTokenVersion()).thenReturn(List.of(view(1L, changedAt)));
+        when(userRepository.findTokenVersionsByIds(List.of(userId))).thenReturn(List.of(view(1L, changedAt)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        registry.revoke(List.of(userId));
+        registry.refreshVersions(); // Yeni değeri after-commit'ten önce okur
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1L, registry.currentVersion(userId));
+
+        // Başka node'daki iptal: DB 2'ye çıkar, artımlı yenileme alır
+        when(userRepository.findTokenVersionsChangedSince(any())).thenReturn(List.of(view(2L, changedAt.plusSeconds(1))));
+        registry.refreshVersions();
+        assertFalse(registry.isCurrent(userId, 1L));
+        verify(userRepository).findTokenVersionsChangedSince(changedAt.minusMinutes(5));
+    }
+
+    @Test
+    @DisplayName("Self-contained mod kapalıyken sayaçlar yüklenmez ve yenilenmez")
+    void refreshVersions_whenSelfContainedDisabled_shouldSkip() {
+        registry = new TokenVersionRegistry(userRepository, false);
+
+        registry.loadVersions();
+        registry.refreshVersions();
+        registry.revoke(List.of(userId));
+
+        verify(userRepository).incrementTokenVersions(List.of(userId));
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    private UserTokenVersionView view(long version, LocalDateTime changedAt) {
+        UserTokenVersionView view = mock(UserTokenVersionView.class);
+        when(view.getId()).thenReturn(userId);
+        when(view.getTokenVersion()).thenReturn(version);
+        when(view.getTokenVersionChangedAt()).thenReturn(changedAt);
+        return view;
+    }
+}
@@ -0,0 +1,181 @@
+package com.covolt.backend.core.security.login;
+
+import com.covolt.backend.core.exception.LoginThrottledException;
+import com.covolt.backend.core.repository.UserRepository;
+import com.covolt.backend.core.repository.projection.UserIdEmailView;
+import com.covolt.backend.core.security.service.PrincipalInvalidationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@DisplayName("LoginAttemptThrottle Testleri")
+class LoginAttemptThrottleTest {
+
+    private UserRepository userRepository;
+    private PrincipalInvalidationService principalInvalidationService;
+    private LoginAttemptThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        principalInvalidationService = mock(PrincipalInvalidationService.class);
+        when(userRepository.findExistingEmails(any())).thenAnswer(invocation ->
+                List.copyOf(invocation.<Collection<String>>getArgument(0)));
+        throttle = throttle(0);
+        setClientIp("10.0.0.1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("E-posta sınırı aşılınca kimlik doğrulama denenmeden reddedilir")
+    void checkAllowed_whenEmailLimitReached_shouldThrow() {
+        for (int i = 0; i < 3; i++) {
+            throttle.checkAllowed("user@example.com");
+            throttle.recordFailure("user@example.com");
+        }
+
+        LoginThrottledException ex = assertThrows(LoginThrottledException.class, () -> throttle.checkAllowed("USER@example.com"));
+        assertTrue(ex.getRetryAfterSeconds() > 0);
+        assertDoesNotThrow(() -> throttle.checkAllowed("other@example.com"));
+    }
+
+    @Test
+    @DisplayName("Başarılı giriş e-posta sayacını temizler, IP sayacını temizlemez")
+    void recordSuccess_shouldClearEmailButNotIp() {
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("user" + i + "@example.com");
+        }
+        throttle.recordFailure("victim@example.com");
+        throttle.recordSuccess("user0@example.com");
+        assertDoesNotThrow(() -> throttle.checkAllowed("user0@example.com"));
+
+        throttle.recordFailure("victim@example.com"); // IP'den 5. hata
+        assertThrows(LoginThrottledException.class, () -> throttle.checkAllowed("user0@example.com"));
+
+        setClientIp("10.0.0.2");
+        assertDoesNotThrow(() -> throttle.checkAllowed("user0@example.com"));
+    }
+
+    @Test
+    @DisplayName("Sayaçlar artış miktarına göre gruplanıp toplu yazılır")
+    void flush_shouldBatchUpdatesByDelta() {
+        throttle.recordFailure("a@example.com");
+        throttle.recordFailure("a@example.com");
+        throttle.recordFailure("b@example.com");
+        throttle.recordFailure("c@example.com");
+        throttle.recordFailure("d@example.com");
+        throttle.recordSuccess("d@example.com");
+
+        throttle.flush();
+
+        verify(userRepository).resetFailedLoginAttempts(List.of("d@example.com"));
+        verify(userRepository).incrementFailedLoginAttempts(List.of("a@example.com"), 2);
+        verify(userRepository).incrementFailedLoginAttempts(argThat(emails ->
+                emails.size() == 2 && emails.containsAll(List.of("b@example.com", "c@example.com"))), eq(1));
+        verify(userRepository, never()).findUsersToLock(any(), anyInt()); // lock-threshold = 0
+
+        clearInvocations(userRepository);
+        throttle.flush();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Farklı yazılışlı e-postalar tek sayaçta birleşir ve normalize edilmiş haliyle yazılır")
+    void flush_whenEmailCaseDiffers_shouldMergeUnderNormalizedEmail() {
+        throttle.recordFailure("User@Example.com");
+        throttle.recordFailure(" user@example.COM ");
+        throttle.recordFailure("Other@Example.com");
+        throttle.recordSuccess("OTHER@example.com");
+
+        throttle.flush();
+
+        verify(userRepository).resetFailedLoginAttempts(List.of("other@example.com"));
+        verify(userRepository).incrementFailedLoginAttempts(List.of("user@example.com"), 2);
+        verify(userRepository, never()).incrementFailedLoginAttempts(any(), eq(1));
+    }
+
+    @Test
+    @DisplayName("Yazılamayan sayaçlar kaybolmaz, sonraki turda yeni artışlarla birlikte yazılır")
+    void flush_whenWriteFails_shouldRequeuePendingCounters() {
+        doThrow(new RuntimeException("db down")).doReturn(1)
+                .when(userRepository).resetFailedLoginAttempts(any());
+
+        throttle.recordFailure("a@example.com");
+        throttle.recordSuccess("b@example.com");
+        throttle.flush(); // Sıfırlama hata verir, artış hiç denenmez
+
+        throttle.recordFailure("a@example.com");
+        throttle.flush();
+
+        verify(userRepository, times(2)).resetFailedLoginAttempts(List.of("b@example.com"));
+        verify(userRepository).incrementFailedLoginAttempts(List.of("a@example.com"), 2);
+    }
+
+    @Test
+    @DisplayName("Veritabanında olmayan e-posta yazılmaz ve sonraki turlarda yeniden kuyruğa alınmaz")
+    void flush_whenEmailUnknown_shouldDropPendingEntry() {
+        when(userRepository.findExistingEmails(any())).thenReturn(List.of());
+
+        throttle.recordFailure("ghost@example.com");
+        throttle.flush();
+
+        verify(userRepository).findExistingEmails(List.of("ghost@example.com"));
+        verify(userRepository, never()).incrementFailedLoginAttempts(any(), anyInt());
+
+        clearInvocations(userRepository);
+        throttle.recordFailure("ghost@example.com");
+        throttle.flush();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Eşiğe ulaşan hesap kilitlenir, principal'ı ve token'ları geçersiz kılınır")
+    void flush_whenLockThresholdReached_shouldLockAndInvalidatePrincipal() {
+        throttle = throttle(20);
+        UUID userId = UUID.randomUUID();
+        UserIdEmailView user = mock(UserIdEmailView.class);
+        when(user.getId()).thenReturn(userId);
+        when(user.getEmail()).thenReturn("Locked@Example.com");
+        when(userRepository.findUsersToLock(List.of("locked@example.com"), 20)).thenReturn(List.of(user));
+
+        throttle.recordFailure("Locked@Example.com");
+        throttle.flush();
+
+        verify(userRepository).lockByIds(List.of(userId));
+        verify(principalInvalidationService).userChanged(userId, "Locked@Example.com");
+    }
+
+    private LoginAttemptThrottle throttle(int lockThreshold) {
+        return new LoginAttemptThrottle(userRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                principalInvalidationService,
+                true, 3, 5, 15, 1000, 8, lockThreshold, 500, false,
+                new SimpleMeterRegistry());
+    }
+
+    private static void setClientIp(String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(ip);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
@@ -0,0 +1,168 @@
+package com.covolt.backend.core.security.service;
+
+import com.covolt.backend.core.model.Company;
+import com.covolt.backend.core.model.CompanySubscription;
+import com.covolt.backend.core.model.Permission;
+import com.covolt.backend.core.model.Role;
+import com.covolt.backend.core.model.SubscriptionPlan;
+import com.covolt.backend.core.model.User;
+import com.covolt.backend.core.model.enums.BillingInterval;
+import com.covolt.backend.core.model.enums.UserSubscriptionStatus;
+import com.covolt.backend.core.repository.CompanyRepository;
+import com.covolt.backend.core.repository.CompanySubscriptionRepository;
+import com.covolt.backend.core.repository.PermissionRepository;
+import com.covolt.backend.core.repository.RoleRepository;
+import com.covolt.backend.core.repository.SubscriptionPlanRepository;
+import com.covolt.backend.core.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("CustomUserDetailsService Sorgu Sayısı Testleri")
+@Transactional // Her test metodundan sonra işlemleri geri alır
+public class CustomUserDetailsServiceQueryCountTest {
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private SubscriptionPlanRepository subscriptionPlanRepository;
+
+    @Autowired
+    private CompanySubscriptionRepository companySubscriptionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final String suffix = UUID.randomUUID().toString().substring(0, 8);
+    private final String userEmail = "querycount-" + suffix + "@example.com";
+
+    @BeforeEach
+    void setUp() {
+        Company company = companyRepository.save(Company.builder().name("Query Count Company " + suffix).build());
+
+        // Birden fazla rol ve her rolde birden fazla izin: N+1 varsa sorgu sayısı rol sayısıyla artar
+        Set<Role> roles = new HashSet<>();
+        for (int r = 0; r < 3; r++) {
+            Set<Permission> permissions = new HashSet<>();
+            for (int p = 0; p < 2; p++) {
+                permissions.add(permissionRepository.save(Permission.builder()
+                        .name("QC_PERMISSION_" + r + "_" + p + "_" + suffix)
+                        .build()));
+            }
+            roles.add(roleRepository.save(Role.builder()
+                    .name("ROLE_QC_" + r + "_" + suffix)
+                    .description("Sorgu sayısı testi rolü")
+                    .permissions(permissions)
+                    .build()));
+        }
+
+        userRepository.save(User.builder()
+                .email(userEmail)
+                .username("qc" + suffix)
+                .password("encoded-password")
+                .company(company)
+                .enabled(true)
+                .locked(false)
+                .roles(roles)
+                .build());
+
+        SubscriptionPlan plan = subscriptionPlanRepository.save(SubscriptionPlan.builder()
+                .name("QC_PLAN_" + suffix)
+                .displayName("Sorgu Testi Planı")
+                .price(BigDecimal.TEN)
+                .billingInterval(BillingInterval.MONTHLY)
+                .features(new HashSet<>(Set.of("API_ACCESS", "REALTIME_DASHBOARD")))
+                .build());
+        companySubscriptionRepository.save(CompanySubscription.builder()
+                .company(company)
+                .plan(plan)
+                .status(UserSubscriptionStatus.ACTIVE)
+                .startDate(Instant.now().minus(1, ChronoUnit.DAYS))
+                .endDate(Instant.now().plus(30, ChronoUnit.DAYS))
+                .build());
+
+        // Kayıtları DB'ye yaz ve persistence context'i boşalt; aksi halde sorgular birinci seviye önbellekten döner
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("loadUserByUsername - Kullanıcı/yetkiler ve abonelik tek sorguda yüklenir")
+    void loadUserByUsername_shouldNotIssueQueryPerRole() {
+        CovoltUserDetails userDetails = (CovoltUserDetails) customUserDetailsService.loadUserByUsername(userEmail);
+
+        Set<String> authorities = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+        assertEquals(9, authorities.size()); // 3 rol + 6 izin
+        assertTrue(authorities.contains("ROLE_QC_0_" + suffix));
+        assertTrue(authorities.contains("QC_PERMISSION_2_1_" + suffix));
+        assertEquals(UserSubscriptionStatus.ACTIVE, userDetails.getActiveSubscriptionStatus());
+        assertEquals(Set.of("API_ACCESS", "REALTIME_DASHBOARD"), userDetails.getActiveSubscriptionFeatures());
+
+        // Kullanıcı + firma + roller + izinler + aktif abonelik, plan ve özellikleri (projection)
+        assertEquals(1, statistics.getPrepareStatementCount());
+        // Projection yolu hiçbir entity oluşturmaz
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("findWithAuthoritiesByEmail - Firma, roller ve izinler tek sorguda yüklenir")
+    void findWithAuthoritiesByEmail_shouldLoadGraphInSingleStatement() {
+        User user = userRepository.findWithAuthoritiesByEmail(userEmail).orElseThrow();
+
+        // İlişkilere erişim ek sorgu üretmemeli
+        assertEquals("Query Count Company " + suffix, user.getCompany().getName());
+        int permissionCount = 0;
+        for (Role role : user.getRoles()) {
+            permissionCount += role.getPermissions().size();
+        }
+        assertEquals(3, user.getRoles().size());
+        assertEquals(6, permissionCount);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,58 @@
+package com.covolt.backend.core.security.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("UserPrincipalCache Testleri")
+class UserPrincipalCacheTest {
+
+    private static final String EMAIL = "principal@example.com";
+
+    private UserPrincipalCache cache;
+    private final UUID companyId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserPrincipalCache(true, 300, 100, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Yükleme sırasında silinen kullanıcının eski principal'ı önbelleğe yazılmaz")
+    void put_whenUserEvictedDuringLoad_shouldDropStaleWrite() {
+        long generation = cache.generation(EMAIL); // Filtre yüklemeye başladı
+        cache.evictUser(EMAIL); // Rol değişikliği commit edildi
+        cache.put(principal("ROLE_OLD"), generation); // Eski veriyle yükleme tamamlandı
+
+        assertNull(cache.get(EMAIL));
+
+        cache.put(principal("ROLE_NEW"), cache.generation(EMAIL));
+        assertEquals("ROLE_NEW", cache.get(EMAIL).getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    @DisplayName("Firma ve yetki silmeleri devam eden yüklemelerin yazmalarını da geçersiz kılar")
+    void put_whenCompanyOrAuthorityEvictedDuringLoad_shouldDropStaleWrite() {
+        long generation = cache.generation(EMAIL);
+        cache.evictCompany(companyId);
+        cache.put(principal("ROLE_OLD"), generation);
+        assertNull(cache.get(EMAIL));
+
+        generation = cache.generation(EMAIL);
+        cache.evictAuthority("ROLE_OLD");
+        cache.put(principal("ROLE_OLD"), generation);
+        assertNull(cache.get(EMAIL));
+    }
+
+    private CovoltUserDetails principal(String authority) {
+        return new CovoltUserDetails(EMAIL, "", List.of(new SimpleGrantedAuthority(authority)),
+                UUID.randomUUID(), companyId, "Firma", true, false);
+    }
+}
@@ -0,0 +1,92 @@
+package com.covolt.backend.features.email.ingest;
+
+import com.covolt.backend.core.exception.InvalidRecipientStreamException;
+import com.covolt.backend.features.email.dto.BulkEmailRequest.BulkEmailRecipient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RecipientStreamReader Testleri")
+class RecipientStreamReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("CSV alıcı sütunları alanlara, diğer sütunlar şablon değişkenlerine okunur")
+    void csv_mapsRecipientColumnsAndVariables() throws IOException {
+        RecipientStreamReader reader = open("text/csv", "\uFEFFemail,Name,plan\r\n"
+                + "a@example.com,\"Doe, Jane\",gold\r\n"
+                + "\r\n"
+                + "b@example.com,\"Say \"\"hi\"\"\nthere\",silver\n");
+
+        BulkEmailRecipient first = reader.next();
+        assertEquals("a@example.com", first.getEmail());
+        assertEquals("Doe, Jane", first.getName());
+        assertEquals("gold", first.getTemplateVariables().get("plan"));
+        assertFalse(first.getTemplateVariables().containsKey("Name"));
+
+        BulkEmailRecipient second = reader.next();
+        assertEquals("Say \"hi\"\nthere", second.getName());
+        assertEquals("silver", second.getTemplateVariables().get("plan"));
+        assertEquals(2, reader.getRecordNumber());
+
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Hatalı CSV kaydı atlanır, sonraki kayıtlar okunmaya devam eder")
+    void csv_malformedRecord_isSkipped() throws IOException {
+        RecipientStreamReader reader = open("text/csv", "email,name\n"
+                + "a@example.com\n"
+                + "\"b@example.com\"x,B\n"
+                + "c@example.com,C\n");
+
+        assertThrows(RecipientStreamReader.MalformedRecordException.class, reader::next);
+        assertEquals(1, reader.getRecordNumber());
+        assertThrows(RecipientStreamReader.MalformedRecordException.class, reader::next);
+        assertEquals("c@example.com", reader.next().getEmail());
+        assertEquals(3, reader.getRecordNumber());
+    }
+
+    @Test
+    @DisplayName("E-posta sütunu olmayan CSV reddedilir")
+    void csv_withoutEmailColumn_isRejected() {
+        RecipientStreamReader reader = open("text/csv", "name,plan\nJane,gold\n");
+
+        assertThrows(InvalidRecipientStreamException.class, reader::next);
+    }
+
+    @Test
+    @DisplayName("NDJSON her satırı bir alıcı olarak okur, hatalı satır sonrakileri etkilemez")
+    void ndjson_readsOneRecipientPerLine() throws IOException {
+        RecipientStreamReader reader = open("application/x-ndjson", "{\"email\":\"a@example.com\",\"templateVariables\":{\"plan\":\"gold\"}}\n"
+                + "\n"
+                + "{not json}\n"
+                + "{\"email\":\"b@example.com\",\"name\":\"B\"}");
+
+        BulkEmailRecipient first = reader.next();
+        assertEquals("a@example.com", first.getEmail());
+        assertEquals("gold", first.getTemplateVariables().get("plan"));
+        assertThrows(RecipientStreamReader.MalformedRecordException.class, reader::next);
+        assertEquals("B", reader.next().getName());
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Desteklenmeyen içerik türü reddedilir")
+    void unsupportedContentType_isRejected() {
+        assertThrows(InvalidRecipientStreamException.class, () -> open("application/json", "[]"));
+    }
+
+    private RecipientStreamReader open(String contentType, String body) {
+        return RecipientStreamReader.open(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                MediaType.parseMediaType(contentType), objectMapper);
+    }
+}
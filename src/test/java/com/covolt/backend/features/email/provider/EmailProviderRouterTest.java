@@ -0,0 +1,227 @@
+package com.covolt.backend.features.email.provider;
+
+import com.covolt.backend.features.email.config.EmailConfig;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EmailProviderRouter Testleri")
+class EmailProviderRouterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    private EmailConfig.Provider settings;
+    private FakeProvider primary;
+    private FakeProvider fallback;
+    private EmailProviderRouter router;
+
+    @BeforeEach
+    void setUp() {
+        settings = new EmailConfig.Provider();
+        settings.setPrimary("primary");
+        settings.setFallback("fallback");
+        settings.setWindowSize(10);
+        settings.setMinimumCalls(5);
+        settings.setFailureRateThreshold(0.5);
+        settings.setSlowCallThresholdMs(1000);
+        settings.setOpenDurationMs(30_000);
+        settings.setHalfOpenProbes(2);
+
+        primary = new FakeProvider("primary");
+        fallback = new FakeProvider("fallback");
+        router = new EmailProviderRouter(List.of(primary, fallback), settings, clock::get);
+    }
+
+    @Test
+    @DisplayName("Sağlıklı birincil sağlayıcı tüm gönderimleri alır")
+    void healthyPrimary_receivesAllSends() {
+        for (int i = 0; i < 20; i++) {
+            router.send(message());
+        }
+
+        assertEquals(20, primary.sent);
+        assertEquals(0, fallback.sent);
+        assertEquals("primary", router.getActiveProvider());
+    }
+
+    @Test
+    @DisplayName("Hata oranı eşiği aşılınca trafik yedek sağlayıcıya geçer")
+    void failureRateAboveThreshold_movesTrafficToFallback() {
+        primary.failure = new MailSendException("Connection refused");
+        for (int i = 0; i < 5; i++) {
+            assertThrows(MailException.class, () -> router.send(message()));
+        }
+
+        router.send(message());
+
+        assertEquals(1, fallback.sent);
+        assertEquals("fallback", router.getActiveProvider());
+    }
+
+    @Test
+    @DisplayName("p99 gecikmesi eşiği aşılınca trafik yedek sağlayıcıya geçer")
+    void slowPrimary_movesTrafficToFallback() {
+        primary.latencyMs = 1500;
+        for (int i = 0; i < 5; i++) {
+            router.send(message());
+        }
+
+        router.send(message());
+
+        assertEquals(5, primary.sent);
+        assertEquals(1, fallback.sent);
+    }
+
+    @Test
+    @DisplayName("Birincil sağlayıcı düzelince trafik ona geri döner")
+    void recoveredPrimary_receivesTrafficAgain() {
+        primary.failure = sendFailed(421, "421 Service not available");
+        for (int i = 0; i < 5; i++) {
+            assertThrows(MailException.class, () -> router.send(message()));
+        }
+        primary.failure = null;
+
+        clock.addAndGet(settings.getOpenDurationMs());
+        router.send(message());
+        router.send(message());
+        router.send(message());
+
+        assertEquals(3, primary.sent);
+        assertEquals(0, fallback.sent);
+        assertEquals("primary", router.getActiveProvider());
+    }
+
+    @Test
+    @DisplayName("Deneme gönderimi başarısız olursa devre yeniden açılır")
+    void failedProbe_reopensCircuit() {
+        primary.failure = new MailSendException("Connection refused");
+        for (int i = 0; i < 5; i++) {
+            assertThrows(MailException.class, () -> router.send(message()));
+        }
+
+        clock.addAndGet(settings.getOpenDurationMs());
+        assertThrows(MailException.class, () -> router.send(message()));
+        router.send(message());
+
+        assertEquals(1, fallback.sent);
+        assertEquals("fallback", router.getActiveProvider());
+    }
+
+    @Test
+    @DisplayName("Alıcı hataları sağlayıcının devresini açmaz")
+    void recipientErrors_doNotOpenCircuit() throws Exception {
+        primary.failure = new MailSendException("Recipient rejected",
+                new SMTPAddressFailedException(new InternetAddress("nobody@example.com"), "RCPT TO", 550, "550 No such user"));
+        for (int i = 0; i < 10; i++) {
+            assertThrows(MailException.class, () -> router.send(message()));
+        }
+
+        assertEquals("primary", router.getActiveProvider());
+    }
+
+    @Test
+    @DisplayName("Tüm devreler açıkken gönderim hemen başarısız olur")
+    void allCircuitsOpen_failsFast() {
+        primary.failure = new MailSendException("Connection refused");
+        fallback.failure = new MailSendException("Connection refused");
+        for (int i = 0; i < 10; i++) {
+            assertThrows(MailException.class, () -> router.send(message()));
+        }
+        int attempts = primary.attempts + fallback.attempts;
+
+        assertThrows(MailSendException.class, () -> router.send(message()));
+
+        assertEquals(attempts, primary.attempts + fallback.attempts);
+        assertNull(router.getActiveProvider());
+    }
+
+    @Test
+    @DisplayName("Bilinmeyen sağlayıcı adı başlangıçta reddedilir")
+    void unknownProvider_isRejected() {
+        settings.setFallback("sendgrid");
+
+        assertThrows(IllegalStateException.class,
+                () -> new EmailProviderRouter(List.of(primary, fallback), settings, clock::get));
+    }
+
+    @Test
+    @DisplayName("Boşta bağlantı temizliği ve kapatma tüm sağlayıcılara ulaşır")
+    void evictionAndDestroy_reachEveryProvider() {
+        FakeProvider unrouted = new FakeProvider("unrouted");
+        router = new EmailProviderRouter(List.of(primary, fallback, unrouted), settings, clock::get);
+
+        router.evictIdleConnections();
+        router.destroy();
+
+        for (FakeProvider provider : List.of(primary, fallback, unrouted)) {
+            assertEquals(1, provider.evictions);
+            assertTrue(provider.closed);
+        }
+    }
+
+    private static MimeMessage message() {
+        return new MimeMessage(Session.getInstance(new Properties()));
+    }
+
+    private static MailSendException sendFailed(int returnCode, String reply) {
+        return new MailSendException("Send failed", new SMTPSendFailedException("DATA", returnCode, reply, null, null, null, null));
+    }
+
+    private final class FakeProvider implements EmailProvider {
+
+        private final String name;
+        private RuntimeException failure;
+        private long latencyMs;
+        private int attempts;
+        private int sent;
+        private int evictions;
+        private boolean closed;
+
+        private FakeProvider(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public MimeMessage createMimeMessage() {
+            return message();
+        }
+
+        @Override
+        public void send(MimeMessage... messages) {
+            attempts++;
+            clock.addAndGet(latencyMs * messages.length);
+            if (failure != null) {
+                throw failure;
+            }
+            sent += messages.length;
+        }
+
+        @Override
+        public void evictIdleConnections() {
+            evictions++;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.covolt.backend.features.email.service;
+
+import com.covolt.backend.core.repository.BulkEmailLogRepository;
+import com.covolt.backend.core.repository.EmailLogRepository;
+import com.covolt.backend.features.email.config.EmailConfig;
+import com.covolt.backend.features.email.dto.EmailResponse;
+import com.covolt.backend.features.email.enums.EmailStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("EmailLogStore Testleri")
+class EmailLogStoreTest {
+
+    private static final String EMAIL_ID = "email-1";
+
+    private EmailLogRepository emailLogRepository;
+    private EmailLogStore store;
+
+    @BeforeEach
+    void setUp() {
+        emailLogRepository = mock(EmailLogRepository.class);
+        when(emailLogRepository.findByEmailId(anyString())).thenReturn(Optional.empty());
+        store = new EmailLogStore(emailLogRepository, mock(BulkEmailLogRepository.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new EmailConfig());
+    }
+
+    @Test
+    @DisplayName("Yazılmakta olan kayıt commit'e kadar id ile bulunabilir")
+    void findEmail_duringFlush_shouldSeeInFlightSnapshot() {
+        List<Optional<EmailResponse>> seenDuringWrite = new ArrayList<>();
+        when(emailLogRepository.saveAll(any())).thenAnswer(invocation -> {
+            seenDuringWrite.add(store.findEmail(EMAIL_ID));
+            return List.of();
+        });
+        store.record(response(EmailStatus.SENT), "{}");
+
+        store.flush();
+
+        assertEquals(EmailStatus.SENT, seenDuringWrite.get(0).orElseThrow().getStatus());
+        assertTrue(store.findEmail(EMAIL_ID).isEmpty()); // Commit sonrası yalnızca DB'den okunur
+    }
+
+    @Test
+    @DisplayName("Yazma başarısız olursa kayıt bekleyenlere geri döner")
+    void flush_whenWriteFails_shouldKeepSnapshotPending() {
+        when(emailLogRepository.saveAll(any())).thenThrow(new IllegalStateException("db down"));
+        store.record(response(EmailStatus.SENT), "{}");
+
+        store.flush();
+
+        assertEquals(1, store.pendingCount());
+        assertEquals("{}", store.findPayload(EMAIL_ID).orElseThrow());
+    }
+
+    private static EmailResponse response(EmailStatus status) {
+        return EmailResponse.builder()
+                .emailId(EMAIL_ID)
+                .status(status)
+                .to("user@example.com")
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.covolt.backend.features.email.template;
+
+import com.covolt.backend.features.email.config.EmailConfig;
+import com.covolt.backend.features.email.enums.EmailType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-recipient cost of rendering a bulk email: a full Thymeleaf render ({@link EmailTemplateRenderer#render})
+ * against filling the {@link EmailTemplateRenderer.BulkTemplate} skeleton prepared once for the job.
+ * Uses the welcome template with cached parsing, as in production.
+ * <p>
+ * Not a test class (surefire does not run it). To run:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.covolt.backend.features.email.template.EmailTemplateRenderBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailTemplateRenderBenchmark {
+
+    private static final int RECIPIENTS = 1024;
+    private static final String TEMPLATE = EmailType.WELCOME.getTemplatePath();
+
+    private EmailTemplateRenderer renderer;
+    private EmailTemplateRenderer.BulkTemplate bulkTemplate;
+    private Map<String, Object>[] recipients;
+    private int next;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        renderer = new EmailTemplateRenderer(new EmailConfig());
+        recipients = new Map[RECIPIENTS];
+        for (int i = 0; i < RECIPIENTS; i++) {
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("fullName", "Kullanıcı " + i);
+            variables.put("email", "user" + i + "@example.com");
+            variables.put("temporaryPassword", "Tmp-" + i + "-<&>");
+            recipients[i] = variables;
+        }
+
+        bulkTemplate = renderer.prepareBulk(TEMPLATE, Map.of(), Set.of("fullName", "email", "temporaryPassword"),
+                recipients[0]);
+        if (!bulkTemplate.isSkeleton()) {
+            throw new IllegalStateException("Template " + TEMPLATE + " could not be prepared as a skeleton");
+        }
+    }
+
+    @Benchmark
+    public String fullRender() {
+        return renderer.render(TEMPLATE, nextRecipient());
+    }
+
+    @Benchmark
+    public String skeletonFill() {
+        return bulkTemplate.render(nextRecipient());
+    }
+
+    private Map<String, Object> nextRecipient() {
+        next = (next + 1) & (RECIPIENTS - 1);
+        return recipients[next];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmailTemplateRenderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,107 @@
+package com.covolt.backend.features.email.transport;
+
+import com.covolt.backend.features.email.config.EmailConfig;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pooled and plain SMTP sending against a local GreenMail server.
+ * <p>
+ * {@code plain} is {@link JavaMailSenderImpl} (connect and handshake per call), {@code pooled} is
+ * {@link PooledJavaMailSender} with NOOP validation on every reuse ({@code validate-after-idle-ms=0}), so the
+ * measured gain is net of the validation round trip. Against a real relay the difference is larger because
+ * STARTTLS and AUTH are skipped as well. Received messages are purged between iterations.
+ * <p>
+ * Not a test class (surefire does not run it). To run:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.covolt.backend.features.email.transport.MailSendBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MailSendBenchmark {
+
+    @Param({"plain", "pooled"})
+    private String sender;
+
+    private GreenMail greenMail;
+    private JavaMailSenderImpl mailSender;
+
+    @Setup
+    public void setUp() {
+        greenMail = new GreenMail(ServerSetupTest.SMTP);
+        greenMail.start();
+
+        if ("pooled".equals(sender)) {
+            EmailConfig.Transport settings = new EmailConfig.Transport();
+            settings.setValidateAfterIdleMs(0);
+            mailSender = new PooledJavaMailSender(settings);
+        } else {
+            mailSender = new JavaMailSenderImpl();
+        }
+        mailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        mailSender.setDefaultEncoding("UTF-8");
+    }
+
+    @TearDown(Level.Iteration)
+    public void purge() throws Exception {
+        greenMail.purgeEmailFromAllMailboxes();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (mailSender instanceof PooledJavaMailSender pooled) {
+            pooled.destroy();
+        }
+        greenMail.stop();
+    }
+
+    @Benchmark
+    public void sendOne() throws MessagingException {
+        mailSender.send(message());
+    }
+
+    private MimeMessage message() throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setFrom("noreply@covolt.test");
+        helper.setTo("user@covolt.test");
+        helper.setSubject("Benchmark");
+        helper.setText("<p>Benchmark</p>", true);
+        return message;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MailSendBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,120 @@
+package com.covolt.backend.features.email.transport;
+
+import com.covolt.backend.features.email.config.EmailConfig;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PooledJavaMailSender Testleri")
+class PooledJavaMailSenderTest {
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private PooledJavaMailSender sender;
+
+    @AfterEach
+    void tearDown() {
+        if (sender != null) {
+            sender.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Toplu gönderim tek bağlantı açar ve düz JavaMailSenderImpl ile aynı mesajları teslim eder")
+    void send_batch_shouldDeliverSameMessagesAsPlainSenderOverOneConnection() throws Exception {
+        JavaMailSenderImpl plain = configure(new JavaMailSenderImpl());
+        plain.send(messages(plain, "plain", 5));
+        assertEquals(5, greenMail.getReceivedMessages().length);
+
+        sender = configure(new PooledJavaMailSender(transportSettings()));
+        sender.send(messages(sender, "pooled", 5));
+        sender.send(messages(sender, "pooled-next", 1));
+
+        assertEquals(11, greenMail.getReceivedMessages().length);
+        Map<String, Object> status = sender.getPoolStatus();
+        assertEquals(1L, status.get("connectionsCreated"));
+        assertEquals(1L, status.get("connectionsReused"));
+        assertEquals(1, status.get("idleConnections"));
+    }
+
+    @Test
+    @DisplayName("Sunucunun kapattığı bağlantı NOOP kontrolünde fark edilir ve yenisi açılır")
+    void send_whenIdleConnectionDroppedByServer_shouldValidateWithNoopAndReconnect() throws Exception {
+        EmailConfig.Transport settings = transportSettings();
+        settings.setValidateAfterIdleMs(0); // Her yeniden kullanımda NOOP
+        sender = configure(new PooledJavaMailSender(settings));
+
+        sender.send(messages(sender, "first", 1));
+        sender.send(messages(sender, "second", 1)); // Sağlıklı bağlantı NOOP'tan geçer
+        assertEquals(1L, sender.getPoolStatus().get("connectionsCreated"));
+
+        greenMail.reset(); // Sunucu yeniden başlar, havuzdaki bağlantı kopar
+        sender.send(messages(sender, "after-restart", 1));
+
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        Map<String, Object> status = sender.getPoolStatus();
+        assertEquals(2L, status.get("connectionsCreated"));
+        assertEquals(1L, status.get("connectionsDiscarded"));
+    }
+
+    @Test
+    @DisplayName("Boşta bekleme süresini aşan bağlantılar periyodik temizlikte kapatılır")
+    void evictIdleConnections_shouldCloseConnectionsIdleLongerThanMaxIdle() throws Exception {
+        EmailConfig.Transport settings = transportSettings();
+        settings.setMaxIdleMs(10);
+        sender = configure(new PooledJavaMailSender(settings));
+
+        sender.send(messages(sender, "first", 1));
+        sender.evictIdleConnections();
+        assertEquals(1, sender.getPoolStatus().get("idleConnections")); // Henüz süresi dolmadı
+
+        Thread.sleep(50);
+        sender.evictIdleConnections();
+        assertEquals(0, sender.getPoolStatus().get("idleConnections"));
+        assertEquals(1L, sender.getPoolStatus().get("connectionsDiscarded"));
+
+        sender.send(messages(sender, "second", 1));
+        assertEquals(2L, sender.getPoolStatus().get("connectionsCreated"));
+        assertEquals(2, greenMail.getReceivedMessages().length);
+    }
+
+    private static EmailConfig.Transport transportSettings() {
+        EmailConfig.Transport settings = new EmailConfig.Transport();
+        settings.setMaxConnections(2);
+        settings.setBorrowTimeoutMs(1000);
+        settings.setValidateAfterIdleMs(60_000);
+        return settings;
+    }
+
+    private static <T extends JavaMailSenderImpl> T configure(T sender) {
+        sender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        sender.setPort(ServerSetupTest.SMTP.getPort());
+        sender.setDefaultEncoding("UTF-8");
+        return sender;
+    }
+
+    private static MimeMessage[] messages(JavaMailSenderImpl sender, String subject, int count) throws MessagingException {
+        MimeMessage[] messages = new MimeMessage[count];
+        for (int i = 0; i < count; i++) {
+            messages[i] = sender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(messages[i], "UTF-8");
+            helper.setFrom("noreply@covolt.test");
+            helper.setTo("user" + i + "@covolt.test");
+            helper.setSubject(subject + " " + i);
+            helper.setText("Test içeriği");
+        }
+        return messages;
+    }
+}
@@ -259,8 +259,34 @@ public class AuthControllerIntegrationTest {
                 .andExpect(jsonPath("$.refreshToken", notNullValue()))
                 .andExpect(jsonPath("$.refreshToken").value(is(org.hamcrest.Matchers.not(refreshToken.getToken())))); // Yeni refresh token farklı olmalı
 
-        // Eski refresh token'ın silindiğini ve yenisinin oluştuğunu DB'den kontrol et
-        assertTrue(refreshTokenRepository.findByToken(refreshToken.getToken()).isEmpty(), "Eski refresh token silinmeliydi.");
+        // Eski refresh token tekrar kullanım tespiti için süresi dolana kadar (kullanılmış olarak) tutulur
+        assertTrue(refreshTokenRepository.findByTokenHash(RefreshToken.hashOf(refreshToken.getToken())).isPresent(), "Eski refresh token tutulmalıydı.");
+    }
+
+    @Test
+    @DisplayName("POST /api/auth/refresh - Kullanılmış Refresh Token Tekrar Sunulursa Oturum İptal Edilir")
+    void refreshToken_whenTokenIsReused_shouldRevokeWholeSession() throws Exception {
+        RefreshToken refreshToken = refreshTokenService.createRefreshToken(testUser.getEmail());
+        RefreshToken otherDevice = refreshTokenService.createRefreshToken(testUser.getEmail());
+        RefreshTokenRequest refreshTokenRequest = new RefreshTokenRequest(refreshToken.getToken());
+
+        MvcResult result = mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refreshTokenRequest)))
+                .andExpect(status().isOk())
+                .andReturn();
+        String rotatedToken = objectMapper.readTree(result.getResponse().getContentAsString()).get("refreshToken").asText();
+
+        // Aynı (artık kullanılmış) token ikinci kez sunuluyor
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refreshTokenRequest)))
+                .andExpect(status().isUnauthorized());
+
+        assertFalse(refreshTokenRepository.findByTokenHash(RefreshToken.hashOf(rotatedToken)).isPresent(),
+                "Aynı oturumda üretilen yeni token da iptal edilmeliydi.");
+        assertTrue(refreshTokenRepository.findByTokenHash(RefreshToken.hashOf(otherDevice.getToken())).isPresent(),
+                "Diğer cihazın oturumu etkilenmemeliydi.");
     }
 
     @Test
@@ -319,7 +345,7 @@ public class AuthControllerIntegrationTest {
                 .andExpect(status().isNoContent()); // HTTP 204 No Content
 
         // Refresh token'ın DB'den silindiğini doğrula
-        assertFalse(refreshTokenRepository.findByToken(refreshToken.getToken()).isPresent(),
+        assertFalse(refreshTokenRepository.findByTokenHash(RefreshToken.hashOf(refreshToken.getToken())).isPresent(),
                 "Refresh token çıkış sonrası silinmeliydi.");
     }
 
@@ -0,0 +1,120 @@
+package com.covolt.backend.modules.authentication.service;
+
+import com.covolt.backend.core.model.Company;
+import com.covolt.backend.core.model.RefreshToken;
+import com.covolt.backend.core.model.User;
+import com.covolt.backend.core.repository.CompanyRepository;
+import com.covolt.backend.core.repository.UserRepository;
+import com.covolt.backend.modules.authentication.dto.AuthResponse;
+import com.covolt.backend.modules.authentication.dto.LoginRequest;
+import com.covolt.backend.modules.authentication.dto.RefreshTokenRequest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("AuthService Login/Refresh Sorgu Sayısı Testleri")
+@Transactional // Her test metodundan sonra işlemleri geri alır
+public class AuthServiceQueryCountTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+    private final String suffix = UUID.randomUUID().toString().substring(0, 8);
+    private final String userEmail = "authqc-" + suffix + "@example.com";
+    private final String userPassword = "Password123!";
+
+    @BeforeEach
+    void setUp() {
+        Company company = companyRepository.save(Company.builder().name("Auth Query Count Company " + suffix).build());
+        user = userRepository.save(User.builder()
+                .email(userEmail)
+                .username("authqc" + suffix)
+                .fullName("Sorgu Testi Kullanıcısı")
+                .password(passwordEncoder.encode(userPassword))
+                .company(company)
+                .enabled(true)
+                .locked(false)
+                .roles(new HashSet<>())
+                .build());
+
+        // Kayıtları DB'ye yaz ve persistence context'i boşalt; aksi halde sorgular birinci seviye önbellekten döner
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("login - Kullanıcı yalnızca kimlik doğrulama sırasında bir kez yüklenir")
+    void login_shouldLoadUserOnce() {
+        AuthResponse response = authService.login(new LoginRequest(userEmail, userPassword));
+        entityManager.flush(); // Refresh token insert'i sayıma dahil olsun
+
+        assertNotNull(response.getAccessToken());
+        assertNotNull(response.getExpiresAt());
+        assertEquals(user.getId(), response.getUserId());
+        assertEquals(userEmail, response.getEmail());
+        assertEquals("Sorgu Testi Kullanıcısı", response.getFullName());
+
+        // 1: kullanıcı + yetkiler + abonelik (projection), 2: refresh token insert
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("refreshToken - Kullanıcı bir kez yüklenir, yanıt principal'dan oluşturulur")
+    void refreshToken_shouldLoadUserOnce() {
+        RefreshToken refreshToken = refreshTokenService.createRefreshToken(userEmail);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        AuthResponse response = authService.refreshToken(new RefreshTokenRequest(refreshToken.getToken()));
+        entityManager.flush();
+
+        assertEquals(user.getId(), response.getUserId());
+        assertEquals(userEmail, response.getEmail());
+        assertEquals("Sorgu Testi Kullanıcısı", response.getFullName());
+
+        // 1: refresh token, 2: kullanıcı + yetkiler + abonelik, 3: eski token'ı işaretleme, 4: yeni token insert
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,92 @@
+package com.covolt.backend.modules.platform_administration.company_management.service;
+
+import com.covolt.backend.core.event.CompanyCreatedEvent;
+import com.covolt.backend.core.event.UserCreatedEvent;
+import com.covolt.backend.core.model.enums.CompanyStatus;
+import com.covolt.backend.core.repository.CompanyRepository;
+import com.covolt.backend.core.repository.CompanySubscriptionRepository;
+import com.covolt.backend.core.repository.UserRepository;
+import com.covolt.backend.core.repository.projection.CompanyStatusCountView;
+import com.covolt.backend.modules.platform_administration.company_management.dto.CompanyStatisticsDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@DisplayName("CompanyStatisticsSnapshot Testleri")
+class CompanyStatisticsSnapshotTest {
+
+    private CompanyRepository companyRepository;
+    private UserRepository userRepository;
+    private CompanyStatisticsSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        companyRepository = mock(CompanyRepository.class);
+        userRepository = mock(UserRepository.class);
+        CompanySubscriptionRepository companySubscriptionRepository = mock(CompanySubscriptionRepository.class);
+        when(companySubscriptionRepository.countGroupedByCompanyAndStatus()).thenReturn(List.of());
+        snapshot = new CompanyStatisticsSnapshot(companyRepository, userRepository, companySubscriptionRepository);
+
+        List<CompanyStatusCountView> initialCounts = List.of(statusCount(CompanyStatus.ACTIVE, 2));
+        when(companyRepository.countGroupedByStatus()).thenReturn(initialCounts);
+        when(userRepository.count()).thenReturn(5L);
+        snapshot.reconcile();
+    }
+
+    @Test
+    @DisplayName("Mutabakat sorguları sürerken gelen olaylar, sorgunun görmediği sayaçlara yeniden uygulanır")
+    void reconcile_whenEventsArriveDuringRead_shouldReplayUnseenEvents() {
+        List<CompanyStatusCountView> statusCounts = List.of(statusCount(CompanyStatus.ACTIVE, 2));
+        when(companyRepository.countGroupedByStatus()).thenAnswer(invocation -> {
+            // Firma sorgusu sonuçları okuduktan sonra commit edilen firma; kullanıcı sayımı bu kullanıcıyı görür
+            snapshot.onCompanyCreated(new CompanyCreatedEvent(UUID.randomUUID(), CompanyStatus.ACTIVE));
+            snapshot.onUserCreated(new UserCreatedEvent(UUID.randomUUID(), null));
+            return statusCounts;
+        });
+        when(userRepository.count()).thenAnswer(invocation -> {
+            // Kullanıcı sayımından sonra commit edilen kullanıcı
+            snapshot.onUserCreated(new UserCreatedEvent(UUID.randomUUID(), null));
+            return 6L;
+        });
+
+        snapshot.reconcile();
+
+        CompanyStatisticsDto statistics = snapshot.getStatistics();
+        assertEquals(3, statistics.getTotalCompanies());
+        assertEquals(3, statistics.getActiveCompanies());
+        assertEquals(7, statistics.getTotalUsers());
+    }
+
+    @Test
+    @DisplayName("Mutabakat dışında gelen olaylar doğrudan sayaçlara uygulanır ve sonraki mutabakatta tekrar sayılmaz")
+    void onEvents_outsideReconcile_shouldApplyOnce() {
+        snapshot.onCompanyCreated(new CompanyCreatedEvent(UUID.randomUUID(), CompanyStatus.PENDING_VERIFICATION));
+        snapshot.onUserCreated(new UserCreatedEvent(UUID.randomUUID(), null));
+        assertEquals(3, snapshot.getStatistics().getTotalCompanies());
+        assertEquals(6, snapshot.getStatistics().getTotalUsers());
+
+        List<CompanyStatusCountView> statusCounts = List.of(
+                statusCount(CompanyStatus.ACTIVE, 2), statusCount(CompanyStatus.PENDING_VERIFICATION, 1));
+        when(companyRepository.countGroupedByStatus()).thenReturn(statusCounts);
+        when(userRepository.count()).thenReturn(6L);
+        snapshot.reconcile();
+
+        CompanyStatisticsDto statistics = snapshot.getStatistics();
+        assertEquals(3, statistics.getTotalCompanies());
+        assertEquals(1, statistics.getPendingVerificationCompanies());
+        assertEquals(6, statistics.getTotalUsers());
+    }
+
+    private static CompanyStatusCountView statusCount(CompanyStatus status, long count) {
+        CompanyStatusCountView view = mock(CompanyStatusCountView.class);
+        when(view.getStatus()).thenReturn(status);
+        when(view.getCompanyCount()).thenReturn(count);
+        return view;
+    }
+}
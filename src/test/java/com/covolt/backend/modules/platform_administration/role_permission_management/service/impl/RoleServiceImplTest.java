@@ -7,6 +7,7 @@ import com.covolt.backend.core.model.Role;
 import com.covolt.backend.core.repository.PermissionRepository;
 import com.covolt.backend.core.repository.RoleRepository;
 import com.covolt.backend.core.repository.UserRepository;
+import com.covolt.backend.core.security.service.PrincipalInvalidationService;
 import com.covolt.backend.modules.platform_administration.role_permission_management.dto.RoleRequestDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -43,6 +44,9 @@ class RoleServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private PrincipalInvalidationService principalInvalidationService;
+
     @InjectMocks
     private RoleServiceImpl roleService;
 